@@ -0,0 +1,60 @@
+package com.example.ecommerce.ecom_backend.analytics.controller;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.DailySalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.ProductSalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.SalesRollupRebuildJobDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.StatusSalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.service.SalesAnalyticsService;
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics/sales") // Admin reporting, answered from the rollup tables
+@RequiresRole("ADMIN")
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public SalesAnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    @GetMapping("/daily") // e.g. /api/analytics/sales/daily?from=2025-01-01&to=2025-01-31
+    public ResponseEntity<List<DailySalesDTO>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.getDailySales(from, to));
+    }
+
+    @GetMapping("/products") // Best sellers by revenue over the range
+    public ResponseEntity<List<ProductSalesDTO>> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(salesAnalyticsService.getTopProducts(from, to, limit));
+    }
+
+    @GetMapping("/statuses") // Orders placed in the range, grouped by their current status
+    public ResponseEntity<List<StatusSalesDTO>> getSalesByStatus(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.getSalesByStatus(from, to));
+    }
+
+    @PostMapping("/rebuild") // Recompute all rollups from order_items, e.g. after a manual data fix; runs in the background
+    public ResponseEntity<SalesRollupRebuildJobDTO> rebuildRollups() {
+        SalesRollupRebuildJobDTO job = salesAnalyticsService.rebuildRollups();
+        return ResponseEntity.accepted().location(URI.create("/api/analytics/sales/rebuilds/" + job.getJobId())).body(job);
+    }
+
+    @GetMapping("/rebuilds/{jobId}")
+    public ResponseEntity<SalesRollupRebuildJobDTO> getRebuildJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(salesAnalyticsService.getRebuildJob(jobId));
+    }
+}
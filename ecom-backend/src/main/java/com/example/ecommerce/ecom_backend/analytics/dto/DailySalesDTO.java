@@ -0,0 +1,18 @@
+package com.example.ecommerce.ecom_backend.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesDTO {
+    private LocalDate date;
+    private long orderCount;
+    private long unitsSold;
+    private BigDecimal revenue;
+}
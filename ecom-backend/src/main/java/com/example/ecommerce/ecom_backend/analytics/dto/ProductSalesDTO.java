@@ -0,0 +1,18 @@
+package com.example.ecommerce.ecom_backend.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesDTO {
+    private Long productId;
+    private String productName; // Null if the product has since been deleted
+    private long orderCount;
+    private long unitsSold;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.ecom_backend.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Orders, units and revenue placed per calendar day (by order date).
+ */
+@Entity
+@Table(name = "sales_daily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    private long orderCount;
+
+    private long unitsSold;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
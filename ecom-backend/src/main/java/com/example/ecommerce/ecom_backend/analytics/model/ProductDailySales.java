@@ -0,0 +1,48 @@
+package com.example.ecommerce.ecom_backend.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Units and revenue per product per day, from the order lines at their purchase price.
+ */
+@Entity
+@Table(name = "sales_product_daily", indexes = {
+        // Per-product trend queries: WHERE product_id = ? AND sales_date BETWEEN ...
+        @Index(name = "idx_sales_product_daily_product", columnList = "product_id, sales_date")
+})
+@IdClass(ProductDailySales.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDailySales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    private long orderCount; // Orders that contained the product
+
+    private long unitsSold;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private Long productId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ecommerce.ecom_backend.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row per order already counted in the sales rollups, with the status it is currently counted under.
+ * This is what makes applying order events idempotent: an order is only added once, and a status change
+ * is only applied if the order is still counted under the previous status.
+ */
+@Entity
+@Table(name = "sales_rollup_orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupOrder {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
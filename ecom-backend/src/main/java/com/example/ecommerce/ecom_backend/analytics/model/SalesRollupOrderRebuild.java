@@ -0,0 +1,34 @@
+package com.example.ecommerce.ecom_backend.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Staging copy of {@link SalesRollupOrder} filled by a rollup rebuild. The live ledger is only replaced from here
+ * in the transaction that swaps in the new rollups, so a rebuild that fails part-way leaves both untouched.
+ */
+@Entity
+@Table(name = "sales_rollup_orders_rebuild")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupOrderRebuild {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
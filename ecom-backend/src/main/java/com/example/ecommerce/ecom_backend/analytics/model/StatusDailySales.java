@@ -0,0 +1,44 @@
+package com.example.ecommerce.ecom_backend.analytics.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Orders placed on a day broken down by their current status. A status change moves the order
+ * (and its amount) from one bucket to another within its original day.
+ */
+@Entity
+@Table(name = "sales_status_daily")
+@IdClass(StatusDailySales.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusDailySales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Id
+    @Column(length = 20)
+    private String status;
+
+    private long orderCount;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate salesDate;
+        private String status;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ecommerce.ecom_backend.analytics.repository;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.DailySalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.model.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily (sales_date, order_count, units_sold, revenue) " +
+            "VALUES (:salesDate, :orders, :units, :revenue) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :orders, units_sold = units_sold + :units, " +
+            "revenue = revenue + :revenue", nativeQuery = true)
+    void increment(@Param("salesDate") LocalDate salesDate, @Param("orders") long orders,
+                   @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    @Query("select new com.example.ecommerce.ecom_backend.analytics.dto.DailySalesDTO(" +
+            "d.salesDate, d.orderCount, d.unitsSold, d.revenue) " +
+            "from DailySales d where d.salesDate between :from and :to order by d.salesDate")
+    List<DailySalesDTO> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily", nativeQuery = true)
+    int deleteAllRows();
+}
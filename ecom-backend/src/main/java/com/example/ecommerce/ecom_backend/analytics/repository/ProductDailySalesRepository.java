@@ -0,0 +1,38 @@
+package com.example.ecommerce.ecom_backend.analytics.repository;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.ProductSalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.model.ProductDailySales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, ProductDailySales.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_product_daily (sales_date, product_id, order_count, units_sold, revenue) " +
+            "VALUES (:salesDate, :productId, :orders, :units, :revenue) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :orders, units_sold = units_sold + :units, " +
+            "revenue = revenue + :revenue", nativeQuery = true)
+    void increment(@Param("salesDate") LocalDate salesDate, @Param("productId") Long productId,
+                   @Param("orders") long orders, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    // Best sellers over a range; the product name is looked up live so renames show up
+    @Query("select new com.example.ecommerce.ecom_backend.analytics.dto.ProductSalesDTO(" +
+            "s.productId, p.name, sum(s.orderCount), sum(s.unitsSold), sum(s.revenue)) " +
+            "from ProductDailySales s left join Product p on p.id = s.productId " +
+            "where s.salesDate between :from and :to " +
+            "group by s.productId, p.name order by sum(s.revenue) desc, s.productId")
+    List<ProductSalesDTO> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_product_daily", nativeQuery = true)
+    int deleteAllRows();
+}
@@ -0,0 +1,48 @@
+package com.example.ecommerce.ecom_backend.analytics.repository;
+
+import com.example.ecommerce.ecom_backend.analytics.model.SalesRollupOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+public interface SalesRollupOrderRepository extends JpaRepository<SalesRollupOrder, Long> {
+
+    // Returns 0 when the order is already counted, i.e. the event is a redelivery
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO sales_rollup_orders (order_id, sales_date, status, total_amount) " +
+            "VALUES (:orderId, :salesDate, :status, :totalAmount)", nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") Long orderId, @Param("salesDate") LocalDate salesDate,
+                       @Param("status") String status, @Param("totalAmount") BigDecimal totalAmount);
+
+    // Compare-and-set on the counted status: 0 rows means the change was already applied (or is stale). Clears the
+    // persistence context so a later findById in the same transaction (a rebuild replaying events) sees the new status
+    @Modifying(clearAutomatically = true)
+    @Query("update SalesRollupOrder r set r.status = :newStatus where r.orderId = :orderId and r.status = :previousStatus")
+    int moveStatus(@Param("orderId") Long orderId, @Param("previousStatus") String previousStatus,
+                   @Param("newStatus") String newStatus);
+
+    // Returns 0 when the order is no longer (or never was) counted
+    @Modifying
+    @Query("delete from SalesRollupOrder r where r.orderId = :orderId")
+    int deleteOrder(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_rollup_orders", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_rollup_orders_rebuild", nativeQuery = true)
+    int deleteRebuildRows();
+
+    // Fills the (emptied) ledger from what a rebuild staged
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_orders (order_id, sales_date, status, total_amount) " +
+            "SELECT order_id, sales_date, status, total_amount FROM sales_rollup_orders_rebuild", nativeQuery = true)
+    int copyRebuildRows();
+}
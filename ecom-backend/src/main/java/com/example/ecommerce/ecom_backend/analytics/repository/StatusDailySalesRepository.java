@@ -0,0 +1,36 @@
+package com.example.ecommerce.ecom_backend.analytics.repository;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.StatusSalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.model.StatusDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface StatusDailySalesRepository extends JpaRepository<StatusDailySales, StatusDailySales.Key> {
+
+    // Negative deltas move an order out of its previous status bucket
+    @Modifying
+    @Query(value = "INSERT INTO sales_status_daily (sales_date, status, order_count, revenue) " +
+            "VALUES (:salesDate, :status, :orders, :revenue) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :orders, revenue = revenue + :revenue",
+            nativeQuery = true)
+    void increment(@Param("salesDate") LocalDate salesDate, @Param("status") String status,
+                   @Param("orders") long orders, @Param("revenue") BigDecimal revenue);
+
+    @Query("select new com.example.ecommerce.ecom_backend.analytics.dto.StatusSalesDTO(" +
+            "s.status, sum(s.orderCount), sum(s.revenue)) " +
+            "from StatusDailySales s where s.salesDate between :from and :to " +
+            "group by s.status having sum(s.orderCount) <> 0 order by s.status") // Skip buckets every order has moved out of
+    List<StatusSalesDTO> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_status_daily", nativeQuery = true)
+    int deleteAllRows();
+}
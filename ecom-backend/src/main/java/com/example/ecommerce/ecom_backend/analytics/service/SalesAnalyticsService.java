@@ -0,0 +1,18 @@
+package com.example.ecommerce.ecom_backend.analytics.service;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.DailySalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.ProductSalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.SalesRollupRebuildJobDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.StatusSalesDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesAnalyticsService {
+    List<DailySalesDTO> getDailySales(LocalDate from, LocalDate to);
+    List<ProductSalesDTO> getTopProducts(LocalDate from, LocalDate to, int limit);
+    List<StatusSalesDTO> getSalesByStatus(LocalDate from, LocalDate to);
+    SalesRollupRebuildJobDTO rebuildRollups();
+
+    SalesRollupRebuildJobDTO getRebuildJob(String jobId);
+}
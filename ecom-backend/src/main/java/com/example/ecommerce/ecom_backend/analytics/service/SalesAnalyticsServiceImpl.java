@@ -0,0 +1,83 @@
+package com.example.ecommerce.ecom_backend.analytics.service;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.DailySalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.ProductSalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.SalesRollupRebuildJobDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.StatusSalesDTO;
+import com.example.ecommerce.ecom_backend.analytics.repository.DailySalesRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.ProductDailySalesRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.StatusDailySalesRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Range queries over the sales rollups. The rollups are fed from the outbox, so figures lag
+ * checkout by the relay interval.
+ */
+@Service
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+    private static final int MAX_RANGE_DAYS = 3660; // ~10 years of daily rows
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    private final DailySalesRepository dailySalesRepository;
+    private final ProductDailySalesRepository productDailySalesRepository;
+    private final StatusDailySalesRepository statusDailySalesRepository;
+    private final SalesRollupUpdater salesRollupUpdater;
+
+    public SalesAnalyticsServiceImpl(DailySalesRepository dailySalesRepository,
+                                     ProductDailySalesRepository productDailySalesRepository,
+                                     StatusDailySalesRepository statusDailySalesRepository,
+                                     SalesRollupUpdater salesRollupUpdater) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.productDailySalesRepository = productDailySalesRepository;
+        this.statusDailySalesRepository = statusDailySalesRepository;
+        this.salesRollupUpdater = salesRollupUpdater;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailySalesDTO> getDailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailySalesRepository.findRange(from, to); // Days without orders are simply absent
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSalesDTO> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        int pageSize = Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        return productDailySalesRepository.findTopProducts(from, to, PageRequest.of(0, pageSize));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StatusSalesDTO> getSalesByStatus(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return statusDailySalesRepository.findRange(from, to);
+    }
+
+    @Override
+    public SalesRollupRebuildJobDTO rebuildRollups() {
+        return salesRollupUpdater.submitRebuild();
+    }
+
+    @Override
+    public SalesRollupRebuildJobDTO getRebuildJob(String jobId) {
+        return salesRollupUpdater.getRebuildJob(jobId);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
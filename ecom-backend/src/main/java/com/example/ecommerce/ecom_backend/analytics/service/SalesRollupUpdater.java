@@ -0,0 +1,462 @@
+package com.example.ecommerce.ecom_backend.analytics.service;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.SalesRollupRebuildJobDTO;
+import com.example.ecommerce.ecom_backend.analytics.dto.SalesRollupRebuildJobDTO.State;
+import com.example.ecommerce.ecom_backend.analytics.model.ProductDailySales;
+import com.example.ecommerce.ecom_backend.analytics.model.SalesRollupOrder;
+import com.example.ecommerce.ecom_backend.analytics.model.StatusDailySales;
+import com.example.ecommerce.ecom_backend.analytics.repository.DailySalesRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.ProductDailySalesRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.SalesRollupOrderRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.StatusDailySalesRepository;
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventListener;
+import com.example.ecommerce.ecom_backend.order.event.OrderPlacedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderStatusChangedEvent;
+import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains the sales rollup tables: incrementally from order events, or from scratch with {@link #submitRebuild()}.
+ *
+ * Events are applied through the {@code sales_rollup_orders} ledger so redelivered events are no-ops; a deleted
+ * order leaves the ledger and is subtracted again.
+ * Events keep flowing while a rebuild reads the orders: they are applied to the live tables as usual and also
+ * remembered, then replayed onto the rebuilt tables in the swap transaction. Replaying is safe for the same reason
+ * redelivery is, so an event whose change the rebuild already read is a no-op. Only the swap excludes events (the
+ * write side of a lock, events take the read side), so the relay waits for one transaction at most. (The lock and
+ * the replay list are per instance; with several app instances, only trigger rebuilds while a single relay is active.)
+ * Rebuilds run one at a time on a background thread; the newest jobs are kept in memory for status polling.
+ */
+@Component
+public class SalesRollupUpdater implements OrderEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupUpdater.class);
+
+    private static final int MAX_JOBS = 50;
+
+    private static final String INSERT_LEDGER_SQL =
+            "INSERT INTO sales_rollup_orders_rebuild (order_id, sales_date, status, total_amount) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_DAILY_SQL =
+            "INSERT INTO sales_daily (sales_date, order_count, units_sold, revenue) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_DAILY_SQL =
+            "INSERT INTO sales_product_daily (sales_date, product_id, order_count, units_sold, revenue) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_STATUS_DAILY_SQL =
+            "INSERT INTO sales_status_daily (sales_date, status, order_count, revenue) VALUES (?, ?, ?, ?)";
+
+    private final SalesRollupOrderRepository salesRollupOrderRepository;
+    private final DailySalesRepository dailySalesRepository;
+    private final ProductDailySalesRepository productDailySalesRepository;
+    private final StatusDailySalesRepository statusDailySalesRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransactionTemplate;
+
+    private final ReentrantReadWriteLock rollupLock = new ReentrantReadWriteLock();
+    private final ExecutorService rebuildWorker;
+    private final Map<String, Job> jobs = new LinkedHashMap<>(16, 0.75f, false) { // Insertion order: oldest goes first
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+    private Job activeJob; // Guarded by jobs
+    private volatile List<Runnable> replay; // Events applied while a rebuild runs; guarded by itself
+
+    @Value("${analytics.rollup.rebuild-chunk-size:5000}")
+    private int rebuildChunkSize = 5000;
+
+    @Value("${analytics.rollup.rebuild-threads:4}")
+    private int rebuildThreads = 4;
+
+    public SalesRollupUpdater(SalesRollupOrderRepository salesRollupOrderRepository,
+                              DailySalesRepository dailySalesRepository,
+                              ProductDailySalesRepository productDailySalesRepository,
+                              StatusDailySalesRepository statusDailySalesRepository,
+                              OrderRepository orderRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.salesRollupOrderRepository = salesRollupOrderRepository;
+        this.dailySalesRepository = dailySalesRepository;
+        this.productDailySalesRepository = productDailySalesRepository;
+        this.statusDailySalesRepository = statusDailySalesRepository;
+        this.orderRepository = orderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A rebuild chunk reads orders and their items in two queries; both must see the same snapshot
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.rebuildWorker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-rollup-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        apply(() -> applyOrderPlaced(event));
+    }
+
+    @Override
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getPreviousStatus() == null || event.getPreviousStatus().equals(event.getNewStatus())) {
+            return;
+        }
+        apply(() -> applyStatusChange(event));
+    }
+
+    @Override
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        apply(() -> applyOrderDeleted(event));
+    }
+
+    private void apply(Runnable change) {
+        rollupLock.readLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> change.run());
+            List<Runnable> pending = replay;
+            if (pending != null) {
+                synchronized (pending) {
+                    pending.add(change);
+                }
+            }
+        } finally {
+            rollupLock.readLock().unlock();
+        }
+    }
+
+    private void applyOrderPlaced(OrderPlacedEvent event) {
+        LocalDate salesDate = toSalesDate(event.getOrderDate());
+        BigDecimal totalAmount = event.getTotalAmount() == null ? BigDecimal.ZERO : event.getTotalAmount().toBigDecimal();
+        if (salesRollupOrderRepository.insertIfAbsent(event.getOrderId(), salesDate, event.getStatus(), totalAmount) == 0) {
+            return; // Already counted
+        }
+
+        // Merge lines per product first so each rollup row is touched once per order
+        Map<Long, Totals> byProduct = new LinkedHashMap<>();
+        long units = 0;
+        if (event.getItems() != null) {
+            for (OrderPlacedEvent.Item item : event.getItems()) {
+                int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+                units += quantity;
+                byProduct.computeIfAbsent(item.getProductId(), id -> new Totals())
+                        .add(0, quantity, lineRevenue(item, quantity));
+            }
+        }
+
+        dailySalesRepository.increment(salesDate, 1, units, totalAmount);
+        byProduct.forEach((productId, totals) ->
+                productDailySalesRepository.increment(salesDate, productId, 1, totals.units, totals.revenue));
+        statusDailySalesRepository.increment(salesDate, event.getStatus(), 1, totalAmount);
+    }
+
+    private void applyStatusChange(OrderStatusChangedEvent event) {
+        if (salesRollupOrderRepository.moveStatus(event.getOrderId(), event.getPreviousStatus(), event.getNewStatus()) == 0) {
+            return; // Redelivery, or an order the rollups don't know yet (the next rebuild picks it up)
+        }
+        SalesRollupOrder counted = salesRollupOrderRepository.findById(event.getOrderId()).orElseThrow();
+        BigDecimal amount = nonNull(counted.getTotalAmount());
+        statusDailySalesRepository.increment(counted.getSalesDate(), event.getPreviousStatus(), -1, amount.negate());
+        statusDailySalesRepository.increment(counted.getSalesDate(), event.getNewStatus(), 1, amount);
+    }
+
+    // Takes back exactly what was counted: the ledger row has the date, status and total the order was counted with
+    private void applyOrderDeleted(OrderDeletedEvent event) {
+        Optional<SalesRollupOrder> counted = salesRollupOrderRepository.findById(event.getOrderId());
+        if (counted.isEmpty() || salesRollupOrderRepository.deleteOrder(event.getOrderId()) == 0) {
+            return; // Redelivery, or never counted (deleted before a rebuild picked it up)
+        }
+        LocalDate salesDate = counted.get().getSalesDate();
+        BigDecimal amount = nonNull(counted.get().getTotalAmount());
+
+        Map<Long, Totals> byProduct = new LinkedHashMap<>();
+        long units = 0;
+        if (event.getItems() != null) {
+            for (OrderDeletedEvent.Item item : event.getItems()) {
+                int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+                units += quantity;
+                byProduct.computeIfAbsent(item.getProductId(), id -> new Totals())
+                        .add(0, quantity, item.getSubtotal() == null ? BigDecimal.ZERO : item.getSubtotal().toBigDecimal());
+            }
+        }
+
+        dailySalesRepository.increment(salesDate, -1, -units, amount.negate());
+        byProduct.forEach((productId, totals) ->
+                productDailySalesRepository.increment(salesDate, productId, -1, -totals.units, totals.revenue.negate()));
+        statusDailySalesRepository.increment(salesDate, counted.get().getStatus(), -1, amount.negate());
+    }
+
+    /**
+     * Queues a rebuild and returns at once; asking again while one is queued or running returns that job.
+     */
+    public SalesRollupRebuildJobDTO submitRebuild() {
+        synchronized (jobs) {
+            if (activeJob == null) {
+                Job job = new Job(UUID.randomUUID().toString());
+                jobs.put(job.id, job);
+                activeJob = job;
+                rebuildWorker.execute(() -> run(job));
+            }
+            return activeJob.toDto();
+        }
+    }
+
+    public SalesRollupRebuildJobDTO getRebuildJob(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("Sales rollup rebuild job", "id", jobId);
+        }
+        return job.toDto();
+    }
+
+    private void run(Job job) {
+        job.startedAt = LocalDateTime.now();
+        job.state = State.RUNNING;
+        try {
+            rebuild(job);
+            job.finish(State.COMPLETED, null);
+        } catch (RuntimeException ex) {
+            log.error("Sales rollup rebuild failed", ex);
+            job.finish(State.FAILED, ex.getMessage());
+        } finally {
+            synchronized (jobs) {
+                activeJob = null;
+            }
+        }
+    }
+
+    /**
+     * Recomputes every rollup from {@code orders} and {@code order_items}. Order id ranges are read in parallel
+     * into the staging ledger and merged in memory; the ledger and the rollup tables are then replaced together,
+     * with the events applied meanwhile replayed on top, in one transaction. Readers and later events see either
+     * the old or the new state, never a mix.
+     */
+    private void rebuild(Job job) {
+        long startedAt = System.nanoTime();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, rebuildThreads), runnable -> {
+            Thread thread = new Thread(runnable, "sales-rollup-rebuild-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Runnable> pending = new ArrayList<>();
+        replay = pending;
+        try {
+            // Left over by an earlier rebuild that failed
+            transactionTemplate.executeWithoutResult(status -> salesRollupOrderRepository.deleteRebuildRows());
+
+            long maxId = orderRepository.findMaxId();
+            List<Future<ChunkTotals>> chunks = new ArrayList<>();
+            for (long from = 0; from < maxId; from += rebuildChunkSize) {
+                long fromId = from;
+                chunks.add(pool.submit(() -> rebuildChunk(fromId, fromId + rebuildChunkSize)));
+            }
+
+            ChunkTotals totals = new ChunkTotals();
+            for (Future<ChunkTotals> chunk : chunks) {
+                totals.merge(chunk.get());
+            }
+            rollupLock.writeLock().lock(); // Waits for an in-flight event; later ones wait for the swap only
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    salesRollupOrderRepository.deleteAllRows();
+                    salesRollupOrderRepository.copyRebuildRows();
+                    replaceRollups(totals);
+                    synchronized (pending) {
+                        pending.forEach(Runnable::run);
+                    }
+                });
+            } finally {
+                replay = null;
+                rollupLock.writeLock().unlock();
+            }
+            transactionTemplate.executeWithoutResult(status -> salesRollupOrderRepository.deleteRebuildRows());
+
+            job.ordersProcessed = totals.orders;
+            job.chunks = chunks.size();
+            log.info("Rebuilt sales rollups from {} orders in {} chunks ({} ms)", totals.orders, chunks.size(),
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sales rollup rebuild was interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Sales rollup rebuild failed: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            replay = null;
+            pool.shutdownNow();
+        }
+    }
+
+    private ChunkTotals rebuildChunk(long fromId, long toId) {
+        return snapshotTransactionTemplate.execute(status -> {
+            ChunkTotals totals = new ChunkTotals();
+            List<Object[]> ledgerRows = new ArrayList<>();
+
+            jdbcTemplate.query("SELECT id, COALESCE(order_date, created_at) AS placed_at, status, total_amount " +
+                    "FROM orders WHERE id > ? AND id <= ?", rs -> {
+                Timestamp placedAt = rs.getTimestamp("placed_at");
+                LocalDate salesDate = toSalesDate(placedAt == null ? null : placedAt.toLocalDateTime());
+                String orderStatus = rs.getString("status") == null ? "UNKNOWN" : rs.getString("status");
+                BigDecimal totalAmount = nonNull(rs.getBigDecimal("total_amount"));
+
+                ledgerRows.add(new Object[]{rs.getLong("id"), salesDate, orderStatus, totalAmount});
+                totals.orders++;
+                totals.daily.computeIfAbsent(salesDate, d -> new Totals()).add(1, 0, totalAmount);
+                totals.byStatus.computeIfAbsent(new StatusDailySales.Key(salesDate, orderStatus), k -> new Totals())
+                        .add(1, 0, totalAmount);
+            }, fromId, toId);
+
+            jdbcTemplate.query("SELECT CAST(COALESCE(o.order_date, o.created_at) AS DATE) AS sales_date, oi.product_id, " +
+                    "COUNT(DISTINCT oi.order_id) AS order_count, SUM(oi.quantity) AS units, " +
+                    "SUM(COALESCE(oi.subtotal, oi.price_at_purchase * oi.quantity)) AS revenue " +
+                    "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE oi.order_id > ? AND oi.order_id <= ? " +
+                    "GROUP BY CAST(COALESCE(o.order_date, o.created_at) AS DATE), oi.product_id", rs -> {
+                java.sql.Date date = rs.getDate("sales_date");
+                LocalDate salesDate = date == null ? LocalDate.now() : date.toLocalDate();
+                long units = rs.getLong("units");
+                BigDecimal revenue = nonNull(rs.getBigDecimal("revenue"));
+
+                totals.byProduct.computeIfAbsent(new ProductDailySales.Key(salesDate, rs.getLong("product_id")),
+                        k -> new Totals()).add(rs.getLong("order_count"), units, revenue);
+                totals.daily.computeIfAbsent(salesDate, d -> new Totals()).add(0, units, BigDecimal.ZERO);
+            }, fromId, toId);
+
+            if (!ledgerRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LEDGER_SQL, ledgerRows);
+            }
+            return totals;
+        });
+    }
+
+    private void replaceRollups(ChunkTotals totals) {
+        dailySalesRepository.deleteAllRows();
+        productDailySalesRepository.deleteAllRows();
+        statusDailySalesRepository.deleteAllRows();
+
+        List<Object[]> dailyRows = new ArrayList<>(totals.daily.size());
+        totals.daily.forEach((date, t) -> dailyRows.add(new Object[]{date, t.orders, t.units, t.revenue}));
+        List<Object[]> productRows = new ArrayList<>(totals.byProduct.size());
+        totals.byProduct.forEach((key, t) ->
+                productRows.add(new Object[]{key.getSalesDate(), key.getProductId(), t.orders, t.units, t.revenue}));
+        List<Object[]> statusRows = new ArrayList<>(totals.byStatus.size());
+        totals.byStatus.forEach((key, t) ->
+                statusRows.add(new Object[]{key.getSalesDate(), key.getStatus(), t.orders, t.revenue}));
+
+        if (!dailyRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DAILY_SQL, dailyRows);
+        }
+        if (!productRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_DAILY_SQL, productRows);
+        }
+        if (!statusRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STATUS_DAILY_SQL, statusRows);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildWorker.shutdownNow();
+    }
+
+    private static BigDecimal lineRevenue(OrderPlacedEvent.Item item, int quantity) {
+        if (item.getSubtotal() != null) {
+            return item.getSubtotal().toBigDecimal();
+        }
+        return item.getPriceAtPurchase() == null ? BigDecimal.ZERO : item.getPriceAtPurchase().times(quantity).toBigDecimal();
+    }
+
+    private static LocalDate toSalesDate(LocalDateTime orderDate) {
+        return orderDate == null ? LocalDate.now() : orderDate.toLocalDate();
+    }
+
+    private static BigDecimal nonNull(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+
+    private static final class Job {
+        private final String id;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile State state = State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long ordersProcessed;
+        private volatile int chunks;
+        private volatile String error;
+
+        private Job(String id) {
+            this.id = id;
+        }
+
+        // State last, so a poller that sees the job done also sees when and why
+        private void finish(State finalState, String message) {
+            finishedAt = LocalDateTime.now();
+            error = message;
+            state = finalState;
+        }
+
+        private SalesRollupRebuildJobDTO toDto() {
+            return new SalesRollupRebuildJobDTO(id, state, submittedAt, startedAt, finishedAt, ordersProcessed, chunks, error);
+        }
+    }
+
+    // Mutable accumulator; only ever touched by one thread at a time
+    private static final class Totals {
+        private long orders;
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private Totals add(long orders, long units, BigDecimal revenue) {
+            this.orders += orders;
+            this.units += units;
+            this.revenue = this.revenue.add(revenue);
+            return this;
+        }
+    }
+
+    private static final class ChunkTotals {
+        private long orders;
+        private final Map<LocalDate, Totals> daily = new HashMap<>();
+        private final Map<ProductDailySales.Key, Totals> byProduct = new HashMap<>();
+        private final Map<StatusDailySales.Key, Totals> byStatus = new HashMap<>();
+
+        private void merge(ChunkTotals other) {
+            orders += other.orders;
+            other.daily.forEach((key, t) -> daily.computeIfAbsent(key, k -> new Totals()).add(t.orders, t.units, t.revenue));
+            other.byProduct.forEach((key, t) -> byProduct.computeIfAbsent(key, k -> new Totals()).add(t.orders, t.units, t.revenue));
+            other.byStatus.forEach((key, t) -> byStatus.computeIfAbsent(key, k -> new Totals()).add(t.orders, t.units, t.revenue));
+        }
+    }
+}
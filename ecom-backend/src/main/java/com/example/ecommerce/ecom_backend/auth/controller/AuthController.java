@@ -3,12 +3,20 @@ package com.example.ecommerce.ecom_backend.auth.controller;
 
 import com.example.ecommerce.ecom_backend.auth.dto.JwtAuthResponse;
 import com.example.ecommerce.ecom_backend.auth.dto.LoginRequest;
+import com.example.ecommerce.ecom_backend.auth.dto.RefreshTokenRequest;
 import com.example.ecommerce.ecom_backend.auth.dto.UserRegistrationRequest; // Import your DTO
 import com.example.ecommerce.ecom_backend.user.dto.UserResponseDTO;
+import com.example.ecommerce.ecom_backend.auth.refresh.RefreshTokenService;
 import com.example.ecommerce.ecom_backend.auth.security.JwtTokenProvider;
+import com.example.ecommerce.ecom_backend.auth.security.UserPrincipal;
+import com.example.ecommerce.ecom_backend.cart.guest.GuestCartCookies;
+import com.example.ecommerce.ecom_backend.cart.guest.GuestCartService;
 import com.example.ecommerce.ecom_backend.user.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid; // Import for @Valid
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus; // Import for HttpStatus
 import org.springframework.http.ResponseEntity; // Import for ResponseEntity
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,13 +32,21 @@ public class AuthController {
     private final UserService userService; // Use final for constructor injection
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final GuestCartService guestCartService;
+    private final GuestCartCookies guestCartCookies;
+    private final RefreshTokenService refreshTokenService;
 
     // Use constructor injection
     @Autowired
-    public AuthController(UserService userService, AuthenticationManager authenticationManager ,JwtTokenProvider jwtTokenProvider) {
+    public AuthController(UserService userService, AuthenticationManager authenticationManager ,JwtTokenProvider jwtTokenProvider,
+                          GuestCartService guestCartService, GuestCartCookies guestCartCookies,
+                          RefreshTokenService refreshTokenService) {
         this.userService = userService;
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.guestCartService = guestCartService;
+        this.guestCartCookies = guestCartCookies;
+        this.refreshTokenService = refreshTokenService;
 
     }
 
@@ -41,7 +57,8 @@ public class AuthController {
         return new ResponseEntity<>(registeredUser, HttpStatus.CREATED);
     }
     @PostMapping("/login") // Handles POST requests to /api/auth/login
-    public ResponseEntity<JwtAuthResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<JwtAuthResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                            HttpServletRequest request, HttpServletResponse response) {
         // Step 1: Authenticate the user using AuthenticationManager
         // This process uses our CustomUserDetailsService and PasswordEncoder
         Authentication authentication = authenticationManager.authenticate(
@@ -57,11 +74,31 @@ public class AuthController {
         // Step 3: GENERATE THE REAL JWT TOKEN HERE
         String token = jwtTokenProvider.generateToken(authentication); // Use JwtTokenProvider to generate the token
 
-        // Return the JWT in the response
-        JwtAuthResponse jwtAuthResponse = new JwtAuthResponse();
-        jwtAuthResponse.setAccessToken(token); // Set the actual generated token
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+
+        // Step 4: Move a cart filled before logging in into the user's cart, then drop the guest cookie
+        String guestCartId = guestCartCookies.readCartId(request);
+        if (guestCartId != null) {
+            guestCartService.mergeIntoUserCart(guestCartId, principal.getId());
+            response.addHeader(HttpHeaders.SET_COOKIE, guestCartCookies.expiredCookie().toString());
+        }
+
+        // Return the JWT in the response, with a refresh token to renew it once it expires
+        JwtAuthResponse jwtAuthResponse = new JwtAuthResponse(token, jwtTokenProvider.getExpirationSeconds(),
+                refreshTokenService.issue(principal.getId()));
 
         return new ResponseEntity<>(jwtAuthResponse, HttpStatus.OK);
     }
 
+    @PostMapping("/refresh") // Handles POST requests to /api/auth/refresh
+    public ResponseEntity<JwtAuthResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return ResponseEntity.ok(refreshTokenService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout") // Access tokens are not revocable; they simply run out within jwt.expiration
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
 }
\ No newline at end of file
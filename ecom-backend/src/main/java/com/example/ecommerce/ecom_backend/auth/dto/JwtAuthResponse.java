@@ -11,6 +11,8 @@ import lombok.NoArgsConstructor;
 public class JwtAuthResponse {
     private String accessToken;
     private String tokenType = "Bearer"; // Standard token type prefix for JWTs
+    private long expiresIn; // Access token lifetime in seconds; refresh before it runs out
+    private String refreshToken; // Single use: each refresh returns a new one
     // You can add more fields here later if the client needs them immediately after login, e.g.:
     // private Long userId;
     // private String email;
@@ -18,4 +20,10 @@ public class JwtAuthResponse {
     public JwtAuthResponse(String accessToken) {
         this.accessToken = accessToken;
     }
+
+    public JwtAuthResponse(String accessToken, long expiresIn, String refreshToken) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.ecommerce.ecom_backend.auth.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt with the work done on {@link PasswordHashingExecutor} instead of the calling request thread.
+ *
+ * {@link #upgradeEncoding} reports any hash whose cost differs from the configured one, up or down, so Spring
+ * Security re-encodes it on the next successful login (see {@code CustomUserDetailsService.updatePassword}).
+ * That makes {@code auth.password.bcrypt-strength} safe to tune against measured login latency.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+    private final int strength;
+
+    public OffloadingPasswordEncoder(int strength, PasswordHashingExecutor executor) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.executor = executor;
+        this.strength = strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.call(PasswordHashingExecutor.Priority.UPDATE, () -> delegate.encode(rawPassword));
+    }
+
+    // Hashes a batch in parallel on the same pool, behind any login or registration waiting for it
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        return executor.callAll(rawPasswords.stream()
+                .<Callable<String>>map(rawPassword -> () -> delegate.encode(rawPassword))
+                .toList());
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.call(PasswordHashingExecutor.Priority.LOGIN, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword);
+        return cost.find() && Integer.parseInt(cost.group(1)) != strength;
+    }
+}
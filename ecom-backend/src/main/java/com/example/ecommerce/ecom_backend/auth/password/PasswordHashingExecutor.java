@@ -0,0 +1,174 @@
+package com.example.ecommerce.ecom_backend.auth.password;
+
+import com.example.ecommerce.ecom_backend.common.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs bcrypt off the request threads, on a small fixed pool (half the cores unless {@code auth.password.threads}
+ * says otherwise), so a login storm costs at most that many cores and the rest of the API stays responsive.
+ *
+ * At most {@code threads + auth.password.queue-capacity} hashes are admitted; beyond that, and for callers that
+ * waited longer than {@code auth.password.max-wait-ms}, the request fails fast with a 429. Queued logins run
+ * before queued registrations and password changes, and both run before bulk work (see {@link #callAll}).
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    public enum Priority {
+        LOGIN, // Someone is waiting at the login form
+        UPDATE, // Registration, password change, rehash
+        BULK // Admin imports: only uses threads nobody else is waiting for
+    }
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore admitted;
+    private final Semaphore bulkInFlight;
+    private final long maxWaitMs;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordHashingExecutor(@Value("${auth.password.threads:0}") int threads,
+                                   @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+                                   @Value("${auth.password.max-wait-ms:5000}") long maxWaitMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.admitted = new Semaphore(poolSize + queueCapacity);
+        this.bulkInFlight = new Semaphore(poolSize * 2); // Enough to keep every thread busy between submissions
+        this.maxWaitMs = maxWaitMs;
+        AtomicInteger threadCounter = new AtomicInteger();
+        // The queue itself is unbounded; admission above keeps it within queueCapacity
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.prestartAllCoreThreads(); // Every task goes through the priority queue
+    }
+
+    /**
+     * Runs the task on the hashing pool and waits for its result.
+     *
+     * @throws TooManyRequestsException if the pool is saturated or the task could not finish in time
+     */
+    public <T> T call(Priority priority, Callable<T> task) {
+        if (!admitted.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException("Too many sign-in requests right now; try again shortly.", RETRY_AFTER_SECONDS);
+        }
+        PrioritizedTask<T> future = new PrioritizedTask<>(task, priority, sequence.getAndIncrement(), admitted);
+        try {
+            executor.execute(future);
+        } catch (RuntimeException ex) {
+            admitted.release(); // Shut down
+            throw ex;
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(false); // Still queued: it will be skipped. Already hashing: let it finish
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException("Sign-in is taking too long right now; try again shortly.", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        }
+    }
+
+    /**
+     * Runs the tasks on the hashing pool at {@link Priority#BULK} and waits for all results, in task order.
+     *
+     * Only a couple of tasks per thread are queued at a time, so the caller is paced by the pool instead of filling
+     * the queue, and logins that arrive meanwhile still run next. Bulk work is never rejected; it just waits.
+     */
+    public <T> List<T> callAll(List<? extends Callable<T>> tasks) {
+        List<PrioritizedTask<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                bulkInFlight.acquire();
+                PrioritizedTask<T> future = new PrioritizedTask<>(task, Priority.BULK, sequence.getAndIncrement(), bulkInFlight);
+                try {
+                    executor.execute(future);
+                } catch (RuntimeException ex) {
+                    bulkInFlight.release(); // Shut down
+                    throw ex;
+                }
+                futures.add(future);
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (PrioritizedTask<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException ex) {
+            futures.forEach(future -> future.cancel(false));
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            futures.forEach(future -> future.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        }
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class PrioritizedTask<T> extends FutureTask<T> implements Comparable<PrioritizedTask<?>> {
+        private final Priority priority;
+        private final long sequence;
+        private final Semaphore permit; // Given back when the task leaves the queue
+
+        private PrioritizedTask(Callable<T> callable, Priority priority, long sequence, Semaphore permit) {
+            super(callable);
+            this.priority = priority;
+            this.sequence = sequence;
+            this.permit = permit;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run(); // Returns immediately if the caller already gave up
+            } finally {
+                permit.release();
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence); // FIFO within a priority
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.ecommerce.ecom_backend.auth.refresh;
+
+import com.example.ecommerce.ecom_backend.auth.dto.JwtAuthResponse;
+import com.example.ecommerce.ecom_backend.auth.security.CustomUserDetailsService;
+import com.example.ecommerce.ecom_backend.auth.security.JwtTokenProvider;
+import com.example.ecommerce.ecom_backend.common.exception.InvalidRefreshTokenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Issues and rotates refresh tokens: opaque 256-bit random strings, stored only as their SHA-256.
+ * Access tokens stay short-lived ({@code jwt.expiration}) and are checked by signature alone; revoking a refresh
+ * token therefore takes effect within one access token lifetime.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final CustomUserDetailsService userDetailsService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final long ttlDays;
+
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore,
+                               CustomUserDetailsService userDetailsService,
+                               JwtTokenProvider jwtTokenProvider,
+                               @Value("${auth.refresh.ttl-days:14}") long ttlDays) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.userDetailsService = userDetailsService;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.ttlDays = ttlDays;
+    }
+
+    // A login starts a new family
+    @Transactional
+    public String issue(Long userId) {
+        return newToken(userId, RANDOM.nextLong());
+    }
+
+    /**
+     * Trades a refresh token for a new access token and a new refresh token. The old one stops working; using it
+     * again revokes every token of that login.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class) // A revoked family must stay revoked
+    public JwtAuthResponse refresh(String rawToken) {
+        byte[] tokenHash = hash(rawToken);
+        RefreshTokenStore.Entry entry = refreshTokenStore.find(tokenHash);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            throw new InvalidRefreshTokenException("Refresh token is invalid or has expired");
+        }
+        if (entry.rotated() || !refreshTokenStore.markRotated(tokenHash, entry)) {
+            log.warn("Refresh token reused for user {}; revoking its family", entry.userId());
+            refreshTokenStore.revokeFamily(entry.familyId());
+            throw new InvalidRefreshTokenException("Refresh token was already used; please log in again");
+        }
+
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserById(entry.userId()); // Picks up role changes since the last refresh
+        } catch (UsernameNotFoundException ex) {
+            refreshTokenStore.revokeUser(entry.userId());
+            throw new InvalidRefreshTokenException("Refresh token is invalid or has expired");
+        }
+        String accessToken = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        return new JwtAuthResponse(accessToken, jwtTokenProvider.getExpirationSeconds(),
+                newToken(entry.userId(), entry.familyId()));
+    }
+
+    // Logout: ends this login on every device it was refreshed to, other logins are untouched
+    @Transactional
+    public void revoke(String rawToken) {
+        RefreshTokenStore.Entry entry = refreshTokenStore.find(hash(rawToken));
+        if (entry != null) {
+            refreshTokenStore.revokeFamily(entry.familyId());
+        }
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenStore.revokeUser(userId);
+    }
+
+    private String newToken(Long userId, Long familyId) {
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String token = ENCODER.encodeToString(random);
+        refreshTokenStore.save(hash(token), userId, familyId, LocalDateTime.now().plusDays(ttlDays));
+        return token;
+    }
+
+    // No salt needed: the input is already 256 random bits
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
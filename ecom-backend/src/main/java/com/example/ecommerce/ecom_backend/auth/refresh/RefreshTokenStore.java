@@ -0,0 +1,159 @@
+package com.example.ecommerce.ecom_backend.auth.refresh;
+
+import com.example.ecommerce.ecom_backend.common.tx.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Refresh tokens by hash: a write-through cache over {@code refresh_tokens}. Writes go to the table first and reach
+ * memory only once they commit, so a rolled-back refresh leaves its token usable rather than looking reused; reads
+ * are answered from memory and fall back to the table after a restart or an eviction.
+ *
+ * The cache is split into {@code auth.refresh.shards} LRU maps, each behind its own lock and picked by the first
+ * byte of the hash (uniform, being SHA-256), so concurrent refreshes rarely contend. The table stays authoritative
+ * for single use: {@link #markRotated} is a conditional update, which keeps rotation correct across instances.
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenStore.class);
+    private static final Base64.Encoder KEY_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public record Entry(Long userId, Long familyId, long expiresAtMillis, boolean rotated) {
+        public boolean isExpired(long nowMillis) {
+            return expiresAtMillis <= nowMillis;
+        }
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Shard[] shards;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             @Value("${auth.refresh.cache-size:100000}") int cacheSize,
+                             @Value("${auth.refresh.shards:16}") int shardCount) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        int count = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1; // Power of two
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(Math.max(1, cacheSize / count));
+        }
+    }
+
+    public void save(byte[] tokenHash, Long userId, Long familyId, LocalDateTime expiresAt) {
+        refreshTokenRepository.save(new RefreshToken(tokenHash, userId, familyId, expiresAt));
+        Entry entry = new Entry(userId, familyId, toMillis(expiresAt), false);
+        AfterCommit.run(() -> put(tokenHash, entry));
+    }
+
+    /**
+     * @return the token's entry, or null if no such token exists (never issued, revoked or purged)
+     */
+    public Entry find(byte[] tokenHash) {
+        Shard shard = shardFor(tokenHash);
+        String key = key(tokenHash);
+        Entry entry;
+        synchronized (shard) {
+            entry = shard.get(key);
+        }
+        if (entry != null) {
+            return entry;
+        }
+        // Misses are not cached: a flood of made-up tokens would only evict real ones
+        return refreshTokenRepository.findByTokenHash(tokenHash)
+                .map(token -> put(tokenHash, new Entry(token.getUserId(), token.getFamilyId(),
+                        toMillis(token.getExpiresAt()), token.getRotatedAt() != null)))
+                .orElse(null);
+    }
+
+    /**
+     * Marks the token used.
+     *
+     * @return false if it was already used or no longer exists, here or on another instance
+     */
+    public boolean markRotated(byte[] tokenHash, Entry entry) {
+        boolean won = refreshTokenRepository.markRotated(tokenHash, LocalDateTime.now()) == 1;
+        if (won) {
+            // Until then a concurrent refresh still sees it unused, and waits for our row lock in the update above
+            AfterCommit.run(() -> put(tokenHash,
+                    new Entry(entry.userId(), entry.familyId(), entry.expiresAtMillis(), true)));
+        } else {
+            Shard shard = shardFor(tokenHash);
+            synchronized (shard) {
+                shard.remove(key(tokenHash)); // Stale; the next lookup rereads the table
+            }
+        }
+        return won;
+    }
+
+    public void revokeFamily(Long familyId) {
+        refreshTokenRepository.deleteByFamilyId(familyId);
+        removeIf(entry -> entry.familyId().equals(familyId));
+    }
+
+    public void revokeUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+        removeIf(entry -> entry.userId().equals(userId));
+    }
+
+    @Scheduled(cron = "${auth.refresh.purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        long now = System.currentTimeMillis();
+        removeIf(entry -> entry.isExpired(now));
+        log.info("Purged {} expired refresh tokens", purged);
+    }
+
+    private Entry put(byte[] tokenHash, Entry entry) {
+        Shard shard = shardFor(tokenHash);
+        synchronized (shard) {
+            shard.put(key(tokenHash), entry);
+        }
+        return entry;
+    }
+
+    private void removeIf(Predicate<Entry> condition) {
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.values().removeIf(condition);
+            }
+        }
+    }
+
+    private Shard shardFor(byte[] tokenHash) {
+        return shards[tokenHash[0] & (shards.length - 1)];
+    }
+
+    private static String key(byte[] tokenHash) {
+        return KEY_ENCODER.encodeToString(tokenHash);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Shard extends LinkedHashMap<String, Entry> {
+        private final int maxEntries;
+
+        private Shard(int maxEntries) {
+            super(16, 0.75f, true); // access order = LRU
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ecommerce.ecom_backend.auth.security;
+
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the authenticated user for the current request.
+ */
+@Component
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+
+    public CurrentUserResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Long getCurrentUserId() {
+        Authentication authentication = getAuthentication();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId(); // Set by the JWT filter, no query needed
+        }
+        // Other authentication types (e.g. mock users in tests) only carry the email
+        String email = authentication.getName();
+        return userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+    }
+
+    public String getCurrentUserEmail() {
+        return getAuthentication().getName();
+    }
+
+    private Authentication getAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user");
+        }
+        return authentication;
+    }
+}
@@ -1,21 +1,24 @@
 // src/main/java/com/example/ecommerce/ecom_backend/security/CustomUserDetailsService.java
 package com.example.ecommerce.ecom_backend.auth.security;
 
-import com.example.ecommerce.ecom_backend.user.model.User; // Your User entity
 import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service // Marks this class as a Spring Service component
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -28,22 +31,49 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         // Step 1: Find the user in your database by email
-        // We use 'email' as the username for login
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        // We use 'email' as the username for login. Credentials and roles come back in a single query
+        List<UserRepository.CredentialsRow> rows = userRepository.findCredentialsByEmail(email);
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return toPrincipal(rows);
+    }
+
+    // Refreshing an access token knows the user id, not the email
+    public UserDetails loadUserById(Long id) throws UsernameNotFoundException {
+        List<UserRepository.CredentialsRow> rows = userRepository.findCredentialsById(id);
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("User not found with id: " + id);
+        }
+        return toPrincipal(rows);
+    }
+
+    private static UserPrincipal toPrincipal(List<UserRepository.CredentialsRow> rows) {
+        UserRepository.CredentialsRow user = rows.get(0);
 
         // Step 2: Convert your User's roles into Spring Security's GrantedAuthority objects
         // Spring Security expects roles to be prefixed with "ROLE_" (e.g., "ROLE_ADMIN", "ROLE_USER")
-        Set<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName())) // Assuming Role has a getName() method
+        Set<GrantedAuthority> authorities = rows.stream()
+                .map(UserRepository.CredentialsRow::getRoleName)
+                .filter(Objects::nonNull) // A user without roles still yields one row from the left join
+                .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toSet());
 
-        // Step 3: Return Spring Security's User object
-        // This UserDetails object contains the necessary info for Spring Security to perform authentication
-        return new org.springframework.security.core.userdetails.User(
+        // Step 3: Return the principal; it keeps the user id so services don't look the user up again
+        return new UserPrincipal(
+                user.getId(),
                 user.getEmail(),          // The username (email) used for authentication
                 user.getPassword(),       // The hashed password stored in your database
                 authorities               // The user's authorities/roles
         );
     }
+
+    // Called by DaoAuthenticationProvider after a successful login whose hash used a different bcrypt cost
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        Long id = user instanceof UserPrincipal principal ? principal.getId() : null;
+        return new UserPrincipal(id, user.getUsername(), newPassword, user.getAuthorities());
+    }
 }
\ No newline at end of file
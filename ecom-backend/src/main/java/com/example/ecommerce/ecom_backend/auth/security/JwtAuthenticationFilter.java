@@ -1,12 +1,16 @@
 // src/main/java/com/example/ecommerce/ecom_backend/security/JwtAuthenticationFilter.java
 package com.example.ecommerce.ecom_backend.auth.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,10 +19,15 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter; // Import this
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component // Make this a Spring component
 public class JwtAuthenticationFilter extends OncePerRequestFilter { // Extend OncePerRequestFilter
 
+    // permitAll routes that never look at the caller (see SecurityConfig); a token sent there isn't even parsed
+    private static final String[] PUBLIC_PREFIXES = {"/api/auth/", "/api/payments/", "/api/stripe/webhook"};
+
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
 
@@ -29,6 +38,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter { // Extend On
         this.customUserDetailsService = customUserDetailsService;
     }
 
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true; // CORS preflight
+        }
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath().length();
+        for (String prefix : PUBLIC_PREFIXES) {
+            if (uri.startsWith(prefix, offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -37,13 +61,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter { // Extend On
         // 1. Get JWT token from HTTP request header
         String token = getTokenFromRequest(request);
 
-        // 2. Validate token and load user details if token is valid
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            // Get username from token
-            String username = jwtTokenProvider.getUsernameFromJwt(token);
-
-            // Load user associated with token
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+        // 2. Validate token (one parse) and build the user from its claims
+        Claims claims = StringUtils.hasText(token) ? jwtTokenProvider.parseValidClaims(token) : null;
+        if (claims != null) {
+            UserDetails userDetails = principalFrom(claims);
 
             // Create Authentication object
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
@@ -61,6 +82,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter { // Extend On
         filterChain.doFilter(request, response);
     }
 
+    // The signature vouches for id and roles, so no query; role changes apply from the next refresh
+    private UserDetails principalFrom(Claims claims) {
+        Object userId = claims.get(JwtTokenProvider.USER_ID_CLAIM);
+        Object roles = claims.get(JwtTokenProvider.ROLES_CLAIM);
+        if (!(userId instanceof Number id) || !(roles instanceof List<?> roleNames)) {
+            // Issued before tokens carried the user id
+            return customUserDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roleNames.size());
+        for (Object role : roleNames) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        return new UserPrincipal(id.longValue(), claims.getSubject(), "", authorities); // No password in a token
+    }
+
     // Helper method to extract JWT token from request header
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization"); // Get the "Authorization" header
@@ -7,6 +7,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
 
 import java.security.Key;
 import java.util.Date;
@@ -16,14 +17,26 @@ import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
-    @Value("${jwt.expiration}")
+    @Value("${jwt.expiration:900000}") // Short-lived; clients renew through /api/auth/refresh
     private long EXPIRATION_TIME;
 
+    private Key signInKey; // Derived once; the filter parses a token on every authenticated request
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
+
     private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signInKey;
     }
 
     public String generateToken(Authentication authentication) {
@@ -37,9 +50,13 @@ public class JwtTokenProvider {
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + EXPIRATION_TIME);
 
-        String token = Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
-                .claim("roles", roles) // ADDING THE CUSTOM "roles" CLAIM HERE
+                .claim(ROLES_CLAIM, roles); // ADDING THE CUSTOM "roles" CLAIM HERE
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            builder.claim(USER_ID_CLAIM, principal.getId()); // Lets the filter build the principal without a query
+        }
+        String token = builder
                 .setIssuedAt(new Date())
                 .setExpiration(expireDate)
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256)
@@ -48,6 +65,10 @@ public class JwtTokenProvider {
         return token;
     }
 
+    public long getExpirationSeconds() {
+        return EXPIRATION_TIME / 1000;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -55,11 +76,7 @@ public class JwtTokenProvider {
 
     // Helper method to extract all claims from the token
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
     // Method to get username (email) from JWT token - NOW USING HELPER
     public String getUsernameFromJwt(String token) {
@@ -68,10 +85,14 @@ public class JwtTokenProvider {
 
     // Method to validate JWT token
     public boolean validateToken(String token) {
+        return parseValidClaims(token) != null;
+    }
+
+    // Validates and reads the token in one parse; null if it is invalid or expired
+    public Claims parseValidClaims(String token) {
         try {
             // Using extractAllClaims will also validate the token (signature, expiration)
-            extractAllClaims(token);
-            return true;
+            return extractAllClaims(token);
         } catch (SignatureException ex) {
             System.out.println("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -83,6 +104,6 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             System.out.println("JWT claims string is empty");
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,20 @@
+package com.example.ecommerce.ecom_backend.auth.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits a controller method, or every method of a controller, to callers holding any of the given roles
+ * ("ADMIN" means authority "ROLE_ADMIN"). Same meaning as {@code @PreAuthorize("hasAnyRole(...)")}, but checked by
+ * {@link RequiresRoleAuthorizationManager} as a set lookup instead of a SpEL evaluation per call.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresRole {
+
+    String[] value();
+}
@@ -0,0 +1,66 @@
+package com.example.ecommerce.ecom_backend.auth.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Checks {@link RequiresRole}. The required authorities are resolved once per method and kept as a set, so a call
+ * costs a map lookup plus one {@code contains} per authority the caller holds.
+ */
+public class RequiresRoleAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final ConcurrentHashMap<Method, Set<String>> requiredAuthorities = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Set<String> required = requiredAuthorities.computeIfAbsent(invocation.getMethod(),
+                method -> resolve(method, invocation.getThis()));
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated()) {
+            return DENIED;
+        }
+        for (GrantedAuthority authority : current.getAuthorities()) {
+            if (required.contains(authority.getAuthority())) {
+                return GRANTED;
+            }
+        }
+        return DENIED;
+    }
+
+    // Still abstract on AuthorizationManager; callers go through authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        return (AuthorizationDecision) authorize(authentication, invocation);
+    }
+
+    // The method's own annotation wins over the class's
+    private static Set<String> resolve(Method method, Object target) {
+        RequiresRole annotation = AnnotationUtils.findAnnotation(method, RequiresRole.class);
+        if (annotation == null && target != null) {
+            annotation = AnnotationUtils.findAnnotation(AopUtils.getTargetClass(target), RequiresRole.class);
+        }
+        if (annotation == null) {
+            return Set.of(); // Not reachable through the pointcut; deny rather than allow
+        }
+        return Arrays.stream(annotation.value())
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
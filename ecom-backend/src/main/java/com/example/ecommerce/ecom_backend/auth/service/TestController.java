@@ -1,8 +1,9 @@
 // src/main/java/com/example/ecommerce/ecom_backend/controller/TestController.java
 package com.example.ecommerce.ecom_backend.auth.service;
 
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,7 +19,7 @@ public class TestController {
 
     // You can add another one for future role-based testing
     @GetMapping("/admin-only")
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     public ResponseEntity<String> getAdminOnlyData() {
         return ResponseEntity.ok("This data is only for Admins!");
     }
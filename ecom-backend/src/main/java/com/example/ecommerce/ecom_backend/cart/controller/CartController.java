@@ -1,13 +1,15 @@
 package com.example.ecommerce.ecom_backend.cart.controller;
 
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemBatchRequestDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartItemRequestDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartSummaryDTO;
 import com.example.ecommerce.ecom_backend.cart.service.CartService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RestController // Marks this class as a REST Controller
@@ -21,14 +23,14 @@ public class CartController {
         this.cartService = cartService;
     }
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // Only authenticated users can add items to their cart
+    @RequiresRole({"USER", "ADMIN"}) // Only authenticated users can add items to their cart
     @PostMapping("/items")
     public ResponseEntity<CartResponseDTO> addProductToCart(@Valid @RequestBody CartItemRequestDTO cartItemRequestDTO) {
         CartResponseDTO updatedCart = cartService.addProductToCart(cartItemRequestDTO);
         return new ResponseEntity<>(updatedCart, HttpStatus.OK); // Or HttpStatus.CREATED if a new item is always created
     }
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
     @PutMapping("/items/{cartItemId}")
     public ResponseEntity<CartResponseDTO> updateCartItemQuantity(
             @PathVariable Long cartItemId,
@@ -37,8 +39,15 @@ public class CartController {
         return new ResponseEntity<>(updatedCart, HttpStatus.OK);
     }
 
+    @RequiresRole({"USER", "ADMIN"})
+    @PatchMapping("/items") // Many adds/updates/removals (e.g. a reorder) in one round trip
+    public ResponseEntity<CartResponseDTO> applyCartItemOperations(@Valid @RequestBody CartItemBatchRequestDTO request) {
+        CartResponseDTO updatedCart = cartService.applyCartItemOperations(request);
+        return new ResponseEntity<>(updatedCart, HttpStatus.OK);
+    }
+
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
     @DeleteMapping("/items/{cartItemId}")
     public ResponseEntity<String> removeProductFromCart(@PathVariable Long cartItemId) {
         String message = cartService.removeProductFromCart(cartItemId);
@@ -46,15 +55,21 @@ public class CartController {
     }
 
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
     @GetMapping
     public ResponseEntity<CartResponseDTO> getMyCart() {
         CartResponseDTO cart = cartService.getMyCart();
         return new ResponseEntity<>(cart, HttpStatus.OK);
     }
 
+    @RequiresRole({"USER", "ADMIN"})
+    @GetMapping("/summary") // Item count and subtotal only, for the header badge
+    public ResponseEntity<CartSummaryDTO> getMyCartSummary() {
+        return new ResponseEntity<>(cartService.getMyCartSummary(), HttpStatus.OK);
+    }
+
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
     @DeleteMapping("/clear")
     public ResponseEntity<String> clearMyCart() {
         String message = cartService.clearMyCart();
@@ -0,0 +1,26 @@
+package com.example.ecommerce.ecom_backend.cart.controller;
+
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.cart.dto.CartSweeperStatsDTO;
+import com.example.ecommerce.ecom_backend.cart.sweeper.AbandonedCartSweeper;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cart/sweeper") // Operational view of the abandoned-cart cleanup
+@RequiresRole("ADMIN")
+public class CartSweeperController {
+
+    private final AbandonedCartSweeper abandonedCartSweeper;
+
+    public CartSweeperController(AbandonedCartSweeper abandonedCartSweeper) {
+        this.abandonedCartSweeper = abandonedCartSweeper;
+    }
+
+    @GetMapping // Progress of the running sweep, or the outcome of the last one
+    public ResponseEntity<CartSweeperStatsDTO> getStats() {
+        return ResponseEntity.ok(abandonedCartSweeper.getStats());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ecommerce.ecom_backend.cart.controller;
+
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemBatchRequestDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemRequestDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.guest.GuestCartCookies;
+import com.example.ecommerce.ecom_backend.cart.guest.GuestCartService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/guest-cart") // Cart for visitors who haven't logged in; identified by a signed cookie
+public class GuestCartController {
+
+    private final GuestCartService guestCartService;
+    private final GuestCartCookies guestCartCookies;
+
+    public GuestCartController(GuestCartService guestCartService, GuestCartCookies guestCartCookies) {
+        this.guestCartService = guestCartService;
+        this.guestCartCookies = guestCartCookies;
+    }
+
+    @GetMapping
+    public ResponseEntity<CartResponseDTO> getCart(HttpServletRequest request) {
+        return ResponseEntity.ok(guestCartService.getCart(guestCartCookies.readCartId(request)));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<CartResponseDTO> addProduct(@Valid @RequestBody CartItemRequestDTO cartItemRequestDTO,
+                                                      HttpServletRequest request) {
+        String cartId = cartIdFor(request);
+        return withCookie(cartId, guestCartService.addProduct(cartId, cartItemRequestDTO));
+    }
+
+    @PatchMapping("/items")
+    public ResponseEntity<CartResponseDTO> applyOperations(@Valid @RequestBody CartItemBatchRequestDTO batchRequest,
+                                                           HttpServletRequest request) {
+        String cartId = cartIdFor(request);
+        return withCookie(cartId, guestCartService.applyOperations(cartId, batchRequest));
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<CartResponseDTO> removeProduct(@PathVariable Long productId, HttpServletRequest request) {
+        String cartId = cartIdFor(request);
+        return withCookie(cartId, guestCartService.removeProduct(cartId, productId));
+    }
+
+    @DeleteMapping("/clear")
+    public ResponseEntity<Void> clear(HttpServletRequest request) {
+        String cartId = guestCartCookies.readCartId(request);
+        if (cartId != null) {
+            guestCartService.clear(cartId);
+        }
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, guestCartCookies.expiredCookie().toString())
+                .build();
+    }
+
+    private String cartIdFor(HttpServletRequest request) {
+        String cartId = guestCartCookies.readCartId(request);
+        return cartId != null ? cartId : guestCartCookies.newCartId();
+    }
+
+    // Re-issued on every change so an active guest's cookie keeps pace with the store's TTL
+    private ResponseEntity<CartResponseDTO> withCookie(String cartId, CartResponseDTO cart) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, guestCartCookies.cookieFor(cartId).toString())
+                .body(cart);
+    }
+}
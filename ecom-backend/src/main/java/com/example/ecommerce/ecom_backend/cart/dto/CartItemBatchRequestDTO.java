@@ -0,0 +1,20 @@
+package com.example.ecommerce.ecom_backend.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemBatchRequestDTO {
+
+    @NotEmpty(message = "operations must not be empty")
+    @Size(max = 200, message = "At most 200 operations can be applied per request")
+    private List<@Valid CartItemOperationDTO> operations; // Applied in order
+}
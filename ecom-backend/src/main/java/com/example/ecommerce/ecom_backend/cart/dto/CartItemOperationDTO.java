@@ -0,0 +1,28 @@
+package com.example.ecommerce.ecom_backend.cart.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemOperationDTO {
+
+    public enum Operation {
+        ADD,    // Increase the quantity, creating the line if needed
+        SET,    // Replace the quantity; 0 removes the line
+        REMOVE  // Drop the line if present
+    }
+
+    @NotNull(message = "operation is required")
+    private Operation operation;
+
+    @NotNull(message = "Product ID cannot be null")
+    private Long productId;
+
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Integer quantity; // Ignored for REMOVE
+}
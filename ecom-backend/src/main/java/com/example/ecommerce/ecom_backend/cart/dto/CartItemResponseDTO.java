@@ -1,12 +1,12 @@
 // src/main/java/com/example/ecommerce/ecom_backend/dto/CartItemResponseDTO.java
 package com.example.ecommerce.ecom_backend.cart.dto;
 
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +17,7 @@ public class CartItemResponseDTO {
     private String productName;
     private String imageUrl; // Image of the product
     private Integer quantity;
-    private BigDecimal price; // Price of the product at the time it was added to the cart
-    private BigDecimal subtotal; // price * quantity
+    private Money price; // Price of the product at the time it was added to the cart
+    private Money subtotal; // price * quantity
+    private boolean stockShort; // Fewer in stock than this quantity; checkout will fail until it is lowered
 }
\ No newline at end of file
@@ -1,11 +1,12 @@
 // src/main/java/com/example/ecommerce/ecom_backend/dto/CartResponseDTO.java
 package com.example.ecommerce.ecom_backend.cart.dto;
 
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -16,5 +17,5 @@ public class CartResponseDTO {
     private Long id; // Cart ID
     private Long userId;
     private List<CartItemResponseDTO> items;
-    private BigDecimal totalPrice; // Sum of all item subtotals in the cart
+    private Money totalPrice; // Sum of all item subtotals in the cart
 }
\ No newline at end of file
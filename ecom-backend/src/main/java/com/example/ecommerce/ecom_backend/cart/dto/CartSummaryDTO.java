@@ -0,0 +1,14 @@
+package com.example.ecommerce.ecom_backend.cart.dto;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummaryDTO {
+    private int itemCount; // Total quantity across all lines, for the cart badge
+    private Money subtotal;
+}
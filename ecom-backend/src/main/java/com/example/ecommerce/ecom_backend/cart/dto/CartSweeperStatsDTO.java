@@ -0,0 +1,23 @@
+package com.example.ecommerce.ecom_backend.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSweeperStatsDTO {
+    private boolean running;
+    private int retentionDays;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private long cartsDeleted; // Current run while running, otherwise the last run
+    private long itemsDeleted;
+    private long chunks;
+    private long totalCartsDeleted; // Since startup
+    private long totalItemsDeleted;
+    private String lastError;
+}
@@ -0,0 +1,93 @@
+package com.example.ecommerce.ecom_backend.cart.guest;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Issues and checks the guest cart cookie: a random cart id plus an HMAC of it, so ids can't be guessed or forged.
+ */
+@Component
+public class GuestCartCookies {
+
+    public static final String COOKIE_NAME = "GUEST_CART";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec key;
+    private final Duration maxAge;
+
+    public GuestCartCookies(@Value("${cart.guest.cookie-secret:${jwt.secret}}") String secret,
+                            @Value("${cart.guest.ttl-minutes:1440}") long ttlMinutes) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.maxAge = Duration.ofMinutes(ttlMinutes);
+    }
+
+    public String newCartId() {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    /**
+     * @return the cart id from a correctly signed cookie, or null if there is none or it was tampered with
+     */
+    public String readCartId(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return verify(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    public ResponseCookie cookieFor(String cartId) {
+        return baseCookie(cartId + "." + sign(cartId)).maxAge(maxAge).build();
+    }
+
+    public ResponseCookie expiredCookie() {
+        return baseCookie("").maxAge(0).build();
+    }
+
+    private ResponseCookie.ResponseCookieBuilder baseCookie(String value) {
+        // Path /api so the cookie also reaches /api/auth/login, where the cart is merged
+        return ResponseCookie.from(COOKIE_NAME, value).httpOnly(true).sameSite("Lax").path("/api");
+    }
+
+    String verify(String value) {
+        int dot = value == null ? -1 : value.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String cartId = value.substring(0, dot);
+        byte[] expected = sign(cartId).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = value.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual) ? cartId : null; // Constant-time comparison
+    }
+
+    private String sign(String cartId) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return ENCODER.encodeToString(mac.doFinal(cartId.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ecommerce.ecom_backend.cart.guest;
+
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemBatchRequestDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemOperationDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemRequestDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.service.CartService;
+import com.example.ecommerce.ecom_backend.common.exception.InsufficientStockException;
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.product.model.Product;
+import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart operations for visitors who are not logged in. Lines are kept in {@link GuestCartStore}; the database is
+ * only read (for products) until the guest logs in and {@link #mergeIntoUserCart} moves the cart over.
+ */
+@Service
+@Transactional(readOnly = true)
+public class GuestCartService {
+
+    private final GuestCartStore guestCartStore;
+    private final ProductRepository productRepository;
+    private final CartService cartService;
+
+    public GuestCartService(GuestCartStore guestCartStore, ProductRepository productRepository, CartService cartService) {
+        this.guestCartStore = guestCartStore;
+        this.productRepository = productRepository;
+        this.cartService = cartService;
+    }
+
+    public CartResponseDTO getCart(String cartId) {
+        Map<Long, Integer> lines = cartId == null ? Map.of() : guestCartStore.get(cartId);
+        return mapToDTO(lines, loadProducts(lines.keySet()));
+    }
+
+    public CartResponseDTO addProduct(String cartId, CartItemRequestDTO request) {
+        Long productId = request.getProductId();
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        Map<Long, Integer> lines = guestCartStore.update(cartId, cart -> {
+            int quantity = cart.getOrDefault(productId, 0) + request.getQuantity();
+            checkStock(product, quantity);
+            cart.put(productId, quantity);
+        });
+        return mapToDTO(lines, loadProducts(lines.keySet()));
+    }
+
+    public CartResponseDTO applyOperations(String cartId, CartItemBatchRequestDTO request) {
+        // Products of both the request and the current cart in one read, since the response shows all of them
+        Set<Long> productIds = new HashSet<>(guestCartStore.get(cartId).keySet());
+        request.getOperations().forEach(op -> productIds.add(op.getProductId()));
+        Map<Long, Product> products = loadProducts(productIds);
+
+        Map<Long, Integer> lines = guestCartStore.update(cartId, cart -> {
+            Set<Long> touched = new HashSet<>();
+            for (CartItemOperationDTO op : request.getOperations()) {
+                Long productId = op.getProductId();
+                switch (op.getOperation()) {
+                    case ADD -> {
+                        requireProduct(products, productId);
+                        cart.merge(productId, requireQuantity(op, 1), Integer::sum);
+                        touched.add(productId);
+                    }
+                    case SET -> {
+                        int quantity = requireQuantity(op, 0);
+                        if (quantity > 0) {
+                            requireProduct(products, productId);
+                        }
+                        cart.put(productId, quantity); // The store drops lines at 0
+                        touched.add(productId);
+                    }
+                    case REMOVE -> cart.remove(productId);
+                }
+            }
+            // Same rule as the user cart: final quantities are checked and a failure leaves the cart unchanged
+            touched.stream().filter(cart::containsKey)
+                    .forEach(productId -> checkStock(products.get(productId), cart.get(productId)));
+        });
+        return mapToDTO(lines, products);
+    }
+
+    public CartResponseDTO removeProduct(String cartId, Long productId) {
+        Map<Long, Integer> lines = guestCartStore.update(cartId, cart -> cart.remove(productId));
+        return mapToDTO(lines, loadProducts(lines.keySet()));
+    }
+
+    public void clear(String cartId) {
+        guestCartStore.remove(cartId);
+    }
+
+    /**
+     * Moves the guest cart into the user's cart after login. Does nothing if the guest cart is empty or gone.
+     */
+    @Transactional
+    public void mergeIntoUserCart(String cartId, Long userId) {
+        Map<Long, Integer> lines = guestCartStore.get(cartId);
+        if (!lines.isEmpty()) {
+            cartService.mergeGuestCart(userId, lines);
+        }
+        guestCartStore.remove(cartId); // Only once the merge went through
+    }
+
+    private Map<Long, Product> loadProducts(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private CartResponseDTO mapToDTO(Map<Long, Integer> lines, Map<Long, Product> products) {
+        List<CartItemResponseDTO> items = new ArrayList<>();
+        Money total = Money.ZERO;
+        for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                continue; // Removed from the catalogue since it was added
+            }
+            Money subtotal = product.getPrice().times(line.getValue());
+            // Guest lines have no id; the product id identifies them
+            items.add(new CartItemResponseDTO(null, product.getId(), product.getName(), product.getImageUrl(),
+                    line.getValue(), product.getPrice(), subtotal, product.getStockQuantity() < line.getValue()));
+            total = total.plus(subtotal);
+        }
+        return new CartResponseDTO(null, null, items, total);
+    }
+
+    private static void checkStock(Product product, int quantity) {
+        if (product.getStockQuantity() < quantity) {
+            throw new InsufficientStockException("Not enough stock for product: " + product.getName());
+        }
+    }
+
+    private static void requireProduct(Map<Long, Product> products, Long productId) {
+        if (!products.containsKey(productId)) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+    }
+
+    private static int requireQuantity(CartItemOperationDTO op, int min) {
+        if (op.getQuantity() == null || op.getQuantity() < min) {
+            throw new IllegalArgumentException(op.getOperation() + " for product " + op.getProductId()
+                    + " needs a quantity of at least " + min);
+        }
+        return op.getQuantity();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.ecommerce.ecom_backend.cart.guest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * In-memory carts for visitors who are not logged in, keyed by the id in their signed cookie.
+ * Lines are just product id to quantity; prices are read from the catalogue when the cart is shown.
+ *
+ * Bounded both ways: the least recently used cart is evicted beyond {@code cart.guest.max-carts}, and carts idle
+ * for longer than {@code cart.guest.ttl-minutes} are dropped. Carts live on the instance that served them and do
+ * not survive a restart; a guest who loses theirs simply starts over, nothing in MySQL is affected.
+ */
+@Component
+public class GuestCartStore {
+
+    private final int maxCarts;
+    private final int maxLines;
+    private final long ttlMillis;
+    private final Map<String, GuestCart> carts;
+
+    public GuestCartStore(@Value("${cart.guest.max-carts:50000}") int maxCarts,
+                          @Value("${cart.guest.max-lines:50}") int maxLines,
+                          @Value("${cart.guest.ttl-minutes:1440}") long ttlMinutes) {
+        this.maxCarts = maxCarts;
+        this.maxLines = maxLines;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.carts = new LinkedHashMap<>(16, 0.75f, true) { // access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GuestCart> eldest) {
+                return size() > GuestCartStore.this.maxCarts;
+            }
+        };
+    }
+
+    /**
+     * @return a copy of the cart's lines, empty if the cart doesn't exist or has expired
+     */
+    public synchronized Map<Long, Integer> get(String cartId) {
+        GuestCart cart = live(cartId);
+        return cart == null ? Collections.emptyMap() : new LinkedHashMap<>(cart.lines);
+    }
+
+    /**
+     * Applies a change to the cart's lines, creating the cart if needed.
+     *
+     * @return a copy of the lines after the change
+     */
+    public synchronized Map<Long, Integer> update(String cartId, Consumer<Map<Long, Integer>> change) {
+        GuestCart cart = live(cartId);
+        Map<Long, Integer> lines = new LinkedHashMap<>(cart == null ? Collections.emptyMap() : cart.lines);
+        change.accept(lines);
+        lines.values().removeIf(quantity -> quantity == null || quantity <= 0);
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("A guest cart can hold at most " + maxLines + " products");
+        }
+        if (lines.isEmpty()) {
+            carts.remove(cartId); // An empty guest cart is the same as none
+        } else {
+            carts.put(cartId, new GuestCart(lines, System.currentTimeMillis()));
+        }
+        return new LinkedHashMap<>(lines);
+    }
+
+    public synchronized void remove(String cartId) {
+        carts.remove(cartId);
+    }
+
+    public synchronized int size() {
+        return carts.size();
+    }
+
+    @Scheduled(fixedDelayString = "${cart.guest.purge-interval-ms:60000}")
+    public synchronized void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        // Access order means the least recently used carts come first, so stop at the first live one
+        Iterator<GuestCart> iterator = carts.values().iterator();
+        while (iterator.hasNext() && iterator.next().lastAccess < cutoff) {
+            iterator.remove();
+        }
+    }
+
+    private GuestCart live(String cartId) {
+        GuestCart cart = carts.get(cartId); // Also moves it to the most recently used end
+        if (cart == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (cart.lastAccess < now - ttlMillis) {
+            carts.remove(cartId);
+            return null;
+        }
+        cart.lastAccess = now;
+        return cart;
+    }
+
+    private static final class GuestCart {
+        private final Map<Long, Integer> lines;
+        private long lastAccess;
+
+        private GuestCart(Map<Long, Integer> lines, long lastAccess) {
+            this.lines = lines;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
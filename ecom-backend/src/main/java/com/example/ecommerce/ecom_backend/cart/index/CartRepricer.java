@@ -0,0 +1,117 @@
+package com.example.ecommerce.ecom_backend.cart.index;
+
+import com.example.ecommerce.ecom_backend.product.event.ProductChangedEvent;
+import com.example.ecommerce.ecom_backend.product.event.ProductEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings open carts in line with a product after its price or stock changed: lines get the new price (and their
+ * carts' subtotals the difference), and lines asking for more than is left are flagged {@code stock_short}.
+ *
+ * The product's lines are walked through {@code idx_cart_items_product} in id order, a keyset chunk per short
+ * transaction, so lines added on any instance are seen. Every statement re-filters on {@code product_id} and skips
+ * rows already up to date, so replays are no-ops.
+ * A chunk locks its carts' rows first, in id order: the cart service loads a cart under that same lock, so it can
+ * neither read a subtotal from before this change nor write one back over it.
+ */
+@Component
+public class CartRepricer implements ProductEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CartRepricer.class);
+
+    private static final String PRODUCT_SQL = "SELECT price, stock_quantity FROM products WHERE id = :productId";
+    private static final String ITEM_IDS_SQL =
+            "SELECT id FROM cart_items WHERE product_id = :productId AND id > :afterId ORDER BY id LIMIT :limit";
+    private static final String CART_IDS_SQL =
+            "SELECT DISTINCT cart_id FROM cart_items WHERE id IN (:ids) AND product_id = :productId";
+    private static final String LOCK_CARTS_SQL = "SELECT id FROM carts WHERE id IN (:cartIds) ORDER BY id FOR UPDATE";
+    // Carts first, while the lines still hold the old price
+    private static final String REPRICE_CARTS_SQL =
+            "UPDATE carts SET subtotal = subtotal + (SELECT SUM(ci.quantity * (:price - ci.price)) FROM cart_items ci " +
+                    "WHERE ci.cart_id = carts.id AND ci.id IN (:ids) AND ci.product_id = :productId AND ci.price <> :price) " +
+                    "WHERE id IN (SELECT ci.cart_id FROM cart_items ci " +
+                    "WHERE ci.id IN (:ids) AND ci.product_id = :productId AND ci.price <> :price)";
+    private static final String REPRICE_ITEMS_SQL =
+            "UPDATE cart_items SET price = :price WHERE id IN (:ids) AND product_id = :productId AND price <> :price";
+    private static final String FLAG_STOCK_SQL =
+            "UPDATE cart_items SET stock_short = CASE WHEN quantity > :stock THEN TRUE ELSE FALSE END " +
+                    "WHERE id IN (:ids) AND product_id = :productId " +
+                    "AND stock_short <> CASE WHEN quantity > :stock THEN TRUE ELSE FALSE END";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cart.reprice.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public CartRepricer(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(PRODUCT_SQL,
+                new MapSqlParameterSource("productId", productId));
+        if (rows.isEmpty()) {
+            return; // Deleted; nothing left to reprice
+        }
+        BigDecimal price = (BigDecimal) rows.get(0).get("price");
+        int stock = ((Number) rows.get(0).get("stock_quantity")).intValue();
+
+        int scanned = 0;
+        int repriced = 0;
+        int flagged = 0;
+        long afterId = 0;
+        List<Long> chunk;
+        do {
+            chunk = jdbcTemplate.queryForList(ITEM_IDS_SQL, new MapSqlParameterSource("productId", productId)
+                    .addValue("afterId", afterId).addValue("limit", chunkSize), Long.class);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1);
+            scanned += chunk.size();
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", chunk)
+                    .addValue("productId", productId).addValue("price", price).addValue("stock", stock);
+            int[] counts = transactionTemplate.execute(status -> {
+                if (!lockCarts(params)) {
+                    return new int[]{0, 0}; // Lines removed since the chunk was read
+                }
+                return new int[]{
+                        event.isPriceChanged() ? repriceChunk(params) : 0,
+                        event.isStockChanged() ? jdbcTemplate.update(FLAG_STOCK_SQL, params) : 0};
+            });
+            repriced += counts[0];
+            flagged += counts[1];
+        } while (chunk.size() == chunkSize);
+        if (repriced > 0 || flagged > 0) {
+            log.info("Product {}: repriced {} and re-flagged {} of {} cart lines", productId, repriced, flagged, scanned);
+        }
+    }
+
+    private boolean lockCarts(MapSqlParameterSource params) {
+        List<Long> cartIds = jdbcTemplate.queryForList(CART_IDS_SQL, params, Long.class);
+        if (cartIds.isEmpty()) {
+            return false;
+        }
+        jdbcTemplate.queryForList(LOCK_CARTS_SQL, new MapSqlParameterSource("cartIds", cartIds), Long.class);
+        return true;
+    }
+
+    private int repriceChunk(MapSqlParameterSource params) {
+        jdbcTemplate.update(REPRICE_CARTS_SQL, params);
+        return jdbcTemplate.update(REPRICE_ITEMS_SQL, params);
+    }
+}
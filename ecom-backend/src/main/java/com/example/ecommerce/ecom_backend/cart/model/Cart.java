@@ -1,5 +1,6 @@
 package com.example.ecommerce.ecom_backend.cart.model;
 
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.example.ecommerce.ecom_backend.user.model.User;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
@@ -34,6 +35,13 @@ public class Cart {
     @EqualsAndHashCode.Exclude
     private List<CartItem> cartItems = new ArrayList<>();
 
+    // Running totals over the lines, kept by the methods below so the badge and summary don't load the items.
+    // Raw SQL paths adjust them with the same delta; CartTotalsRepairJob fixes any drift
+    @Column(nullable = false)
+    private int itemCount;
+    @Column(nullable = false)
+    private Money subtotal = Money.ZERO;
+
     @CreatedDate
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -44,11 +52,33 @@ public class Cart {
         if (cartItems == null) { cartItems = new ArrayList<>(); }
         cartItems.add(item);
         item.setCart(this);
+        applyDelta(item.getQuantity(), item.getPrice());
+    }
+    // Marks the cart as in use for the abandoned-cart sweeper. Day precision is all it needs,
+    // so a cart touched within the last hour is left alone to save a write per click
+    public void touch(LocalDateTime now) {
+        if (updatedAt == null || updatedAt.isBefore(now.minusHours(1))) {
+            updatedAt = now;
+        }
     }
     public void removeCartItem(CartItem item) {
-        if (cartItems != null) {
-            cartItems.remove(item);
+        if (cartItems != null && cartItems.remove(item)) {
             item.setCart(null);
+            applyDelta(-item.getQuantity(), item.getPrice());
         }
     }
+    public void changeQuantity(CartItem item, int quantity) {
+        applyDelta(quantity - item.getQuantity(), item.getPrice());
+        item.setQuantity(quantity);
+        item.setStockShort(false); // Every caller has just checked the new quantity against stock
+    }
+    public void clearItems() {
+        cartItems.clear();
+        itemCount = 0;
+        subtotal = Money.ZERO;
+    }
+    private void applyDelta(int quantityDelta, Money price) {
+        itemCount += quantityDelta;
+        subtotal = subtotal.plus(price.times(quantityDelta));
+    }
 }
\ No newline at end of file
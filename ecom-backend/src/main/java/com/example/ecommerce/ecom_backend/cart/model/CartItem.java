@@ -1,17 +1,18 @@
 package com.example.ecommerce.ecom_backend.cart.model;
 
 import com.example.ecommerce.ecom_backend.product.model.Product;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = // One line per product; add-to-cart upserts against this key
+        @UniqueConstraint(name = "uk_cart_items_cart_product", columnNames = {"cart_id", "product_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,7 +34,10 @@ public class CartItem {
     private Product product;
 
     private Integer quantity;
-    private BigDecimal price;
+    private Money price;
+    // Set by CartRepricer when the product's stock drops below this quantity; cleared when the quantity is changed
+    @Column(nullable = false)
+    private boolean stockShort;
 
     @CreatedDate
     @Column(updatable = false)
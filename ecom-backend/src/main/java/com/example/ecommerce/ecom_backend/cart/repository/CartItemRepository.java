@@ -2,11 +2,36 @@ package com.example.ecommerce.ecom_backend.cart.repository;
 
 import com.example.ecommerce.ecom_backend.cart.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
+
+    // Adds to the user's line for this product in one statement; the unique (cart_id, product_id) key turns a
+    // concurrent second insert into an increment. Returns 0 when the user has no cart or the product doesn't exist
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (cart_id, product_id, quantity, price, stock_short, created_at, updated_at) " +
+            "SELECT c.id, p.id, :quantity, p.price, FALSE, :now, :now FROM carts c JOIN products p ON p.id = :productId " +
+            "WHERE c.user_id = :userId " +
+            "ON DUPLICATE KEY UPDATE quantity = cart_items.quantity + :quantity, updated_at = :now", nativeQuery = true)
+    int upsertQuantity(@Param("userId") Long userId, @Param("productId") Long productId,
+                       @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Product ids and quantities of the user's cart without loading the cart or its products
+    @Query("select i.product.id as productId, i.quantity as quantity from CartItem i " +
+            "where i.cart.user.id = :userId order by i.id")
+    List<LineRow> findLinesByUserId(@Param("userId") Long userId);
+
+    interface LineRow {
+        Long getProductId();
+        Integer getQuantity();
+    }
 }
@@ -1,12 +1,49 @@
 package com.example.ecommerce.ecom_backend.cart.repository;
 
 import com.example.ecommerce.ecom_backend.cart.model.Cart;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart,Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    // Cart, items and their products in one statement; c.user.id is read from the FK, users is not joined
+    @Query("select c from Cart c left join fetch c.cartItems i left join fetch i.product where c.user.id = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") Long userId);
+
+    // Taken before a cart is loaded to be changed. Hibernate writes subtotal and item_count back as absolute values,
+    // so a relative update committed in between (CartRepricer, addToTotals) would otherwise be lost. Every writer
+    // locks the cart row before its items, which also keeps them from deadlocking each other. Empty without a cart
+    @Query(value = "SELECT id FROM carts WHERE user_id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockByUserId(@Param("userId") Long userId);
+
+    // carts.user_id is unique, so a request racing us to create the cart just makes this a no-op
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO carts (user_id, item_count, subtotal, created_at, updated_at) " +
+            "VALUES (:userId, 0, 0, :now, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Relative update, so concurrent adds to the same cart can't overwrite each other's totals
+    @Modifying
+    @Query(value = "UPDATE carts SET item_count = item_count + :quantity, subtotal = subtotal + :quantity * " +
+            "(SELECT ci.price FROM cart_items ci WHERE ci.cart_id = carts.id AND ci.product_id = :productId) " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int addToTotals(@Param("userId") Long userId, @Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Badge and summary: two columns, no items
+    @Query("select c.itemCount as itemCount, c.subtotal as subtotal from Cart c where c.user.id = :userId")
+    Optional<TotalsRow> findTotalsByUserId(@Param("userId") Long userId);
+
+    interface TotalsRow {
+        int getItemCount();
+        Money getSubtotal();
+    }
 }
@@ -1,8 +1,12 @@
 // src/main/java/com/example/ecommerce/ecom_backend/service/CartService.java
 package com.example.ecommerce.ecom_backend.cart.service;
 
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemBatchRequestDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartItemRequestDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartSummaryDTO;
+
+import java.util.Map;
 
 public interface CartService {
 
@@ -13,11 +17,31 @@ public interface CartService {
     CartResponseDTO updateProductQuantityInCart(Long cartItemId, Integer quantity);
 
 
+    /**
+     * Applies add/set/remove operations to the current user's cart in one transaction.
+     * Stock is checked against the final quantities; if any line fails nothing is applied.
+     */
+    CartResponseDTO applyCartItemOperations(CartItemBatchRequestDTO request);
+
+
+    /**
+     * Adds the lines of a guest cart (product id to quantity) to the user's cart in one transaction.
+     * Products that no longer exist are skipped and quantities are capped at the available stock.
+     */
+    CartResponseDTO mergeGuestCart(Long userId, Map<Long, Integer> guestLines);
+
+
     String removeProductFromCart(Long cartItemId);
 
 
     CartResponseDTO getMyCart();
 
 
+    /**
+     * Item count and subtotal of the current user's cart, read from the cart row without loading the items.
+     */
+    CartSummaryDTO getMyCartSummary();
+
+
     String clearMyCart();
 }
\ No newline at end of file
@@ -1,27 +1,32 @@
 package com.example.ecommerce.ecom_backend.cart.service;
 
+import com.example.ecommerce.ecom_backend.auth.security.CurrentUserResolver;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemBatchRequestDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemOperationDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartItemRequestDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartItemResponseDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartSummaryDTO;
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.example.ecommerce.ecom_backend.common.exception.InsufficientStockException;
 import com.example.ecommerce.ecom_backend.cart.model.Cart;
 import com.example.ecommerce.ecom_backend.cart.model.CartItem;
 import com.example.ecommerce.ecom_backend.product.model.Product;
-import com.example.ecommerce.ecom_backend.user.model.User;
 import com.example.ecommerce.ecom_backend.cart.repository.CartItemRepository;
 import com.example.ecommerce.ecom_backend.cart.repository.CartRepository;
 import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
-import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,20 +42,31 @@ public class CartServiceImpl implements CartService {
     private ProductRepository productRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
 
-    private User getCurrentAuthenticatedUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+    // One select for the cart, its items and their products; the user id comes from the principal
+    private Cart getOrCreateCurrentUserCart() {
+        return getOrCreateCart(currentUserResolver.getCurrentUserId());
     }
 
-    private Cart getOrCreateUserCart(User user) {
-        return cartRepository.findByUserId(user.getId())
+    // For changes: the cart row is locked before it is read (see CartRepository.lockByUserId). A cart created here is
+    // locked by its own insert
+    private Cart lockOrCreateCurrentUserCart() {
+        return lockOrCreateCart(currentUserResolver.getCurrentUserId());
+    }
+
+    private Cart lockOrCreateCart(Long userId) {
+        cartRepository.lockByUserId(userId);
+        return getOrCreateCart(userId);
+    }
+
+    private Cart getOrCreateCart(Long userId) {
+        return cartRepository.findWithItemsByUserId(userId)
                 .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    return cartRepository.save(newCart);
+                    // Insert-if-absent instead of save(): a parallel first request may be creating the same cart
+                    cartRepository.insertIfAbsent(userId, LocalDateTime.now());
+                    return cartRepository.findWithItemsByUserId(userId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Cart", "user ID", userId));
                 });
     }
 
@@ -64,10 +80,7 @@ public class CartServiceImpl implements CartService {
                         .collect(Collectors.toList());
         cartDTO.setItems(itemDTOs);
 
-        BigDecimal totalPrice = itemDTOs.stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        cartDTO.setTotalPrice(totalPrice);
+        cartDTO.setTotalPrice(cart.getSubtotal()); // Kept up to date on every change, not summed here
 
         return cartDTO;
     }
@@ -78,52 +91,49 @@ public class CartServiceImpl implements CartService {
         itemDTO.setProductId(cartItem.getProduct().getId());
         itemDTO.setQuantity(cartItem.getQuantity());
         itemDTO.setPrice(cartItem.getPrice());
+        itemDTO.setSubtotal(cartItem.getPrice().times(cartItem.getQuantity()));
+        itemDTO.setStockShort(cartItem.isStockShort());
         return itemDTO;
     }
 
     @Override
     @Transactional
     public CartResponseDTO addProductToCart(CartItemRequestDTO cartItemRequestDTO) {
-        User user = getCurrentAuthenticatedUser();
-        Cart cart = getOrCreateUserCart(user);
+        Long userId = currentUserResolver.getCurrentUserId();
         Long productId = cartItemRequestDTO.getProductId();
         int quantity = cartItemRequestDTO.getQuantity();
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-
-        Optional<CartItem> existingItemOpt = cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
-
-        if (existingItemOpt.isPresent()) {
-            CartItem itemToUpdate = existingItemOpt.get();
-            int newQuantity = itemToUpdate.getQuantity() + quantity;
-            if (product.getStockQuantity() < newQuantity) {
-                throw new InsufficientStockException("Not enough stock for product: " + product.getName());
+        LocalDateTime now = LocalDateTime.now();
+        cartRepository.lockByUserId(userId); // Cart before line, like every other cart writer
+
+        // One round trip inserts the line or adds to it, so double-clicks can't create duplicate lines
+        if (cartItemRepository.upsertQuantity(userId, productId, quantity, now) == 0) {
+            // Nothing matched: either this is the user's first add or the product doesn't exist
+            cartRepository.insertIfAbsent(userId, now);
+            if (cartItemRepository.upsertQuantity(userId, productId, quantity, now) == 0) {
+                throw new ResourceNotFoundException("Product", "id", productId);
             }
-            itemToUpdate.setQuantity(newQuantity);
-        } else {
-            if (product.getStockQuantity() < quantity) {
+        }
+        // Same statement shape for a new line and an increment: both add quantity * line price
+        cartRepository.addToTotals(userId, productId, quantity);
+
+        Cart cart = cartRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "user ID", userId));
+        cart.touch(now);
+        // The upserted row stays locked until commit, so concurrent adds see each other's quantity here
+        for (CartItem item : cart.getCartItems()) {
+            Product product = item.getProduct();
+            if (product.getId().equals(productId) && product.getStockQuantity() < item.getQuantity()) {
                 throw new InsufficientStockException("Not enough stock for product: " + product.getName());
             }
-            CartItem newCartItem = new CartItem(cart, product, quantity);
-            cart.addCartItem(newCartItem);
         }
-
-        // --- THE CRITICAL FIX ---
-        // This line saves the cart and all its items, fixing the "empty cart" error.
-        Cart savedCart = cartRepository.save(cart);
-        // ---------------------
-
-        return mapCartToDTO(savedCart);
+        return mapCartToDTO(cart);
     }
 
     @Override
     @Transactional
     public CartResponseDTO updateProductQuantityInCart(Long cartItemId, Integer quantity) {
-        User user = getCurrentAuthenticatedUser();
-        Cart cart = getOrCreateUserCart(user);
+        Cart cart = lockOrCreateCurrentUserCart();
+        cart.touch(LocalDateTime.now());
 
         CartItem itemToUpdate = cart.getCartItems().stream()
                 .filter(item -> item.getId().equals(cartItemId))
@@ -136,7 +146,7 @@ public class CartServiceImpl implements CartService {
             if (itemToUpdate.getProduct().getStockQuantity() < quantity) {
                 throw new InsufficientStockException("Not enough stock for product: " + itemToUpdate.getProduct().getName());
             }
-            itemToUpdate.setQuantity(quantity);
+            cart.changeQuantity(itemToUpdate, quantity);
         }
 
         Cart savedCart = cartRepository.save(cart);
@@ -145,16 +155,147 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional
-    public String removeProductFromCart(Long cartItemId) {
-        User user = getCurrentAuthenticatedUser();
-        Cart cart = getOrCreateUserCart(user);
+    public CartResponseDTO applyCartItemOperations(CartItemBatchRequestDTO request) {
+        Cart cart = lockOrCreateCurrentUserCart();
+        cart.touch(LocalDateTime.now());
+        Map<Long, CartItem> itemsByProduct = new HashMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            itemsByProduct.put(item.getProduct().getId(), item);
+            products.put(item.getProduct().getId(), item.getProduct());
+        }
 
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with id: " + cartItemId));
+        // One lookup for every product that did not come with the cart
+        Set<Long> missingProductIds = request.getOperations().stream()
+                .filter(op -> op.getOperation() != CartItemOperationDTO.Operation.REMOVE)
+                .map(CartItemOperationDTO::getProductId)
+                .filter(productId -> !products.containsKey(productId))
+                .collect(Collectors.toSet());
+        if (!missingProductIds.isEmpty()) {
+            productRepository.findAllById(missingProductIds).forEach(product -> products.put(product.getId(), product));
+        }
+
+        Set<Long> touchedProductIds = new LinkedHashSet<>();
+        for (CartItemOperationDTO op : request.getOperations()) {
+            Long productId = op.getProductId();
+            CartItem item = itemsByProduct.get(productId);
+            switch (op.getOperation()) {
+                case ADD -> {
+                    int quantity = requireQuantity(op, 1);
+                    if (item == null) {
+                        addNewItem(cart, requireProduct(products, productId), quantity, itemsByProduct);
+                    } else {
+                        cart.changeQuantity(item, item.getQuantity() + quantity);
+                    }
+                    touchedProductIds.add(productId);
+                }
+                case SET -> {
+                    int quantity = requireQuantity(op, 0);
+                    if (quantity == 0) {
+                        removeItem(cart, item, itemsByProduct);
+                    } else if (item == null) {
+                        addNewItem(cart, requireProduct(products, productId), quantity, itemsByProduct);
+                    } else {
+                        cart.changeQuantity(item, quantity);
+                    }
+                    touchedProductIds.add(productId);
+                }
+                case REMOVE -> removeItem(cart, item, itemsByProduct);
+            }
+        }
+
+        // Stock is checked against the final quantities; throwing rolls back the whole batch
+        for (Long productId : touchedProductIds) {
+            CartItem item = itemsByProduct.get(productId);
+            if (item != null && item.getProduct().getStockQuantity() < item.getQuantity()) {
+                throw new InsufficientStockException("Not enough stock for product: " + item.getProduct().getName());
+            }
+        }
+
+        // Nothing was written yet; all changes go out in the single flush at commit
+        Cart savedCart = cartRepository.save(cart);
+        return mapCartToDTO(savedCart);
+    }
+
+    private static int requireQuantity(CartItemOperationDTO op, int min) {
+        if (op.getQuantity() == null || op.getQuantity() < min) {
+            throw new IllegalArgumentException(op.getOperation() + " for product " + op.getProductId()
+                    + " needs a quantity of at least " + min);
+        }
+        return op.getQuantity();
+    }
 
-        if (!cartItem.getCart().getUser().getId().equals(user.getId())) {
-            throw new IllegalArgumentException("Cart item does not belong to the current user's cart.");
+    private static Product requireProduct(Map<Long, Product> products, Long productId) {
+        Product product = products.get(productId);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product", "id", productId);
         }
+        return product;
+    }
+
+    private static void addNewItem(Cart cart, Product product, int quantity, Map<Long, CartItem> itemsByProduct) {
+        CartItem newCartItem = new CartItem(cart, product, quantity);
+        cart.addCartItem(newCartItem);
+        itemsByProduct.put(product.getId(), newCartItem);
+    }
+
+    private static void removeItem(Cart cart, CartItem item, Map<Long, CartItem> itemsByProduct) {
+        if (item != null) {
+            cart.removeCartItem(item);
+            itemsByProduct.remove(item.getProduct().getId());
+        }
+    }
+
+    @Override
+    @Transactional
+    public CartResponseDTO mergeGuestCart(Long userId, Map<Long, Integer> guestLines) {
+        Cart cart = lockOrCreateCart(userId);
+        cart.touch(LocalDateTime.now());
+        Map<Long, CartItem> itemsByProduct = new HashMap<>();
+        cart.getCartItems().forEach(item -> itemsByProduct.put(item.getProduct().getId(), item));
+
+        Set<Long> missingProductIds = guestLines.keySet().stream()
+                .filter(productId -> !itemsByProduct.containsKey(productId))
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = new HashMap<>();
+        if (!missingProductIds.isEmpty()) {
+            productRepository.findAllById(missingProductIds).forEach(product -> products.put(product.getId(), product));
+        }
+
+        for (Map.Entry<Long, Integer> line : guestLines.entrySet()) {
+            CartItem item = itemsByProduct.get(line.getKey());
+            Product product = item != null ? item.getProduct() : products.get(line.getKey());
+            if (product == null) {
+                continue; // Deleted while it sat in the guest cart
+            }
+            int current = item == null ? 0 : item.getQuantity();
+            // A login must not fail over stock, so the merged line is capped at what is available
+            int merged = Math.min(current + line.getValue(), product.getStockQuantity());
+            if (merged <= current) {
+                continue;
+            }
+            if (item == null) {
+                addNewItem(cart, product, merged, itemsByProduct);
+            } else {
+                cart.changeQuantity(item, merged);
+            }
+        }
+
+        Cart savedCart = cartRepository.save(cart);
+        return mapCartToDTO(savedCart);
+    }
+
+    @Override
+    @Transactional
+    public String removeProductFromCart(Long cartItemId) {
+        Cart cart = lockOrCreateCurrentUserCart();
+        cart.touch(LocalDateTime.now());
+
+        // Items of other users' carts are simply not found here
+        CartItem cartItem = cart.getCartItems().stream()
+                .filter(item -> item.getId().equals(cartItemId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with id: " + cartItemId));
 
         cart.removeCartItem(cartItem);
         cartRepository.save(cart); // This save is important to trigger orphanRemoval
@@ -163,24 +304,31 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional // Not read-only: the first visit creates the cart
     public CartResponseDTO getMyCart() {
-        User user = getCurrentAuthenticatedUser();
-        Cart cart = getOrCreateUserCart(user);
+        Cart cart = getOrCreateCurrentUserCart();
         return mapCartToDTO(cart);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CartSummaryDTO getMyCartSummary() {
+        // No cart yet reads as empty; creating one is left to the first real cart request
+        return cartRepository.findTotalsByUserId(currentUserResolver.getCurrentUserId())
+                .map(totals -> new CartSummaryDTO(totals.getItemCount(), totals.getSubtotal()))
+                .orElseGet(() -> new CartSummaryDTO(0, Money.ZERO));
+    }
+
     @Override
     @Transactional
     public String clearMyCart() {
-        User user = getCurrentAuthenticatedUser();
-        Cart cart = getOrCreateUserCart(user);
+        Cart cart = lockOrCreateCurrentUserCart();
 
         if (cart.getCartItems().isEmpty()) {
             return "Cart is already empty.";
         }
 
-        cart.getCartItems().clear();
+        cart.clearItems();
         cartRepository.save(cart);
 
         return "Cart cleared successfully.";
@@ -0,0 +1,181 @@
+package com.example.ecommerce.ecom_backend.cart.sweeper;
+
+import com.example.ecommerce.ecom_backend.cart.dto.CartSweeperStatsDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes carts nobody has touched for {@code cart.sweeper.retention-days}, together with their items.
+ *
+ * The stale carts are walked in {@code (updated_at, id)} order over {@code idx_carts_updated}, a small chunk at a time.
+ * Each chunk is its own short transaction, with a pause in between, so a sweep never holds locks or a pooled
+ * connection for long. A run also stops after {@code cart.sweeper.max-run-minutes} so it can't spill into peak
+ * hours; the next run picks up where the index says it should. Scheduled runs go to the sweeper's own thread, so
+ * the shared scheduler thread (which also drives the outbox relay) is never held by a sweep.
+ */
+@Component
+public class AbandonedCartSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    private static final String FIRST_CHUNK_SQL =
+            "SELECT id, updated_at FROM carts WHERE updated_at < :cutoff ORDER BY updated_at, id LIMIT :limit";
+    private static final String NEXT_CHUNK_SQL =
+            "SELECT id, updated_at FROM carts WHERE updated_at < :cutoff " +
+                    "AND (updated_at > :lastUpdatedAt OR (updated_at = :lastUpdatedAt AND id > :lastId)) " +
+                    "ORDER BY updated_at, id LIMIT :limit";
+    // Re-checked under the row lock: a cart touched since the chunk was read is skipped, not emptied
+    private static final String LOCK_STALE_SQL =
+            "SELECT id FROM carts WHERE id IN (:ids) AND updated_at < :cutoff FOR UPDATE";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService worker;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong cartsDeleted = new AtomicLong();
+    private final AtomicLong itemsDeleted = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong totalCartsDeleted = new AtomicLong();
+    private final AtomicLong totalItemsDeleted = new AtomicLong();
+    private volatile LocalDateTime lastStartedAt;
+    private volatile LocalDateTime lastFinishedAt;
+    private volatile String lastError;
+
+    @Value("${cart.sweeper.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cart.sweeper.retention-days:30}")
+    private int retentionDays = 30;
+
+    @Value("${cart.sweeper.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${cart.sweeper.pause-ms:200}")
+    private long pauseMs = 200;
+
+    @Value("${cart.sweeper.max-run-minutes:60}")
+    private long maxRunMinutes = 60;
+
+    public AbandonedCartSweeper(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(cron = "${cart.sweeper.cron:0 45 3 * * *}") // Off-peak, after the outbox purge
+    public void scheduledSweep() {
+        if (enabled && !running.get()) {
+            worker.execute(this::sweep); // Returns at once; sweep() itself skips the run if one started meanwhile
+        }
+    }
+
+    /**
+     * Runs one sweep unless one is already in progress.
+     *
+     * @return the number of carts deleted by this run
+     */
+    public long sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        LocalDateTime deadline = LocalDateTime.now().plusMinutes(maxRunMinutes);
+        cartsDeleted.set(0);
+        itemsDeleted.set(0);
+        chunks.set(0);
+        lastStartedAt = LocalDateTime.now();
+        lastError = null;
+        try {
+            Cursor after = null;
+            List<Cursor> chunk;
+            do {
+                chunk = readChunk(cutoff, after);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                after = chunk.get(chunk.size() - 1);
+                List<Long> ids = chunk.stream().map(Cursor::id).toList();
+                int[] deleted = transactionTemplate.execute(status -> deleteChunk(ids, cutoff));
+                // Counted only once the chunk has committed
+                cartsDeleted.addAndGet(deleted[0]);
+                itemsDeleted.addAndGet(deleted[1]);
+                totalCartsDeleted.addAndGet(deleted[0]);
+                totalItemsDeleted.addAndGet(deleted[1]);
+                chunks.incrementAndGet();
+                if (chunk.size() == chunkSize) {
+                    Thread.sleep(pauseMs); // Let user traffic have the connections and the locks in between
+                }
+            } while (chunk.size() == chunkSize && LocalDateTime.now().isBefore(deadline));
+            log.info("Cart sweep removed {} carts and {} items in {} chunks", cartsDeleted.get(), itemsDeleted.get(), chunks.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt(); // Shutting down; the next run continues
+        } catch (DataAccessException ex) {
+            lastError = ex.getMessage();
+            log.warn("Cart sweep stopped after {} chunks: {}", chunks.get(), ex.getMessage());
+        } finally {
+            lastFinishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        return cartsDeleted.get();
+    }
+
+    private List<Cursor> readChunk(LocalDateTime cutoff, Cursor after) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", chunkSize);
+        if (after != null) {
+            params.addValue("lastUpdatedAt", Timestamp.valueOf(after.updatedAt())).addValue("lastId", after.id());
+        }
+        return jdbcTemplate.query(after == null ? FIRST_CHUNK_SQL : NEXT_CHUNK_SQL, params,
+                (rs, rowNum) -> new Cursor(rs.getLong("id"), rs.getTimestamp("updated_at").toLocalDateTime()));
+    }
+
+    // Returns {carts deleted, items deleted}
+    private int[] deleteChunk(List<Long> candidateIds, LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(LOCK_STALE_SQL,
+                new MapSqlParameterSource("ids", candidateIds).addValue("cutoff", Timestamp.valueOf(cutoff)), Long.class);
+        if (ids.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", new ArrayList<>(ids));
+        int items = jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id IN (:ids)", params);
+        int carts = jdbcTemplate.update("DELETE FROM carts WHERE id IN (:ids)", params);
+        return new int[]{carts, items};
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow(); // Interrupts the pause between chunks; the next run continues
+    }
+
+    public CartSweeperStatsDTO getStats() {
+        return new CartSweeperStatsDTO(running.get(), retentionDays, lastStartedAt, lastFinishedAt,
+                cartsDeleted.get(), itemsDeleted.get(), chunks.get(),
+                totalCartsDeleted.get(), totalItemsDeleted.get(), lastError);
+    }
+
+    private record Cursor(long id, LocalDateTime updatedAt) {
+    }
+}
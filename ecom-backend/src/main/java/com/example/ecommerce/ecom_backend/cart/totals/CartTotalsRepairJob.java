@@ -0,0 +1,144 @@
+package com.example.ecommerce.ecom_backend.cart.totals;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes {@code carts.item_count} and {@code carts.subtotal} where they no longer match the lines.
+ *
+ * The totals are kept by delta on every change, so drift only comes from writes outside the service (manual SQL,
+ * the index dedupe) or two requests on the same cart racing. Carts are compared a chunk at a time in id order;
+ * only the drifted ones are rewritten, and {@code updated_at} is left alone so the sweeper's clock isn't reset.
+ * Each rewrite is one short transaction that first locks the carts' rows, like every other cart writer, so the
+ * lines it sums can't change under it and a concurrent delta can't land between the sum and the write. Also runs once at startup to fill in carts created before the columns.
+ * Both the startup and the scheduled pass run on the job's own thread, so neither startup nor the shared scheduler
+ * thread (which also drives the outbox relay) waits for a pass over every cart.
+ */
+@Component
+public class CartTotalsRepairJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CartTotalsRepairJob.class);
+
+    private static final String CHUNK_SQL =
+            "SELECT c.id FROM (SELECT id, item_count, subtotal FROM carts WHERE id > :afterId ORDER BY id LIMIT :limit) c " +
+                    "LEFT JOIN cart_items ci ON ci.cart_id = c.id " +
+                    "GROUP BY c.id, c.item_count, c.subtotal " +
+                    "HAVING c.item_count <> COALESCE(SUM(ci.quantity), 0) " +
+                    "OR c.subtotal <> COALESCE(SUM(ci.quantity * ci.price), 0)";
+    private static final String LAST_ID_SQL =
+            "SELECT MAX(id) FROM (SELECT id FROM carts WHERE id > :afterId ORDER BY id LIMIT :limit) c";
+    private static final String LOCK_SQL = "SELECT id FROM carts WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+    private static final String REPAIR_SQL =
+            "UPDATE carts SET " +
+                    "item_count = (SELECT COALESCE(SUM(ci.quantity), 0) FROM cart_items ci WHERE ci.cart_id = carts.id), " +
+                    "subtotal = (SELECT COALESCE(SUM(ci.quantity * ci.price), 0) FROM cart_items ci WHERE ci.cart_id = carts.id) " +
+                    "WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService worker;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${cart.totals.repair-enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cart.totals.repair-on-startup:true}")
+    private boolean repairOnStartup = true;
+
+    @Value("${cart.totals.repair-chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${cart.totals.repair-pause-ms:100}")
+    private long pauseMs = 100;
+
+    public CartTotalsRepairJob(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-totals-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (enabled && repairOnStartup) {
+            worker.execute(this::repair);
+        }
+    }
+
+    @Scheduled(cron = "${cart.totals.repair-cron:0 15 4 * * *}") // After the abandoned cart sweep
+    public void scheduledRepair() {
+        if (enabled && !running.get()) {
+            worker.execute(this::repair); // Returns at once; repair() itself skips the pass if one started meanwhile
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow(); // Interrupts the pause between chunks; the next run checks again
+    }
+
+    /**
+     * Runs one pass over all carts unless one is already in progress.
+     *
+     * @return the number of carts whose totals were corrected
+     */
+    public int repair() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        int repaired = 0;
+        try {
+            long afterId = 0;
+            Long lastId;
+            while ((lastId = jdbcTemplate.queryForObject(LAST_ID_SQL, chunkParams(afterId), Long.class)) != null) {
+                List<Long> drifted = jdbcTemplate.queryForList(CHUNK_SQL, chunkParams(afterId), Long.class);
+                if (!drifted.isEmpty()) {
+                    repaired += repairChunk(drifted);
+                }
+                afterId = lastId;
+                Thread.sleep(pauseMs);
+            }
+            if (repaired > 0) {
+                log.info("Repaired totals of {} carts", repaired);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt(); // Shutting down; the next run checks again
+        } catch (DataAccessException ex) {
+            log.warn("Cart totals repair stopped after {} carts: {}", repaired, ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+        return repaired;
+    }
+
+    // Locks in id order, as CartRepricer does, so the two can't deadlock on a shared set of carts
+    private int repairChunk(List<Long> cartIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", cartIds);
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList(LOCK_SQL, params, Long.class);
+            return jdbcTemplate.update(REPAIR_SQL, params);
+        });
+    }
+
+    private MapSqlParameterSource chunkParams(long afterId) {
+        return new MapSqlParameterSource("afterId", afterId).addValue("limit", chunkSize);
+    }
+}
@@ -1,14 +1,18 @@
 // src/main/java/com/example/ecommerce/ecom_backend/category/controller/CategoryController.java
 package com.example.ecommerce.ecom_backend.category.controller;
 
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.category.dto.CategoryNodeDTO;
+import com.example.ecommerce.ecom_backend.category.dto.CategoryRefDTO;
 import com.example.ecommerce.ecom_backend.category.dto.CategoryRequestDTO;
 import com.example.ecommerce.ecom_backend.category.dto.CategoryResponseDTO;
 import com.example.ecommerce.ecom_backend.category.service.CategoryService;
+import com.example.ecommerce.ecom_backend.product.dto.ProductPageDTO;
+import com.example.ecommerce.ecom_backend.product.service.ProductService;
 import jakarta.validation.Valid; // For @Valid annotation
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize; // For role-based authorization
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,34 +22,57 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ProductService productService;
 
     @Autowired // Inject CategoryService dependency via constructor
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ProductService productService) {
         this.categoryService = categoryService;
+        this.productService = productService;
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     @PostMapping // Maps POST requests to /api/categories
     public ResponseEntity<CategoryResponseDTO> createCategory(@Valid @RequestBody CategoryRequestDTO categoryRequestDTO) {
         CategoryResponseDTO newCategory = categoryService.createCategory(categoryRequestDTO);
         return new ResponseEntity<>(newCategory, HttpStatus.CREATED); // 201 Created
     }
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // Or remove @PreAuthorize if public access is desired
+    // Public: guests browse the catalogue before logging in
     @GetMapping // Maps GET requests to /api/categories
     public ResponseEntity<List<CategoryResponseDTO>> getAllCategories() {
         List<CategoryResponseDTO> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories); // 200 OK
     }
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // Or remove @PreAuthorize if public access is desired
+    // Public: the storefront menu, nested top-level categories first
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryNodeDTO>> getCategoryTree() {
+        return ResponseEntity.ok(categoryService.getCategoryTree());
+    }
+
+    // Public: guests browse the catalogue before logging in
     @GetMapping("/{id}") // Maps GET requests to /api/categories/{id}
     public ResponseEntity<CategoryResponseDTO> getCategoryById(@PathVariable Long id) {
         CategoryResponseDTO category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(category); // 200 OK
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    // Public: top-level category first, ending with this one
+    @GetMapping("/{id}/breadcrumb")
+    public ResponseEntity<List<CategoryRefDTO>> getBreadcrumb(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getBreadcrumb(id));
+    }
+
+    // Public: products filed directly under the category, or anywhere below it with includeSubcategories=true
+    @GetMapping("/{id}/products")
+    public ResponseEntity<ProductPageDTO> getCategoryProducts(@PathVariable Long id,
+                                                              @RequestParam(defaultValue = "false") boolean includeSubcategories,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "24") int size) {
+        return ResponseEntity.ok(productService.getProductsInCategory(id, includeSubcategories, cursor, size));
+    }
+
+    @RequiresRole("ADMIN")
     @PutMapping("/{id}") // Maps PUT requests to /api/categories/{id}
     public ResponseEntity<CategoryResponseDTO> updateCategory(@PathVariable Long id,
                                                               @Valid @RequestBody CategoryRequestDTO categoryRequestDTO) {
@@ -53,7 +80,7 @@ public class CategoryController {
         return ResponseEntity.ok(updatedCategory); // 200 OK
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     @DeleteMapping("/{id}") // Maps DELETE requests to /api/categories/{id}
     public ResponseEntity<String> deleteCategory(@PathVariable Long id) {
         categoryService.deleteCategory(id);
@@ -0,0 +1,18 @@
+package com.example.ecommerce.ecom_backend.category.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One entry of the category menu
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryNodeDTO {
+    private Long id;
+    private String name;
+    private int productCount; // Products in this category and all of its subcategories
+    private List<CategoryNodeDTO> children;
+}
@@ -0,0 +1,14 @@
+package com.example.ecommerce.ecom_backend.category.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A category by id and name, e.g. one step of a breadcrumb
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryRefDTO {
+    private Long id;
+    private String name;
+}
@@ -18,4 +18,6 @@ public class CategoryRequestDTO {
 
     @Size(max = 500, message = "Category description cannot exceed 500 characters")
     private String description; // Description can be null or empty
+
+    private Long parentId; // Null for a top-level category; changing it moves the whole subtree
 }
\ No newline at end of file
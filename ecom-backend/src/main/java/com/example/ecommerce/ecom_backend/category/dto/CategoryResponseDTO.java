@@ -14,6 +14,7 @@ public class CategoryResponseDTO {
     private Long id;
     private String name;
     private String description;
+    private Long parentId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -31,6 +31,13 @@ public class Category {
     @Column(length = 500) // A short description for the category
     private String description;
 
+    @Column(name = "parent_id") // Null for a top-level category
+    private Long parentId;
+
+    // Materialized path of ids from the root down to this category, e.g. "/1/5/"; a subtree shares its prefix
+    @Column(length = 1000)
+    private String path;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
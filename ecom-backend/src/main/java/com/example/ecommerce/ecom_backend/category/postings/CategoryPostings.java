@@ -0,0 +1,211 @@
+package com.example.ecommerce.ecom_backend.category.postings;
+
+import com.example.ecommerce.ecom_backend.common.collections.CompressedLongSet;
+import com.example.ecommerce.ecom_backend.common.tx.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Category id to the sorted ids of the products filed directly under it, held as {@link CompressedLongSet}s.
+ *
+ * Category pages and menu counts are served from here: a page seeks to the cursor in each category's postings and
+ * reads only as many ids as it returns, and a count is just the set's size. Product and category writes patch the
+ * postings once they commit; a periodic rebuild from the products table picks up changes made by other instances
+ * or outside the services. Readers never lock: every update swaps in a new immutable set.
+ */
+@Component
+public class CategoryPostings {
+
+    private static final String LOAD_SQL = "SELECT id, category_id FROM products " +
+            "WHERE id > :afterId AND category_id IS NOT NULL ORDER BY id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int loadChunkSize;
+    private final Object refreshLock = new Object();
+
+    private volatile Map<Long, CompressedLongSet> postings; // null until first loaded
+    // Updates applied while a rebuild reads the table, replayed onto its result; null when no rebuild is running
+    private List<Runnable> replay;
+
+    public CategoryPostings(NamedParameterJdbcTemplate jdbcTemplate,
+                            @Value("${categories.postings.load-chunk-size:10000}") int loadChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${categories.postings.rebuild-interval-ms:600000}",
+            initialDelayString = "${categories.postings.rebuild-interval-ms:600000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            Map<Long, CompressedLongSet> loaded;
+            try {
+                loaded = load();
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    replay = null;
+                }
+                throw ex;
+            }
+            synchronized (this) {
+                postings = new ConcurrentHashMap<>(loaded);
+                replay.forEach(Runnable::run);
+                replay = null;
+            }
+        }
+    }
+
+    public int count(long categoryId) {
+        return get(categoryId).size();
+    }
+
+    /**
+     * @return up to {@code limit} ids greater than {@code afterId} from the union of the categories, ascending
+     */
+    public long[] page(Collection<Long> categoryIds, long afterId, int limit) {
+        Map<Long, CompressedLongSet> current = current();
+        // k-way merge; a product is filed under one category, so the lists never share an id
+        PriorityQueue<Head> heads = new PriorityQueue<>();
+        for (Long categoryId : categoryIds) {
+            PrimitiveIterator.OfLong ids = current.getOrDefault(categoryId, CompressedLongSet.EMPTY).iterator(afterId);
+            if (ids.hasNext()) {
+                heads.add(new Head(ids.nextLong(), ids));
+            }
+        }
+        long[] page = new long[limit];
+        int length = 0;
+        while (length < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            page[length++] = head.id;
+            if (head.rest.hasNext()) {
+                head.id = head.rest.nextLong();
+                heads.add(head);
+            }
+        }
+        return length == limit ? page : Arrays.copyOf(page, length);
+    }
+
+    // Refile the product once the current transaction commits; either category may be null
+    public void productMovedAfterCommit(long productId, Long fromCategoryId, Long toCategoryId) {
+        afterCommit(() -> {
+            if (fromCategoryId != null) {
+                update(fromCategoryId, get(fromCategoryId).without(productId));
+            }
+            if (toCategoryId != null) {
+                update(toCategoryId, get(toCategoryId).with(productId));
+            }
+        });
+    }
+
+    // A deleted category's products move to intoCategoryId, or out of every category when it is null
+    public void categoryMergedAfterCommit(long categoryId, Long intoCategoryId) {
+        afterCommit(() -> {
+            CompressedLongSet moved = get(categoryId);
+            current().remove(categoryId);
+            if (intoCategoryId != null) {
+                update(intoCategoryId, get(intoCategoryId).union(moved));
+            }
+        });
+    }
+
+    private void afterCommit(Runnable change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private synchronized void apply(Runnable change) {
+        if (postings != null) { // Otherwise the first load, which runs after this commit, will include the change
+            change.run();
+        }
+        if (replay != null) {
+            replay.add(change); // Sets ignore a repeated add or remove, so replaying onto a fresh load is safe
+        }
+    }
+
+    private void update(long categoryId, CompressedLongSet ids) {
+        if (ids.isEmpty()) {
+            current().remove(categoryId);
+        } else {
+            current().put(categoryId, ids);
+        }
+    }
+
+    private CompressedLongSet get(long categoryId) {
+        return current().getOrDefault(categoryId, CompressedLongSet.EMPTY);
+    }
+
+    private Map<Long, CompressedLongSet> current() {
+        Map<Long, CompressedLongSet> current = postings;
+        if (current == null) { // Used before the application was ready
+            refresh();
+            current = postings;
+        }
+        return current;
+    }
+
+    // Walks products by primary key, so every category's ids arrive already sorted
+    private Map<Long, CompressedLongSet> load() {
+        Map<Long, IdBuffer> buffers = new HashMap<>();
+        long[] afterId = {0};
+        int rows;
+        do {
+            int[] count = {0};
+            jdbcTemplate.query(LOAD_SQL, new MapSqlParameterSource("afterId", afterId[0]).addValue("limit", loadChunkSize),
+                    rs -> {
+                        long productId = rs.getLong(1);
+                        buffers.computeIfAbsent(rs.getLong(2), key -> new IdBuffer()).add(productId);
+                        afterId[0] = productId;
+                        count[0]++;
+                    });
+            rows = count[0];
+        } while (rows == loadChunkSize);
+
+        Map<Long, CompressedLongSet> loaded = new HashMap<>();
+        buffers.forEach((categoryId, buffer) -> loaded.put(categoryId, CompressedLongSet.of(buffer.ids, buffer.size)));
+        return loaded;
+    }
+
+    private static final class IdBuffer {
+        private long[] ids = new long[16];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private static final class Head implements Comparable<Head> {
+        private long id;
+        private final PrimitiveIterator.OfLong rest;
+
+        Head(long id, PrimitiveIterator.OfLong rest) {
+            this.id = id;
+            this.rest = rest;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return Long.compare(id, other.id);
+        }
+    }
+}
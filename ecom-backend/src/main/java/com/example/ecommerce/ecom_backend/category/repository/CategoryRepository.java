@@ -3,8 +3,12 @@ package com.example.ecommerce.ecom_backend.category.repository;
 
 import com.example.ecommerce.ecom_backend.category.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository // Marks this interface as a Spring Data JPA repository
@@ -12,4 +16,24 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     // Custom method to find a Category by its unique name
     Optional<Category> findByName(String name);
-}
\ No newline at end of file
+
+    // Just the hierarchy, without managed entities; feeds CategoryTreeCache
+    @Query("select c.id as id, c.parentId as parentId, c.name as name from Category c")
+    List<TreeRow> findTreeRows();
+
+    @Modifying
+    @Query("update Category c set c.parentId = :newParentId where c.parentId = :parentId")
+    int reparentChildren(@Param("parentId") Long parentId, @Param("newParentId") Long newParentId);
+
+    // Rewrites the materialized path of every category below oldPath (not the one at oldPath itself)
+    @Modifying
+    @Query("update Category c set c.path = concat(:newPath, substring(c.path, length(:oldPath) + 1)) " +
+            "where c.path like concat(:oldPath, '_%')")
+    int movePaths(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    interface TreeRow {
+        Long getId();
+        Long getParentId();
+        String getName();
+    }
+}
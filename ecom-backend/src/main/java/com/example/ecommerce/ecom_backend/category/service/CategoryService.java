@@ -1,6 +1,8 @@
 // src/main/java/com/example.ecommerce.ecom_backend.category.service/CategoryService.java
 package com.example.ecommerce.ecom_backend.category.service;
 
+import com.example.ecommerce.ecom_backend.category.dto.CategoryNodeDTO;
+import com.example.ecommerce.ecom_backend.category.dto.CategoryRefDTO;
 import com.example.ecommerce.ecom_backend.category.dto.CategoryRequestDTO;
 import com.example.ecommerce.ecom_backend.category.dto.CategoryResponseDTO;
 import com.example.ecommerce.ecom_backend.common.exception.DuplicateCategoryNameException;
@@ -19,4 +21,9 @@ public interface CategoryService {
     CategoryResponseDTO updateCategory(Long id, CategoryRequestDTO categoryRequestDTO) throws ResourceNotFoundException, DuplicateCategoryNameException;
 
     void deleteCategory(Long id) throws ResourceNotFoundException;
+
+    // Served from the in-memory tree snapshot, with product counts from the category postings
+    List<CategoryNodeDTO> getCategoryTree();
+
+    List<CategoryRefDTO> getBreadcrumb(Long id) throws ResourceNotFoundException;
 }
\ No newline at end of file
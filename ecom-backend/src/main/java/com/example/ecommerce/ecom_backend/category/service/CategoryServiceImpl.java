@@ -1,17 +1,25 @@
 // src/main/java/com.example.ecommerce.ecom_backend.category.service/CategoryServiceImpl.java
 package com.example.ecommerce.ecom_backend.category.service;
 
+import com.example.ecommerce.ecom_backend.category.dto.CategoryNodeDTO;
+import com.example.ecommerce.ecom_backend.category.dto.CategoryRefDTO;
 import com.example.ecommerce.ecom_backend.category.dto.CategoryRequestDTO;
 import com.example.ecommerce.ecom_backend.category.dto.CategoryResponseDTO;
 import com.example.ecommerce.ecom_backend.category.model.Category;
+import com.example.ecommerce.ecom_backend.category.postings.CategoryPostings;
 import com.example.ecommerce.ecom_backend.category.repository.CategoryRepository;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTreeCache;
 import com.example.ecommerce.ecom_backend.common.exception.DuplicateCategoryNameException;
+import com.example.ecommerce.ecom_backend.common.exception.InvalidCategoryMoveException;
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,10 +27,17 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryPostings categoryPostings;
 
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository,
+                               CategoryTreeCache categoryTreeCache, CategoryPostings categoryPostings) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.categoryPostings = categoryPostings;
     }
 
     // Helper method to convert Category entity to CategoryResponseDTO
@@ -34,6 +49,7 @@ public class CategoryServiceImpl implements CategoryService {
         dto.setId(category.getId());
         dto.setName(category.getName());
         dto.setDescription(category.getDescription());
+        dto.setParentId(category.getParentId());
         dto.setCreatedAt(category.getCreatedAt());
         dto.setUpdatedAt(category.getUpdatedAt());
         return dto;
@@ -57,8 +73,12 @@ public class CategoryServiceImpl implements CategoryService {
             throw new DuplicateCategoryNameException("Category with name '" + categoryRequestDTO.getName() + "' already exists.");
         }
 
+        Category parent = findParent(categoryRequestDTO.getParentId());
         Category category = convertToEntity(categoryRequestDTO);
+        category.setParentId(categoryRequestDTO.getParentId());
         Category savedCategory = categoryRepository.save(category);
+        savedCategory.setPath(childPath(parent, savedCategory.getId())); // The path ends with the id, known only now
+        categoryTreeCache.refreshAfterCommit();
         return convertToDto(savedCategory);
     }
 
@@ -88,20 +108,80 @@ public class CategoryServiceImpl implements CategoryService {
             }
         }
 
+        Long newParentId = categoryRequestDTO.getParentId();
+        if (!Objects.equals(newParentId, existingCategory.getParentId())) {
+            moveCategory(existingCategory, findParent(newParentId));
+        }
         existingCategory.setName(categoryRequestDTO.getName());
         existingCategory.setDescription(categoryRequestDTO.getDescription());
 
         Category updatedCategory = categoryRepository.save(existingCategory);
+        categoryTreeCache.refreshAfterCommit();
         return convertToDto(updatedCategory);
     }
 
     @Override
     public void deleteCategory(Long id) throws ResourceNotFoundException {
-        if (!categoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Category", "id", id);
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+        Category parent = category.getParentId() == null ? null : categoryRepository.getReferenceById(category.getParentId());
+
+        // Its products and subcategories move up one level (top-level categories leave their products uncategorized)
+        productRepository.reassignCategory(id, parent);
+        categoryRepository.reparentChildren(id, category.getParentId());
+        String parentPath = category.getParentId() == null ? "/" : parentPath(pathOf(category), id);
+        categoryRepository.movePaths(pathOf(category), parentPath);
+        categoryRepository.delete(category);
+        categoryTreeCache.refreshAfterCommit();
+        categoryPostings.categoryMergedAfterCommit(id, category.getParentId());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Answered from memory; don't borrow a connection for it
+    public List<CategoryNodeDTO> getCategoryTree() {
+        return categoryTreeCache.current().menu(categoryPostings::count);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CategoryRefDTO> getBreadcrumb(Long id) throws ResourceNotFoundException {
+        return categoryTreeCache.treeContaining(id)
+                .map(tree -> tree.breadcrumb(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+    }
+
+    private Category findParent(Long parentId) {
+        if (parentId == null) {
+            return null;
+        }
+        return categoryRepository.findById(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", parentId));
+    }
+
+    // Re-roots the category and rewrites the stored paths of everything below it in one statement
+    private void moveCategory(Category category, Category newParent) {
+        String oldPath = pathOf(category);
+        if (newParent != null && pathOf(newParent).startsWith(oldPath)) {
+            throw new InvalidCategoryMoveException("Category '" + category.getName()
+                    + "' cannot be moved under itself or one of its subcategories.");
         }
-        // TODO: Add logic here to handle products associated with this category
-        // e.g., set product category to null, or prevent deletion if products exist
-        categoryRepository.deleteById(id);
+        String newPath = childPath(newParent, category.getId());
+        categoryRepository.movePaths(oldPath, newPath);
+        category.setParentId(newParent == null ? null : newParent.getId());
+        category.setPath(newPath);
+    }
+
+    private static String childPath(Category parent, Long id) {
+        return (parent == null ? "/" : pathOf(parent)) + id + "/";
+    }
+
+    // "/1/5/" -> "/1/"
+    private static String parentPath(String path, Long id) {
+        return path.substring(0, path.length() - (id + "/").length());
+    }
+
+    // Categories created before paths were stored are all top-level, so their path is just their id
+    private static String pathOf(Category category) {
+        return category.getPath() != null ? category.getPath() : "/" + category.getId() + "/";
     }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.example.ecommerce.ecom_backend.category.tree;
+
+import com.example.ecommerce.ecom_backend.category.dto.CategoryNodeDTO;
+import com.example.ecommerce.ecom_backend.category.dto.CategoryRefDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Immutable snapshot of the category hierarchy.
+ *
+ * Categories are laid out in pre-order (siblings sorted by name), so every subtree is one contiguous range of that
+ * order: "this category and everything below it" is a slice, and "is X under Y" is a range check. Breadcrumbs follow
+ * parent links, and subtree totals for the menu are one backwards pass. None of it touches the database once built.
+ */
+public final class CategoryTree {
+
+    public static final CategoryTree EMPTY = build(List.of());
+
+    private final Map<Long, Integer> positionById; // Pre-order position
+    private final long[] ids;                       // Indexed by position
+    private final String[] names;
+    private final int[] parents;                    // Position of the parent, -1 for a top-level category
+    private final int[] subtreeEnds;                // Exclusive end of each category's subtree range
+
+    private CategoryTree(Map<Long, Integer> positionById, long[] ids, String[] names, int[] parents, int[] subtreeEnds) {
+        this.positionById = positionById;
+        this.ids = ids;
+        this.names = names;
+        this.parents = parents;
+        this.subtreeEnds = subtreeEnds;
+    }
+
+    /**
+     * Builds the tree from flat (id, parentId, name) rows. A category whose parent is missing becomes top-level, so a
+     * half-applied change can never hide part of the catalogue.
+     */
+    public static CategoryTree build(Collection<Node> nodes) {
+        Map<Long, Node> byId = new HashMap<>();
+        nodes.forEach(node -> byId.put(node.id(), node));
+        Map<Long, List<Node>> childrenById = new HashMap<>();
+        List<Node> topLevel = new ArrayList<>();
+        for (Node node : byId.values()) {
+            if (node.parentId() != null && byId.containsKey(node.parentId()) && !node.parentId().equals(node.id())) {
+                childrenById.computeIfAbsent(node.parentId(), key -> new ArrayList<>()).add(node);
+            } else {
+                topLevel.add(node);
+            }
+        }
+        Comparator<Node> siblingOrder = Comparator.comparing(Node::name, String.CASE_INSENSITIVE_ORDER).thenComparing(Node::id);
+        childrenById.values().forEach(children -> children.sort(siblingOrder));
+        topLevel.sort(siblingOrder);
+
+        int size = byId.size();
+        Builder builder = new Builder(size, childrenById);
+        for (Node node : topLevel) {
+            builder.visit(node, -1);
+        }
+        // Only a parent cycle (impossible through the service, which rejects such moves) leaves nodes unvisited
+        for (Node node : byId.values()) {
+            if (!builder.positionById.containsKey(node.id())) {
+                builder.visit(node, -1);
+            }
+        }
+        return new CategoryTree(Map.copyOf(builder.positionById), builder.ids, builder.names, builder.parents,
+                builder.subtreeEnds);
+    }
+
+    public boolean contains(Long categoryId) {
+        return positionById.containsKey(categoryId);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param productCounts products filed directly under a category
+     * @return the nested menu, top-level categories first, each counting the products anywhere in its subtree
+     */
+    public List<CategoryNodeDTO> menu(LongToIntFunction productCounts) {
+        int[] totals = new int[ids.length];
+        for (int i = ids.length - 1; i >= 0; i--) { // Descendants come after their ancestors in pre-order
+            totals[i] += productCounts.applyAsInt(ids[i]);
+            if (parents[i] >= 0) {
+                totals[parents[i]] += totals[i];
+            }
+        }
+        CategoryNodeDTO[] nodes = new CategoryNodeDTO[ids.length];
+        List<CategoryNodeDTO> roots = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            nodes[i] = new CategoryNodeDTO(ids[i], names[i], totals[i], new ArrayList<>());
+            (parents[i] >= 0 ? nodes[parents[i]].getChildren() : roots).add(nodes[i]);
+        }
+        return roots;
+    }
+
+    /**
+     * @return the category followed by all of its descendants, or an empty list for an unknown category
+     */
+    public List<Long> subtreeIds(Long categoryId) {
+        Integer position = positionById.get(categoryId);
+        if (position == null) {
+            return List.of();
+        }
+        List<Long> result = new ArrayList<>(subtreeEnds[position] - position);
+        for (int i = position; i < subtreeEnds[position]; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    // True when categoryId is ancestorId itself or somewhere below it
+    public boolean isWithin(Long categoryId, Long ancestorId) {
+        Integer position = positionById.get(categoryId);
+        Integer ancestor = positionById.get(ancestorId);
+        return position != null && ancestor != null && position >= ancestor && position < subtreeEnds[ancestor];
+    }
+
+    /**
+     * @return the path from the top-level category down to this one, or an empty list for an unknown category
+     */
+    public List<CategoryRefDTO> breadcrumb(Long categoryId) {
+        Integer position = positionById.get(categoryId);
+        if (position == null) {
+            return List.of();
+        }
+        List<CategoryRefDTO> path = new ArrayList<>();
+        for (int i = position; i >= 0; i = parents[i]) {
+            path.add(new CategoryRefDTO(ids[i], names[i]));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public record Node(Long id, Long parentId, String name) {
+    }
+
+    private static final class Builder {
+        private final Map<Long, List<Node>> childrenById;
+        private final Map<Long, Integer> positionById = new HashMap<>();
+        private final long[] ids;
+        private final String[] names;
+        private final int[] parents;
+        private final int[] subtreeEnds;
+        private int next;
+
+        Builder(int size, Map<Long, List<Node>> childrenById) {
+            this.childrenById = childrenById;
+            this.ids = new long[size];
+            this.names = new String[size];
+            this.parents = new int[size];
+            this.subtreeEnds = new int[size];
+        }
+
+        // Recursion depth is the tree depth, a handful of levels for any real catalogue
+        void visit(Node node, int parent) {
+            int position = next++;
+            positionById.put(node.id(), position);
+            ids[position] = node.id();
+            names[position] = node.name();
+            parents[position] = parent;
+            for (Node child : childrenById.getOrDefault(node.id(), List.of())) {
+                if (!positionById.containsKey(child.id())) {
+                    visit(child, position);
+                }
+            }
+            subtreeEnds[position] = next;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecommerce.ecom_backend.category.tree;
+
+import com.example.ecommerce.ecom_backend.category.repository.CategoryRepository;
+import com.example.ecommerce.ecom_backend.common.snapshot.ReloadingSnapshot;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Holds the current {@link CategoryTree}, loaded at startup and rebuilt as a whole after every category change commits.
+ *
+ * Moves, renames and deletes made on another instance arrive with the periodic rebuild; a category created there is
+ * picked up sooner, because an unknown id reloads the tree (at most once a second) before it is reported missing.
+ */
+@Component
+public class CategoryTreeCache {
+
+    private static final long MISS_RELOAD_INTERVAL_MS = 1000;
+
+    private final ReloadingSnapshot<CategoryTree> tree;
+
+    public CategoryTreeCache(CategoryRepository categoryRepository) {
+        this.tree = new ReloadingSnapshot<>(() -> CategoryTree.build(categoryRepository.findTreeRows().stream()
+                .map(row -> new CategoryTree.Node(row.getId(), row.getParentId(), row.getName()))
+                .toList()), MISS_RELOAD_INTERVAL_MS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${categories.tree.rebuild-interval-ms:60000}",
+            initialDelayString = "${categories.tree.rebuild-interval-ms:60000}")
+    public void refresh() {
+        tree.reload();
+    }
+
+    public void refreshAfterCommit() {
+        tree.reloadAfterCommit();
+    }
+
+    public CategoryTree current() {
+        return tree.get();
+    }
+
+    /**
+     * @return the current snapshot if it knows the category, otherwise empty
+     */
+    public Optional<CategoryTree> treeContaining(Long categoryId) {
+        CategoryTree current = tree.getOrReload(t -> t.contains(categoryId));
+        return current.contains(categoryId) ? Optional.of(current) : Optional.empty();
+    }
+}
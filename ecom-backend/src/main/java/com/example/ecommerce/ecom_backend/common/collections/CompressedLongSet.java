@@ -0,0 +1,277 @@
+package com.example.ecommerce.ecom_backend.common.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Immutable sorted set of positive longs (database ids), delta + varint encoded in blocks of up to 128 ids.
+ * Dense id ranges take 1-2 bytes per id instead of 8 in a {@code long[]}.
+ *
+ * The first id of every block is kept uncompressed as a skip index, so seeking to "ids after X" is a binary search
+ * plus decoding at most one block. {@link #with} and {@link #without} return a new set that shares every block
+ * except the one they changed; readers can keep using the old set meanwhile.
+ */
+public final class CompressedLongSet {
+
+    public static final CompressedLongSet EMPTY = new CompressedLongSet(new long[0], new byte[0][], new int[0], 0);
+
+    static final int BLOCK_SIZE = 128;
+
+    private final long[] firstIds;   // Skip index: the smallest id of each block
+    private final byte[][] blocks;   // Varint gaps between consecutive ids of a block, after its first id
+    private final int[] blockSizes;
+    private final int size;
+
+    private CompressedLongSet(long[] firstIds, byte[][] blocks, int[] blockSizes, int size) {
+        this.firstIds = firstIds;
+        this.blocks = blocks;
+        this.blockSizes = blockSizes;
+        this.size = size;
+    }
+
+    /**
+     * @param sortedIds strictly increasing positive ids; only the first {@code length} are used
+     */
+    public static CompressedLongSet of(long[] sortedIds, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        int blockCount = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long[] firstIds = new long[blockCount];
+        byte[][] blocks = new byte[blockCount][];
+        int[] blockSizes = new int[blockCount];
+        for (int b = 0; b < blockCount; b++) {
+            int from = b * BLOCK_SIZE;
+            int to = Math.min(from + BLOCK_SIZE, length);
+            firstIds[b] = sortedIds[from];
+            blocks[b] = encode(sortedIds, from, to);
+            blockSizes[b] = to - from;
+        }
+        return new CompressedLongSet(firstIds, blocks, blockSizes, length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long value) {
+        int b = blockFor(value);
+        return b >= 0 && Arrays.binarySearch(decode(b), value) >= 0;
+    }
+
+    /**
+     * @return a set that also holds the value; this set if it already did
+     */
+    public CompressedLongSet with(long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Only positive values can be stored: " + value);
+        }
+        if (size == 0) {
+            return of(new long[]{value}, 1);
+        }
+        int b = Math.max(blockFor(value), 0); // Below the first id: goes to the front of the first block
+        long[] ids = decode(b);
+        int position = Arrays.binarySearch(ids, value);
+        if (position >= 0) {
+            return this;
+        }
+        position = -position - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, position);
+        grown[position] = value;
+        System.arraycopy(ids, position, grown, position + 1, ids.length - position);
+
+        if (grown.length <= BLOCK_SIZE) {
+            return replaceBlock(b, grown, grown.length, 1);
+        }
+        // Split the full block in two halves so the next inserts nearby have room
+        int half = grown.length / 2;
+        long[] firstIds = new long[this.firstIds.length + 1];
+        byte[][] blocks = new byte[this.blocks.length + 1][];
+        int[] blockSizes = new int[this.blockSizes.length + 1];
+        copyAround(b, firstIds, blocks, blockSizes, 1);
+        firstIds[b] = grown[0];
+        blocks[b] = encode(grown, 0, half);
+        blockSizes[b] = half;
+        firstIds[b + 1] = grown[half];
+        blocks[b + 1] = encode(grown, half, grown.length);
+        blockSizes[b + 1] = grown.length - half;
+        return new CompressedLongSet(firstIds, blocks, blockSizes, size + 1);
+    }
+
+    /**
+     * @return a set without the value; this set if it didn't hold it
+     */
+    public CompressedLongSet without(long value) {
+        int b = blockFor(value);
+        if (b < 0) {
+            return this;
+        }
+        long[] ids = decode(b);
+        int position = Arrays.binarySearch(ids, value);
+        if (position < 0) {
+            return this;
+        }
+        if (ids.length > 1) {
+            long[] shrunk = new long[ids.length - 1];
+            System.arraycopy(ids, 0, shrunk, 0, position);
+            System.arraycopy(ids, position + 1, shrunk, position, ids.length - position - 1);
+            return replaceBlock(b, shrunk, shrunk.length, -1);
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        long[] firstIds = new long[this.firstIds.length - 1];
+        byte[][] blocks = new byte[this.blocks.length - 1][];
+        int[] blockSizes = new int[this.blockSizes.length - 1];
+        copyAround(b, firstIds, blocks, blockSizes, -1);
+        return new CompressedLongSet(firstIds, blocks, blockSizes, size - 1);
+    }
+
+    // Linear merge of both sets, re-blocked from scratch
+    public CompressedLongSet union(CompressedLongSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        long[] merged = new long[size + other.size];
+        int length = 0;
+        PrimitiveIterator.OfLong left = iterator(0);
+        PrimitiveIterator.OfLong right = other.iterator(0);
+        long l = left.nextLong();
+        long r = right.nextLong();
+        while (l != 0 || r != 0) {
+            if (r == 0 || (l != 0 && l < r)) {
+                merged[length++] = l;
+                l = left.hasNext() ? left.nextLong() : 0;
+            } else {
+                if (l == r) {
+                    l = left.hasNext() ? left.nextLong() : 0;
+                }
+                merged[length++] = r;
+                r = right.hasNext() ? right.nextLong() : 0;
+            }
+        }
+        return of(merged, length);
+    }
+
+    /**
+     * @return the values greater than {@code after}, in ascending order; decodes lazily, one block at a time
+     */
+    public PrimitiveIterator.OfLong iterator(long after) {
+        return new Cursor(after);
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size];
+        int length = 0;
+        for (int b = 0; b < blocks.length; b++) {
+            long[] ids = decode(b);
+            System.arraycopy(ids, 0, result, length, ids.length);
+            length += ids.length;
+        }
+        return result;
+    }
+
+    // Index of the last block whose first id is <= value, or -1 when value is below every id
+    private int blockFor(long value) {
+        int position = Arrays.binarySearch(firstIds, value);
+        return position >= 0 ? position : -position - 2;
+    }
+
+    private long[] decode(int b) {
+        long[] ids = new long[blockSizes[b]];
+        byte[] data = blocks[b];
+        long current = firstIds[b];
+        ids[0] = current;
+        int offset = 0;
+        for (int i = 1; i < ids.length; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = data[offset++];
+                gap |= (long) (next & 0x7F) << shift;
+                shift += 7;
+            } while (next < 0);
+            current += gap;
+            ids[i] = current;
+        }
+        return ids;
+    }
+
+    private static byte[] encode(long[] ids, int from, int to) {
+        byte[] buffer = new byte[(to - from) * 10]; // A varint long never takes more than 10 bytes
+        int length = 0;
+        for (int i = from + 1; i < to; i++) {
+            long gap = ids[i] - ids[i - 1];
+            while ((gap & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            buffer[length++] = (byte) gap;
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private CompressedLongSet replaceBlock(int b, long[] ids, int length, int sizeChange) {
+        long[] firstIds = this.firstIds.clone();
+        byte[][] blocks = this.blocks.clone();
+        int[] blockSizes = this.blockSizes.clone();
+        firstIds[b] = ids[0];
+        blocks[b] = encode(ids, 0, length);
+        blockSizes[b] = length;
+        return new CompressedLongSet(firstIds, blocks, blockSizes, size + sizeChange);
+    }
+
+    // Copies the blocks before b and after it, leaving room for one more block at b (+1) or dropping block b (-1)
+    private void copyAround(int b, long[] firstIds, byte[][] blocks, int[] blockSizes, int blockChange) {
+        System.arraycopy(this.firstIds, 0, firstIds, 0, b);
+        System.arraycopy(this.blocks, 0, blocks, 0, b);
+        System.arraycopy(this.blockSizes, 0, blockSizes, 0, b);
+        int tail = this.blocks.length - b - 1;
+        System.arraycopy(this.firstIds, b + 1, firstIds, b + 1 + blockChange, tail);
+        System.arraycopy(this.blocks, b + 1, blocks, b + 1 + blockChange, tail);
+        System.arraycopy(this.blockSizes, b + 1, blockSizes, b + 1 + blockChange, tail);
+    }
+
+    private final class Cursor implements PrimitiveIterator.OfLong {
+        private int block;
+        private long[] ids;
+        private int index;
+
+        Cursor(long after) {
+            block = Math.max(blockFor(after), 0);
+            if (block < blocks.length) {
+                ids = decode(block);
+                int position = Arrays.binarySearch(ids, after);
+                index = position >= 0 ? position + 1 : -position - 1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (ids != null && index == ids.length) {
+                block++;
+                ids = block < blocks.length ? decode(block) : null;
+                index = 0;
+            }
+            return ids != null;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return ids[index++];
+        }
+    }
+}
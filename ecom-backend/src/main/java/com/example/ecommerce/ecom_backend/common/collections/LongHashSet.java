@@ -0,0 +1,147 @@
+package com.example.ecommerce.ecom_backend.common.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of positive longs (database ids), stored in a plain {@code long[]}.
+ * About 8-16 bytes per id instead of the ~50 of a {@code HashSet<Long>}, and no boxing on add or lookup.
+ *
+ * Not thread-safe. 0 marks a free slot, so 0 and negative values can't be stored.
+ */
+public final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] slots;
+    private int size;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        slots = new long[capacityFor(expectedSize)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long value) {
+        requirePositive(value);
+        int mask = slots.length - 1;
+        for (int i = slot(value, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the value was not present
+     */
+    public boolean add(long value) {
+        requirePositive(value);
+        int mask = slots.length - 1;
+        int i = slot(value, mask);
+        for (; slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return false;
+            }
+        }
+        slots[i] = value;
+        if (++size * 2 > slots.length) { // Keep the load factor at or below 0.5 so probe runs stay short
+            rehash(slots.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the value was present
+     */
+    public boolean remove(long value) {
+        requirePositive(value);
+        int mask = slots.length - 1;
+        int i = slot(value, mask);
+        while (slots[i] != value) {
+            if (slots[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the gap, so no tombstones are needed
+        int gap = i;
+        for (int j = (gap + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int home = slot(slots[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                slots[gap] = slots[j];
+                gap = j;
+            }
+        }
+        slots[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * @return the values in no particular order
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int n = 0;
+        for (long slot : slots) {
+            if (slot != 0) {
+                values[n++] = slot;
+            }
+        }
+        return values;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        slots = new long[capacity];
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int i = slot(value, mask);
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = value;
+            }
+        }
+    }
+
+    // Sequential ids would cluster with a plain modulo, so mix the bits first (the 64-bit finalizer of MurmurHash3)
+    private static int slot(long value, int mask) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static void requirePositive(long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Only positive values can be stored: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongHashSet" + Arrays.toString(toArray());
+    }
+}
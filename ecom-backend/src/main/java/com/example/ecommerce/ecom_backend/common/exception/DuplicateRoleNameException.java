@@ -0,0 +1,11 @@
+package com.example.ecommerce.ecom_backend.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT) // This maps to HTTP 409 Conflict
+public class DuplicateRoleNameException extends RuntimeException {
+    public DuplicateRoleNameException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.ecom_backend.common.exception;
+
+// The new parent would put a category inside its own subtree, e.g. moving "Phones" under "Phones > Cases"
+public class InvalidCategoryMoveException extends RuntimeException {
+
+    public InvalidCategoryMoveException(String message) {
+        super(message);
+    }
+}
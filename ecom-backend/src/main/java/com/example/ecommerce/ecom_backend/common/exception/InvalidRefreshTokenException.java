@@ -0,0 +1,9 @@
+package com.example.ecommerce.ecom_backend.common.exception;
+
+// The refresh token is unknown, expired, revoked or was already used; the client has to log in again
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.ecom_backend.common.exception;
+
+// The requested status change is not allowed from the order's current status, e.g. DELIVERED -> PENDING
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
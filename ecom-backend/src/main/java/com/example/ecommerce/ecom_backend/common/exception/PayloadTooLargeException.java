@@ -0,0 +1,9 @@
+package com.example.ecommerce.ecom_backend.common.exception;
+
+// An upload over its configured size; answered with 413
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.ecom_backend.common.exception;
+
+// The quote token sent with an order is invalid, has expired or no longer matches the cart; the client should re-quote
+public class QuoteExpiredException extends RuntimeException {
+
+    public QuoteExpiredException(String message) {
+        super(message);
+    }
+}
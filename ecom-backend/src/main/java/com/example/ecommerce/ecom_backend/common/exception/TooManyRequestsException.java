@@ -0,0 +1,16 @@
+package com.example.ecommerce.ecom_backend.common.exception;
+
+// The server is shedding load; answered with 429 and a Retry-After header so well-behaved clients back off
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
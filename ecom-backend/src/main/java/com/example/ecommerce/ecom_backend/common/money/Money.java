@@ -0,0 +1,182 @@
+package com.example.ecommerce.ecom_backend.common.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Immutable amount of money held as a {@code long} count of minor units (paise, cents) plus its currency.
+ * Arithmetic is plain overflow-checked long math, so summing a cart allocates no BigDecimal/BigInteger chain,
+ * and the Stripe amount is just {@link #getMinorUnits()}.
+ *
+ * Persisted as the existing DECIMAL columns through {@link MoneyConverter}, and written to JSON as a plain
+ * decimal number (e.g. {@code 19.99}), so neither the schema nor the API shape changes.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+
+    // The store sells in a single currency; it matches the currency sent to Stripe
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("INR");
+    public static final Money ZERO = new Money(0L, DEFAULT_CURRENCY);
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Boundary conversion (request DTOs, DECIMAL columns). Never rounds: an amount finer than the currency's minor
+     * unit (e.g. 9.999 INR) is rejected, so a typo can't silently become a different price.
+     *
+     * @throws IllegalArgumentException if the amount has more decimal places than the currency, or doesn't fit a long
+     */
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        try {
+            long minor = amount.movePointRight(fractionDigits(currency)).setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+            return new Money(minor, currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not a valid " + currency + " amount: " + amount.toPlainString(), e);
+        }
+    }
+
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    // Plain decimal without going through BigDecimal, e.g. 1999 INR -> "19.99", -5 -> "-0.05"
+    @Override
+    public String toString() {
+        int digits = fractionDigits(currency);
+        if (digits == 0 || minorUnits == Long.MIN_VALUE) {
+            return digits == 0 ? Long.toString(minorUnits) : toBigDecimal().toPlainString();
+        }
+        long abs = Math.abs(minorUnits);
+        long scale = POWERS_OF_TEN[digits];
+        String fraction = Long.toString(abs % scale);
+        StringBuilder sb = new StringBuilder(24);
+        if (minorUnits < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / scale).append('.');
+        for (int i = fraction.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    private static int fractionDigits(Currency currency) {
+        int digits = currency.getDefaultFractionDigits();
+        if (digits < 0 || digits >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        return digits;
+    }
+
+    static final class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toString()); // Raw numeric token, no quotes
+        }
+    }
+
+    static final class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return Money.parse(p.getText()); // Accepts 19.99 as well as "19.99"
+        }
+    }
+}
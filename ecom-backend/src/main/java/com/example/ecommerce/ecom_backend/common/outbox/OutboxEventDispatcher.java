@@ -0,0 +1,13 @@
+package com.example.ecommerce.ecom_backend.common.outbox;
+
+/**
+ * Turns a stored outbox row back into a typed event and hands it to the interested listeners.
+ * One dispatcher per aggregate type (see {@code OrderOutboxDispatcher}).
+ */
+public interface OutboxEventDispatcher {
+
+    boolean supports(String aggregateType);
+
+    // Must throw if any listener failed, so the relay keeps the event for another attempt
+    void dispatch(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,111 @@
+package com.example.ecommerce.ecom_backend.common.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Polls the outbox in batches and publishes pending events to in-process listeners.
+ *
+ * Delivery is at-least-once: an event is only marked published after its dispatcher returned
+ * normally, so a crash or listener failure means it is delivered again on the next poll.
+ * A failing event stops the batch so later events for the same order are never seen first;
+ * after {@code outbox.relay.max-attempts} failures it is parked and skipped.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventDispatcher> dispatchers;
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${outbox.retention-days:7}")
+    private int retentionDays = 7;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxEventDispatcher> dispatchers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.dispatchers = dispatchers;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void poll() {
+        // Keep draining while full batches come back, so a burst of checkouts does not wait several intervals
+        int published;
+        do {
+            published = relayPendingEvents();
+        } while (published == batchSize);
+    }
+
+    /**
+     * Publishes one batch of pending events.
+     *
+     * @return the number of events that were published
+     */
+    public int relayPendingEvents() {
+        if (!relayLock.tryLock()) {
+            return 0; // Another thread is already relaying
+        }
+        try {
+            List<OutboxEvent> batch = outboxEventRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+            List<Long> publishedIds = new ArrayList<>(batch.size());
+
+            for (OutboxEvent event : batch) {
+                try {
+                    dispatch(event);
+                    publishedIds.add(event.getId());
+                } catch (Exception ex) {
+                    log.warn("Outbox event {} ({}) failed on attempt {}: {}",
+                            event.getId(), event.getEventType(), event.getAttempts() + 1, ex.getMessage());
+                    outboxEventRepository.recordFailure(event.getId(), truncate(ex.toString()));
+                    break; // Preserve per-aggregate ordering; retry from here on the next poll
+                }
+            }
+
+            if (!publishedIds.isEmpty()) {
+                outboxEventRepository.markPublished(publishedIds, LocalDateTime.now());
+            }
+            return publishedIds.size();
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 15 3 * * *}")
+    public void purgePublishedEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int deleted;
+        do {
+            deleted = outboxEventRepository.deletePublishedBefore(cutoff, 1000);
+        } while (deleted == 1000);
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        for (OutboxEventDispatcher dispatcher : dispatchers) {
+            if (dispatcher.supports(event.getAggregateType())) {
+                dispatcher.dispatch(event);
+                return;
+            }
+        }
+        throw new IllegalStateException("No outbox dispatcher for aggregate type " + event.getAggregateType());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
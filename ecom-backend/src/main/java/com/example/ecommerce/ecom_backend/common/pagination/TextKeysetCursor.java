@@ -0,0 +1,48 @@
+package com.example.ecommerce.ecom_backend.common.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque "continue after (key, id)" position for keyset pagination in ascending text order, e.g. by email.
+ * The key is null when the list is ordered by id alone. Encoded like {@link KeysetCursor}.
+ */
+public final class TextKeysetCursor {
+
+    private final String key;
+    private final Long id;
+
+    public TextKeysetCursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = key == null ? String.valueOf(id) : id + "|" + key; // Id first: the key may contain '|'
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing cursor (first page)
+    public static TextKeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return separator < 0
+                    ? new TextKeysetCursor(null, Long.parseLong(raw))
+                    : new TextKeysetCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ecommerce.ecom_backend.common.ratelimit;
+
+import com.example.ecommerce.ecom_backend.common.dto.ErrorDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link RateLimiter} inside the security chain, right after JWT authentication, so signed-in callers are
+ * limited per user and everyone else per IP address. Rejections get a 429 with a Retry-After header.
+ *
+ * Registered only in the security chain (see {@code SecurityConfig}); running it earlier, as a plain servlet
+ * filter, would see no user yet.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod()); // CORS preflight
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // Decoded, as MVC routes it: matched raw, /api/auth/%6cogin would reach the login handler under the /api/** limit
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        long waitNanos = rateLimiter.tryAcquire(request.getMethod(), path, clientKey(request));
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Emails contain '@' and addresses don't, so both kinds of key can share one map per rule
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return request.getRemoteAddr(); // Behind a proxy, set server.forward-headers-strategy so this is the client
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), "Too many requests; try again in "
+                + retryAfterSeconds + "s.", "uri=" + request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), errorDetails);
+    }
+}
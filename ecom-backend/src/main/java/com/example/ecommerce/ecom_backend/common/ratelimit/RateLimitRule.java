@@ -0,0 +1,103 @@
+package com.example.ecommerce.ecom_backend.common.ratelimit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One configured limit: {@code [METHOD ]pattern=capacity/seconds}, e.g. {@code POST /api/auth/login=10/60}
+ * allows a burst of 10 logins per client, refilled at 10 per minute. Each rule has its own buckets, keyed by
+ * client (user name or IP address).
+ */
+public final class RateLimitRule {
+
+    private final String method; // null = any method
+    private final PathPattern pattern;
+    private final String literal; // Set when the pattern is a plain path or a plain prefix ending in /**
+    private final boolean prefix;
+    private final int capacity;
+    private final long refillIntervalNanos;
+    private final long capacityNanos;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    RateLimitRule(String method, PathPattern pattern, int capacity, long periodSeconds) {
+        if (capacity <= 0 || periodSeconds <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and period must be positive: " + pattern);
+        }
+        this.method = method;
+        this.pattern = pattern;
+        String patternString = pattern.getPatternString();
+        this.prefix = patternString.endsWith("/**");
+        String head = prefix ? patternString.substring(0, patternString.length() - 3) : patternString;
+        this.literal = head.indexOf('*') < 0 && head.indexOf('{') < 0 && head.indexOf('?') < 0 ? head : null;
+        this.capacity = capacity;
+        this.refillIntervalNanos = TimeUnit.SECONDS.toNanos(periodSeconds) / capacity;
+        this.capacityNanos = refillIntervalNanos * capacity;
+    }
+
+    static RateLimitRule parse(String spec) {
+        String trimmed = spec.trim();
+        int equals = trimmed.lastIndexOf('=');
+        int slash = trimmed.lastIndexOf('/');
+        if (equals < 0 || slash < equals) {
+            throw new IllegalArgumentException("Expected '[METHOD ]pattern=capacity/seconds' but got: " + spec);
+        }
+        String route = trimmed.substring(0, equals).trim();
+        int space = route.indexOf(' ');
+        String method = space < 0 ? null : route.substring(0, space).toUpperCase(Locale.ROOT);
+        String path = space < 0 ? route : route.substring(space + 1).trim();
+        return new RateLimitRule(method, PathPatternParser.defaultInstance.parse(path),
+                Integer.parseInt(trimmed.substring(equals + 1, slash).trim()),
+                Long.parseLong(trimmed.substring(slash + 1).trim()));
+    }
+
+    boolean matches(String requestMethod, String path) {
+        if (method != null && !method.equals(requestMethod)) {
+            return false;
+        }
+        if (literal == null) {
+            return pattern.matches(PathContainer.parsePath(path));
+        }
+        // Plain paths and prefixes, i.e. every default rule, are string comparisons with no parsing
+        if (!prefix) {
+            return literal.equals(path);
+        }
+        return path.startsWith(literal) && (path.length() == literal.length() || path.charAt(literal.length()) == '/');
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the client gets a token back
+     */
+    long tryAcquire(String clientKey, long nowNanos, int maxClients) {
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                // Flooded with distinct keys (spoofed addresses): newcomers wait for the sweep rather than grow the map
+                return refillIntervalNanos;
+            }
+            bucket = buckets.computeIfAbsent(clientKey, key -> new TokenBucket(nowNanos));
+        }
+        return bucket.tryAcquire(nowNanos, refillIntervalNanos, capacityNanos);
+    }
+
+    // A full bucket carries no state worth keeping; dropping it is the same as the client never having called
+    int evictFull(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+        return before - buckets.size();
+    }
+
+    int trackedClients() {
+        return buckets.size();
+    }
+
+    @Override
+    public String toString() {
+        return (method == null ? "" : method + " ") + pattern.getPatternString() + "=" + capacity + "/"
+                + TimeUnit.NANOSECONDS.toSeconds(capacityNanos);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ecommerce.ecom_backend.common.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-client token buckets for the routes listed in {@code rate-limit.rules}. The first rule matching a request
+ * decides; requests matching none are not limited.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    // Bcrypt-heavy and unauthenticated endpoints first, then a generous per-client ceiling for the rest of the API
+    static final String DEFAULT_RULES = "POST /api/auth/login=10/60, POST /api/auth/register=5/60, "
+            + "/api/payments/**=30/60, /api/**=600/60";
+
+    private final boolean enabled;
+    private final List<RateLimitRule> rules;
+    private final int maxClientsPerRule;
+
+    public RateLimiter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                       @Value("${rate-limit.rules:}") String rules,
+                       @Value("${rate-limit.max-clients-per-rule:100000}") int maxClientsPerRule) {
+        this.enabled = enabled;
+        this.rules = Arrays.stream((StringUtils.hasText(rules) ? rules : DEFAULT_RULES).split(","))
+                .filter(StringUtils::hasText)
+                .map(RateLimitRule::parse)
+                .toList();
+        this.maxClientsPerRule = maxClientsPerRule;
+        log.info("Rate limits {}: {}", enabled ? "enabled" : "disabled", this.rules);
+    }
+
+    /**
+     * Takes a token for this client from the first rule matching the request.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long tryAcquire(String method, String path, String clientKey) {
+        if (!enabled) {
+            return 0;
+        }
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(method, path)) {
+                return rule.tryAcquire(clientKey, System.nanoTime(), maxClientsPerRule);
+            }
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        int remaining = 0;
+        for (RateLimitRule rule : rules) {
+            // A client racing the sweep may get its bucket dropped mid-refill, i.e. a few tokens back; harmless
+            evicted += rule.evictFull(now);
+            remaining += rule.trackedClients();
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate-limit buckets, {} still tracked", evicted, remaining);
+        }
+    }
+}
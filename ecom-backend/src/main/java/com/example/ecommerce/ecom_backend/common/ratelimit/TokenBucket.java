@@ -0,0 +1,43 @@
+package com.example.ecommerce.ecom_backend.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single timestamp: the {@link System#nanoTime()} at which it will be full again.
+ *
+ * Taking a token pushes that instant one refill interval further out; the bucket is empty once it lies more than
+ * capacity intervals ahead of now. Refill is implicit in time passing, so an acquire is one read and one CAS with
+ * no lock, and a bucket whose instant has passed is indistinguishable from a new one (see {@link #isFull}).
+ */
+public final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long nowNanos) {
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(long nowNanos, long refillIntervalNanos, long capacityNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long base = current - nowNanos > 0 ? current : nowNanos; // Already full: start from now
+            long next = base + refillIntervalNanos;
+            long overdraw = next - nowNanos - capacityNanos;
+            if (overdraw > 0) {
+                return overdraw;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
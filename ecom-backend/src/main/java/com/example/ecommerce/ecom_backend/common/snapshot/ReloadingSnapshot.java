@@ -0,0 +1,62 @@
+package com.example.ecommerce.ecom_backend.common.snapshot;
+
+import com.example.ecommerce.ecom_backend.common.tx.AfterCommit;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * An immutable value loaded from the database and replaced as a whole, so readers always see one consistent version
+ * without locking. Owners reload it after their own writes commit and on a schedule for changes made elsewhere.
+ *
+ * A lookup the current value can't answer may reload it once before reporting a miss, which picks up rows added by
+ * another instance. Those reloads are spaced at least {@code missReloadIntervalMs} apart, since callers can ask for
+ * made-up names or ids and must not be able to turn that into a full table read per request.
+ *
+ * @param <T> the snapshot type; must not be modified after the loader returns it
+ */
+public final class ReloadingSnapshot<T> {
+
+    private final Supplier<T> loader;
+    private final long missReloadIntervalMs;
+    private volatile T value; // null until first loaded
+    private volatile long loadedAt;
+
+    public ReloadingSnapshot(Supplier<T> loader, long missReloadIntervalMs) {
+        this.loader = loader;
+        this.missReloadIntervalMs = missReloadIntervalMs;
+    }
+
+    // Serialized so a slow load started before a change can't overwrite one started after it
+    public synchronized void reload() {
+        loadedAt = System.currentTimeMillis();
+        value = loader.get();
+    }
+
+    // Reload once the current transaction commits, or right away outside one
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    public T get() {
+        T current = value;
+        if (current == null) { // Used before the application was ready, e.g. by a runner
+            reload();
+            current = value;
+        }
+        return current;
+    }
+
+    /**
+     * @return the current value, reloaded first if it doesn't satisfy {@code answers} and the interval has passed;
+     * callers still have to check the result
+     */
+    public T getOrReload(Predicate<T> answers) {
+        T current = get();
+        if (!answers.test(current) && System.currentTimeMillis() - loadedAt >= missReloadIntervalMs) {
+            reload();
+            current = value;
+        }
+        return current;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ecommerce.ecom_backend.config;
 
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.example.ecommerce.ecom_backend.order.model.Order;
 import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;
 import com.example.ecommerce.ecom_backend.user.model.Role;
@@ -11,7 +12,6 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 
@@ -68,7 +68,7 @@ public class DataLoader implements CommandLineRunner {
             Order testOrder = new Order();
             testOrder.setUser(testUser);
             testOrder.setOrderDate(LocalDateTime.now());
-            testOrder.setTotalAmount(new BigDecimal("129.99"));
+            testOrder.setTotalAmount(Money.parse("129.99"));
             testOrder.setStatus("PENDING"); // Important: Initial status
             orderRepository.save(testOrder);
             System.out.println("---- Created Test User and Test Order with ID: " + testOrder.getId() + " ----");
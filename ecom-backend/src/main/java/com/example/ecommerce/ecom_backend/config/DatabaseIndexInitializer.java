@@ -0,0 +1,143 @@
+package com.example.ecommerce.ecom_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Creates the composite indexes and unique keys our hot queries depend on. {@code ddl-auto=update} only adds missing tables
+ * and columns to an existing schema, so indexes on long-lived tables like {@code orders} are managed here.
+ * Each index is created only if no index with that name exists yet. A secondary index that can't be built is logged
+ * and skipped, but a unique key stops startup: code relies on it for correctness (the add-to-cart upsert would
+ * otherwise insert duplicate lines instead of adding to the existing one).
+ */
+@Component
+public class DatabaseIndexInitializer implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseIndexInitializer.class);
+
+    static final List<IndexDefinition> INDEXES = List.of(
+            // Admin order listing: status filter + newest first, keyset on (placed, id). Functional key parts (MySQL
+            // 8.0.13+) must repeat OrderListingRepository's expression exactly to be used
+            new IndexDefinition("orders", "idx_orders_status_placed", "status, (COALESCE(order_date, created_at)), id"),
+            // Order history per customer, also used by the admin listing filtered by customer (InnoDB appends the primary key)
+            new IndexDefinition("orders", "idx_orders_user_date", "user_id, order_date"),
+            // Unfiltered admin order listing and date-range exports
+            new IndexDefinition("orders", "idx_orders_placed", "(COALESCE(order_date, created_at)), id"),
+            // Admin user directory: username prefix search in (username, id) keyset order (email has its unique key)
+            new IndexDefinition("users", "idx_users_username", "username, id"),
+            // Admin user directory filtered by role, walked in user id order
+            new IndexDefinition("user_roles", "idx_user_roles_role_user", "role_id, user_id"),
+            // Abandoned-cart sweeper walks stale carts in (updated_at, id) order
+            new IndexDefinition("carts", "idx_carts_updated", "updated_at, id"),
+            // Cart lines holding a product, walked by id when CartRepricer reprices it
+            new IndexDefinition("cart_items", "idx_cart_items_product", "product_id, id"),
+            // Add-to-cart upserts against this key. Lines duplicated by earlier races are merged into the oldest first
+            IndexDefinition.unique("cart_items", "uk_cart_items_cart_product", "cart_id, product_id",
+                    "UPDATE cart_items ci JOIN (SELECT MIN(id) AS keep_id, SUM(quantity) AS total FROM cart_items " +
+                            "GROUP BY cart_id, product_id HAVING COUNT(*) > 1) d ON ci.id = d.keep_id SET ci.quantity = d.total",
+                    "DELETE ci FROM cart_items ci JOIN (SELECT cart_id, product_id, MIN(id) AS keep_id FROM cart_items " +
+                            "GROUP BY cart_id, product_id HAVING COUNT(*) > 1) d " +
+                            "ON ci.cart_id = d.cart_id AND ci.product_id = d.product_id AND ci.id > d.keep_id")
+    );
+
+    // Superseded by the definitions above; dropped so writes stop maintaining them
+    static final List<ObsoleteIndex> OBSOLETE_INDEXES = List.of(
+            new ObsoleteIndex("orders", "idx_orders_status_date"),
+            new ObsoleteIndex("orders", "idx_orders_date")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${db.indexes.create-on-startup:true}")
+    private boolean createOnStartup;
+
+    public DatabaseIndexInitializer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!createOnStartup) {
+            return;
+        }
+        for (IndexDefinition index : INDEXES) {
+            try {
+                if (!existingIndexes(index.table()).contains(index.name())) {
+                    if (!index.preparation().isEmpty()) {
+                        // Clean-up runs as one transaction; CREATE INDEX commits implicitly so it can't join it
+                        transactionTemplate.executeWithoutResult(status -> index.preparation().forEach(jdbcTemplate::execute));
+                    }
+                    // Secondary index builds are online in InnoDB, so this doesn't block writes
+                    jdbcTemplate.execute("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX " + index.name()
+                            + " ON " + index.table() + " (" + index.columns() + ")");
+                    log.info("Created index {} on {}({})", index.name(), index.table(), index.columns());
+                }
+            } catch (DataAccessException ex) {
+                if (index.unique()) {
+                    throw new IllegalStateException("Could not create unique index " + index.name() + " on "
+                            + index.table() + "(" + index.columns() + ")", ex);
+                }
+                // A missing secondary index only makes the queries slower
+                log.warn("Could not create index {} on {}: {}", index.name(), index.table(), ex.getMessage());
+            }
+        }
+        for (ObsoleteIndex index : OBSOLETE_INDEXES) {
+            try {
+                if (existingIndexes(index.table()).contains(index.name())) {
+                    jdbcTemplate.execute("DROP INDEX " + index.name() + " ON " + index.table());
+                    log.info("Dropped obsolete index {} on {}", index.name(), index.table());
+                }
+            } catch (DataAccessException ex) {
+                log.warn("Could not drop index {} on {}: {}", index.name(), index.table(), ex.getMessage());
+            }
+        }
+    }
+
+    private Set<String> existingIndexes(String table) {
+        return jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            Set<String> names = new HashSet<>();
+            try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, true)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    if (name != null) {
+                        names.add(name.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return names;
+        });
+    }
+
+    /**
+     * @param preparation statements that must run before the index can be built, e.g. removing rows that
+     *                    would violate a unique index
+     */
+    record IndexDefinition(String table, String name, String columns, boolean unique, List<String> preparation) {
+
+        IndexDefinition(String table, String name, String columns) {
+            this(table, name, columns, false, List.of());
+        }
+
+        static IndexDefinition unique(String table, String name, String columns, String... preparation) {
+            return new IndexDefinition(table, name, columns, true, List.of(preparation));
+        }
+    }
+
+    record ObsoleteIndex(String table, String name) {
+    }
+}
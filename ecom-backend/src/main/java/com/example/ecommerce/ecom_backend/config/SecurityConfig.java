@@ -1,10 +1,23 @@
 package com.example.ecommerce.ecom_backend.config;
 
+import com.example.ecommerce.ecom_backend.auth.password.OffloadingPasswordEncoder;
+import com.example.ecommerce.ecom_backend.auth.password.PasswordHashingExecutor;
 import com.example.ecommerce.ecom_backend.auth.security.CustomUserDetailsService;
 import com.example.ecommerce.ecom_backend.auth.security.JwtAuthEntryPoint;
 import com.example.ecommerce.ecom_backend.auth.security.JwtAuthenticationFilter;
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRoleAuthorizationManager;
+import com.example.ecommerce.ecom_backend.common.ratelimit.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -12,8 +25,9 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -31,18 +45,28 @@ public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final JwtAuthEntryPoint authenticationEntryPoint;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RateLimitFilter rateLimitFilter;
+
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService,
                           JwtAuthenticationFilter jwtAuthenticationFilter,
-                          JwtAuthEntryPoint authenticationEntryPoint) {
+                          JwtAuthEntryPoint authenticationEntryPoint,
+                          PasswordHashingExecutor passwordHashingExecutor,
+                          RateLimitFilter rateLimitFilter) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.authenticationEntryPoint = authenticationEntryPoint;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // BCrypt on its own bounded pool, never on Tomcat threads
+        return new OffloadingPasswordEncoder(bcryptStrength, passwordHashingExecutor);
     }
 
     @Bean
@@ -55,16 +79,45 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService); // Rehash on login when the cost changed
         return authProvider;
     }
 
+    // @RequiresRole: role checks resolved once per method, in the same slot as @PreAuthorize
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requiresRoleAuthorization() {
+        AuthorizationManagerBeforeMethodInterceptor interceptor = new AuthorizationManagerBeforeMethodInterceptor(
+                Pointcuts.union(new AnnotationMatchingPointcut(RequiresRole.class, true),
+                        new AnnotationMatchingPointcut(null, RequiresRole.class, true)),
+                new RequiresRoleAuthorizationManager());
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
+
+    // Runs inside the security chain only (after JWT auth, so it can key by user), not as a servlet filter too
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Likewise for the JWT filter: it only matters inside the security chain
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         // --- THIS IS THE FIX ---
         // Add "http://localhost" to allow requests from the containerized frontend
         configuration.setAllowedOrigins(Arrays.asList("http://127.0.0.1:5500", "http://localhost:5500", "http://localhost"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -80,8 +133,13 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         // Permit all OPTIONS requests for CORS preflight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // SSE streams complete via an async dispatch; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Allow public access to auth, payments, and webhooks
                         .requestMatchers("/api/auth/**", "/api/payments/**", "/api/stripe/webhook").permitAll()
+                        // Guests can browse the catalogue and fill a cookie-keyed cart before logging in
+                        .requestMatchers(HttpMethod.GET, "/api/products/**", "/api/categories/**").permitAll()
+                        .requestMatchers("/api/guest-cart/**").permitAll()
                         // All other requests must be authenticated
                         .anyRequest().authenticated()
                 )
@@ -92,6 +150,7 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 );
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 }
\ No newline at end of file
@@ -1,16 +1,32 @@
 // src/main/java/com/example.ecommerce.ecom_backend.order.controller/OrderController.java
 package com.example.ecommerce.ecom_backend.order.controller;
 
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.order.dto.AdminOrderPageDTO;
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateRequestDTO;
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateResultDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderHistoryPageDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderQuoteDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderRequestDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderResponseDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderSearchCriteria;
 import com.example.ecommerce.ecom_backend.order.service.OrderService;
 import jakarta.validation.Valid; // For @Valid annotation
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize; // For role-based authorization
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -24,21 +40,46 @@ public class OrderController {
         this.orderService = orderService;
     }
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
     @PostMapping // Maps POST requests to /api/orders
     public ResponseEntity<OrderResponseDTO> placeOrder(@Valid @RequestBody OrderRequestDTO orderRequestDTO) {
         OrderResponseDTO newOrder = orderService.placeOrder(orderRequestDTO);
         return new ResponseEntity<>(newOrder, HttpStatus.CREATED); // 201 Created
     }
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
+    @PostMapping("/quote") // Read-only price and stock check before payment; takes no locks
+    public ResponseEntity<OrderQuoteDTO> quoteMyCart() {
+        return ResponseEntity.ok(orderService.quoteMyCart());
+    }
+
+    // Deprecated: returns only the latest 50 orders; clients should page through /my-orders/history instead
+    @Deprecated
+    @RequiresRole({"USER", "ADMIN"})
     @GetMapping("/my-orders") // Maps GET requests to /api/orders/my-orders
     public ResponseEntity<List<OrderResponseDTO>> getMyOrders() {
         List<OrderResponseDTO> myOrders = orderService.getMyOrders();
-        return ResponseEntity.ok(myOrders); // 200 OK
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/orders/my-orders/history>; rel=\"successor-version\"")
+                .body(myOrders); // 200 OK
+    }
+
+    @RequiresRole({"USER", "ADMIN"})
+    @GetMapping("/my-orders/history") // Paginated summaries, newest first
+    public ResponseEntity<OrderHistoryPageDTO> getMyOrderHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getMyOrderHistory(cursor, size));
+    }
+
+    @RequiresRole({"USER", "ADMIN"})
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE) // Push status changes instead of polling /{orderId}
+    public SseEmitter streamMyOrderStatusUpdates() {
+        return orderService.subscribeToMyOrderStatusUpdates();
     }
 
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
     @GetMapping("/{orderId}") // Maps GET requests to /api/orders/{orderId}
     public ResponseEntity<OrderResponseDTO> getOrderDetails(@PathVariable Long orderId) {
         // Service will throw ResourceNotFoundException if not found or not belonging to user
@@ -46,14 +87,39 @@ public class OrderController {
         return ResponseEntity.ok(order); // 200 OK
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
-    @GetMapping // Maps GET requests to /api/orders (without /{orderId} or /my-orders)
-    public ResponseEntity<List<OrderResponseDTO>> getAllOrders() {
-        List<OrderResponseDTO> allOrders = orderService.getAllOrders();
-        return ResponseEntity.ok(allOrders); // 200 OK
+    @RequiresRole("ADMIN")
+    @GetMapping // Maps GET requests to /api/orders, e.g. ?status=PAID&from=2025-01-01&to=2025-01-31&cursor=...
+    public ResponseEntity<AdminOrderPageDTO> searchOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(status, userId, from, to);
+        return ResponseEntity.ok(orderService.searchOrders(criteria, cursor, size)); // 200 OK
+    }
+
+    @RequiresRole("ADMIN")
+    @GetMapping(value = "/export", produces = "text/csv") // Same filters as the listing, streamed as CSV
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(status, userId, from, to);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            orderService.exportOrdersCsv(criteria, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     @PutMapping("/{orderId}/status") // Maps PUT requests to /api/orders/{orderId}/status
     public ResponseEntity<OrderResponseDTO> updateOrderStatus(
             @PathVariable Long orderId,
@@ -62,5 +128,12 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder); // 200 OK
     }
 
+    @RequiresRole("ADMIN")
+    @PostMapping("/bulk-status") // Fulfilment: move many orders to one status in a single call
+    public ResponseEntity<BulkOrderStatusUpdateResultDTO> updateOrderStatuses(
+            @Valid @RequestBody BulkOrderStatusUpdateRequestDTO request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request)); // 200 OK
+    }
+
 
 }
\ No newline at end of file
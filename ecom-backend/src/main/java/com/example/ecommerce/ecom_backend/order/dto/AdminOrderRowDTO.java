@@ -0,0 +1,23 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One line of the admin order list; use GET /api/orders/{orderId} for items
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminOrderRowDTO {
+    private Long id;
+    private Long userId;
+    private String userEmail;
+    private LocalDateTime orderDate; // Creation time for orders without an order date
+    private String status;
+    private Money totalAmount;
+    private Integer itemCount; // From the order summary; null until the summary exists
+}
@@ -0,0 +1,23 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusUpdateRequestDTO {
+
+    @NotEmpty(message = "orderIds must not be empty")
+    @Size(max = 10000, message = "At most 10000 orders can be updated per request")
+    private List<Long> orderIds;
+
+    @NotBlank(message = "newStatus is required")
+    private String newStatus;
+}
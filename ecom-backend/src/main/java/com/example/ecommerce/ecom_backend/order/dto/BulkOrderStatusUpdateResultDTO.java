@@ -0,0 +1,20 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Per-id outcome of a bulk status update, grouped so large batches stay small on the wire
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusUpdateResultDTO {
+    private String newStatus;
+    private List<Long> updated;
+    private List<Long> unchanged; // Already had the requested status
+    private List<Long> notFound;
+    private List<Long> rejected; // The move isn't allowed from the order's current status
+    private List<Long> failed; // Their chunk rolled back (e.g. a lock timeout); safe to resubmit
+}
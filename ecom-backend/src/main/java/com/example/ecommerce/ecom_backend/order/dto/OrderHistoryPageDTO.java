@@ -0,0 +1,15 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryPageDTO {
+    private List<OrderSummaryDTO> orders;
+    private String nextCursor; // Pass back as ?cursor= to get the next page; null on the last page
+}
@@ -1,12 +1,12 @@
 // src/main/java/com/example/ecommerce/ecom_backend/order/dto/OrderItemResponseDTO.java
 package com.example.ecommerce.ecom_backend.order.dto;
 
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,6 +16,6 @@ public class OrderItemResponseDTO {
     private String productName;
     private String imageUrl; // Product image at time of order
     private Integer quantity;
-    private BigDecimal priceAtPurchase; // Price of the product when the order was placed
-    private BigDecimal subtotal; // quantity * priceAtPurchase
+    private Money priceAtPurchase; // Price of the product when the order was placed
+    private Money subtotal; // quantity * priceAtPurchase
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderQuoteDTO {
+    private List<OrderQuoteLineDTO> lines;
+    private Money totalAmount;
+    private boolean available; // Every line in stock
+    private String quoteToken; // Pass to POST /api/orders to be charged these prices; null when not available
+    private LocalDateTime expiresAt;
+}
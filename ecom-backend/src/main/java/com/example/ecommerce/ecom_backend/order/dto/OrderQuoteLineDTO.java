@@ -0,0 +1,20 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderQuoteLineDTO {
+    private Long productId;
+    private String productName;
+    private String imageUrl;
+    private Integer quantity;
+    private Money unitPrice; // Current catalogue price, which the order will be charged while the quote is valid
+    private Money subtotal;
+    private boolean inStock; // Enough stock for this quantity when the quote was made; false if the product is gone
+}
@@ -1,5 +1,12 @@
 package com.example.ecommerce.ecom_backend.order.dto;
 
-public class OrderRequestDTO {
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequestDTO {
+    private String quoteToken; // Optional, from POST /api/orders/quote; the order then uses the quoted prices
 }
@@ -1,11 +1,12 @@
 // src/main/java/com/example/ecommerce/ecom_backend/order/dto/OrderResponseDTO.java
 package com.example.ecommerce.ecom_backend.order.dto;
 
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,7 +18,7 @@ public class OrderResponseDTO {
     private Long userId;
     private String userEmail; // To easily identify the user
     private LocalDateTime orderDate;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private String status; // Order status (e.g., PENDING, SHIPPED, DELIVERED)
     private List<OrderItemResponseDTO> items; // List of items in the order
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Optional filters for the admin order listing; null means "don't filter on this"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchCriteria {
+    private String status;
+    private Long userId;
+    private LocalDate from; // Inclusive, by order date (creation time for orders without one)
+    private LocalDate to;   // Inclusive, same date as from
+}
@@ -0,0 +1,22 @@
+package com.example.ecommerce.ecom_backend.order.dto;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private Long orderId;
+    private LocalDateTime orderDate;
+    private String status;
+    private Money totalAmount;
+    private Integer itemCount; // Total units in the order
+    private Integer lineCount; // Distinct products in the order
+    private String previewProductName;
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.ecom_backend.order.event;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Emitted when an order is deleted along with its owner. Carries the lines as they were, since the rows are gone by
+ * the time listeners see it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDeletedEvent {
+    private Long orderId;
+    private Long userId;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private Integer quantity;
+        private Money subtotal;
+    }
+}
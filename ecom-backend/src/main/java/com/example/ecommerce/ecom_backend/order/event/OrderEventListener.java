@@ -0,0 +1,20 @@
+package com.example.ecommerce.ecom_backend.order.event;
+
+/**
+ * In-process subscriber for order lifecycle events relayed from the outbox.
+ *
+ * Delivery is at-least-once, so implementations must be idempotent: the same event can arrive
+ * again if another listener failed or the relay stopped before marking it published.
+ * Throwing makes the relay retry the event later.
+ */
+public interface OrderEventListener {
+
+    default void onOrderPlaced(OrderPlacedEvent event) {
+    }
+
+    default void onOrderStatusChanged(OrderStatusChangedEvent event) {
+    }
+
+    default void onOrderDeleted(OrderDeletedEvent event) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ecommerce.ecom_backend.order.event;
+
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEvent;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records order lifecycle events in the outbox. Must run inside the transaction that changes the order,
+ * so the event exists if and only if the change was committed.
+ */
+@Component
+public class OrderEventPublisher {
+
+    public static final String AGGREGATE_TYPE = "Order";
+    public static final String ORDER_PLACED = "OrderPlaced";
+    public static final String ORDER_STATUS_CHANGED = "OrderStatusChanged";
+    public static final String ORDER_DELETED = "OrderDeleted";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(OrderPlacedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event.getOrderId(), ORDER_PLACED, event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(OrderStatusChangedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event.getOrderId(), ORDER_STATUS_CHANGED, event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusesChanged(List<OrderStatusChangedEvent> events) {
+        outboxEventRepository.saveAll(events.stream()
+                .map(event -> toOutboxEvent(event.getOrderId(), ORDER_STATUS_CHANGED, event))
+                .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersDeleted(List<OrderDeletedEvent> events) {
+        outboxEventRepository.saveAll(events.stream()
+                .map(event -> toOutboxEvent(event.getOrderId(), ORDER_DELETED, event))
+                .toList());
+    }
+
+    private OutboxEvent toOutboxEvent(Long orderId, String eventType, Object payload) {
+        try {
+            return new OutboxEvent(AGGREGATE_TYPE, orderId, eventType, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event for order " + orderId, e);
+        }
+    }
+}
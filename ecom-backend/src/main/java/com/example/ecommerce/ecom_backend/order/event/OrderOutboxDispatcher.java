@@ -0,0 +1,53 @@
+package com.example.ecommerce.ecom_backend.order.event;
+
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEvent;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Deserializes order outbox rows into typed events and delivers them to every {@link OrderEventListener}.
+ */
+@Component
+public class OrderOutboxDispatcher implements OutboxEventDispatcher {
+
+    private final List<OrderEventListener> listeners;
+    private final ObjectMapper objectMapper;
+
+    public OrderOutboxDispatcher(List<OrderEventListener> listeners, ObjectMapper objectMapper) {
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return OrderEventPublisher.AGGREGATE_TYPE.equals(aggregateType);
+    }
+
+    @Override
+    public void dispatch(OutboxEvent event) throws Exception {
+        switch (event.getEventType()) {
+            case OrderEventPublisher.ORDER_PLACED -> {
+                OrderPlacedEvent placed = objectMapper.readValue(event.getPayload(), OrderPlacedEvent.class);
+                for (OrderEventListener listener : listeners) {
+                    listener.onOrderPlaced(placed);
+                }
+            }
+            case OrderEventPublisher.ORDER_STATUS_CHANGED -> {
+                OrderStatusChangedEvent changed = objectMapper.readValue(event.getPayload(), OrderStatusChangedEvent.class);
+                for (OrderEventListener listener : listeners) {
+                    listener.onOrderStatusChanged(changed);
+                }
+            }
+            case OrderEventPublisher.ORDER_DELETED -> {
+                OrderDeletedEvent deleted = objectMapper.readValue(event.getPayload(), OrderDeletedEvent.class);
+                for (OrderEventListener listener : listeners) {
+                    listener.onOrderDeleted(deleted);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown order event type: " + event.getEventType());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ecommerce.ecom_backend.order.event;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Emitted once per successful checkout. Carries everything downstream listeners need,
+ * so they never have to reload the order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private Long orderId;
+    private Long userId;
+    private LocalDateTime orderDate;
+    private String status;
+    private Money totalAmount;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long productId;
+        private String productName;
+        private Integer quantity;
+        private Money priceAtPurchase;
+        private Money subtotal;
+    }
+}
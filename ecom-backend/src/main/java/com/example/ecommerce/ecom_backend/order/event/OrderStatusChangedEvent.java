@@ -0,0 +1,22 @@
+package com.example.ecommerce.ecom_backend.order.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Emitted whenever an order moves to a new status (admin update or Stripe webhook).
+ * Written to the outbox with the status change and relayed to listeners after commit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+    private Long orderId;
+    private Long userId; // Owner of the order, used to route the event to the right subscribers
+    private String previousStatus;
+    private String newStatus;
+    private LocalDateTime changedAt;
+}
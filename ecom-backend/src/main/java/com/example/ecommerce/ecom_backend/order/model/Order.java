@@ -1,11 +1,11 @@
 package com.example.ecommerce.ecom_backend.order.model;
 
 import com.example.ecommerce.ecom_backend.user.model.User;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +32,7 @@ public class Order {
 
     private LocalDateTime orderDate;
     private String status;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference("order-item")
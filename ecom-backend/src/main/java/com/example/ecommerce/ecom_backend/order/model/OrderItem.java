@@ -1,10 +1,10 @@
 package com.example.ecommerce.ecom_backend.order.model;
 
 import com.example.ecommerce.ecom_backend.product.model.Product;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -33,8 +33,8 @@ public class OrderItem {
     private Product product;
 
     private Integer quantity;
-    private BigDecimal subtotal;
-    private BigDecimal priceAtPurchase;
+    private Money subtotal;
+    private Money priceAtPurchase;
 
     @CreatedDate
     @Column(updatable = false)
@@ -0,0 +1,45 @@
+package com.example.ecommerce.ecom_backend.order.model;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lifecycle of an order. Stored by name in {@code orders.status}; the allowed moves are:
+ * PENDING -> PAID | CANCELLED, PAID -> PROCESSING | SHIPPED | CANCELLED, PROCESSING -> SHIPPED | CANCELLED,
+ * SHIPPED -> DELIVERED. DELIVERED and CANCELLED are final.
+ */
+public enum OrderStatus {
+    PENDING, PAID, PROCESSING, SHIPPED, DELIVERED, CANCELLED;
+
+    private static final Map<String, OrderStatus> BY_NAME = Stream.of(values())
+            .collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+
+    private Set<OrderStatus> next;
+
+    static {
+        PENDING.next = EnumSet.of(PAID, CANCELLED);
+        PAID.next = EnumSet.of(PROCESSING, SHIPPED, CANCELLED);
+        PROCESSING.next = EnumSet.of(SHIPPED, CANCELLED);
+        SHIPPED.next = EnumSet.of(DELIVERED);
+        DELIVERED.next = EnumSet.noneOf(OrderStatus.class);
+        CANCELLED.next = EnumSet.noneOf(OrderStatus.class);
+    }
+
+    // Setting the current status again is allowed, e.g. a redelivered payment webhook; callers treat it as a no-op
+    public boolean canTransitionTo(OrderStatus target) {
+        return target == this || next.contains(target);
+    }
+
+    // Exact, case-sensitive match as stored in the database
+    public static OrderStatus parse(String status) {
+        OrderStatus parsed = status == null ? null : BY_NAME.get(status);
+        if (parsed == null) {
+            throw new IllegalArgumentException("Invalid order status: " + status);
+        }
+        return parsed;
+    }
+}
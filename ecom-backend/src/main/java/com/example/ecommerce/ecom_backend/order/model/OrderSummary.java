@@ -0,0 +1,48 @@
+package com.example.ecommerce.ecom_backend.order.model;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized, per-user view of an order used for order history pages.
+ * Maintained from order events by {@code OrderSummaryProjector}; never written by the checkout path.
+ */
+@Entity
+@Table(name = "order_summaries", indexes = {
+        // History is one range read: WHERE user_id = ? ORDER BY order_date DESC, order_id DESC
+        @Index(name = "idx_order_summaries_user_date", columnList = "user_id, order_date, order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId; // Same id as the order it summarizes
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    private Money totalAmount;
+
+    private Integer itemCount; // Total units across all lines
+
+    private Integer lineCount; // Number of distinct products
+
+    private String previewProductName; // Shown in the list, e.g. "Phone + 2 more"
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.ecommerce.ecom_backend.order.quote;
+
+import java.util.Map;
+
+/**
+ * What a checkout quote promised: for this user, until {@code expiresAtMillis}, these quantities at these unit prices
+ * (minor units). Carried back by the client inside a signed token, see {@link QuoteTokenCodec}.
+ */
+public record QuoteToken(Long userId, long expiresAtMillis, Map<Long, Line> lines) {
+
+    public record Line(int quantity, long unitPriceMinor) {
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ecommerce.ecom_backend.order.quote;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a {@link QuoteToken} into an opaque string and back. The payload is
+ * {@code userId|expiresAt|productId:quantity:unitPrice,...}, base64url-encoded and followed by its HMAC-SHA256,
+ * so the server can trust the quoted prices without having stored the quote anywhere.
+ */
+@Component
+public class QuoteTokenCodec {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public QuoteTokenCodec(@Value("${orders.quote.secret:${jwt.secret}}") String secret,
+                           @Value("${orders.quote.ttl-seconds:300}") long ttlSeconds) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String encode(QuoteToken quote) {
+        String lines = quote.lines().entrySet().stream()
+                .map(line -> line.getKey() + ":" + line.getValue().quantity() + ":" + line.getValue().unitPriceMinor())
+                .collect(Collectors.joining(","));
+        String payload = ENCODER.encodeToString(
+                (quote.userId() + "|" + quote.expiresAtMillis() + "|" + lines).getBytes(StandardCharsets.US_ASCII));
+        return payload + "." + sign(payload);
+    }
+
+    /**
+     * @return the quote, or null if the token is malformed or its signature doesn't match. Expiry is left to the caller.
+     */
+    public QuoteToken decode(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        try {
+            String[] parts = new String(DECODER.decode(payload), StandardCharsets.US_ASCII).split("\\|", -1);
+            Map<Long, QuoteToken.Line> lines = new LinkedHashMap<>();
+            if (!parts[2].isEmpty()) {
+                for (String line : parts[2].split(",")) {
+                    String[] fields = line.split(":");
+                    lines.put(Long.parseLong(fields[0]),
+                            new QuoteToken.Line(Integer.parseInt(fields[1]), Long.parseLong(fields[2])));
+                }
+            }
+            return new QuoteToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]), lines);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null; // Signed by us but not in this format, e.g. from an older version
+        }
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ecommerce.ecom_backend.order.readmodel;
+
+import com.example.ecommerce.ecom_backend.order.dto.OrderSummaryDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU of the first history page for the most recently active users.
+ * Size 0 ({@code orders.history.cache-users=0}) disables it.
+ */
+@Component
+public class OrderHistoryCache {
+
+    private final int maxUsers;
+    private final Map<Long, List<OrderSummaryDTO>> firstPages;
+    // Bumped on every invalidation; a reader only caches what it loaded if nothing was invalidated meanwhile
+    private final AtomicLong generation = new AtomicLong();
+
+    public OrderHistoryCache(@Value("${orders.history.cache-users:1000}") int maxUsers) {
+        this.maxUsers = maxUsers;
+        this.firstPages = new LinkedHashMap<>(16, 0.75f, true) { // access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<OrderSummaryDTO>> eldest) {
+                return size() > OrderHistoryCache.this.maxUsers;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxUsers > 0;
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public synchronized List<OrderSummaryDTO> get(Long userId) {
+        return firstPages.get(userId);
+    }
+
+    public synchronized void put(Long userId, List<OrderSummaryDTO> firstPage, long loadedAtGeneration) {
+        if (isEnabled() && generation.get() == loadedAtGeneration) {
+            firstPages.put(userId, List.copyOf(firstPage));
+        }
+    }
+
+    public synchronized void invalidate(Long userId) {
+        generation.incrementAndGet();
+        firstPages.remove(userId);
+    }
+}
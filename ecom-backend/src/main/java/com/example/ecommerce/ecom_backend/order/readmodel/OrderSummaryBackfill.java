@@ -0,0 +1,64 @@
+package com.example.ecommerce.ecom_backend.order.readmodel;
+
+import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;
+import com.example.ecommerce.ecom_backend.order.repository.OrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates summaries for orders that existed before the read model (or were inserted outside the service,
+ * like the DataLoader test order). Uses INSERT IGNORE, so rows written by the projector are left alone.
+ */
+@Component
+public class OrderSummaryBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryBackfill.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.history.backfill-on-startup:true}")
+    private boolean backfillOnStartup = true;
+
+    @Value("${orders.history.backfill-chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    public OrderSummaryBackfill(OrderRepository orderRepository, OrderSummaryRepository orderSummaryRepository,
+                                TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    public int backfill() {
+        if (orderRepository.count() == orderSummaryRepository.count()) {
+            return 0; // Nothing missing
+        }
+        long maxId = orderRepository.findMaxId();
+        int inserted = 0;
+        // Each id range is its own short transaction, so no long-held locks on orders
+        for (long from = 0; from < maxId; from += chunkSize) {
+            long fromId = from;
+            Integer rows = transactionTemplate.execute(status ->
+                    orderSummaryRepository.backfillRange(fromId, fromId + chunkSize));
+            inserted += rows == null ? 0 : rows;
+        }
+        if (inserted > 0) {
+            log.info("Backfilled {} order summaries", inserted);
+        }
+        return inserted;
+    }
+}
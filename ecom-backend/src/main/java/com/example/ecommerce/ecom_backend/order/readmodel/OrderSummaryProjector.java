@@ -0,0 +1,66 @@
+package com.example.ecommerce.ecom_backend.order.readmodel;
+
+import com.example.ecommerce.ecom_backend.common.tx.AfterCommit;
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventListener;
+import com.example.ecommerce.ecom_backend.order.event.OrderPlacedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderStatusChangedEvent;
+import com.example.ecommerce.ecom_backend.order.model.OrderSummary;
+import com.example.ecommerce.ecom_backend.order.repository.OrderSummaryRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps {@code order_summaries} in step with order events. All handlers are idempotent:
+ * placing writes the row by order id, a status change just overwrites the status and a deletion removes the row.
+ * The user's cached history page is dropped only once the row change has committed; dropped earlier, a read in
+ * between could load and cache the old rows.
+ */
+@Component
+public class OrderSummaryProjector implements OrderEventListener {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderHistoryCache orderHistoryCache;
+
+    public OrderSummaryProjector(OrderSummaryRepository orderSummaryRepository, OrderHistoryCache orderHistoryCache) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderHistoryCache = orderHistoryCache;
+    }
+
+    @Override
+    @Transactional
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        int itemCount = 0;
+        String preview = null;
+        if (event.getItems() != null) {
+            for (OrderPlacedEvent.Item item : event.getItems()) {
+                itemCount += item.getQuantity();
+                if (preview == null) {
+                    preview = item.getProductName();
+                }
+            }
+        }
+        int lineCount = event.getItems() == null ? 0 : event.getItems().size();
+
+        orderSummaryRepository.save(new OrderSummary(event.getOrderId(), event.getUserId(), event.getOrderDate(),
+                event.getStatus(), event.getTotalAmount(), itemCount, lineCount, preview, LocalDateTime.now()));
+        AfterCommit.run(() -> orderHistoryCache.invalidate(event.getUserId()));
+    }
+
+    @Override
+    @Transactional
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        orderSummaryRepository.updateStatus(event.getOrderId(), event.getNewStatus(), LocalDateTime.now());
+        AfterCommit.run(() -> orderHistoryCache.invalidate(event.getUserId()));
+    }
+
+    // The deletion already removed the row; this catches one re-created by a placed event relayed after it
+    @Override
+    @Transactional
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        orderSummaryRepository.deleteById(event.getOrderId());
+        AfterCommit.run(() -> orderHistoryCache.invalidate(event.getUserId()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommerce.ecom_backend.order.repository;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.common.pagination.KeysetCursor;
+import com.example.ecommerce.ecom_backend.order.dto.AdminOrderRowDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderSearchCriteria;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset-paginated admin order listing. Orders are placed by {@code COALESCE(order_date, created_at)}, so rows
+ * without an order date are still listed and exported (under their creation time); that is also the date the
+ * {@code from}/{@code to} filters and the cursor use. The WHERE clause only contains the filters that were given,
+ * so each combination maps onto one of the indexes from DatabaseIndexInitializer
+ * ({@code (status, placed, id)}, {@code (placed, id)} or {@code (user_id, ...)}).
+ */
+@Repository
+public class OrderListingRepository {
+
+    private static final String PLACED_AT = "COALESCE(o.order_date, o.created_at)"; // Same expression as the indexes
+
+    private static final RowMapper<AdminOrderRowDTO> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp orderDate = rs.getTimestamp("order_date");
+        BigDecimal totalAmount = rs.getBigDecimal("total_amount");
+        return new AdminOrderRowDTO(
+                rs.getLong("id"),
+                rs.getObject("user_id") == null ? null : rs.getLong("user_id"),
+                rs.getString("email"),
+                orderDate == null ? null : orderDate.toLocalDateTime(),
+                rs.getString("status"),
+                totalAmount == null ? null : Money.of(totalAmount),
+                rs.getObject("item_count") == null ? null : rs.getInt("item_count"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderListingRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<AdminOrderRowDTO> findPage(OrderSearchCriteria criteria, KeysetCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        if (criteria.getStatus() != null) {
+            conditions.add("o.status = :status");
+            params.addValue("status", criteria.getStatus());
+        }
+        if (criteria.getUserId() != null) {
+            conditions.add("o.user_id = :userId");
+            params.addValue("userId", criteria.getUserId());
+        }
+        if (criteria.getFrom() != null) {
+            conditions.add(PLACED_AT + " >= :fromDate");
+            params.addValue("fromDate", Timestamp.valueOf(criteria.getFrom().atStartOfDay()));
+        }
+        if (criteria.getTo() != null) {
+            conditions.add(PLACED_AT + " < :toDate"); // Inclusive day: everything before the next midnight
+            params.addValue("toDate", Timestamp.valueOf(criteria.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (after != null) {
+            conditions.add("(" + PLACED_AT + " < :afterDate OR (" + PLACED_AT + " = :afterDate AND o.id < :afterId))");
+            params.addValue("afterDate", Timestamp.valueOf(after.getTimestamp()));
+            params.addValue("afterId", after.getId());
+        }
+        params.addValue("limit", limit);
+
+        String sql = "SELECT o.id, o.user_id, u.email, " + PLACED_AT + " AS order_date, o.status, o.total_amount, s.item_count " +
+                "FROM orders o " +
+                "LEFT JOIN users u ON u.id = o.user_id " +
+                "LEFT JOIN order_summaries s ON s.order_id = o.id" +
+                (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                " ORDER BY " + PLACED_AT + " DESC, o.id DESC LIMIT :limit";
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+}
@@ -2,13 +2,46 @@ package com.example.ecommerce.ecom_backend.order.repository;
 
 import com.example.ecommerce.ecom_backend.order.model.Order;
 import com.example.ecommerce.ecom_backend.user.model.User; // Assuming User model is in this package
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByUserId(Long id);
+    // Newest first; feeds the capped legacy /my-orders list
+    @Query("select o.id from Order o where o.user.id = :userId order by o.orderDate desc, o.id desc")
+    List<Long> findLatestIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Lines and their products in the same query, so mapping a page of orders doesn't load them one by one
+    @Query("select distinct o from Order o left join fetch o.orderItems i left join fetch i.product " +
+            "where o.id in :ids order by o.orderDate desc, o.id desc")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(o.id), 0) from Order o")
+    long findMaxId();
+
+    // Locks the rows for the rest of the transaction so the previous status in the emitted events is exact
+    @Query(value = "SELECT id AS id, user_id AS userId, status AS status FROM orders WHERE id IN (:ids) FOR UPDATE",
+            nativeQuery = true)
+    List<StatusRow> lockStatusesByIds(@Param("ids") Collection<Long> ids);
+
+    // Bulk update bypasses auditing, so updatedAt is set explicitly
+    @Modifying
+    @Query("update Order o set o.status = :status, o.updatedAt = :updatedAt where o.id in :ids")
+    int updateStatuses(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    interface StatusRow {
+        Long getId();
+        Long getUserId();
+        String getStatus();
+    }
 }
\ No newline at end of file
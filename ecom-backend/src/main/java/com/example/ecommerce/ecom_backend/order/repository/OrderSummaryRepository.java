@@ -0,0 +1,43 @@
+package com.example.ecommerce.ecom_backend.order.repository;
+
+import com.example.ecommerce.ecom_backend.order.model.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    @Query("select s from OrderSummary s where s.userId = :userId order by s.orderDate desc, s.orderId desc")
+    List<OrderSummary> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset continuation: everything strictly older than the (orderDate, orderId) of the last row seen
+    @Query("select s from OrderSummary s where s.userId = :userId and " +
+            "(s.orderDate < :orderDate or (s.orderDate = :orderDate and s.orderId < :orderId)) " +
+            "order by s.orderDate desc, s.orderId desc")
+    List<OrderSummary> findByUserIdBefore(@Param("userId") Long userId,
+                                          @Param("orderDate") LocalDateTime orderDate,
+                                          @Param("orderId") Long orderId,
+                                          Pageable pageable);
+
+    @Modifying
+    @Query("update OrderSummary s set s.status = :status, s.updatedAt = :updatedAt where s.orderId = :orderId")
+    int updateStatus(@Param("orderId") Long orderId, @Param("status") String status, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Backfills orders that predate the read model, one id range at a time
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO order_summaries " +
+            "(order_id, user_id, order_date, status, total_amount, item_count, line_count, preview_product_name, updated_at) " +
+            "SELECT o.id, o.user_id, COALESCE(o.order_date, o.created_at), o.status, o.total_amount, " +
+            "COALESCE(SUM(oi.quantity), 0), COUNT(oi.id), MIN(p.name), NOW() " +
+            "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id LEFT JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.id > :fromId AND o.id <= :toId AND o.user_id IS NOT NULL " +
+            "GROUP BY o.id", nativeQuery = true)
+    int backfillRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -1,10 +1,18 @@
 // src/main/java/com/example.ecommerce.ecom_backend.order.service/OrderService.java
 package com.example.ecommerce.ecom_backend.order.service;
 
+import com.example.ecommerce.ecom_backend.order.dto.AdminOrderPageDTO;
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateRequestDTO;
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateResultDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderHistoryPageDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderQuoteDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderRequestDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderResponseDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderSearchCriteria;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
+import java.io.Writer;
 import java.util.List;
 
 public interface OrderService {
@@ -12,14 +20,32 @@ public interface OrderService {
 
     OrderResponseDTO placeOrder(OrderRequestDTO orderRequestDTO);
 
+    // Prices and stock for the current cart from cached snapshots, with a signed token placeOrder will honour
+    OrderQuoteDTO quoteMyCart();
+
+    // The most recent orders with their lines, capped; older ones are only reachable through getMyOrderHistory
+    @Deprecated
     List<OrderResponseDTO> getMyOrders();
 
+    // Paginated history served from the order_summaries read model
+    OrderHistoryPageDTO getMyOrderHistory(String cursor, int size);
+
     OrderResponseDTO getOrderDetails(Long orderId);
 
-    List<OrderResponseDTO> getAllOrders();
+    // Admin listing: keyset pages of lightweight rows, newest first
+    AdminOrderPageDTO searchOrders(OrderSearchCriteria criteria, String cursor, int size);
+
+    // Writes every matching order as CSV, page by page
+    void exportOrdersCsv(OrderSearchCriteria criteria, Writer writer);
 
     OrderResponseDTO updateOrderStatus(Long orderId, String newStatus);
 
+    // Moves many orders to one status in chunked batch updates; returns only per-id outcomes
+    BulkOrderStatusUpdateResultDTO updateOrderStatuses(BulkOrderStatusUpdateRequestDTO request);
+
+    // Opens a Server-Sent Events stream of status changes for the current user's orders
+    SseEmitter subscribeToMyOrderStatusUpdates();
+
 
 
 }
\ No newline at end of file
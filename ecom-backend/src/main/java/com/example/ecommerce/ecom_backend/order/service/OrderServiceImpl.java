@@ -1,7 +1,18 @@
 // src/main/java/com/example.ecommerce.ecom_backend.order.service/OrderServiceImpl.java
 package com.example.ecommerce.ecom_backend.order.service;
 
+import com.example.ecommerce.ecom_backend.auth.security.CurrentUserResolver;
+import com.example.ecommerce.ecom_backend.common.pagination.KeysetCursor;
+import com.example.ecommerce.ecom_backend.order.dto.AdminOrderPageDTO;
+import com.example.ecommerce.ecom_backend.order.dto.AdminOrderRowDTO;
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateRequestDTO;
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateResultDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderHistoryPageDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderQuoteDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderQuoteLineDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderRequestDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderSearchCriteria;
+import com.example.ecommerce.ecom_backend.order.dto.OrderSummaryDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderResponseDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderItemResponseDTO; // Import this
 
@@ -9,60 +20,110 @@ import com.example.ecommerce.ecom_backend.cart.model.Cart; // Import from cart.m
 import com.example.ecommerce.ecom_backend.cart.model.CartItem; // Import from cart.model
 import com.example.ecommerce.ecom_backend.cart.repository.CartItemRepository; // Import from cart.repository
 import com.example.ecommerce.ecom_backend.cart.repository.CartRepository; // Import from cart.repository
-import com.example.ecommerce.ecom_backend.cart.service.CartService; // Import CartService
 
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
 import com.example.ecommerce.ecom_backend.common.exception.InsufficientStockException;
+import com.example.ecommerce.ecom_backend.common.exception.InvalidStatusTransitionException;
+import com.example.ecommerce.ecom_backend.common.exception.QuoteExpiredException;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.example.ecommerce.ecom_backend.product.model.Product; // Product entity from root model package
-import com.example.ecommerce.ecom_backend.user.model.User;     // User entity from root model package
 import com.example.ecommerce.ecom_backend.order.model.Order; // Order entity from order.model package
 import com.example.ecommerce.ecom_backend.order.model.OrderItem; // OrderItem entity from order.model package
+import com.example.ecommerce.ecom_backend.order.model.OrderStatus;
+import com.example.ecommerce.ecom_backend.order.model.OrderSummary;
+import com.example.ecommerce.ecom_backend.order.readmodel.OrderHistoryCache;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventPublisher;
+import com.example.ecommerce.ecom_backend.order.event.OrderPlacedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderStatusChangedEvent;
+import com.example.ecommerce.ecom_backend.order.sse.OrderStatusBroadcaster;
+import com.example.ecommerce.ecom_backend.order.quote.QuoteToken;
+import com.example.ecommerce.ecom_backend.order.quote.QuoteTokenCodec;
+import com.example.ecommerce.ecom_backend.product.event.ProductChangedEvent;
+import com.example.ecommerce.ecom_backend.product.event.ProductEventPublisher;
+import com.example.ecommerce.ecom_backend.product.snapshot.ProductSnapshot;
+import com.example.ecommerce.ecom_backend.product.snapshot.ProductSnapshotCache;
 
 import com.example.ecommerce.ecom_backend.order.repository.OrderItemRepository; // OrderItemRepo from order.repository
+import com.example.ecommerce.ecom_backend.order.repository.OrderListingRepository;
 import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;     // OrderRepo from order.repository
+import com.example.ecommerce.ecom_backend.order.repository.OrderSummaryRepository;
 import com.example.ecommerce.ecom_backend.product.repository.ProductRepository; // ProductRepo from root repository package
 import com.example.ecommerce.ecom_backend.user.repository.UserRepository;     // UserRepo from root repository package
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
-    private final CartService cartService;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderHistoryCache orderHistoryCache;
+    private final OrderListingRepository orderListingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CurrentUserResolver currentUserResolver;
+    private final ProductSnapshotCache productSnapshotCache;
+    private final QuoteTokenCodec quoteTokenCodec;
+    private final ProductEventPublisher productEventPublisher;
+
+    static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_ADMIN_PAGE_SIZE = 200;
+    static final int MY_ORDERS_LIMIT = 50;
+    private static final int EXPORT_PAGE_SIZE = 1000;
+    private static final int BULK_STATUS_CHUNK_SIZE = 500;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository, UserRepository userRepository, ProductRepository productRepository, CartRepository cartRepository, CartItemRepository cartItemRepository, CartService cartService) {
+    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository, UserRepository userRepository, ProductRepository productRepository, CartRepository cartRepository, CartItemRepository cartItemRepository, OrderEventPublisher orderEventPublisher, OrderStatusBroadcaster orderStatusBroadcaster, OrderSummaryRepository orderSummaryRepository, OrderHistoryCache orderHistoryCache, OrderListingRepository orderListingRepository, TransactionTemplate transactionTemplate, CurrentUserResolver currentUserResolver, ProductSnapshotCache productSnapshotCache, QuoteTokenCodec quoteTokenCodec, ProductEventPublisher productEventPublisher) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.cartRepository = cartRepository;
         this.cartItemRepository = cartItemRepository;
-        this.cartService = cartService;
-    }
-
-    private User getCurrentAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        return userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        this.orderEventPublisher = orderEventPublisher;
+        this.orderStatusBroadcaster = orderStatusBroadcaster;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderHistoryCache = orderHistoryCache;
+        this.orderListingRepository = orderListingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.currentUserResolver = currentUserResolver;
+        this.productSnapshotCache = productSnapshotCache;
+        this.quoteTokenCodec = quoteTokenCodec;
+        this.productEventPublisher = productEventPublisher;
     }
 
     private OrderItemResponseDTO mapOrderItemToDTO(OrderItem orderItem) {
@@ -82,6 +143,11 @@ public class OrderServiceImpl implements OrderService {
      * Helper to map Order entity to OrderResponseDTO.
      */
     private OrderResponseDTO mapOrderToDTO(Order order) {
+        return mapOrderToDTO(order, order.getUser().getEmail());
+    }
+
+    // For the caller's own orders the email is already known, which keeps the user proxy uninitialized
+    private OrderResponseDTO mapOrderToDTO(Order order, String userEmail) {
         List<OrderItemResponseDTO> itemDTOs = order.getOrderItems().stream()
                 .map(this::mapOrderItemToDTO)
                 .collect(Collectors.toList());
@@ -89,7 +155,7 @@ public class OrderServiceImpl implements OrderService {
         return new OrderResponseDTO(
                 order.getId(),
                 order.getUser().getId(),
-                order.getUser().getEmail(),
+                userEmail,
                 order.getOrderDate(),
                 order.getTotalAmount(), // <-- THE FIX: Use the stored total amount directly
                 order.getStatus(),
@@ -99,76 +165,281 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public OrderResponseDTO placeOrder(OrderRequestDTO orderRequestDTO) {
-        User currentUser = getCurrentAuthenticatedUser();
-        Cart userCart = cartRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "user ID", currentUser.getId()));
+        Long userId = currentUserResolver.getCurrentUserId();
+        cartRepository.lockByUserId(userId); // The cart is emptied below; see CartRepository.lockByUserId
+        Cart userCart = cartRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart", "user ID", userId));
 
         if (userCart.getCartItems().isEmpty()) {
             throw new IllegalArgumentException("Cannot place an order for an empty cart.");
         }
+        Map<Long, QuoteToken.Line> quotedLines = orderRequestDTO == null ? null
+                : honouredQuote(orderRequestDTO.getQuoteToken(), userId, userCart);
 
         Order newOrder = new Order();
-        newOrder.setUser(currentUser);
+        newOrder.setUser(userRepository.getReferenceById(userId));
         newOrder.setOrderDate(LocalDateTime.now());
-        newOrder.setStatus("PENDING");
+        newOrder.setStatus(OrderStatus.PENDING.name());
 
-        BigDecimal orderTotal = BigDecimal.ZERO;
+        // Check and take the stock in one conditional UPDATE per product, so two checkouts can't both take the last
+        // unit. Product id order keeps concurrent orders from locking the same rows in opposite orders; a short line
+        // throws and rolls back what was taken. The loaded Product entities keep their old stock from here on.
+        List<CartItem> lines = userCart.getCartItems().stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .toList();
+        for (CartItem cartItem : lines) {
+            if (productRepository.decrementStock(cartItem.getProduct().getId(), cartItem.getQuantity()) == 0) {
+                throw new InsufficientStockException("Not enough stock for product: " + cartItem.getProduct().getName());
+            }
+        }
+
+        Money orderTotal = Money.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (CartItem cartItem : userCart.getCartItems()) {
             Product product = cartItem.getProduct();
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
-                throw new InsufficientStockException("Not enough stock for product: " + product.getName());
-            }
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-            productRepository.save(product);
+            // A valid quote fixes the price for its lifetime; it never vouches for stock, which was taken above
+            Money unitPrice = quotedLines == null ? product.getPrice()
+                    : Money.ofMinor(quotedLines.get(product.getId()).unitPriceMinor());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
             orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setPriceAtPurchase(product.getPrice());
-            orderItem.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            orderItem.setPriceAtPurchase(unitPrice);
+            orderItem.setSubtotal(unitPrice.times(cartItem.getQuantity()));
             orderItem.setOrder(newOrder);
             orderItems.add(orderItem);
 
-            orderTotal = orderTotal.add(orderItem.getSubtotal());
+            orderTotal = orderTotal.plus(orderItem.getSubtotal());
         }
 
         newOrder.setTotalAmount(orderTotal);
         newOrder.setOrderItems(orderItems);
 
         Order savedOrder = orderRepository.save(newOrder);
-        cartService.clearMyCart();
-        return mapOrderToDTO(savedOrder);
+        userCart.clearItems(); // orphanRemoval deletes the rows; no need to load the cart again
+        List<Long> productIds = orderItems.stream().map(item -> item.getProduct().getId()).toList();
+        productSnapshotCache.evict(productIds);
+        // Sold out: other carts holding it get flagged from the outbox instead of failing at their checkout
+        productRepository.findSoldOutIdsByIdIn(productIds).forEach(productId ->
+                productEventPublisher.productChanged(new ProductChangedEvent(productId, false, true)));
+
+
+        // Side effects (notifications, projections, analytics) run from the outbox relay, not on the checkout path
+        orderEventPublisher.orderPlaced(toOrderPlacedEvent(savedOrder));
+        return mapOrderToDTO(savedOrder, currentUserResolver.getCurrentUserEmail());
+    }
+
+    // The quoted lines if the token is ours, unexpired, for this user and still matches the cart; null without a token
+    private Map<Long, QuoteToken.Line> honouredQuote(String token, Long userId, Cart cart) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        QuoteToken quote = quoteTokenCodec.decode(token);
+        if (quote == null || !quote.userId().equals(userId) || quote.isExpired(System.currentTimeMillis())) {
+            throw new QuoteExpiredException("The quote is invalid or has expired; request a new one.");
+        }
+        boolean matches = quote.lines().size() == cart.getCartItems().size() && cart.getCartItems().stream()
+                .allMatch(item -> {
+                    QuoteToken.Line line = quote.lines().get(item.getProduct().getId());
+                    return line != null && line.quantity() == item.getQuantity();
+                });
+        if (!matches) {
+            throw new QuoteExpiredException("The cart has changed since it was quoted; request a new quote.");
+        }
+        return quote.lines();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public OrderQuoteDTO quoteMyCart() {
+        Long userId = currentUserResolver.getCurrentUserId();
+        List<CartItemRepository.LineRow> cartLines = cartItemRepository.findLinesByUserId(userId);
+        if (cartLines.isEmpty()) {
+            throw new IllegalArgumentException("Cannot quote an empty cart.");
+        }
+        Map<Long, ProductSnapshot> products = productSnapshotCache.getAll(
+                cartLines.stream().map(CartItemRepository.LineRow::getProductId).toList());
+
+        List<OrderQuoteLineDTO> lines = new ArrayList<>();
+        Map<Long, QuoteToken.Line> quotedLines = new LinkedHashMap<>();
+        Money total = Money.ZERO;
+        boolean available = true;
+        for (CartItemRepository.LineRow cartLine : cartLines) {
+            ProductSnapshot product = products.get(cartLine.getProductId());
+            int quantity = cartLine.getQuantity();
+            if (product == null) { // Deleted since it was added; the cart can't be checked out as it is
+                lines.add(new OrderQuoteLineDTO(cartLine.getProductId(), null, null, quantity, null, null, false));
+                available = false;
+                continue;
+            }
+            boolean inStock = product.stockQuantity() >= quantity;
+            Money subtotal = product.price().times(quantity);
+            lines.add(new OrderQuoteLineDTO(product.id(), product.name(), product.imageUrl(), quantity,
+                    product.price(), subtotal, inStock));
+            quotedLines.put(product.id(), new QuoteToken.Line(quantity, product.price().getMinorUnits()));
+            total = total.plus(subtotal);
+            available &= inStock;
+        }
+
+        long expiresAt = System.currentTimeMillis() + quoteTokenCodec.getTtl().toMillis();
+        // Only a quote that can actually be checked out gets a token
+        String token = available ? quoteTokenCodec.encode(new QuoteToken(userId, expiresAt, quotedLines)) : null;
+        return new OrderQuoteDTO(lines, total, available, token,
+                available ? LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault()) : null);
+    }
+
+    private OrderPlacedEvent toOrderPlacedEvent(Order order) {
+        List<OrderPlacedEvent.Item> items = order.getOrderItems().stream()
+                .map(item -> new OrderPlacedEvent.Item(
+                        item.getProduct().getId(),
+                        item.getProduct().getName(),
+                        item.getQuantity(),
+                        item.getPriceAtPurchase(),
+                        item.getSubtotal()))
+                .collect(Collectors.toList());
+        return new OrderPlacedEvent(order.getId(), order.getUser().getId(), order.getOrderDate(),
+                order.getStatus(), order.getTotalAmount(), items);
+    }
+
+    @Override
+    @Deprecated
     public List<OrderResponseDTO> getMyOrders() {
-        User currentUser = getCurrentAuthenticatedUser();
-        List<Order> orders = orderRepository.findByUserId(currentUser.getId());
-        return orders.stream()
-                .map(this::mapOrderToDTO)
+        String userEmail = currentUserResolver.getCurrentUserEmail();
+        List<Long> latestIds = orderRepository.findLatestIdsByUserId(currentUserResolver.getCurrentUserId(),
+                PageRequest.of(0, MY_ORDERS_LIMIT));
+        if (latestIds.isEmpty()) {
+            return List.of();
+        }
+        return orderRepository.findWithItemsByIdIn(latestIds).stream()
+                .map(order -> mapOrderToDTO(order, userEmail))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDTO getMyOrderHistory(String cursor, int size) {
+        Long userId = currentUserResolver.getCurrentUserId();
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        // The first page of the default size is what every "My orders" visit asks for, so it is cached per user
+        boolean cacheable = after == null && pageSize == DEFAULT_HISTORY_PAGE_SIZE && orderHistoryCache.isEnabled();
+        List<OrderSummaryDTO> page = cacheable ? orderHistoryCache.get(userId) : null;
+        if (page == null) {
+            long generation = orderHistoryCache.currentGeneration();
+            // Fetch one extra row to know whether another page exists
+            PageRequest limit = PageRequest.of(0, pageSize + 1);
+            List<OrderSummary> rows = after == null
+                    ? orderSummaryRepository.findLatestByUserId(userId, limit)
+                    : orderSummaryRepository.findByUserIdBefore(userId, after.getTimestamp(), after.getId(), limit);
+            page = rows.stream().map(this::mapSummaryToDTO).collect(Collectors.toList());
+            if (cacheable) {
+                orderHistoryCache.put(userId, page, generation);
+            }
+        }
+
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            OrderSummaryDTO last = page.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getOrderDate(), last.getOrderId()).encode();
+            page = page.subList(0, pageSize);
+        }
+        return new OrderHistoryPageDTO(page, nextCursor);
+    }
+
+    private OrderSummaryDTO mapSummaryToDTO(OrderSummary summary) {
+        return new OrderSummaryDTO(
+                summary.getOrderId(),
+                summary.getOrderDate(),
+                summary.getStatus(),
+                summary.getTotalAmount(),
+                summary.getItemCount(),
+                summary.getLineCount(),
+                summary.getPreviewProductName()
+        );
+    }
+
     @Override
     public OrderResponseDTO getOrderDetails(Long orderId) {
-        User currentUser = getCurrentAuthenticatedUser();
+        Long userId = currentUserResolver.getCurrentUserId();
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
-        if (!order.getUser().getId().equals(currentUser.getId())) {
+        if (!order.getUser().getId().equals(userId)) {
             throw new ResourceNotFoundException("Order", "id", orderId + " not found for current user.");
         }
-        return mapOrderToDTO(order);
+        return mapOrderToDTO(order, currentUserResolver.getCurrentUserEmail());
     }
 
     @Override
-    public List<OrderResponseDTO> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        return orders.stream()
-                .map(this::mapOrderToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public AdminOrderPageDTO searchOrders(OrderSearchCriteria criteria, String cursor, int size) {
+        validateSearchCriteria(criteria);
+        int pageSize = Math.min(Math.max(size, 1), MAX_ADMIN_PAGE_SIZE);
+        // One extra row tells us whether there is a next page
+        List<AdminOrderRowDTO> rows = orderListingRepository.findPage(criteria, KeysetCursor.decode(cursor), pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            AdminOrderRowDTO last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getOrderDate(), last.getId()).encode();
+            rows = rows.subList(0, pageSize);
+        }
+        return new AdminOrderPageDTO(rows, nextCursor);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Each page borrows a connection briefly instead of holding one for the whole download
+    public void exportOrdersCsv(OrderSearchCriteria criteria, Writer writer) {
+        validateSearchCriteria(criteria);
+        try {
+            writer.write("id,userId,userEmail,orderDate,status,totalAmount,itemCount\n");
+            KeysetCursor after = null;
+            List<AdminOrderRowDTO> rows;
+            do {
+                rows = orderListingRepository.findPage(criteria, after, EXPORT_PAGE_SIZE);
+                for (AdminOrderRowDTO row : rows) {
+                    writer.write(toCsvLine(row));
+                }
+                writer.flush(); // Keep memory flat and let the client see progress
+                if (!rows.isEmpty()) {
+                    AdminOrderRowDTO last = rows.get(rows.size() - 1);
+                    after = new KeysetCursor(last.getOrderDate(), last.getId());
+                }
+            } while (rows.size() == EXPORT_PAGE_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Order export aborted", e); // Usually the client went away
+        }
+    }
+
+    private void validateSearchCriteria(OrderSearchCriteria criteria) {
+        if (criteria.getStatus() != null) {
+            OrderStatus.parse(criteria.getStatus());
+        }
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+
+    private static String toCsvLine(AdminOrderRowDTO row) {
+        return row.getId() + "," +
+                (row.getUserId() == null ? "" : row.getUserId()) + "," +
+                csvField(row.getUserEmail()) + "," +
+                (row.getOrderDate() == null ? "" : row.getOrderDate()) + "," +
+                csvField(row.getStatus()) + "," +
+                (row.getTotalAmount() == null ? "" : row.getTotalAmount()) + "," +
+                (row.getItemCount() == null ? "" : row.getItemCount()) + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     @Override
@@ -176,17 +447,99 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
-        if (!isValidOrderStatus(newStatus)) {
-            throw new IllegalArgumentException("Invalid order status: " + newStatus);
+        OrderStatus target = OrderStatus.parse(newStatus);
+        String previousStatus = order.getStatus();
+        if (newStatus.equals(previousStatus)) {
+            return mapOrderToDTO(order); // Nothing changed, so nothing to tell the outbox or the customer
+        }
+        if (!canTransition(previousStatus, target)) {
+            throw new InvalidStatusTransitionException(
+                    "Order " + orderId + " cannot move from " + previousStatus + " to " + newStatus);
         }
         order.setStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
+
+        // Stored in the outbox with the status change; the relay fans it out after commit
+        orderEventPublisher.orderStatusChanged(new OrderStatusChangedEvent(
+                updatedOrder.getId(), updatedOrder.getUser().getId(), previousStatus, newStatus, LocalDateTime.now()));
         return mapOrderToDTO(updatedOrder);
     }
 
-    private boolean isValidOrderStatus(String status) {
-        return status.equals("PENDING") || status.equals("PAID") || status.equals("PROCESSING") ||
-                status.equals("SHIPPED") || status.equals("DELIVERED") ||
-                status.equals("CANCELLED");
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Every chunk commits on its own
+    public BulkOrderStatusUpdateResultDTO updateOrderStatuses(BulkOrderStatusUpdateRequestDTO request) {
+        String newStatus = request.getNewStatus();
+        OrderStatus target = OrderStatus.parse(newStatus);
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds())); // Drop duplicates, keep order
+        BulkOrderStatusUpdateResultDTO result = emptyBulkResult(newStatus);
+
+        for (int start = 0; start < orderIds.size(); start += BULK_STATUS_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(start, Math.min(start + BULK_STATUS_CHUNK_SIZE, orderIds.size()));
+            try {
+                // Short transaction per chunk: row locks are held for one select + one update, not the whole batch
+                BulkOrderStatusUpdateResultDTO chunkResult = transactionTemplate.execute(status -> updateStatusChunk(chunk, target));
+                // Only merged once committed, so a chunk is reported either fully or as failed
+                result.getUpdated().addAll(chunkResult.getUpdated());
+                result.getUnchanged().addAll(chunkResult.getUnchanged());
+                result.getNotFound().addAll(chunkResult.getNotFound());
+                result.getRejected().addAll(chunkResult.getRejected());
+            } catch (DataAccessException | TransactionException ex) {
+                // Earlier chunks stay committed; report this one and carry on with the rest
+                log.warn("Bulk status update to {} failed for a chunk of {} orders: {}", newStatus, chunk.size(), ex.getMessage());
+                result.getFailed().addAll(chunk);
+            }
+        }
+        return result;
+    }
+
+    private static BulkOrderStatusUpdateResultDTO emptyBulkResult(String newStatus) {
+        return new BulkOrderStatusUpdateResultDTO(newStatus, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(), new ArrayList<>());
+    }
+
+    private BulkOrderStatusUpdateResultDTO updateStatusChunk(List<Long> chunk, OrderStatus target) {
+        BulkOrderStatusUpdateResultDTO result = emptyBulkResult(target.name());
+        String newStatus = target.name();
+        Map<Long, OrderRepository.StatusRow> current = orderRepository.lockStatusesByIds(chunk).stream()
+                .collect(Collectors.toMap(OrderRepository.StatusRow::getId, row -> row));
+
+        List<Long> toUpdate = new ArrayList<>();
+        List<OrderStatusChangedEvent> events = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long orderId : chunk) {
+            OrderRepository.StatusRow row = current.get(orderId);
+            if (row == null) {
+                result.getNotFound().add(orderId);
+            } else if (newStatus.equals(row.getStatus())) {
+                result.getUnchanged().add(orderId);
+            } else if (!canTransition(row.getStatus(), target)) {
+                result.getRejected().add(orderId);
+            } else {
+                toUpdate.add(orderId);
+                events.add(new OrderStatusChangedEvent(orderId, row.getUserId(), row.getStatus(), newStatus, now));
+            }
+        }
+
+        if (!toUpdate.isEmpty()) {
+            orderRepository.updateStatuses(toUpdate, newStatus, now);
+            orderEventPublisher.orderStatusesChanged(events);
+            result.getUpdated().addAll(toUpdate);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribeToMyOrderStatusUpdates() {
+        return orderStatusBroadcaster.subscribe(currentUserResolver.getCurrentUserId());
+    }
+
+    // Rows written before statuses were checked may hold anything; those can be moved anywhere once
+    private static boolean canTransition(String currentStatus, OrderStatus target) {
+        try {
+            return currentStatus == null || OrderStatus.parse(currentStatus).canTransitionTo(target);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
     }
 }
\ No newline at end of file
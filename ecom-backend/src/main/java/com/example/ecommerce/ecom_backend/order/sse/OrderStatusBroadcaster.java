@@ -0,0 +1,225 @@
+package com.example.ecommerce.ecom_backend.order.sse;
+
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventListener;
+import com.example.ecommerce.ecom_backend.order.event.OrderStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of order status changes to Server-Sent Event subscribers.
+ * Fed by the outbox relay, so only committed status changes are pushed.
+ *
+ * Each subscriber owns a small bounded buffer. Publishing never blocks on a slow client:
+ * when a buffer is full the oldest pending event is dropped, and the actual socket writes
+ * happen on a dedicated dispatcher pool instead of the thread that changed the order.
+ */
+@Component
+public class OrderStatusBroadcaster implements OrderEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusBroadcaster.class);
+
+    static final String STATUS_EVENT_NAME = "order-status";
+    private static final Object HEARTBEAT = new Object();
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final int maxSubscribersPerUser;
+    private final long emitterTimeoutMs;
+
+    public OrderStatusBroadcaster(@Value("${orders.events.buffer-size:32}") int bufferSize,
+                                  @Value("${orders.events.max-subscribers-per-user:5}") int maxSubscribersPerUser,
+                                  @Value("${orders.events.timeout-ms:1800000}") long emitterTimeoutMs,
+                                  @Value("${orders.events.dispatcher-threads:2}") int dispatcherThreads) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribersPerUser = maxSubscribersPerUser;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-sse-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a new stream for the given user. Only events for orders owned by this user are delivered.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = createEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+
+        Set<Subscriber> existing = subscribersByUser.get(userId);
+        if (existing != null && existing.size() >= maxSubscribersPerUser) {
+            // Too many open tabs/devices for one user: close one of the existing streams rather than refusing the new one
+            existing.stream().findAny().ifPresent(this::remove);
+        }
+        // compute() is atomic per key, so this cannot race with remove() dropping an empty set
+        subscribersByUser.compute(userId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        return emitter;
+    }
+
+    // Overridable so tests can capture what would go over the wire
+    protected SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    @Override
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        // Best effort: a redelivered event just produces a duplicate SSE message with the same id
+        publish(event);
+    }
+
+    // Orders are only deleted with their owner, so the owner's streams have nothing left to report
+    @Override
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        Set<Subscriber> userSubscribers = subscribersByUser.get(event.getUserId());
+        if (userSubscribers != null) {
+            userSubscribers.forEach(this::remove);
+        }
+    }
+
+    public void publish(OrderStatusChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        Set<Subscriber> userSubscribers = subscribersByUser.get(event.getUserId());
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.enqueue(event);
+            scheduleDrain(subscriber);
+        }
+    }
+
+    // Keeps idle connections alive through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${orders.events.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        subscribersByUser.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            if (subscriber.offerHeartbeat()) {
+                scheduleDrain(subscriber);
+            }
+        }));
+    }
+
+    public int getSubscriberCount() {
+        return subscribersByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return; // A drain is already running and will pick up the new event
+        }
+        try {
+            dispatcher.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException ex) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object next;
+            while (!subscriber.closed && (next = subscriber.buffer.poll()) != null) {
+                if (next == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    OrderStatusChangedEvent event = (OrderStatusChangedEvent) next;
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(STATUS_EVENT_NAME)
+                            .id(event.getOrderId() + ":" + event.getNewStatus())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client disconnected or the emitter already completed
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event may have arrived between the last poll and releasing the flag
+        if (!subscriber.closed && !subscriber.buffer.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        subscriber.buffer.clear();
+        subscribersByUser.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception ignored) {
+            // Already completed by the container
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByUser.values().forEach(userSubscribers -> userSubscribers.forEach(this::remove));
+        dispatcher.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Object> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private volatile boolean closed;
+
+        private Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void enqueue(OrderStatusChangedEvent event) {
+            // Bounded buffer: drop the oldest pending update instead of blocking the publisher
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    log.debug("Dropped a buffered order status event for slow subscriber of user {}", userId);
+                }
+            }
+        }
+
+        private boolean offerHeartbeat() {
+            // Heartbeats are only useful on an idle stream, so never evict real events for them
+            return buffer.isEmpty() && buffer.offer(HEARTBEAT);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 // src/main/java/com/example/ecommerce/ecom_backend/controller/ProductController.java
 package com.example.ecommerce.ecom_backend.product.controller;
 
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
 import com.example.ecommerce.ecom_backend.product.dto.ProductRequestDTO; // Import DTOs
 import com.example.ecommerce.ecom_backend.product.dto.ProductResponseDTO;
 import com.example.ecommerce.ecom_backend.product.service.ProductService;
@@ -8,7 +9,6 @@ import jakarta.validation.Valid; // For @Valid annotation
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize; // For role-based authorization
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,7 +25,7 @@ public class ProductController {
     }
 
     // Create a new product - Accessible only by ADMIN role
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     @PostMapping
     public ResponseEntity<ProductResponseDTO> createProduct(@Valid @RequestBody ProductRequestDTO productRequestDTO) {
         ProductResponseDTO newProduct = productService.createProduct(productRequestDTO);
@@ -33,7 +33,7 @@ public class ProductController {
     }
 
     // Get all products - Accessible by USER or ADMIN role (or no role if public access is desired)
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // Or remove @PreAuthorize if public
+    // Public: guests browse the catalogue before logging in
     @GetMapping
     public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
         List<ProductResponseDTO> products = productService.getAllProducts();
@@ -41,7 +41,7 @@ public class ProductController {
     }
 
     // Get product by ID - Accessible by USER or ADMIN role
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // Or remove @PreAuthorize if public
+    // Public: guests browse the catalogue before logging in
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id) {
         ProductResponseDTO product = productService.getProductById(id); // Service throws NotFoundException
@@ -49,7 +49,7 @@ public class ProductController {
     }
 
     // Update an existing product - Accessible only by ADMIN role
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> updateProduct(@PathVariable Long id,
                                                             @Valid @RequestBody ProductRequestDTO productRequestDTO) {
@@ -58,7 +58,7 @@ public class ProductController {
     }
 
     // Delete a product - Accessible only by ADMIN role
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id); // Service throws NotFoundException
@@ -0,0 +1,16 @@
+package com.example.ecommerce.ecom_backend.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageDTO {
+    private List<ProductResponseDTO> products;
+    private int totalCount; // Across all pages
+    private String nextCursor; // Pass back as ?cursor= with the same filters; null on the last page
+}
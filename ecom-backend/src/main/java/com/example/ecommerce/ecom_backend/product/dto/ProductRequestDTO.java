@@ -2,6 +2,7 @@
 package com.example.ecommerce.ecom_backend.product.dto;
 
 import jakarta.validation.constraints.DecimalMin; // For price validation
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;     // For stock quantity validation
 import jakarta.validation.constraints.NotBlank; // For non-blank string fields
 import jakarta.validation.constraints.NotNull;  // For non-null number fields
@@ -24,6 +25,7 @@ public class ProductRequestDTO {
 
     @NotNull(message = "Product price cannot be empty")
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    @Digits(integer = 15, fraction = 2, message = "Price can have at most 2 decimal places") // Money never rounds
     private BigDecimal price;
 
     @NotNull(message = "Stock quantity cannot be empty")
@@ -32,4 +34,6 @@ public class ProductRequestDTO {
 
     // imageUrl can be null or empty, so no @NotBlank here unless you want it required
     private String imageUrl;
+
+    private Long categoryId; // Optional; the category must exist
 }
\ No newline at end of file
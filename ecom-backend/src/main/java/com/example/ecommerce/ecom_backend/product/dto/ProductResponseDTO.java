@@ -1,12 +1,13 @@
 // src/main/java/com/example/ecommerce/ecom_backend/dto/ProductResponseDTO.java
 package com.example.ecommerce.ecom_backend.product.dto;
 
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
-import java.math.BigDecimal;
 
 @Data
 @NoArgsConstructor
@@ -15,7 +16,8 @@ public class ProductResponseDTO  implements Serializable {
     private Long id;
     private String name;
     private String description;
-    private BigDecimal price;
+    private Money price;
     private Integer stockQuantity;
     private String imageUrl;
+    private Long categoryId;
 }
\ No newline at end of file
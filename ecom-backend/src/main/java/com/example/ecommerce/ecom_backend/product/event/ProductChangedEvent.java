@@ -0,0 +1,18 @@
+package com.example.ecommerce.ecom_backend.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Emitted when a product's price or stock changes. Listeners read the current values from the database
+ * rather than from the event, so a redelivered or late event can never roll anything back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private Long productId;
+    private boolean priceChanged;
+    private boolean stockChanged;
+}
@@ -0,0 +1,11 @@
+package com.example.ecommerce.ecom_backend.product.event;
+
+/**
+ * In-process subscriber for product events relayed from the outbox.
+ *
+ * Delivery is at-least-once, so implementations must be idempotent. Throwing makes the relay retry the event later.
+ */
+public interface ProductEventListener {
+
+    void onProductChanged(ProductChangedEvent event);
+}
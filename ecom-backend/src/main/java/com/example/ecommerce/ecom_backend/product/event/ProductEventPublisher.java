@@ -0,0 +1,38 @@
+package com.example.ecommerce.ecom_backend.product.event;
+
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEvent;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records product events in the outbox, inside the transaction that changes the product.
+ */
+@Component
+public class ProductEventPublisher {
+
+    public static final String AGGREGATE_TYPE = "Product";
+    public static final String PRODUCT_CHANGED = "ProductChanged";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public ProductEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productChanged(ProductChangedEvent event) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(AGGREGATE_TYPE, event.getProductId(), PRODUCT_CHANGED,
+                    objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + PRODUCT_CHANGED + " event for product "
+                    + event.getProductId(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ecommerce.ecom_backend.product.event;
+
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEvent;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Deserializes product outbox rows and delivers them to every {@link ProductEventListener}.
+ */
+@Component
+public class ProductOutboxDispatcher implements OutboxEventDispatcher {
+
+    private final List<ProductEventListener> listeners;
+    private final ObjectMapper objectMapper;
+
+    public ProductOutboxDispatcher(List<ProductEventListener> listeners, ObjectMapper objectMapper) {
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(String aggregateType) {
+        return ProductEventPublisher.AGGREGATE_TYPE.equals(aggregateType);
+    }
+
+    @Override
+    public void dispatch(OutboxEvent event) throws Exception {
+        if (!ProductEventPublisher.PRODUCT_CHANGED.equals(event.getEventType())) {
+            throw new IllegalArgumentException("Unknown product event type: " + event.getEventType());
+        }
+        ProductChangedEvent changed = objectMapper.readValue(event.getPayload(), ProductChangedEvent.class);
+        for (ProductEventListener listener : listeners) {
+            listener.onProductChanged(changed);
+        }
+    }
+}
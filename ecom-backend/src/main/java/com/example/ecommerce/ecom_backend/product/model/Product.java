@@ -1,15 +1,19 @@
 // src/main/java/com/example/ecommerce/ecom_backend/model/Product.java
 package com.example.ecommerce.ecom_backend.product.model;
 
+import com.example.ecommerce.ecom_backend.category.model.Category;
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener; // <-- IMPORTANT: Add this import
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 
@@ -35,7 +39,7 @@ public class Product {
 
 
     @Column(nullable = false)
-    private BigDecimal price;
+    private Money price;
 
 
     @Column(nullable = false)
@@ -43,6 +47,12 @@ public class Product {
 
     private String imageUrl;
 
+    @ManyToOne(fetch = FetchType.LAZY) // Optional: uncategorized products have none
+    @JoinColumn(name = "category_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Category category;
+
     @CreatedDate // Marks this field to be populated with the creation timestamp
     @Column(nullable = false, updatable = false) // Cannot be null and cannot be updated after creation
     private LocalDateTime createdAt;
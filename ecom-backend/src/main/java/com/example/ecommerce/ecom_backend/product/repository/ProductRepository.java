@@ -1,10 +1,44 @@
 package com.example.ecommerce.ecom_backend.product.repository;
 
+import com.example.ecommerce.ecom_backend.category.model.Category;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.example.ecommerce.ecom_backend.product.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     // Custom query methods for Product can be added here
-}
\ No newline at end of file
+
+    // Price and stock only, without managed entities; feeds ProductSnapshotCache
+    @Query("select p.id as id, p.name as name, p.imageUrl as imageUrl, p.price as price, " +
+            "p.stockQuantity as stockQuantity from Product p where p.id in :ids")
+    List<SnapshotRow> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Takes stock only if enough is left, in one statement under the row lock; 0 means the order can't have it
+    @Modifying
+    @Query("update Product p set p.stockQuantity = p.stockQuantity - :quantity " +
+            "where p.id = :id and p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("select p.id from Product p where p.id in :ids and p.stockQuantity <= 0")
+    List<Long> findSoldOutIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Product p set p.category = :category where p.category.id = :categoryId")
+    int reassignCategory(@Param("categoryId") Long categoryId, @Param("category") Category category);
+
+    interface SnapshotRow {
+        Long getId();
+        String getName();
+        String getImageUrl();
+        Money getPrice();
+        Integer getStockQuantity();
+    }
+}
@@ -1,6 +1,7 @@
 // src/main/java/com/example/ecommerce/ecom_backend/service/ProductService.java
 package com.example.ecommerce.ecom_backend.product.service;
 
+import com.example.ecommerce.ecom_backend.product.dto.ProductPageDTO;
 import com.example.ecommerce.ecom_backend.product.dto.ProductRequestDTO; // Import DTOs
 import com.example.ecommerce.ecom_backend.product.dto.ProductResponseDTO;
 // No need to import Product (entity) or Optional here, as DTOs will be used
@@ -19,4 +20,7 @@ public interface ProductService {
     ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO); // Throws exception if not found
 
     void deleteProduct(Long id); // Throws exception if not found
+
+    // Keyset-paged by product id, served from the category postings; the subtree comes from the category tree snapshot
+    ProductPageDTO getProductsInCategory(Long categoryId, boolean includeSubcategories, String cursor, int size);
 }
\ No newline at end of file
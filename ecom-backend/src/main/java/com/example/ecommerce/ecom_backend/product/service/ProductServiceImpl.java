@@ -1,11 +1,22 @@
 // src/main/java/com/example/ecommerce/ecom_backend/service/ProductServiceImpl.java
 package com.example.ecommerce.ecom_backend.product.service;
 
+import com.example.ecommerce.ecom_backend.category.model.Category;
+import com.example.ecommerce.ecom_backend.category.postings.CategoryPostings;
+import com.example.ecommerce.ecom_backend.category.repository.CategoryRepository;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTree;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTreeCache;
+import com.example.ecommerce.ecom_backend.common.pagination.TextKeysetCursor;
+import com.example.ecommerce.ecom_backend.product.dto.ProductPageDTO;
 import com.example.ecommerce.ecom_backend.product.dto.ProductRequestDTO; // Import DTOs
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException; // Import custom exception
 import com.example.ecommerce.ecom_backend.product.dto.ProductResponseDTO;
+import com.example.ecommerce.ecom_backend.product.event.ProductChangedEvent;
+import com.example.ecommerce.ecom_backend.product.event.ProductEventPublisher;
 import com.example.ecommerce.ecom_backend.product.model.Product; // Import Product entity
 import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
+import com.example.ecommerce.ecom_backend.product.snapshot.ProductSnapshotCache;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -15,7 +26,11 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors; // For stream operations
 
 @Service
@@ -23,10 +38,24 @@ import java.util.stream.Collectors; // For stream operations
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository; // Use final and constructor injection
+    private final ProductSnapshotCache productSnapshotCache;
+    private final ProductEventPublisher productEventPublisher;
+    private final CategoryRepository categoryRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryPostings categoryPostings;
+
+    private static final int MAX_CATEGORY_PAGE_SIZE = 100;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) { // Use constructor injection
+    public ProductServiceImpl(ProductRepository productRepository, ProductSnapshotCache productSnapshotCache,
+                              ProductEventPublisher productEventPublisher, CategoryRepository categoryRepository,
+                              CategoryTreeCache categoryTreeCache, CategoryPostings categoryPostings) { // Use constructor injection
         this.productRepository = productRepository;
+        this.productSnapshotCache = productSnapshotCache;
+        this.productEventPublisher = productEventPublisher;
+        this.categoryRepository = categoryRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.categoryPostings = categoryPostings;
     }
 
     // Convert ProductRequestDTO to Product entity
@@ -34,9 +63,10 @@ public class ProductServiceImpl implements ProductService {
         Product product = new Product();
         product.setName(dto.getName());
         product.setDescription(dto.getDescription());
-        product.setPrice(dto.getPrice());
+        product.setPrice(Money.of(dto.getPrice())); // Validated decimal in, minor units from here on
         product.setStockQuantity(dto.getStockQuantity());
         product.setImageUrl(dto.getImageUrl());
+        product.setCategory(findCategory(dto.getCategoryId()));
         return product;
     }
 
@@ -49,8 +79,21 @@ public class ProductServiceImpl implements ProductService {
         dto.setPrice(product.getPrice());
         dto.setStockQuantity(product.getStockQuantity());
         dto.setImageUrl(product.getImageUrl());
+        dto.setCategoryId(categoryIdOf(product));
         return dto;
     }
+
+    private static Long categoryIdOf(Product product) {
+        return product.getCategory() == null ? null : product.getCategory().getId(); // Id only: no lazy load
+    }
+
+    private Category findCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryId));
+    }
     // 3. @CacheEvict: Removes data from the cache.
     // - When we create a new product, the 'allProducts' list is now outdated.
     // - This annotation EVICTS (deletes) the 'allProducts' entry from the cache.
@@ -61,6 +104,9 @@ public class ProductServiceImpl implements ProductService {
     public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
         Product product = mapRequestDTOToEntity(productRequestDTO);
         Product savedProduct = productRepository.save(product);
+        if (productRequestDTO.getCategoryId() != null) {
+            categoryPostings.productMovedAfterCommit(savedProduct.getId(), null, productRequestDTO.getCategoryId());
+        }
         return mapEntityToResponseDTO(savedProduct);
     }
 
@@ -92,13 +138,27 @@ public class ProductServiceImpl implements ProductService {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
+        Money oldPrice = existingProduct.getPrice();
+        Integer oldStock = existingProduct.getStockQuantity();
+        Long oldCategoryId = categoryIdOf(existingProduct);
         existingProduct.setName(productRequestDTO.getName());
         existingProduct.setDescription(productRequestDTO.getDescription());
-        existingProduct.setPrice(productRequestDTO.getPrice());
+        existingProduct.setPrice(Money.of(productRequestDTO.getPrice()));
         existingProduct.setStockQuantity(productRequestDTO.getStockQuantity());
         existingProduct.setImageUrl(productRequestDTO.getImageUrl());
+        existingProduct.setCategory(findCategory(productRequestDTO.getCategoryId()));
 
         Product updatedProduct = productRepository.save(existingProduct);
+        productSnapshotCache.evict(List.of(id)); // Quotes must not keep showing the old price or stock
+        if (!Objects.equals(oldCategoryId, productRequestDTO.getCategoryId())) {
+            categoryPostings.productMovedAfterCommit(id, oldCategoryId, productRequestDTO.getCategoryId());
+        }
+        boolean priceChanged = !updatedProduct.getPrice().equals(oldPrice);
+        boolean stockChanged = !updatedProduct.getStockQuantity().equals(oldStock);
+        if (priceChanged || stockChanged) {
+            // Open carts holding this product are repriced/flagged from the outbox after commit
+            productEventPublisher.productChanged(new ProductChangedEvent(id, priceChanged, stockChanged));
+        }
         return mapEntityToResponseDTO(updatedProduct);
     }
 
@@ -112,5 +172,34 @@ public class ProductServiceImpl implements ProductService {
         Product productToDelete = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
         productRepository.delete(productToDelete);
+        productSnapshotCache.evict(List.of(id));
+        if (productToDelete.getCategory() != null) {
+            categoryPostings.productMovedAfterCommit(id, categoryIdOf(productToDelete), null);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDTO getProductsInCategory(Long categoryId, boolean includeSubcategories, String cursor, int size) {
+        CategoryTree tree = categoryTreeCache.treeContaining(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryId));
+        List<Long> categoryIds = includeSubcategories ? tree.subtreeIds(categoryId) : List.of(categoryId);
+        int pageSize = Math.min(Math.max(size, 1), MAX_CATEGORY_PAGE_SIZE);
+        TextKeysetCursor after = TextKeysetCursor.decode(cursor);
+
+        // Ids come from the postings (one extra to know whether another page exists); only the page itself is loaded
+        long[] ids = categoryPostings.page(categoryIds, after == null ? 0L : after.getId(), pageSize + 1);
+        int pageLength = Math.min(ids.length, pageSize);
+        List<Long> pageIds = Arrays.stream(ids, 0, pageLength).boxed().collect(Collectors.toList());
+        Map<Long, Product> productsById = productRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductResponseDTO> products = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull) // Deleted by another instance since the postings were last patched
+                .map(this::mapEntityToResponseDTO)
+                .collect(Collectors.toList());
+        String nextCursor = ids.length > pageSize ? new TextKeysetCursor(null, ids[pageSize - 1]).encode() : null;
+        int totalCount = categoryIds.stream().mapToInt(categoryPostings::count).sum();
+        return new ProductPageDTO(products, totalCount, nextCursor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.ecom_backend.product.snapshot;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+
+/**
+ * The fields of a product a price or stock check needs, detached from the persistence context.
+ */
+public record ProductSnapshot(Long id, String name, String imageUrl, Money price, int stockQuantity) {
+}
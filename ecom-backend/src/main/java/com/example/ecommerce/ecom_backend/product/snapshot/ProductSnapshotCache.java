@@ -0,0 +1,91 @@
+package com.example.ecommerce.ecom_backend.product.snapshot;
+
+import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived LRU of product prices and stock for read-only checks such as checkout quotes.
+ *
+ * Entries expire after {@code products.snapshot.ttl-ms} and are evicted when a product is changed or an order takes
+ * its stock, so a snapshot is at most a few seconds behind. Nothing that writes may rely on it: placing an order
+ * takes stock with a conditional UPDATE on each product row, whatever a snapshot says. A product that no longer
+ * exists is simply absent from {@link #getAll}.
+ */
+@Component
+public class ProductSnapshotCache {
+
+    private final ProductRepository productRepository;
+    private final long ttlMillis;
+    private final int maxProducts;
+    private final Map<Long, Entry> snapshots;
+    // Bumped on every eviction; a reader only caches what it loaded if nothing was evicted meanwhile
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductSnapshotCache(ProductRepository productRepository,
+                                @Value("${products.snapshot.ttl-ms:5000}") long ttlMillis,
+                                @Value("${products.snapshot.max-products:10000}") int maxProducts) {
+        this.productRepository = productRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxProducts = maxProducts;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) { // access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > ProductSnapshotCache.this.maxProducts;
+            }
+        };
+    }
+
+    /**
+     * @return snapshots of the given products that exist, keyed by id; misses are loaded in one query
+     */
+    public Map<Long, ProductSnapshot> getAll(Collection<Long> productIds) {
+        Map<Long, ProductSnapshot> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long loadedAtGeneration;
+        synchronized (this) {
+            loadedAtGeneration = generation.get();
+            for (Long productId : productIds) {
+                Entry entry = snapshots.get(productId);
+                if (entry != null && entry.loadedAt > now - ttlMillis) {
+                    result.put(productId, entry.snapshot);
+                } else {
+                    missing.add(productId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // Loaded outside the lock so a slow query doesn't hold up hits for other products
+        List<ProductSnapshot> loaded = productRepository.findSnapshotsByIdIn(missing).stream()
+                .map(row -> new ProductSnapshot(row.getId(), row.getName(), row.getImageUrl(), row.getPrice(),
+                        row.getStockQuantity()))
+                .toList();
+        synchronized (this) {
+            if (generation.get() == loadedAtGeneration) {
+                loaded.forEach(snapshot -> snapshots.put(snapshot.id(), new Entry(snapshot, now)));
+            }
+        }
+        loaded.forEach(snapshot -> result.put(snapshot.id(), snapshot));
+        return result;
+    }
+
+    public synchronized void evict(Collection<Long> productIds) {
+        generation.incrementAndGet();
+        productIds.forEach(snapshots::remove);
+    }
+
+    private record Entry(ProductSnapshot snapshot, long loadedAt) {
+    }
+}
@@ -17,7 +17,6 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -49,15 +48,16 @@ public class PaymentController {
             Order order = orderRepository.findById(request.getOrderId())
                     .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + request.getOrderId()));
 
-            if (order.getTotalAmount() == null || order.getTotalAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            if (order.getTotalAmount() == null || !order.getTotalAmount().isPositive()) {
                 return new ResponseEntity<>(Collections.singletonMap("error", "Invalid order amount."), HttpStatus.BAD_REQUEST);
             }
 
-            long amountInCents = order.getTotalAmount().multiply(new BigDecimal(100)).longValue();
+            // Stripe takes the amount in the currency's smallest unit, which is exactly what Money stores
+            long amountInMinorUnits = order.getTotalAmount().getMinorUnits();
 
             PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                    .setAmount(amountInCents)
-                    .setCurrency("inr") // Change to your preferred currency
+                    .setAmount(amountInMinorUnits)
+                    .setCurrency(order.getTotalAmount().getCurrency().getCurrencyCode().toLowerCase()) // See Money.DEFAULT_CURRENCY
                     .putMetadata("order_id", order.getId().toString())
                     .build();
 
@@ -1,11 +1,15 @@
 package com.example.ecommerce.ecom_backend.stripe;
 
+import com.example.ecommerce.ecom_backend.common.exception.InvalidStatusTransitionException;
+import com.example.ecommerce.ecom_backend.order.model.OrderStatus;
 import com.example.ecommerce.ecom_backend.order.service.OrderService;
 import com.google.gson.JsonSyntaxException;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -16,6 +20,8 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/stripe")
 public class StripeWebhookController {
 
+    private static final Logger log = LoggerFactory.getLogger(StripeWebhookController.class);
+
     @Value("${stripe.webhook.secret}")
     private String webhookSecret;
 
@@ -40,7 +46,12 @@ public class StripeWebhookController {
             if (orderIdStr != null) {
                 Long orderId = Long.parseLong(orderIdStr);
                 // Update order status to PAID
-                orderService.updateOrderStatus(orderId, "PAID");
+                try {
+                    orderService.updateOrderStatus(orderId, OrderStatus.PAID.name());
+                } catch (InvalidStatusTransitionException e) {
+                    // E.g. paid after being cancelled: needs a refund, and retrying the webhook won't help
+                    log.warn("Payment for order {} not applied: {}", orderId, e.getMessage());
+                }
             }
         }
 
@@ -0,0 +1,35 @@
+package com.example.ecommerce.ecom_backend.user.controller;
+
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.user.dto.RoleRequestDTO;
+import com.example.ecommerce.ecom_backend.user.dto.RoleResponseDTO;
+import com.example.ecommerce.ecom_backend.user.service.RoleService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/roles")
+@RequiresRole("ADMIN")
+public class RoleController {
+
+    private final RoleService roleService;
+
+    public RoleController(RoleService roleService) {
+        this.roleService = roleService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RoleResponseDTO>> getAllRoles() {
+        return ResponseEntity.ok(roleService.getAllRoles());
+    }
+
+    // New roles are usable in user updates as soon as this returns
+    @PostMapping
+    public ResponseEntity<RoleResponseDTO> createRole(@Valid @RequestBody RoleRequestDTO roleRequestDTO) {
+        return new ResponseEntity<>(roleService.createRole(roleRequestDTO), HttpStatus.CREATED);
+    }
+}
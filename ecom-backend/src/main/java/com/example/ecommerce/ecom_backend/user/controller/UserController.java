@@ -1,18 +1,27 @@
 // src/main/java/com/example/ecommerce/ecom_backend/controller/UserController.java
 package com.example.ecommerce.ecom_backend.user.controller;
 
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.user.deletion.UserDeletionService;
+import com.example.ecommerce.ecom_backend.user.dto.AdminUserPageDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserDeletionJobDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserImportJobDTO;
 import com.example.ecommerce.ecom_backend.user.dto.UserResponseDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserSearchCriteria;
 import com.example.ecommerce.ecom_backend.user.dto.UserUpdateDTO;
+import com.example.ecommerce.ecom_backend.user.importer.UserImportFormat;
+import com.example.ecommerce.ecom_backend.user.importer.UserImportService;
 import com.example.ecommerce.ecom_backend.user.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.InputStream;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/users")
@@ -21,17 +30,42 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    // Only ADMINs can list all users
-    @GetMapping
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        List<UserResponseDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
+    // Admin user directory: keyset pages, e.g. ?q=ali&by=EMAIL&role=ADMIN&cursor=... The bare list is the unfiltered first page
+    @GetMapping({"", "/search"})
+    @RequiresRole("ADMIN")
+    public ResponseEntity<AdminUserPageDTO> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "EMAIL") UserSearchCriteria.Field by,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.searchUsers(new UserSearchCriteria(q, by, role), cursor, size));
+    }
+
+    // Bulk onboarding: a CSV with a header row or one JSON user per line. Runs in the background: 202 with a job to poll
+    @PostMapping(value = "/import", consumes = {UserImportFormat.CSV_MEDIA_TYPE, UserImportFormat.NDJSON_MEDIA_TYPE})
+    @RequiresRole("ADMIN")
+    public ResponseEntity<UserImportJobDTO> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) {
+        UserImportJobDTO job = userImportService.submit(body, UserImportFormat.fromContentType(contentType));
+        return ResponseEntity.accepted().location(URI.create("/api/users/imports/" + job.getJobId())).body(job);
+    }
+
+    @GetMapping("/imports/{jobId}")
+    @RequiresRole("ADMIN")
+    public ResponseEntity<UserImportJobDTO> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(userImportService.getJob(jobId));
     }
 
     // Only ADMINs can get a user by ID
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id) {
         UserResponseDTO user = userService.getUserById(id);
         return ResponseEntity.ok(user);
@@ -39,22 +73,28 @@ public class UserController {
 
     // Only ADMINs can update a user by ID
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
+    @RequiresRole("ADMIN")
     public ResponseEntity<UserResponseDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateDTO userUpdateDTO) {
         UserResponseDTO updatedUser = userService.updateUser(id, userUpdateDTO);
         return ResponseEntity.ok(updatedUser);
     }
 
-    // Only ADMINs can delete a user by ID
+    // Only ADMINs can delete a user by ID. Runs in the background: 202 with a job to poll
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        userService.deleteUser(id);
-        return ResponseEntity.noContent().build();
+    @RequiresRole("ADMIN")
+    public ResponseEntity<UserDeletionJobDTO> deleteUser(@PathVariable Long id) {
+        UserDeletionJobDTO job = userService.deleteUser(id);
+        return ResponseEntity.accepted().location(URI.create("/api/users/deletions/" + job.getJobId())).body(job);
+    }
+
+    @GetMapping("/deletions/{jobId}")
+    @RequiresRole("ADMIN")
+    public ResponseEntity<UserDeletionJobDTO> getDeletionJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(userDeletionService.getJob(jobId));
     }
     // New endpoint to get the current user's profile
     @GetMapping("/me")
-    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @RequiresRole({"USER", "ADMIN"})
     public ResponseEntity<UserResponseDTO> getMyProfile() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String userEmail = authentication.getName();
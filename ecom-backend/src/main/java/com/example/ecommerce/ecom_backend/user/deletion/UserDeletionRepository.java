@@ -0,0 +1,86 @@
+package com.example.ecommerce.ecom_backend.user.deletion;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset-chunked reads and set-based deletes of everything a user owns, for {@link UserDeletionService}.
+ * Chunks are walked by id, so rows added while a deletion runs (a late cart line or order) are still picked up.
+ */
+@Repository
+public class UserDeletionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserDeletionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> findCartItemIds(long userId, long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT ci.id FROM cart_items ci JOIN carts c ON c.id = ci.cart_id " +
+                        "WHERE c.user_id = :userId AND ci.id > :afterId ORDER BY ci.id LIMIT :limit",
+                params(userId, afterId, limit), Long.class);
+    }
+
+    public int deleteCartItems(List<Long> ids) {
+        return jdbcTemplate.update("DELETE FROM cart_items WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    public int deleteCarts(long userId) {
+        return jdbcTemplate.update("DELETE FROM carts WHERE user_id = :userId", new MapSqlParameterSource("userId", userId));
+    }
+
+    public List<Long> findOrderIds(long userId, long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM orders WHERE user_id = :userId AND id > :afterId ORDER BY id LIMIT :limit",
+                params(userId, afterId, limit), Long.class);
+    }
+
+    // What listeners need to know about these orders once they are gone; read in the transaction that deletes them
+    public List<OrderDeletedEvent> describeOrders(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        Map<Long, OrderDeletedEvent> events = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, user_id FROM orders WHERE id IN (:ids) ORDER BY id", params, rs -> {
+            events.put(rs.getLong("id"), new OrderDeletedEvent(rs.getLong("id"), rs.getLong("user_id"), new ArrayList<>()));
+        });
+        jdbcTemplate.query("SELECT order_id, product_id, quantity, " +
+                "COALESCE(subtotal, price_at_purchase * quantity) AS subtotal FROM order_items WHERE order_id IN (:ids)",
+                params, rs -> {
+                    OrderDeletedEvent event = events.get(rs.getLong("order_id"));
+                    if (event != null) {
+                        BigDecimal subtotal = rs.getBigDecimal("subtotal");
+                        event.getItems().add(new OrderDeletedEvent.Item(rs.getLong("product_id"), rs.getInt("quantity"),
+                                subtotal == null ? Money.ZERO : Money.of(subtotal)));
+                    }
+                });
+        return new ArrayList<>(events.values());
+    }
+
+    // Returns {orders deleted, order items deleted}; their history summaries go with them
+    public int[] deleteOrders(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        int items = jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM order_summaries WHERE order_id IN (:ids)", params);
+        int orders = jdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", params);
+        return new int[]{orders, items};
+    }
+
+    // Fails on the foreign keys if the user still owns a cart or an order
+    public boolean deleteUser(long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = :userId", params);
+        return jdbcTemplate.update("DELETE FROM users WHERE id = :userId", params) == 1;
+    }
+
+    private static MapSqlParameterSource params(long userId, long afterId, int limit) {
+        return new MapSqlParameterSource("userId", userId).addValue("afterId", afterId).addValue("limit", limit);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.ecommerce.ecom_backend.user.deletion;
+
+import com.example.ecommerce.ecom_backend.auth.refresh.RefreshTokenService;
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventPublisher;
+import com.example.ecommerce.ecom_backend.order.readmodel.OrderHistoryCache;
+import com.example.ecommerce.ecom_backend.user.dto.UserDeletionJobDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserDeletionJobDTO.State;
+import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes users in the background instead of inside the admin's request.
+ *
+ * Cart items, the cart, then orders (with their items and history summaries) are deleted in keyset chunks of
+ * {@code users.deletion.chunk-size}, each in its own short transaction with a pause in between, and the user row
+ * goes last. Each order chunk writes an {@code OrderDeleted} outbox event per order in the same transaction, so the
+ * sales rollups, the summaries and open order streams drop them too. Refresh tokens are revoked first so the user
+ * can't sign in again meanwhile. Jobs run one at a time on a
+ * single thread and are only kept in memory (the newest {@code users.deletion.max-jobs}); a job cut short by a
+ * restart leaves a partly emptied user that can simply be deleted again.
+ */
+@Service
+public class UserDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDeletionService.class);
+
+    private final UserRepository userRepository;
+    private final UserDeletionRepository userDeletionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RefreshTokenService refreshTokenService;
+    private final OrderHistoryCache orderHistoryCache;
+    private final OrderEventPublisher orderEventPublisher;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final ExecutorService worker;
+    private final Map<String, Job> jobs;
+    private final Map<Long, Job> activeByUser = new ConcurrentHashMap<>();
+
+    public UserDeletionService(UserRepository userRepository, UserDeletionRepository userDeletionRepository,
+                               TransactionTemplate transactionTemplate, RefreshTokenService refreshTokenService,
+                               OrderHistoryCache orderHistoryCache, OrderEventPublisher orderEventPublisher,
+                               @Value("${users.deletion.chunk-size:500}") int chunkSize,
+                               @Value("${users.deletion.pause-ms:50}") long pauseMs,
+                               @Value("${users.deletion.max-jobs:1000}") int maxJobs) {
+        this.userRepository = userRepository;
+        this.userDeletionRepository = userDeletionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.refreshTokenService = refreshTokenService;
+        this.orderHistoryCache = orderHistoryCache;
+        this.orderEventPublisher = orderEventPublisher;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.jobs = new LinkedHashMap<>(16, 0.75f, false) { // Insertion order: the oldest job goes first
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+                return size() > maxJobs;
+            }
+        };
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the deletion and returns at once; asking again while it is queued or running returns the same job.
+     *
+     * @throws ResourceNotFoundException if there is no such user
+     */
+    public UserDeletionJobDTO submit(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id : '" + userId + "'");
+        }
+        Job created = new Job(UUID.randomUUID().toString(), userId);
+        Job job = activeByUser.putIfAbsent(userId, created);
+        if (job == null) {
+            job = created;
+            synchronized (jobs) {
+                jobs.put(job.id, job);
+            }
+            worker.execute(() -> run(created));
+        }
+        return job.toDto();
+    }
+
+    public UserDeletionJobDTO getJob(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("User deletion job", "id", jobId);
+        }
+        return job.toDto();
+    }
+
+    private void run(Job job) {
+        job.startedAt = LocalDateTime.now();
+        job.state = State.RUNNING;
+        try {
+            refreshTokenService.revokeAll(job.userId);
+            purge(job);
+            try {
+                transactionTemplate.execute(status -> userDeletionRepository.deleteUser(job.userId));
+            } catch (DataIntegrityViolationException ex) {
+                purge(job); // Something was added while we deleted (an order placed with a still valid access token)
+                transactionTemplate.execute(status -> userDeletionRepository.deleteUser(job.userId));
+            }
+            orderHistoryCache.invalidate(job.userId);
+            job.finish(State.COMPLETED, null);
+            log.info("Deleted user {}: {} orders, {} order items, {} cart items in {} chunks", job.userId,
+                    job.ordersDeleted.get(), job.orderItemsDeleted.get(), job.cartItemsDeleted.get(), job.chunks.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt(); // Shutting down
+            job.finish(State.FAILED, "Interrupted by shutdown");
+        } catch (RuntimeException ex) {
+            job.finish(State.FAILED, ex.getMessage());
+            log.warn("Deleting user {} stopped after {} chunks: {}", job.userId, job.chunks.get(), ex.getMessage());
+        } finally {
+            activeByUser.remove(job.userId, job);
+        }
+    }
+
+    private void purge(Job job) throws InterruptedException {
+        long after = 0;
+        List<Long> ids;
+        do {
+            long afterId = after;
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = userDeletionRepository.findCartItemIds(job.userId, afterId, chunkSize);
+                if (!chunk.isEmpty()) {
+                    job.cartItemsDeleted.addAndGet(userDeletionRepository.deleteCartItems(chunk));
+                }
+                return chunk;
+            });
+            after = next(job, ids, after);
+        } while (ids.size() == chunkSize);
+        transactionTemplate.execute(status -> userDeletionRepository.deleteCarts(job.userId));
+
+        after = 0;
+        do {
+            long afterId = after;
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = userDeletionRepository.findOrderIds(job.userId, afterId, chunkSize);
+                if (!chunk.isEmpty()) {
+                    List<OrderDeletedEvent> events = userDeletionRepository.describeOrders(chunk);
+                    int[] deleted = userDeletionRepository.deleteOrders(chunk);
+                    orderEventPublisher.ordersDeleted(events);
+                    job.ordersDeleted.addAndGet(deleted[0]);
+                    job.orderItemsDeleted.addAndGet(deleted[1]);
+                }
+                return chunk;
+            });
+            after = next(job, ids, after);
+        } while (ids.size() == chunkSize);
+    }
+
+    // Counts the chunk and pauses before a full one is followed by the next; returns the new keyset position
+    private long next(Job job, List<Long> ids, long after) throws InterruptedException {
+        if (ids.isEmpty()) {
+            return after;
+        }
+        job.chunks.incrementAndGet();
+        if (ids.size() == chunkSize) {
+            Thread.sleep(pauseMs); // Let user traffic have the connections and the locks in between
+        }
+        return ids.get(ids.size() - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Long userId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicLong cartItemsDeleted = new AtomicLong();
+        private final AtomicLong ordersDeleted = new AtomicLong();
+        private final AtomicLong orderItemsDeleted = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private volatile State state = State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, Long userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+
+        // State last, so a poller that sees the job done also sees when and why
+        private void finish(State finalState, String message) {
+            finishedAt = LocalDateTime.now();
+            error = message;
+            state = finalState;
+        }
+
+        private UserDeletionJobDTO toDto() {
+            return new UserDeletionJobDTO(id, userId, state, submittedAt, startedAt, finishedAt, cartItemsDeleted.get(),
+                    ordersDeleted.get(), orderItemsDeleted.get(), chunks.get(), error);
+        }
+    }
+}
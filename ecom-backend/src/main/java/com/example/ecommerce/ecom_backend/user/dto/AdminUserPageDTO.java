@@ -0,0 +1,15 @@
+package com.example.ecommerce.ecom_backend.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserPageDTO {
+    private List<UserResponseDTO> users;
+    private String nextCursor; // Pass back as ?cursor= with the same filters; null on the last page
+}
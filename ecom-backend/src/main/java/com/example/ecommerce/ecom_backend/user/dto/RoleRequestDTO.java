@@ -0,0 +1,17 @@
+package com.example.ecommerce.ecom_backend.user.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleRequestDTO {
+
+    @NotBlank(message = "Role name cannot be empty")
+    @Pattern(regexp = "[A-Za-z_]{2,50}", message = "Role name must be 2 to 50 letters or underscores")
+    private String name; // "SUPPORT" or "ROLE_SUPPORT"
+}
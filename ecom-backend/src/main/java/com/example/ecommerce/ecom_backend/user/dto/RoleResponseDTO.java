@@ -0,0 +1,13 @@
+package com.example.ecommerce.ecom_backend.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleResponseDTO {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,27 @@
+package com.example.ecommerce.ecom_backend.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletionJobDTO {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+    private Long userId;
+    private State state;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long cartItemsDeleted;
+    private long ordersDeleted;
+    private long orderItemsDeleted;
+    private long chunks;
+    private String error; // Set when FAILED; submitting the user again resumes where it stopped
+}
@@ -0,0 +1,21 @@
+package com.example.ecommerce.ecom_backend.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Outcome of a bulk user import; errors lists the first 100 rejected lines
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private long received;
+    private long imported;
+    private long duplicates; // Already registered, or repeated earlier in the file
+    private long invalid;
+    private List<String> errors;
+    private long elapsedMillis;
+    private double usersPerSecond;
+}
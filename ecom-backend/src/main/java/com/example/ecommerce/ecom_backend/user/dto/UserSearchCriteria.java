@@ -0,0 +1,18 @@
+package com.example.ecommerce.ecom_backend.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Optional filters for the admin user directory; null means "don't filter on this"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchCriteria {
+
+    public enum Field { EMAIL, USERNAME }
+
+    private String prefix; // Matches the start of the field below, case as the column's collation decides
+    private Field field = Field.EMAIL;
+    private String role;   // "ADMIN" or "ROLE_ADMIN"
+}
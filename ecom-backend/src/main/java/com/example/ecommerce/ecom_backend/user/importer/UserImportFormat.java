@@ -0,0 +1,15 @@
+package com.example.ecommerce.ecom_backend.user.importer;
+
+import org.springframework.http.MediaType;
+
+public enum UserImportFormat {
+    CSV, NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    public static UserImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE)) ? CSV : NDJSON;
+    }
+}
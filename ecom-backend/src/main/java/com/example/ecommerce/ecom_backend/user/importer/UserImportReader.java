@@ -0,0 +1,142 @@
+package com.example.ecommerce.ecom_backend.user.importer;
+
+import com.example.ecommerce.ecom_backend.auth.dto.UserRegistrationRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams users out of an import file one line at a time, so the file is never held in memory.
+ *
+ * CSV needs a header row naming its columns (email, password, firstName, lastName and optionally username, in any
+ * order; first_name and last_name work too). Fields may be quoted, but a quoted field can't span lines.
+ * NDJSON is one registration object per line. A line that can't be parsed comes back as a row with an error
+ * instead of ending the import.
+ */
+class UserImportReader implements Closeable {
+
+    record Row(int line, UserRegistrationRequest request, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final UserImportFormat format;
+    private final ObjectReader jsonReader;
+    private int line;
+    private int[] columns; // CSV: field index for email, password, username, firstName, lastName (-1 if absent)
+
+    UserImportReader(InputStream input, UserImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.jsonReader = objectMapper.readerFor(UserRegistrationRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    // Returns null at the end of the input; blank lines are skipped
+    Row next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        if (format == UserImportFormat.NDJSON) {
+            try {
+                return new Row(line, jsonReader.readValue(text), null);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "not a JSON object: " + e.getOriginalMessage());
+            }
+        }
+        if (columns == null) {
+            readHeader(text);
+            return next();
+        }
+        List<String> fields = splitCsv(text);
+        if (fields == null) {
+            return new Row(line, null, "unterminated quoted field");
+        }
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setEmail(field(fields, 0));
+        request.setPassword(field(fields, 1));
+        request.setUsername(field(fields, 2));
+        request.setFirstName(field(fields, 3));
+        request.setLastName(field(fields, 4));
+        return new Row(line, request, null);
+    }
+
+    private void readHeader(String header) {
+        List<String> names = splitCsv(header);
+        if (names == null) {
+            throw new IllegalArgumentException("Invalid CSV header");
+        }
+        columns = new int[]{-1, -1, -1, -1, -1};
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT)) {
+                case "email" -> columns[0] = i;
+                case "password" -> columns[1] = i;
+                case "username" -> columns[2] = i;
+                case "firstname" -> columns[3] = i;
+                case "lastname" -> columns[4] = i;
+                default -> { } // Extra columns are ignored
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0) {
+            throw new IllegalArgumentException("CSV header must name at least the email and password columns");
+        }
+    }
+
+    private String field(List<String> fields, int column) {
+        int index = columns[column];
+        return index < 0 || index >= fields.size() ? null : fields.get(index);
+    }
+
+    // RFC 4180 fields on a single line; null if a quote is left open
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ecommerce.ecom_backend.user.importer;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based reads and JDBC batch writes for the user import; JPA would insert (and select back) one user at a time.
+ * Emails are compared lower-cased, like the case-insensitive unique key on users.email.
+ */
+@Repository
+public class UserImportRepository {
+
+    public record NewUser(String email, String username, String passwordHash, String firstName, String lastName) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserImportRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query("SELECT email FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                rs -> {
+                    existing.add(rs.getString("email").toLowerCase(Locale.ROOT));
+                });
+        return existing;
+    }
+
+    public Map<String, Long> findIdsByEmail(Collection<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                rs -> {
+                    ids.put(rs.getString("email").toLowerCase(Locale.ROOT), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    public void insertUsers(List<NewUser> users, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        SqlParameterSource[] batch = users.stream()
+                .map(user -> new MapSqlParameterSource()
+                        .addValue("email", user.email())
+                        .addValue("username", user.username())
+                        .addValue("password", user.passwordHash())
+                        .addValue("firstName", user.firstName())
+                        .addValue("lastName", user.lastName())
+                        .addValue("now", timestamp))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, username, password, first_name, last_name, created_at, updated_at) " +
+                "VALUES (:email, :username, :password, :firstName, :lastName, :now, :now)", batch);
+    }
+
+    public void insertUserRoles(Collection<Long> userIds, long roleId) {
+        SqlParameterSource[] batch = userIds.stream()
+                .map(userId -> new MapSqlParameterSource().addValue("userId", userId).addValue("roleId", roleId))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (:userId, :roleId)", batch);
+    }
+}
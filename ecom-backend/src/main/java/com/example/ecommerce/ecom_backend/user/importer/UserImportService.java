@@ -0,0 +1,336 @@
+package com.example.ecommerce.ecom_backend.user.importer;
+
+import com.example.ecommerce.ecom_backend.auth.dto.UserRegistrationRequest;
+import com.example.ecommerce.ecom_backend.auth.password.OffloadingPasswordEncoder;
+import com.example.ecommerce.ecom_backend.common.exception.PayloadTooLargeException;
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.user.dto.UserImportJobDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserImportJobDTO.State;
+import com.example.ecommerce.ecom_backend.user.dto.UserImportResultDTO;
+import com.example.ecommerce.ecom_backend.user.registry.RoleRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Admin bulk import: what {@code /api/auth/register} does per user, done per chunk of users.
+ *
+ * Each chunk costs one query to find emails that are already taken, one parallel bcrypt pass on the password
+ * hashing pool (at the lowest priority, so logins keep their latency) and one short transaction with a batch insert
+ * into users, one select for the new ids and a batch insert into user_roles. Rows that are invalid or duplicate
+ * are counted and skipped; the rest of the file is still imported.
+ *
+ * Uploads run in the background like user deletions: {@link #submit} only spools the body to a temp file (at most
+ * {@code users.import.max-upload-bytes}) and queues it. Imports run one at a time on a single thread, and the newest
+ * {@code users.import.max-jobs} stay queryable in memory; a restart drops queued and running ones.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
+    private final UserImportRepository userImportRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxRows;
+    private final long maxUploadBytes;
+    private final ExecutorService worker;
+    private final Map<String, Job> jobs;
+
+    public UserImportService(UserImportRepository userImportRepository, PasswordEncoder passwordEncoder,
+                      RoleRegistry roleRegistry, Validator validator, TransactionTemplate transactionTemplate,
+                      ObjectMapper objectMapper,
+                      @Value("${users.import.chunk-size:500}") int chunkSize,
+                      @Value("${users.import.max-rows:100000}") int maxRows,
+                      @Value("${users.import.max-upload-bytes:67108864}") long maxUploadBytes,
+                      @Value("${users.import.max-jobs:100}") int maxJobs) {
+        this.userImportRepository = userImportRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.maxUploadBytes = maxUploadBytes;
+        this.jobs = new LinkedHashMap<>(16, 0.75f, false) { // Insertion order: the oldest job goes first
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+                return size() > maxJobs;
+            }
+        };
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stores the upload and queues its import; returns once the body has been received.
+     *
+     * @throws PayloadTooLargeException if the body is over {@code users.import.max-upload-bytes}
+     */
+    public UserImportJobDTO submit(InputStream input, UserImportFormat format) {
+        Job job = new Job(UUID.randomUUID().toString(), spool(input), format);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        worker.execute(() -> run(job));
+        return job.toDto();
+    }
+
+    public UserImportJobDTO getJob(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("User import job", "id", jobId);
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private Path spool(InputStream input) {
+        Path file;
+        try {
+            file = Files.createTempFile("user-import-", ".upload");
+        } catch (IOException e) {
+            throw new UncheckedIOException("User import upload failed", e);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) {
+                    throw new PayloadTooLargeException("User import files are limited to " + maxUploadBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("User import upload failed", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private void run(Job job) {
+        job.startedAt = LocalDateTime.now();
+        job.state = State.RUNNING;
+        try (InputStream input = Files.newInputStream(job.file)) {
+            job.result = importUsers(input, job.format);
+            job.finish(State.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            job.finish(State.FAILED, e.getMessage());
+            log.warn("User import {} failed: {}", job.id, e.getMessage());
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete user import upload {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Imports on the calling thread; the endpoint goes through submit
+    public UserImportResultDTO importUsers(InputStream input, UserImportFormat format) {
+        long started = System.nanoTime();
+        long roleId = roleRegistry.findId(DEFAULT_ROLE)
+                .orElseThrow(() -> new IllegalStateException("Role " + DEFAULT_ROLE + " is missing"));
+        UserImportResultDTO result = new UserImportResultDTO(0, 0, 0, 0, new ArrayList<>(), 0, 0);
+        Set<String> seen = new HashSet<>(); // Emails earlier in this file, lower-cased
+
+        try (UserImportReader reader = new UserImportReader(input, format, objectMapper)) {
+            List<UserImportReader.Row> chunk = new ArrayList<>(chunkSize);
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                if (result.getReceived() == maxRows) {
+                    reportError(result, row.line(), "import stopped: at most " + maxRows + " rows per file");
+                    break;
+                }
+                result.setReceived(result.getReceived() + 1);
+                String error = row.error() != null ? row.error() : validate(row.request());
+                if (error != null) {
+                    result.setInvalid(result.getInvalid() + 1);
+                    reportError(result, row.line(), error);
+                } else if (!seen.add(row.request().getEmail().toLowerCase(Locale.ROOT))) {
+                    result.setDuplicates(result.getDuplicates() + 1);
+                } else {
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        importChunk(chunk, roleId, result);
+                        chunk.clear();
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, roleId, result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("User import aborted", e); // Chunks already imported stay imported
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setUsersPerSecond(elapsedNanos == 0 ? 0 : result.getImported() * 1_000_000_000.0 / elapsedNanos);
+        log.info("Imported {} of {} users ({} duplicates, {} invalid) in {} ms, {} users/s", result.getImported(),
+                result.getReceived(), result.getDuplicates(), result.getInvalid(), result.getElapsedMillis(),
+                String.format(Locale.ROOT, "%.1f", result.getUsersPerSecond()));
+        return result;
+    }
+
+    private String validate(UserRegistrationRequest request) {
+        Set<ConstraintViolation<UserRegistrationRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private void importChunk(List<UserImportReader.Row> chunk, long roleId, UserImportResultDTO result) {
+        List<UserImportReader.Row> fresh = withoutExisting(chunk, result);
+        if (fresh.isEmpty()) {
+            return;
+        }
+        // Hashed before the transaction opens: this is the slow part
+        List<String> hashes = encodeAll(fresh.stream().map(row -> row.request().getPassword()).toList());
+        List<UserImportRepository.NewUser> users = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            UserRegistrationRequest request = fresh.get(i).request();
+            String username = request.getUsername() != null && !request.getUsername().isBlank()
+                    ? request.getUsername() : request.getEmail(); // Same default as registration
+            users.add(new UserImportRepository.NewUser(request.getEmail(), username, hashes.get(i),
+                    request.getFirstName(), request.getLastName()));
+        }
+
+        try {
+            insert(users, roleId);
+        } catch (DuplicateKeyException e) {
+            // Someone registered one of these emails after we checked; drop the taken ones and try once more
+            Set<String> taken = userImportRepository.findExistingEmails(emails(users));
+            List<UserImportRepository.NewUser> remaining = users.stream()
+                    .filter(user -> !taken.contains(user.email().toLowerCase(Locale.ROOT)))
+                    .toList();
+            result.setDuplicates(result.getDuplicates() + users.size() - remaining.size());
+            users = remaining;
+            if (!users.isEmpty()) {
+                insert(users, roleId);
+            }
+        }
+        result.setImported(result.getImported() + users.size());
+    }
+
+    private List<UserImportReader.Row> withoutExisting(List<UserImportReader.Row> chunk, UserImportResultDTO result) {
+        Set<String> existing = userImportRepository.findExistingEmails(
+                chunk.stream().map(row -> row.request().getEmail()).toList());
+        if (existing.isEmpty()) {
+            return chunk;
+        }
+        List<UserImportReader.Row> fresh = chunk.stream()
+                .filter(row -> !existing.contains(row.request().getEmail().toLowerCase(Locale.ROOT)))
+                .toList();
+        result.setDuplicates(result.getDuplicates() + chunk.size() - fresh.size());
+        return fresh;
+    }
+
+    private List<String> encodeAll(List<String> passwords) {
+        if (passwordEncoder instanceof OffloadingPasswordEncoder offloading) {
+            return offloading.encodeAll(passwords);
+        }
+        return passwords.stream().map(passwordEncoder::encode).toList();
+    }
+
+    private void insert(List<UserImportRepository.NewUser> users, long roleId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userImportRepository.insertUsers(users, LocalDateTime.now());
+            Map<String, Long> ids = userImportRepository.findIdsByEmail(emails(users));
+            userImportRepository.insertUserRoles(ids.values(), roleId);
+        });
+    }
+
+    private static List<String> emails(List<UserImportRepository.NewUser> users) {
+        return users.stream().map(UserImportRepository.NewUser::email).toList();
+    }
+
+    private static void reportError(UserImportResultDTO result, int line, String message) {
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("line " + line + ": " + message);
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Path file;
+        private final UserImportFormat format;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile State state = State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile UserImportResultDTO result;
+        private volatile String error;
+
+        private Job(String id, Path file, UserImportFormat format) {
+            this.id = id;
+            this.file = file;
+            this.format = format;
+        }
+
+        // State last, so a poller that sees the job done also sees when and why
+        private void finish(State finalState, String message) {
+            finishedAt = LocalDateTime.now();
+            error = message;
+            state = finalState;
+        }
+
+        private UserImportJobDTO toDto() {
+            return new UserImportJobDTO(id, state, submittedAt, startedAt, finishedAt, result, error);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ecommerce.ecom_backend.user.registry;
+
+import com.example.ecommerce.ecom_backend.common.snapshot.ReloadingSnapshot;
+import com.example.ecommerce.ecom_backend.user.model.Role;
+import com.example.ecommerce.ecom_backend.user.repository.RoleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of the roles table, so signups and role updates resolve names to ids without a query.
+ *
+ * Loaded at startup (after the DataLoader has seeded the defaults) and reloaded whenever roles change. An unknown name
+ * reloads it at most once a second before it is reported missing, which picks up roles added by another instance.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final String PREFIX = "ROLE_";
+    private static final long MISS_RELOAD_INTERVAL_MS = 1000;
+
+    private final ReloadingSnapshot<Map<String, Long>> idsByName;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.idsByName = new ReloadingSnapshot<>(() -> roleRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Role::getName, Role::getId)), MISS_RELOAD_INTERVAL_MS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        idsByName.reload();
+    }
+
+    public void refreshAfterCommit() {
+        idsByName.reloadAfterCommit();
+    }
+
+    /**
+     * @return a detached reference to the role, fine for assigning to a user; a fresh instance per call
+     */
+    public Optional<Role> find(String name) {
+        Long id = idsByName.getOrReload(ids -> ids.containsKey(name)).get(name);
+        return id == null ? Optional.empty() : Optional.of(new Role(id, name));
+    }
+
+    public Optional<Long> findId(String name) {
+        return find(name).map(Role::getId);
+    }
+
+    public List<Role> getAll() {
+        return idsByName.get().entrySet().stream()
+                .map(entry -> new Role(entry.getValue(), entry.getKey()))
+                .sorted(Comparator.comparing(Role::getName))
+                .toList();
+    }
+
+    // "admin" and "ROLE_ADMIN" both mean ROLE_ADMIN
+    public static String normalize(String name) {
+        String upper = name.trim().toUpperCase(Locale.ROOT);
+        return upper.startsWith(PREFIX) ? upper : PREFIX + upper;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ecommerce.ecom_backend.user.repository;
+
+import com.example.ecommerce.ecom_backend.common.pagination.TextKeysetCursor;
+import com.example.ecommerce.ecom_backend.user.dto.UserResponseDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserSearchCriteria;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset-paginated admin user directory. Reads only {@code users} columns (never carts or orders), and each filter
+ * combination walks one index: the email unique key or {@code (username, id)} for a prefix search, ordered by that
+ * column; {@code (role_id, user_id)} on {@code user_roles} for a role without a prefix; the primary key otherwise.
+ * Roles for a page come from {@link #findRoleNames} in one query.
+ */
+@Repository
+public class UserListingRepository {
+
+    private static final String COLUMNS = "u.id, u.username, u.email, u.first_name, u.last_name, u.created_at, u.updated_at";
+
+    private static final RowMapper<UserResponseDTO> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new UserResponseDTO(
+                rs.getLong("id"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                null, // Filled in from findRoleNames
+                createdAt == null ? null : createdAt.toLocalDateTime(),
+                updatedAt == null ? null : updatedAt.toLocalDateTime());
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserListingRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // roleId comes from the role registry; null means any role, and criteria.getRole() is not read here
+    public List<UserResponseDTO> findPage(UserSearchCriteria criteria, Long roleId, TextKeysetCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        String sql;
+        if (criteria.getPrefix() != null) {
+            String column = criteria.getField() == UserSearchCriteria.Field.USERNAME ? "u.username" : "u.email";
+            StringBuilder where = new StringBuilder(" WHERE " + column + " LIKE :prefix ESCAPE '!'");
+            params.addValue("prefix", escapeLike(criteria.getPrefix()) + "%");
+            if (roleId != null) {
+                where.append(" AND EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id AND ur.role_id = :roleId)");
+                params.addValue("roleId", roleId);
+            }
+            if (after != null && after.getKey() != null) {
+                where.append(" AND (" + column + " > :afterKey OR (" + column + " = :afterKey AND u.id > :afterId))");
+                params.addValue("afterKey", after.getKey());
+                params.addValue("afterId", after.getId());
+            }
+            sql = "SELECT " + COLUMNS + " FROM users u" + where + " ORDER BY " + column + ", u.id LIMIT :limit";
+        } else if (roleId != null) {
+            // Driven from the role side, so a rare role doesn't mean scanning every user
+            sql = "SELECT " + COLUMNS + " FROM user_roles ur JOIN users u ON u.id = ur.user_id " +
+                    "WHERE ur.role_id = :roleId AND ur.user_id > :afterId ORDER BY ur.user_id LIMIT :limit";
+            params.addValue("roleId", roleId);
+            params.addValue("afterId", after == null ? 0L : after.getId());
+        } else {
+            sql = "SELECT " + COLUMNS + " FROM users u WHERE u.id > :afterId ORDER BY u.id LIMIT :limit";
+            params.addValue("afterId", after == null ? 0L : after.getId());
+        }
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    // Role names for a page of users, one query for the whole page
+    public Map<Long, Set<String>> findRoleNames(Collection<Long> userIds) {
+        Map<Long, Set<String>> roles = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return roles;
+        }
+        jdbcTemplate.query("SELECT ur.user_id, r.name FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+                        "WHERE ur.user_id IN (:userIds)",
+                new MapSqlParameterSource("userIds", userIds),
+                rs -> {
+                    roles.computeIfAbsent(rs.getLong("user_id"), id -> new HashSet<>()).add(rs.getString("name"));
+                });
+        return roles;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -2,8 +2,12 @@ package com.example.ecommerce.ecom_backend.user.repository;
 
 import com.example.ecommerce.ecom_backend.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository // Marks this interface as a Spring Data JPA repository
@@ -13,4 +17,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    // One row per role. A projection, so neither the EAGER roles nor the inverse one-to-one cart trigger extra selects
+    @Query("select u.id as id, u.email as email, u.password as password, r.name as roleName " +
+            "from User u left join u.roles r where u.email = :email")
+    List<CredentialsRow> findCredentialsByEmail(@Param("email") String email);
+
+    // Same rows by id, for refreshing an access token
+    @Query("select u.id as id, u.email as email, u.password as password, r.name as roleName " +
+            "from User u left join u.roles r where u.id = :id")
+    List<CredentialsRow> findCredentialsById(@Param("id") Long id);
+
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // Rehash on login: only the hash changes, so no need to load the user
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
+    interface CredentialsRow {
+        Long getId();
+        String getEmail();
+        String getPassword();
+        String getRoleName();
+    }
 }
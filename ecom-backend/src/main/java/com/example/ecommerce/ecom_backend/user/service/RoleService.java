@@ -0,0 +1,12 @@
+package com.example.ecommerce.ecom_backend.user.service;
+
+import com.example.ecommerce.ecom_backend.common.exception.DuplicateRoleNameException;
+import com.example.ecommerce.ecom_backend.user.dto.RoleRequestDTO;
+import com.example.ecommerce.ecom_backend.user.dto.RoleResponseDTO;
+
+import java.util.List;
+
+public interface RoleService {
+    List<RoleResponseDTO> getAllRoles(); // Served from the registry, no query
+    RoleResponseDTO createRole(RoleRequestDTO roleRequestDTO) throws DuplicateRoleNameException;
+}
@@ -0,0 +1,48 @@
+package com.example.ecommerce.ecom_backend.user.service;
+
+import com.example.ecommerce.ecom_backend.common.exception.DuplicateRoleNameException;
+import com.example.ecommerce.ecom_backend.user.dto.RoleRequestDTO;
+import com.example.ecommerce.ecom_backend.user.dto.RoleResponseDTO;
+import com.example.ecommerce.ecom_backend.user.model.Role;
+import com.example.ecommerce.ecom_backend.user.registry.RoleRegistry;
+import com.example.ecommerce.ecom_backend.user.repository.RoleRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class RoleServiceImpl implements RoleService {
+
+    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+
+    public RoleServiceImpl(RoleRepository roleRepository, RoleRegistry roleRegistry) {
+        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
+    }
+
+    @Override
+    public List<RoleResponseDTO> getAllRoles() {
+        return roleRegistry.getAll().stream()
+                .map(role -> new RoleResponseDTO(role.getId(), role.getName()))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public RoleResponseDTO createRole(RoleRequestDTO roleRequestDTO) throws DuplicateRoleNameException {
+        String name = RoleRegistry.normalize(roleRequestDTO.getName());
+        // Asks the table: the registry reloads on a miss at most once a second, so it may not know a role just
+        // created on another instance
+        if (roleRepository.findByName(name).isPresent()) {
+            throw new DuplicateRoleNameException("Role '" + name + "' already exists.");
+        }
+        Role role = new Role();
+        role.setName(name);
+        Role saved = roleRepository.save(role);
+        // Readers keep the old snapshot until the role is actually in the table
+        roleRegistry.refreshAfterCommit();
+        return new RoleResponseDTO(saved.getId(), saved.getName());
+    }
+}
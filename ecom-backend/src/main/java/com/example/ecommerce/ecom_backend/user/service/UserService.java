@@ -2,18 +2,20 @@
 package com.example.ecommerce.ecom_backend.user.service;
 
 import com.example.ecommerce.ecom_backend.auth.dto.UserRegistrationRequest;
+import com.example.ecommerce.ecom_backend.user.dto.AdminUserPageDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserDeletionJobDTO;
 import com.example.ecommerce.ecom_backend.user.dto.UserResponseDTO; // Import the new DTO
+import com.example.ecommerce.ecom_backend.user.dto.UserSearchCriteria;
 import com.example.ecommerce.ecom_backend.user.dto.UserUpdateDTO;   // Import the new DTO
 import com.example.ecommerce.ecom_backend.common.exception.DuplicateEmailException; // Import new exception
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException; // Assuming this exists or create it if not
 
-import java.util.List;
 
 public interface UserService {
-    List<UserResponseDTO> getAllUsers(); // Returns DTOs
+    AdminUserPageDTO searchUsers(UserSearchCriteria criteria, String cursor, int size); // Keyset page for the admin directory
     UserResponseDTO getUserById(Long id) throws ResourceNotFoundException; // Returns DTO, throws exception
     UserResponseDTO updateUser(Long id, UserUpdateDTO userUpdateDTO) throws ResourceNotFoundException; // Takes DTO, returns DTO, throws exception
-    void deleteUser(Long id) throws ResourceNotFoundException; // Throws exception
+    UserDeletionJobDTO deleteUser(Long id) throws ResourceNotFoundException; // Queued; the job reports progress
     UserResponseDTO registerUser(UserRegistrationRequest registrationRequest) throws DuplicateEmailException; // Returns DTO, throws exception
     UserResponseDTO getUserByEmail(String email) throws ResourceNotFoundException;
 }
\ No newline at end of file
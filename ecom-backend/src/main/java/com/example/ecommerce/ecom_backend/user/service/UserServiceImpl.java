@@ -2,13 +2,20 @@
 package com.example.ecommerce.ecom_backend.user.service;
 
 import com.example.ecommerce.ecom_backend.auth.dto.UserRegistrationRequest;
+import com.example.ecommerce.ecom_backend.common.pagination.TextKeysetCursor;
+import com.example.ecommerce.ecom_backend.user.deletion.UserDeletionService;
+import com.example.ecommerce.ecom_backend.user.dto.AdminUserPageDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserDeletionJobDTO;
 import com.example.ecommerce.ecom_backend.user.dto.UserResponseDTO; // New import
+import com.example.ecommerce.ecom_backend.user.dto.UserSearchCriteria;
 import com.example.ecommerce.ecom_backend.user.dto.UserUpdateDTO;   // New import
 import com.example.ecommerce.ecom_backend.common.exception.DuplicateEmailException; // New import
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException; // Assuming this exists
 import com.example.ecommerce.ecom_backend.user.model.Role;
 import com.example.ecommerce.ecom_backend.user.model.User;
+import com.example.ecommerce.ecom_backend.user.registry.RoleRegistry;
 import com.example.ecommerce.ecom_backend.user.repository.RoleRepository;
+import com.example.ecommerce.ecom_backend.user.repository.UserListingRepository;
 import com.example.ecommerce.ecom_backend.user.repository.UserRepository; // Adjusted import for UserRepository based on User.java's package
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional; // Import for @
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors; // New import for stream operations
 
@@ -25,6 +33,8 @@ import java.util.stream.Collectors; // New import for stream operations
 @Transactional // Ensures transactional behavior for service methods
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_ADMIN_PAGE_SIZE = 200;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -34,6 +44,15 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private UserListingRepository userListingRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
     // Helper method to convert User entity to UserResponseDTO
     private UserResponseDTO convertToDto(User user) {
         if (user == null) {
@@ -59,10 +78,40 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserResponseDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public AdminUserPageDTO searchUsers(UserSearchCriteria criteria, String cursor, int size) {
+        UserSearchCriteria normalized = normalize(criteria);
+        int pageSize = Math.min(Math.max(size, 1), MAX_ADMIN_PAGE_SIZE);
+        TextKeysetCursor after = TextKeysetCursor.decode(cursor);
+        Long roleId = null;
+        if (normalized.getRole() != null) {
+            roleId = roleRegistry.findId(normalized.getRole()).orElse(null);
+            if (roleId == null) {
+                return new AdminUserPageDTO(List.of(), null); // Nobody can have a role that doesn't exist
+            }
+        }
+        // One extra row tells us whether there is a next page
+        List<UserResponseDTO> rows = userListingRepository.findPage(normalized, roleId, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            UserResponseDTO last = rows.get(pageSize - 1);
+            String key = normalized.getPrefix() == null ? null
+                    : normalized.getField() == UserSearchCriteria.Field.USERNAME ? last.getUsername() : last.getEmail();
+            nextCursor = new TextKeysetCursor(key, last.getId()).encode();
+            rows = rows.subList(0, pageSize);
+        }
+
+        Map<Long, Set<String>> roles = userListingRepository.findRoleNames(rows.stream().map(UserResponseDTO::getId).toList());
+        rows.forEach(row -> row.setRoles(roles.getOrDefault(row.getId(), new HashSet<>())));
+        return new AdminUserPageDTO(rows, nextCursor);
+    }
+
+    private static UserSearchCriteria normalize(UserSearchCriteria criteria) {
+        String prefix = criteria.getPrefix() == null || criteria.getPrefix().isBlank() ? null : criteria.getPrefix().trim();
+        String role = criteria.getRole() == null || criteria.getRole().isBlank() ? null : RoleRegistry.normalize(criteria.getRole());
+        UserSearchCriteria.Field field = criteria.getField() == null ? UserSearchCriteria.Field.EMAIL : criteria.getField();
+        return new UserSearchCriteria(prefix, field, role);
     }
 
     @Override
@@ -108,7 +157,7 @@ public class UserServiceImpl implements UserService {
         if (userUpdateDTO.getRoles() != null && !userUpdateDTO.getRoles().isEmpty()) {
             Set<Role> newRoles = new HashSet<>();
             for (String roleName : userUpdateDTO.getRoles()) {
-                Role role = roleRepository.findByName(roleName)
+                Role role = roleRegistry.find(roleName)
                         .orElseThrow(() -> new ResourceNotFoundException("Role not found: '" + roleName + "'"));
                 newRoles.add(role);
             }
@@ -124,11 +173,9 @@ public class UserServiceImpl implements UserService {
 
 
     @Override
-    public void deleteUser(Long id) throws ResourceNotFoundException {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id : '" + id + "'");
-        }
-        userRepository.deleteById(id);
+    public UserDeletionJobDTO deleteUser(Long id) throws ResourceNotFoundException {
+        // deleteById would cascade through every order and item in one transaction; the job works in chunks
+        return userDeletionService.submit(id);
     }
 
     @Override
@@ -151,10 +198,11 @@ public class UserServiceImpl implements UserService {
 
         Set<Role> roles = new HashSet<>();
         // Assign default role "ROLE_USER"
-        Role userRole = roleRepository.findByName("ROLE_USER")
+        Role userRole = roleRegistry.find("ROLE_USER")
                 .orElseGet(() -> {
                     Role newRole = new Role();
                     newRole.setName("ROLE_USER");
+                    roleRegistry.refreshAfterCommit();
                     return roleRepository.save(newRole);
                 });
         roles.add(userRole);
@@ -0,0 +1,109 @@
+package com.example.ecommerce.ecom_backend.benchmarks;
+
+import com.example.ecommerce.ecom_backend.auth.security.JwtTokenProvider;
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRoleAuthorizationManager;
+import com.example.ecommerce.ecom_backend.auth.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-request security overhead before and after the filter fast path:
+ * the role check ({@code @PreAuthorize} SpEL versus {@link RequiresRole}) and reading the JWT (parser rebuilt and
+ * token parsed twice, as the filter used to, versus one parse with the cached parser). The old filter also ran a
+ * user query per request, which this leaves out. Run {@link #main} as described in {@link CartTotalBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    public static class Endpoints {
+        @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+        public void spel() {
+        }
+
+        @RequiresRole({"USER", "ADMIN"})
+        public void precompiled() {
+        }
+    }
+
+    private PreAuthorizeAuthorizationManager preAuthorize;
+    private RequiresRoleAuthorizationManager requiresRole;
+    private SimpleMethodInvocation spelCall;
+    private SimpleMethodInvocation precompiledCall;
+    private Supplier<Authentication> authentication;
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        preAuthorize = new PreAuthorizeAuthorizationManager();
+        requiresRole = new RequiresRoleAuthorizationManager();
+        Endpoints endpoints = new Endpoints();
+        spelCall = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("spel"));
+        precompiledCall = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod("precompiled"));
+        UserPrincipal principal = new UserPrincipal(1L, "u1@x.com", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        Authentication user = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        authentication = () -> user;
+
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "EXPIRATION_TIME", 900_000L);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+        token = jwtTokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public AuthorizationResult roleCheckSpel() {
+        return preAuthorize.authorize(authentication, spelCall);
+    }
+
+    @Benchmark
+    public AuthorizationResult roleCheckPrecompiled() {
+        return requiresRole.authorize(authentication, precompiledCall);
+    }
+
+    @Benchmark
+    public String tokenParsedTwiceWithNewParser() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build() // validateToken(...)
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build() // getUsernameFromJwt(...)
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims tokenParsedOnce() {
+        return jwtTokenProvider.parseValidClaims(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorizationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.ecommerce.ecom_backend.benchmarks;
+
+import com.example.ecommerce.ecom_backend.common.ratelimit.RateLimitFilter;
+import com.example.ecommerce.ecom_backend.common.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link RateLimitFilter} with the default rules and limits high enough never to reject,
+ * so only the bookkeeping is measured. Budget: well under a microsecond, including from several threads
+ * hammering the same client's bucket (on fewer cores than threads that score includes time slicing). Run {@link #main} as described in {@link CartTotalBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final int CLIENTS = 1024;
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private RateLimitFilter filter;
+    private String alreadyFiltered; // OncePerRequestFilter marks the request; reusing it needs the mark cleared
+
+    @Setup
+    public void setUp() {
+        RateLimiter rateLimiter = new RateLimiter(true, "POST /api/auth/login=1000000000/1, "
+                + "POST /api/auth/register=1000000000/1, /api/payments/**=1000000000/1, /api/**=1000000000/1", 100_000);
+        filter = new RateLimitFilter(rateLimiter, new ObjectMapper());
+        alreadyFiltered = RateLimitFilter.class.getName() + ".FILTERED";
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+        MockHttpServletRequest login;
+        MockHttpServletRequest[] browsing = new MockHttpServletRequest[CLIENTS];
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int next;
+
+        @Setup
+        public void setUp() {
+            login = new MockHttpServletRequest("POST", "/api/auth/login");
+            login.setRemoteAddr("203.0.113.7");
+            for (int i = 0; i < CLIENTS; i++) {
+                browsing[i] = new MockHttpServletRequest("GET", "/api/products/" + i);
+                browsing[i].setRemoteAddr("10.0." + (i >> 8) + "." + (i & 0xff));
+            }
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse manyClients(Requests requests) throws Exception {
+        MockHttpServletRequest request = requests.browsing[requests.next++ & (CLIENTS - 1)];
+        request.removeAttribute(alreadyFiltered);
+        filter.doFilter(request, requests.response, NO_OP);
+        return requests.response;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public MockHttpServletResponse oneClientContended(Requests requests) throws Exception {
+        requests.login.removeAttribute(alreadyFiltered);
+        filter.doFilter(requests.login, requests.response, NO_OP);
+        return requests.response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
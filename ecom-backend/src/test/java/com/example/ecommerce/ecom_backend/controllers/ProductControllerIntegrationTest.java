@@ -4,6 +4,7 @@ import com.example.ecommerce.ecom_backend.product.dto.ProductRequestDTO;
 import com.example.ecommerce.ecom_backend.product.model.Product;
 import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
 import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -89,7 +90,7 @@ public class ProductControllerIntegrationTest {
         Product savedProduct = productRepository.findAll().get(0);
         assertThat(savedProduct.getName()).isEqualTo("Test Product");
         assertThat(savedProduct.getDescription()).isEqualTo("Test Description");
-        assertThat(savedProduct.getPrice()).isEqualTo(BigDecimal.valueOf(9.99));
+        assertThat(savedProduct.getPrice()).isEqualTo(Money.parse("9.99"));
         assertThat(savedProduct.getStockQuantity()).isEqualTo(10);
         assertThat(savedProduct.getImageUrl()).isEqualTo("https://example.com/image.jpg");
     }
@@ -0,0 +1,92 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.cart.sweeper.AbandonedCartSweeper;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventRepository;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxRelay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AbandonedCartSweeperTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private AbandonedCartSweeper sweeper;
+    private ThreadPoolTaskScheduler scheduler;
+    private final CountDownLatch sweepStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseSweep = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new AbandonedCartSweeper(jdbcTemplate, transactionTemplate);
+        // Same shape as Spring Boot's default scheduler: one thread for every @Scheduled method
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.initialize();
+        // The first chunk query stands in for a sweep that takes a long time
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenAnswer(inv -> {
+            sweepStarted.countDown();
+            releaseSweep.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSweep.countDown();
+        sweeper.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void scheduledSweep_shouldNotHoldTheSchedulerThread_soTheOutboxRelayKeepsPolling() throws Exception {
+        // Arrange
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, List.of());
+        when(outboxEventRepository.findPending(anyInt(), any())).thenReturn(List.of());
+
+        // Act
+        scheduler.schedule(sweeper::scheduledSweep, Instant.now());
+        assertTrue(sweepStarted.await(2, TimeUnit.SECONDS));
+        scheduler.scheduleWithFixedDelay(relay::poll, Duration.ofMillis(20));
+
+        // Assert: the relay keeps firing while the sweep is still running
+        verify(outboxEventRepository, timeout(2000).atLeast(3)).findPending(anyInt(), any());
+        assertTrue(sweeper.getStats().isRunning());
+    }
+
+    @Test
+    void scheduledSweep_shouldSkip_whenASweepIsAlreadyRunning() throws Exception {
+        // Act
+        sweeper.scheduledSweep();
+        assertTrue(sweepStarted.await(2, TimeUnit.SECONDS));
+        sweeper.scheduledSweep();
+        releaseSweep.countDown();
+
+        // Assert
+        verify(jdbcTemplate, after(200).times(1)).query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.auth.security.CurrentUserResolver;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemRequestDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.model.Cart;
+import com.example.ecommerce.ecom_backend.cart.model.CartItem;
+import com.example.ecommerce.ecom_backend.cart.repository.CartItemRepository;
+import com.example.ecommerce.ecom_backend.cart.repository.CartRepository;
+import com.example.ecommerce.ecom_backend.cart.service.CartServiceImpl;
+import com.example.ecommerce.ecom_backend.common.exception.InsufficientStockException;
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.product.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AddToCartUpsertTest {
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    @InjectMocks
+    private CartServiceImpl cartService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
+        product = new Product();
+        product.setId(5L);
+        product.setName("Phone");
+        product.setStockQuantity(10);
+    }
+
+    // The cart as the service reloads it after the upsert
+    private Cart cartHolding(int quantity) {
+        CartItem item = new CartItem();
+        item.setId(50L);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(Money.parse("20.00"));
+        Cart cart = new Cart();
+        cart.setId(3L);
+        cart.getCartItems().add(item);
+        cart.setSubtotal(Money.parse("20.00").times(quantity));
+        when(cartRepository.findWithItemsByUserId(1L)).thenReturn(Optional.of(cart));
+        return cart;
+    }
+
+    @Test
+    void addProductToCart_shouldAddToTheExistingLine_inOneStatement_underTheCartLock() {
+        // Arrange: MySQL reports 2 rows for a duplicate-key update
+        when(cartItemRepository.upsertQuantity(eq(1L), eq(5L), eq(2), any())).thenReturn(2);
+        cartHolding(3);
+
+        // Act
+        CartResponseDTO result = cartService.addProductToCart(new CartItemRequestDTO(5L, 2));
+
+        // Assert
+        InOrder inOrder = inOrder(cartRepository, cartItemRepository);
+        inOrder.verify(cartRepository).lockByUserId(1L);
+        inOrder.verify(cartItemRepository).upsertQuantity(eq(1L), eq(5L), eq(2), any());
+        inOrder.verify(cartRepository).addToTotals(1L, 5L, 2);
+        verify(cartRepository, never()).insertIfAbsent(any(), any());
+        assertEquals(3, result.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void addProductToCart_shouldCreateTheCart_andRetryOnce_onTheFirstAdd() {
+        // Arrange
+        when(cartItemRepository.upsertQuantity(eq(1L), eq(5L), eq(1), any())).thenReturn(0, 1);
+        cartHolding(1);
+
+        // Act
+        cartService.addProductToCart(new CartItemRequestDTO(5L, 1));
+
+        // Assert
+        InOrder inOrder = inOrder(cartRepository, cartItemRepository);
+        inOrder.verify(cartItemRepository).upsertQuantity(eq(1L), eq(5L), eq(1), any());
+        inOrder.verify(cartRepository).insertIfAbsent(eq(1L), any());
+        inOrder.verify(cartItemRepository).upsertQuantity(eq(1L), eq(5L), eq(1), any());
+        inOrder.verify(cartRepository).addToTotals(1L, 5L, 1);
+    }
+
+    @Test
+    void addProductToCart_shouldThrowNotFound_whenTheProductDoesNotExist() {
+        // Arrange: nothing matched even with the cart in place
+        when(cartItemRepository.upsertQuantity(eq(1L), eq(99L), eq(1), any())).thenReturn(0, 0);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> cartService.addProductToCart(new CartItemRequestDTO(99L, 1)));
+        verify(cartRepository, never()).addToTotals(any(), any(), anyInt());
+    }
+
+    @Test
+    void addProductToCart_shouldThrow_whenTheCombinedQuantityExceedsStock() {
+        // Arrange: 8 already in the cart plus 4 more, 10 in stock
+        when(cartItemRepository.upsertQuantity(eq(1L), eq(5L), eq(4), any())).thenReturn(2);
+        cartHolding(12);
+
+        // Act & Assert (the transaction rolls the upsert back)
+        assertThrows(InsufficientStockException.class, () -> cartService.addProductToCart(new CartItemRequestDTO(5L, 4)));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.common.pagination.KeysetCursor;
+import com.example.ecommerce.ecom_backend.order.dto.AdminOrderPageDTO;
+import com.example.ecommerce.ecom_backend.order.dto.AdminOrderRowDTO;
+import com.example.ecommerce.ecom_backend.order.dto.OrderSearchCriteria;
+import com.example.ecommerce.ecom_backend.order.repository.OrderListingRepository;
+import com.example.ecommerce.ecom_backend.order.service.OrderServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.io.StringWriter;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdminOrderListingTest {
+
+    private static final String PLACED_AT = "COALESCE(o.order_date, o.created_at)";
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Mock
+    private OrderListingRepository orderListingRepository;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private static AdminOrderRowDTO row(long id, LocalDateTime placedAt) {
+        return new AdminOrderRowDTO(id, 7L, "u7@x.com", placedAt, "PAID", Money.parse("10.00"), 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String queryFor(OrderSearchCriteria criteria, KeysetCursor after, ArgumentCaptor<SqlParameterSource> params) {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        new OrderListingRepository(jdbcTemplate).findPage(criteria, after, 51);
+        verify(jdbcTemplate).query(sql.capture(), params.capture(), any(RowMapper.class));
+        return sql.getValue();
+    }
+
+    @Test
+    void findPage_shouldListOrdersWithoutAnOrderDate_underTheirCreationTime() {
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+
+        String sql = queryFor(new OrderSearchCriteria(), null, params);
+
+        assertFalse(sql.contains("IS NOT NULL"));
+        assertFalse(sql.contains(" WHERE "));
+        assertTrue(sql.contains("SELECT o.id, o.user_id, u.email, " + PLACED_AT + " AS order_date"));
+        assertTrue(sql.endsWith("ORDER BY " + PLACED_AT + " DESC, o.id DESC LIMIT :limit"));
+        assertEquals(51, params.getValue().getValue("limit"));
+    }
+
+    @Test
+    void findPage_shouldFilterTheDateRangeAndContinueAfterTheCursor_onTheSameExpression() {
+        // Arrange
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        LocalDateTime lastSeen = LocalDateTime.of(2025, 3, 14, 12, 30);
+
+        // Act
+        String sql = queryFor(new OrderSearchCriteria("PAID", 7L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)),
+                new KeysetCursor(lastSeen, 42L), params);
+
+        // Assert
+        assertTrue(sql.contains(" WHERE o.status = :status AND o.user_id = :userId AND " + PLACED_AT + " >= :fromDate AND "
+                + PLACED_AT + " < :toDate AND (" + PLACED_AT + " < :afterDate OR (" + PLACED_AT
+                + " = :afterDate AND o.id < :afterId))"));
+        SqlParameterSource values = params.getValue();
+        assertEquals("PAID", values.getValue("status"));
+        assertEquals(7L, values.getValue("userId"));
+        assertEquals(Timestamp.valueOf("2025-03-01 00:00:00"), values.getValue("fromDate"));
+        assertEquals(Timestamp.valueOf("2025-04-01 00:00:00"), values.getValue("toDate")); // 'to' is inclusive
+        assertEquals(Timestamp.valueOf(lastSeen), values.getValue("afterDate"));
+        assertEquals(42L, values.getValue("afterId"));
+    }
+
+    @Test
+    void searchOrders_shouldReturnACursorFromTheLastRowShown_onlyWhenThereIsMore() {
+        // Arrange: one more row than the page size comes back
+        LocalDateTime placedAt = LocalDateTime.of(2025, 3, 14, 12, 30);
+        when(orderListingRepository.findPage(any(), isNull(), eq(3)))
+                .thenReturn(List.of(row(9L, placedAt), row(8L, placedAt), row(5L, placedAt.minusDays(1))));
+
+        // Act
+        AdminOrderPageDTO page = orderService.searchOrders(new OrderSearchCriteria(), null, 2);
+
+        // Assert
+        assertEquals(List.of(9L, 8L), page.getOrders().stream().map(AdminOrderRowDTO::getId).toList());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(placedAt, next.getTimestamp());
+        assertEquals(8L, next.getId());
+    }
+
+    @Test
+    void searchOrders_shouldRejectAnInvertedDateRange_withoutQuerying() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(null, null, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 3, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.searchOrders(criteria, null, 50));
+        verifyNoInteractions(orderListingRepository);
+    }
+
+    @Test
+    void exportOrdersCsv_shouldStreamEveryPage_continuingAfterTheLastRowOfEach() {
+        // Arrange: a full page of 1000 rows, then a partial one
+        LocalDateTime start = LocalDateTime.of(2025, 3, 14, 0, 0);
+        List<AdminOrderRowDTO> first = LongStream.range(0, 1000).mapToObj(i -> row(2000 - i, start.minusMinutes(i))).toList();
+        List<AdminOrderRowDTO> second = List.of(row(999L, start.minusDays(2)));
+        when(orderListingRepository.findPage(any(), any(), eq(1000))).thenReturn(first, second);
+        StringWriter out = new StringWriter();
+
+        // Act
+        orderService.exportOrdersCsv(new OrderSearchCriteria(), out);
+
+        // Assert
+        ArgumentCaptor<KeysetCursor> cursors = ArgumentCaptor.forClass(KeysetCursor.class);
+        verify(orderListingRepository, times(2)).findPage(any(), cursors.capture(), eq(1000));
+        assertNull(cursors.getAllValues().get(0));
+        assertEquals(1001L, cursors.getAllValues().get(1).getId());
+        assertEquals(start.minusMinutes(999), cursors.getAllValues().get(1).getTimestamp());
+        String[] lines = out.toString().split("\n");
+        assertEquals(1 + 1001, lines.length);
+        assertEquals("id,userId,userEmail,orderDate,status,totalAmount,itemCount", lines[0]);
+        assertTrue(lines[1001].startsWith("999,7,u7@x.com," + start.minusDays(2) + ",PAID,"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.auth.security.CurrentUserResolver;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemBatchRequestDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartItemOperationDTO;
+import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
+import com.example.ecommerce.ecom_backend.cart.model.Cart;
+import com.example.ecommerce.ecom_backend.cart.model.CartItem;
+import com.example.ecommerce.ecom_backend.cart.repository.CartRepository;
+import com.example.ecommerce.ecom_backend.cart.service.CartServiceImpl;
+import com.example.ecommerce.ecom_backend.common.exception.InsufficientStockException;
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.product.model.Product;
+import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
+import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.example.ecommerce.ecom_backend.cart.dto.CartItemOperationDTO.Operation.ADD;
+import static com.example.ecommerce.ecom_backend.cart.dto.CartItemOperationDTO.Operation.REMOVE;
+import static com.example.ecommerce.ecom_backend.cart.dto.CartItemOperationDTO.Operation.SET;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CartItemBatchTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    @InjectMocks
+    private CartServiceImpl cartService;
+
+    private Cart cart;
+    private Product phone;
+    private Product charger;
+
+    @BeforeEach
+    void setUp() {
+        phone = product(1L, "Phone", 10);
+        charger = product(2L, "Charger", 3);
+
+        cart = new Cart();
+        cart.setId(7L);
+        CartItem existing = new CartItem(cart, phone, 1);
+        existing.setId(100L);
+        cart.addCartItem(existing);
+
+        lenient().when(currentUserResolver.getCurrentUserId()).thenReturn(1L); // The merge gets the id passed in
+        when(cartRepository.findWithItemsByUserId(1L)).thenReturn(Optional.of(cart));
+    }
+
+    private static Product product(Long id, String name, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(Money.parse("10.00"));
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    private static CartItemBatchRequestDTO batch(CartItemOperationDTO... operations) {
+        return new CartItemBatchRequestDTO(List.of(operations));
+    }
+
+    @Test
+    void applyCartItemOperations_shouldApplyAllOperations_withOneProductLookup() {
+        // Arrange
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(charger));
+        when(cartRepository.save(cart)).thenReturn(cart);
+
+        // Act
+        CartResponseDTO result = cartService.applyCartItemOperations(batch(
+                new CartItemOperationDTO(ADD, 1L, 2),
+                new CartItemOperationDTO(ADD, 2L, 1),
+                new CartItemOperationDTO(SET, 2L, 3)));
+
+        // Assert
+        assertEquals(2, result.getItems().size());
+        assertEquals(3, result.getItems().get(0).getQuantity()); // 1 + 2
+        assertEquals(3, result.getItems().get(1).getQuantity());
+        assertEquals(Money.parse("60.00"), result.getTotalPrice());
+        assertEquals(6, cart.getItemCount()); // Kept by delta, not recounted
+        verify(productRepository, times(1)).findAllById(Set.of(2L)); // The phone came with the cart
+        verify(productRepository, never()).findById(any());
+        verify(cartRepository, times(1)).save(cart);
+    }
+
+    @Test
+    void applyCartItemOperations_shouldRemoveLines_forRemoveAndSetZero() {
+        // Arrange
+        when(cartRepository.save(cart)).thenReturn(cart);
+
+        // Act
+        CartResponseDTO result = cartService.applyCartItemOperations(batch(
+                new CartItemOperationDTO(SET, 1L, 0),
+                new CartItemOperationDTO(REMOVE, 99L, null))); // Not in the cart: ignored
+
+        // Assert
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(0, cart.getItemCount());
+        assertEquals(Money.ZERO, result.getTotalPrice());
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void applyCartItemOperations_shouldCheckStockAgainstFinalQuantity() {
+        // Arrange: adding 4 chargers fails even though the first operation alone would fit
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(charger));
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> cartService.applyCartItemOperations(batch(
+                new CartItemOperationDTO(ADD, 2L, 2),
+                new CartItemOperationDTO(ADD, 2L, 2))));
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void applyCartItemOperations_shouldThrow_whenProductDoesNotExist() {
+        // Arrange
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> cartService.applyCartItemOperations(batch(
+                new CartItemOperationDTO(ADD, 42L, 1))));
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    void applyCartItemOperations_shouldRejectAddWithoutQuantity() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cartService.applyCartItemOperations(batch(
+                new CartItemOperationDTO(ADD, 1L, 0))));
+        assertEquals(1, cart.getCartItems().get(0).getQuantity());
+    }
+
+    @Test
+    void mergeGuestCart_shouldAddLines_cappedAtStock_andSkipDeletedProducts() {
+        // Arrange
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(charger));
+        when(cartRepository.save(cart)).thenReturn(cart);
+
+        // Act
+        CartResponseDTO result = cartService.mergeGuestCart(1L, Map.of(1L, 2, 2L, 5, 99L, 1));
+
+        // Assert
+        assertEquals(2, result.getItems().size());
+        assertEquals(3, result.getItems().get(0).getQuantity()); // 1 already in the cart + 2
+        assertEquals(3, result.getItems().get(1).getQuantity()); // Only 3 chargers in stock
+        verify(productRepository, times(1)).findAllById(Set.of(2L, 99L));
+        verify(cartRepository, times(1)).save(cart);
+    }
+}
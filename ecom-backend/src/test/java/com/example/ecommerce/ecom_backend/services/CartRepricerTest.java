@@ -0,0 +1,97 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.cart.index.CartRepricer;
+import com.example.ecommerce.ecom_backend.product.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CartRepricerTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CartRepricer repricer;
+
+    @BeforeEach
+    void setUp() {
+        repricer = new CartRepricer(jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(repricer, "chunkSize", 2);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.queryForList(startsWith("SELECT price"), any(SqlParameterSource.class)))
+                .thenReturn(List.of(Map.of("price", new BigDecimal("90.00"), "stock_quantity", 5)));
+        lenient().when(jdbcTemplate.queryForList(startsWith("SELECT id FROM cart_items"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(11L));
+    }
+
+    @Test
+    void onProductChanged_shouldLockTheCartRows_beforeChangingSubtotals() {
+        // Arrange
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT cart_id"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(3L, 4L));
+
+        // Act
+        repricer.onProductChanged(new ProductChangedEvent(1L, true, false));
+
+        // Assert
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).queryForList(contains("FOR UPDATE"),
+                argThat((SqlParameterSource p) -> List.of(3L, 4L).equals(p.getValue("cartIds"))), eq(Long.class));
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE carts"), any(SqlParameterSource.class));
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE cart_items"), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void onProductChanged_shouldSkipTheChunk_whenItsLinesAreGone() {
+        // Arrange
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT cart_id"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of());
+
+        // Act
+        repricer.onProductChanged(new ProductChangedEvent(1L, true, true));
+
+        // Assert
+        verify(jdbcTemplate, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void onProductChanged_shouldWalkTheProductsLinesInKeysetChunks_fromTheTable() {
+        // Arrange: five lines, two per chunk; none of them known to this instance beforehand
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM cart_items"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(11L, 12L), List.of(20L, 31L), List.of(40L));
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT cart_id"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(3L));
+
+        // Act
+        repricer.onProductChanged(new ProductChangedEvent(1L, false, true));
+
+        // Assert
+        for (long afterId : new long[]{0L, 12L, 31L}) {
+            verify(jdbcTemplate).queryForList(startsWith("SELECT id FROM cart_items"),
+                    argThat((SqlParameterSource p) -> p != null && p.hasValue("afterId")
+                            && Long.valueOf(afterId).equals(p.getValue("afterId"))), eq(Long.class));
+        }
+        verify(jdbcTemplate).update(startsWith("UPDATE cart_items SET stock_short"),
+                argThat((SqlParameterSource p) -> p != null && p.hasValue("ids") && List.of(40L).equals(p.getValue("ids"))));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ecommerce.ecom_backend.service;
 
+import com.example.ecommerce.ecom_backend.auth.security.CurrentUserResolver;
 import com.example.ecommerce.ecom_backend.cart.dto.CartItemRequestDTO;
 import com.example.ecommerce.ecom_backend.cart.dto.CartResponseDTO;
 import com.example.ecommerce.ecom_backend.cart.model.Cart;
@@ -11,23 +12,19 @@ import com.example.ecommerce.ecom_backend.common.exception.InsufficientStockExce
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
 import com.example.ecommerce.ecom_backend.product.model.Product;
 import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
-import com.example.ecommerce.ecom_backend.user.model.User;
-import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 
-import java.math.BigDecimal;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,58 +40,42 @@ public class CartServiceImplTest {
     private ProductRepository productRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
 
     @InjectMocks
     private CartServiceImpl cartService;
 
-    private User testUser;
     private Product testProduct;
     private Cart testCart;
 
     @BeforeEach
     void setUp() {
-        // Mocking the security context to simulate a logged-in user
-        Authentication authentication = mock(Authentication.class);
-        SecurityContext securityContext = mock(SecurityContext.class);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("testuser@example.com");
-
-        SecurityContextHolder.setContext(securityContext);
-
-        testUser = new User();
-        testUser.setId(1L);
-        testUser.setEmail("testuser@example.com");
+        // The user id comes from the authenticated principal
+        when(currentUserResolver.getCurrentUserId()).thenReturn(1L);
 
         testProduct = new Product();
         testProduct.setId(1L);
         testProduct.setName("Test Product");
-        testProduct.setPrice(BigDecimal.valueOf(100));
+        testProduct.setPrice(Money.ofMinor(100_00));
         testProduct.setStockQuantity(10);
 
         testCart = new Cart();
         testCart.setId(1L);
-        testCart.setUser(testUser);
-
-        // Mock the repository calls that happen in the service
-        when(userRepository.findByEmail("testuser@example.com")).thenReturn(Optional.of(testUser));
-        // *** THE FIX: Mock the findById call as well ***
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    }
 
+    // The cart as reloaded after the upsert, holding the product's line with its new quantity
+    private void cartReloadsWithLine(int quantity) {
+        CartItem line = new CartItem(testCart, testProduct, quantity);
+        line.setId(10L);
+        testCart.getCartItems().add(line);
+        when(cartRepository.findWithItemsByUserId(1L)).thenReturn(Optional.of(testCart));
     }
 
     @Test
     void addProductToCart_shouldAddNewItem_whenProductNotInCart() {
-        // Arrange
-        when(SecurityContextHolder.getContext().getAuthentication().getName()).thenReturn(testUser.getEmail());
-        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
-        when(productRepository.findById(testProduct.getId())).thenReturn(Optional.of(testProduct));
-        when(cartRepository.findByUserId(testUser.getId())).thenReturn(Optional.empty());
-
-        Cart newCart = new Cart();
-        newCart.setUser(testUser);
-        when(cartRepository.save(any(Cart.class))).thenReturn(newCart);
+        // Arrange: the upsert inserts a new line
+        when(cartItemRepository.upsertQuantity(eq(1L), eq(testProduct.getId()), eq(2), any())).thenReturn(1);
+        cartReloadsWithLine(2);
 
         CartItemRequestDTO request = new CartItemRequestDTO(testProduct.getId(), 2);
 
@@ -106,19 +87,18 @@ public class CartServiceImplTest {
         assertEquals(1, result.getItems().size());
         assertEquals(testProduct.getId(), result.getItems().get(0).getProductId());
         assertEquals(2, result.getItems().get(0).getQuantity());
-        verify(cartItemRepository, times(1)).save(any(CartItem.class));
+        InOrder inOrder = inOrder(cartRepository, cartItemRepository);
+        inOrder.verify(cartRepository).lockByUserId(1L); // Cart row first, like every other cart writer
+        inOrder.verify(cartItemRepository).upsertQuantity(eq(1L), eq(testProduct.getId()), eq(2), any());
+        inOrder.verify(cartRepository).addToTotals(1L, testProduct.getId(), 2);
     }
 
-
-
     @Test
     void addProductToCart_shouldThrowInsufficientStockException_whenStockIsLow() {
         // Arrange
         testProduct.setStockQuantity(1); // Set stock lower than requested quantity
-        when(SecurityContextHolder.getContext().getAuthentication().getName()).thenReturn(testUser.getEmail());
-        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
-        when(productRepository.findById(testProduct.getId())).thenReturn(Optional.of(testProduct));
-        when(cartRepository.findByUserId(testUser.getId())).thenReturn(Optional.empty());
+        when(cartItemRepository.upsertQuantity(eq(1L), eq(testProduct.getId()), eq(2), any())).thenReturn(1);
+        cartReloadsWithLine(2);
 
         CartItemRequestDTO request = new CartItemRequestDTO(testProduct.getId(), 2);
 
@@ -130,11 +110,8 @@ public class CartServiceImplTest {
 
     @Test
     void addProductToCart_shouldThrowResourceNotFoundException_whenProductNotFound() {
-        // Arrange
-        when(SecurityContextHolder.getContext().getAuthentication().getName()).thenReturn(testUser.getEmail());
-        when(userRepository.findByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty()); // Product does not exist
-        when(cartRepository.findByUserId(testUser.getId())).thenReturn(Optional.empty());
+        // Arrange: nothing to upsert against, even after making sure the cart exists
+        when(cartItemRepository.upsertQuantity(eq(1L), eq(99L), eq(1), any())).thenReturn(0);
 
         CartItemRequestDTO request = new CartItemRequestDTO(99L, 1); // Non-existent product ID
 
@@ -142,5 +119,7 @@ public class CartServiceImplTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             cartService.addProductToCart(request);
         });
+        verify(cartRepository).insertIfAbsent(eq(1L), any());
+        verify(cartRepository, never()).addToTotals(any(), any(), anyInt());
     }
-}
\ No newline at end of file
+}
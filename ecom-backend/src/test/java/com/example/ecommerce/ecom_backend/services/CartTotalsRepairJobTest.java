@@ -0,0 +1,115 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.cart.totals.CartTotalsRepairJob;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventRepository;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxRelay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CartTotalsRepairJobTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private CartTotalsRepairJob repairJob;
+    private ThreadPoolTaskScheduler scheduler;
+    private final CountDownLatch repairStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseRepair = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        repairJob = new CartTotalsRepairJob(jdbcTemplate, transactionTemplate);
+        scheduler = new ThreadPoolTaskScheduler(); // One thread, like Spring Boot's default
+        scheduler.setPoolSize(1);
+        scheduler.initialize();
+        // The first chunk query stands in for a pass over a large carts table
+        lenient().when(jdbcTemplate.queryForObject(anyString(), any(SqlParameterSource.class), eq(Long.class))).thenAnswer(inv -> {
+            repairStarted.countDown();
+            releaseRepair.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseRepair.countDown();
+        repairJob.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void scheduledRepair_shouldNotHoldTheSchedulerThread_soTheOutboxRelayKeepsPolling() throws Exception {
+        // Arrange
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, List.of());
+        when(outboxEventRepository.findPending(anyInt(), any())).thenReturn(List.of());
+
+        // Act
+        scheduler.schedule(repairJob::scheduledRepair, Instant.now());
+        assertTrue(repairStarted.await(2, TimeUnit.SECONDS));
+        scheduler.scheduleWithFixedDelay(relay::poll, Duration.ofMillis(20));
+
+        // Assert: the relay keeps firing while the repair pass is still running
+        verify(outboxEventRepository, timeout(2000).atLeast(3)).findPending(anyInt(), any());
+    }
+
+    @Test
+    void repairOnStartup_shouldReturnBeforeThePassFinishes() throws Exception {
+        // Act
+        repairJob.repairOnStartup();
+
+        // Assert
+        assertTrue(repairStarted.await(2, TimeUnit.SECONDS)); // Still blocked in the first query, yet we got here
+    }
+
+    @Test
+    void repair_shouldLockTheDriftedCarts_andRecomputeThemInOneTransaction() {
+        // Arrange: one chunk, carts 3 and 7 drifted
+        releaseRepair.countDown();
+        ReflectionTestUtils.setField(repairJob, "pauseMs", 0L);
+        when(jdbcTemplate.queryForObject(anyString(), any(SqlParameterSource.class), eq(Long.class))).thenReturn(9L, (Long) null);
+        when(jdbcTemplate.queryForList(startsWith("SELECT c.id"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(3L, 7L));
+        when(jdbcTemplate.update(startsWith("UPDATE carts"), any(SqlParameterSource.class))).thenReturn(2);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            InOrder inTransaction = inOrder(jdbcTemplate);
+            Object result = inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            inTransaction.verify(jdbcTemplate).queryForList(contains("FOR UPDATE"),
+                    argThat((SqlParameterSource p) -> List.of(3L, 7L).equals(p.getValue("ids"))), eq(Long.class));
+            inTransaction.verify(jdbcTemplate).update(startsWith("UPDATE carts"), any(SqlParameterSource.class));
+            return result;
+        });
+
+        // Act
+        int repaired = repairJob.repair();
+
+        // Assert
+        assertEquals(2, repaired);
+        verify(transactionTemplate).execute(any());
+    }
+}
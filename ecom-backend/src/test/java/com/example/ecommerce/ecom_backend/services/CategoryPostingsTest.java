@@ -0,0 +1,69 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.category.postings.CategoryPostings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryPostingsTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private CategoryPostings postings;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // products (id, category_id): 1-5 under category 10, 6-8 under 20
+        long[][] rows = {{1, 10}, {2, 20}, {3, 10}, {4, 10}, {5, 10}, {6, 20}, {7, 20}, {8, 10}};
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(2);
+            ResultSet rs = mock(ResultSet.class);
+            for (long[] row : rows) {
+                when(rs.getLong(1)).thenReturn(row[0]);
+                when(rs.getLong(2)).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        postings = new CategoryPostings(jdbcTemplate, 1000);
+        postings.refresh();
+    }
+
+    @Test
+    void page_shouldMergeCategoriesInIdOrder_fromTheCursor() {
+        assertArrayEquals(new long[]{1, 2, 3}, postings.page(List.of(10L, 20L), 0, 3));
+        assertArrayEquals(new long[]{4, 5, 6, 7, 8}, postings.page(List.of(10L, 20L), 3, 10));
+        assertArrayEquals(new long[]{5, 8}, postings.page(List.of(10L), 4, 10));
+        assertEquals(5, postings.count(10L));
+        assertEquals(0, postings.count(99L));
+    }
+
+    @Test
+    void updates_shouldPatchPostings_withoutReloading() {
+        // Act: outside a transaction the changes apply right away
+        postings.productMovedAfterCommit(8L, 10L, 20L);
+        postings.productMovedAfterCommit(9L, null, 30L);
+        postings.categoryMergedAfterCommit(20L, 10L);
+
+        // Assert
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5, 6, 7, 8}, postings.page(List.of(10L), 0, 20));
+        assertEquals(0, postings.count(20L));
+        assertEquals(1, postings.count(30L));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.category.dto.CategoryRequestDTO;
+import com.example.ecommerce.ecom_backend.category.dto.CategoryResponseDTO;
+import com.example.ecommerce.ecom_backend.category.model.Category;
+import com.example.ecommerce.ecom_backend.category.postings.CategoryPostings;
+import com.example.ecommerce.ecom_backend.category.repository.CategoryRepository;
+import com.example.ecommerce.ecom_backend.category.service.CategoryServiceImpl;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTreeCache;
+import com.example.ecommerce.ecom_backend.common.exception.InvalidCategoryMoveException;
+import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryServiceImplTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryTreeCache categoryTreeCache;
+
+    @Mock
+    private CategoryPostings categoryPostings;
+
+    @InjectMocks
+    private CategoryServiceImpl categoryService;
+
+    private static Category category(Long id, Long parentId, String path, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId);
+        category.setPath(path);
+        category.setName(name);
+        return category;
+    }
+
+    @Test
+    void createCategory_shouldDerivePathFromParent() {
+        // Arrange
+        when(categoryRepository.findByName("Cases")).thenReturn(Optional.empty());
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(category(2L, 1L, "/1/2/", "Phones")));
+        when(categoryRepository.save(any(Category.class))).thenAnswer(inv -> {
+            Category saved = inv.getArgument(0);
+            saved.setId(4L);
+            return saved;
+        });
+
+        // Act
+        CategoryResponseDTO result = categoryService.createCategory(new CategoryRequestDTO("Cases", null, 2L));
+
+        // Assert
+        assertEquals(2L, result.getParentId());
+        verify(categoryRepository).save(argThat(saved -> "/1/2/4/".equals(saved.getPath())));
+        verify(categoryTreeCache).refreshAfterCommit();
+    }
+
+    @Test
+    void updateCategory_shouldMoveSubtree_andRejectMovesIntoItself() {
+        // Arrange
+        Category phones = category(2L, 1L, "/1/2/", "Phones");
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(phones));
+        when(categoryRepository.findById(4L)).thenReturn(Optional.of(category(4L, 2L, "/1/2/4/", "Cases")));
+        when(categoryRepository.findById(5L)).thenReturn(Optional.of(category(5L, null, "/5/", "Gadgets")));
+        when(categoryRepository.save(phones)).thenReturn(phones);
+
+        // Act & Assert
+        assertThrows(InvalidCategoryMoveException.class,
+                () -> categoryService.updateCategory(2L, new CategoryRequestDTO("Phones", null, 4L)));
+        categoryService.updateCategory(2L, new CategoryRequestDTO("Phones", null, 5L));
+
+        assertEquals("/5/2/", phones.getPath());
+        verify(categoryRepository).movePaths("/1/2/", "/5/2/");
+        verify(categoryRepository, times(1)).movePaths(any(), any());
+    }
+
+    @Test
+    void deleteCategory_shouldMoveProductsAndSubcategoriesUpOneLevel() {
+        // Arrange
+        Category phones = category(2L, 1L, "/1/2/", "Phones");
+        Category electronics = category(1L, null, "/1/", "Electronics");
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(phones));
+        when(categoryRepository.getReferenceById(1L)).thenReturn(electronics);
+
+        // Act
+        categoryService.deleteCategory(2L);
+
+        // Assert
+        verify(productRepository).reassignCategory(2L, electronics);
+        verify(categoryRepository).reparentChildren(2L, 1L);
+        verify(categoryRepository).movePaths("/1/2/", "/1/");
+        verify(categoryRepository).delete(phones);
+        verify(categoryTreeCache).refreshAfterCommit();
+        verify(categoryPostings).categoryMergedAfterCommit(2L, 1L);
+    }
+}
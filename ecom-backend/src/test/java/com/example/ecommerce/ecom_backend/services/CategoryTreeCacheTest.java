@@ -0,0 +1,61 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.category.repository.CategoryRepository;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTreeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryTreeCacheTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryTreeCache cache;
+
+    private static CategoryRepository.TreeRow row(long id, Long parentId, String name) {
+        return new CategoryRepository.TreeRow() {
+            public Long getId() { return id; }
+            public Long getParentId() { return parentId; }
+            public String getName() { return name; }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new CategoryTreeCache(categoryRepository);
+        when(categoryRepository.findTreeRows()).thenReturn(List.of(row(1L, null, "Electronics"), row(2L, 1L, "Phones")));
+        cache.refresh();
+    }
+
+    @Test
+    void refresh_shouldPickUpMovesAndDeletes_madeOnAnotherInstance() {
+        // Arrange: elsewhere, Phones became top-level and Electronics was deleted
+        when(categoryRepository.findTreeRows()).thenReturn(List.of(row(2L, null, "Phones")));
+        assertTrue(cache.current().isWithin(2L, 1L));
+
+        // Act: the scheduled rebuild
+        cache.refresh();
+
+        // Assert
+        assertFalse(cache.current().contains(1L));
+        assertFalse(cache.current().isWithin(2L, 1L));
+    }
+
+    @Test
+    void treeContaining_shouldNotReload_forUnknownIds_withinTheReloadInterval() {
+        for (long id = 100; id < 200; id++) {
+            assertTrue(cache.treeContaining(id).isEmpty()); // E.g. made-up ids in storefront URLs
+        }
+        assertTrue(cache.treeContaining(2L).isPresent());
+        verify(categoryRepository, times(1)).findTreeRows(); // Only the initial load
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.category.dto.CategoryNodeDTO;
+import com.example.ecommerce.ecom_backend.category.dto.CategoryRefDTO;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTree;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTree.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryTreeTest {
+
+    // Electronics(1) > Phones(2) > Cases(4), Electronics > Audio(3); Books(5); Comics(6) points at a deleted parent
+    private final CategoryTree tree = CategoryTree.build(List.of(
+            new Node(4L, 2L, "Cases"),
+            new Node(1L, null, "Electronics"),
+            new Node(3L, 1L, "Audio"),
+            new Node(2L, 1L, "Phones"),
+            new Node(5L, null, "Books"),
+            new Node(6L, 99L, "Comics")));
+
+    @Test
+    void subtreeIds_shouldReturnCategoryAndDescendants() {
+        assertEquals(List.of(1L, 3L, 2L, 4L), tree.subtreeIds(1L)); // Pre-order, siblings by name
+        assertEquals(List.of(2L, 4L), tree.subtreeIds(2L));
+        assertEquals(List.of(5L), tree.subtreeIds(5L));
+        assertTrue(tree.subtreeIds(42L).isEmpty());
+        assertTrue(tree.isWithin(4L, 1L));
+        assertFalse(tree.isWithin(1L, 4L));
+    }
+
+    @Test
+    void breadcrumb_shouldRunFromTopLevelDown() {
+        assertEquals(List.of(new CategoryRefDTO(1L, "Electronics"), new CategoryRefDTO(2L, "Phones"),
+                new CategoryRefDTO(4L, "Cases")), tree.breadcrumb(4L));
+        assertEquals(List.of(new CategoryRefDTO(6L, "Comics")), tree.breadcrumb(6L)); // Orphan shows as top-level
+    }
+
+    @Test
+    void menu_shouldNestChildren_andCountWholeSubtrees() {
+        // One product directly under every category, three under Cases
+        List<CategoryNodeDTO> roots = tree.menu(categoryId -> categoryId == 4L ? 3 : 1);
+
+        assertEquals(List.of("Books", "Comics", "Electronics"), roots.stream().map(CategoryNodeDTO::getName).toList());
+        CategoryNodeDTO electronics = roots.get(2);
+        assertEquals(List.of("Audio", "Phones"), electronics.getChildren().stream().map(CategoryNodeDTO::getName).toList());
+        assertEquals(6, electronics.getProductCount()); // 1 + Audio 1 + Phones 1 + Cases 3
+        assertEquals(4, electronics.getChildren().get(1).getProductCount());
+        assertEquals(1, roots.get(0).getProductCount());
+        assertEquals(6, tree.size());
+    }
+
+    @Test
+    void build_shouldKeepEveryCategory_evenInAParentCycle() {
+        CategoryTree cyclic = CategoryTree.build(List.of(new Node(1L, 2L, "A"), new Node(2L, 1L, "B")));
+
+        assertTrue(cyclic.contains(1L) && cyclic.contains(2L));
+        assertEquals(1, cyclic.menu(categoryId -> 0).size()); // One of them is promoted to top-level
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.collections.CompressedLongSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedLongSetTest {
+
+    @Test
+    void withAndWithout_shouldBehaveLikeTreeSet_acrossBlockSplitsAndRemovals() {
+        // Arrange
+        CompressedLongSet set = CompressedLongSet.EMPTY;
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        // Act: enough values for many blocks, with gaps up to a few million so the varints get long
+        for (int i = 0; i < 20_000; i++) {
+            long value = 1 + (i % 3 == 0 ? random.nextInt(5_000_000) : random.nextInt(3_000));
+            CompressedLongSet before = set;
+            if (random.nextInt(3) > 0) {
+                set = set.with(value);
+                assertEquals(expected.add(value), set != before);
+            } else {
+                set = set.without(value);
+                assertEquals(expected.remove(value), set != before);
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), set.size());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), set.toArray());
+        for (long value = 1; value <= 3_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "value " + value);
+        }
+    }
+
+    @Test
+    void iterator_shouldSeekPastTheCursor() {
+        // Arrange: 1000 even ids in 8 blocks
+        long[] ids = LongStream.rangeClosed(1, 1000).map(i -> i * 2).toArray();
+        CompressedLongSet set = CompressedLongSet.of(ids, ids.length);
+
+        // Act
+        PrimitiveIterator.OfLong fromMiddle = set.iterator(1001);
+        PrimitiveIterator.OfLong fromStart = set.iterator(0);
+
+        // Assert
+        assertEquals(1002, fromMiddle.nextLong());
+        assertEquals(1004, fromMiddle.nextLong());
+        assertEquals(2, fromStart.nextLong());
+        assertFalse(set.iterator(2000).hasNext());
+        assertFalse(CompressedLongSet.EMPTY.iterator(0).hasNext());
+    }
+
+    @Test
+    void union_shouldMergeWithoutDuplicates() {
+        CompressedLongSet left = CompressedLongSet.of(new long[]{1, 5, 9}, 3);
+        CompressedLongSet right = CompressedLongSet.of(new long[]{2, 5, 300}, 3);
+
+        assertArrayEquals(new long[]{1, 2, 5, 9, 300}, left.union(right).toArray());
+        assertSame(left, left.union(CompressedLongSet.EMPTY));
+    }
+}
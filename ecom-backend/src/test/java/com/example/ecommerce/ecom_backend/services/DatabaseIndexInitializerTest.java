@@ -0,0 +1,71 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.config.DatabaseIndexInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseIndexInitializerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private DatabaseIndexInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        initializer = new DatabaseIndexInitializer(jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(initializer, "createOnStartup", true);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(Set.of()); // Fresh schema: no indexes yet
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static BadSqlGrammarException failure() {
+        return new BadSqlGrammarException("create index", "CREATE INDEX ...", new SQLException("Lock wait timeout exceeded"));
+    }
+
+    @Test
+    void run_shouldCarryOn_whenASecondaryIndexCannotBeCreated() {
+        // Arrange
+        lenient().doThrow(failure()).when(jdbcTemplate).execute(startsWith("CREATE INDEX idx_orders_status_date"));
+
+        // Act
+        initializer.run();
+
+        // Assert: the later indexes were still attempted
+        verify(jdbcTemplate).execute(startsWith("CREATE UNIQUE INDEX uk_cart_items_cart_product"));
+    }
+
+    @Test
+    void run_shouldFailStartup_whenAUniqueIndexCannotBeCreated() {
+        // Arrange: e.g. duplicates inserted between the clean-up and the build
+        lenient().doThrow(failure()).when(jdbcTemplate).execute(startsWith("CREATE UNIQUE INDEX uk_cart_items_cart_product"));
+
+        // Act & Assert
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> initializer.run());
+        assertTrue(thrown.getMessage().contains("uk_cart_items_cart_product"));
+        verify(jdbcTemplate, atLeastOnce()).execute(startsWith("DELETE ci FROM cart_items"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.cart.guest.GuestCartStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuestCartStoreTest {
+
+    private GuestCartStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new GuestCartStore(2, 3, 60);
+    }
+
+    @Test
+    void update_shouldCreateCart_andDropLinesAtZero() {
+        // Act
+        store.update("a", lines -> {
+            lines.put(1L, 2);
+            lines.put(2L, 1);
+        });
+        Map<Long, Integer> result = store.update("a", lines -> lines.put(2L, 0));
+
+        // Assert
+        assertEquals(Map.of(1L, 2), result);
+        assertEquals(Map.of(1L, 2), store.get("a"));
+    }
+
+    @Test
+    void update_shouldLeaveCartUnchanged_whenChangeFails() {
+        // Arrange
+        store.update("a", lines -> lines.put(1L, 1));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> store.update("a", lines -> {
+            lines.put(1L, 5);
+            throw new IllegalStateException("out of stock");
+        }));
+        assertThrows(IllegalArgumentException.class, () -> store.update("a", lines -> {
+            for (long id = 2; id <= 4; id++) {
+                lines.put(id, 1); // One line more than allowed
+            }
+        }));
+        assertEquals(Map.of(1L, 1), store.get("a"));
+    }
+
+    @Test
+    void update_shouldEvictLeastRecentlyUsedCart_whenFull() {
+        // Arrange
+        store.update("a", lines -> lines.put(1L, 1));
+        store.update("b", lines -> lines.put(1L, 1));
+        store.get("a"); // "b" is now the least recently used
+
+        // Act
+        store.update("c", lines -> lines.put(1L, 1));
+
+        // Assert
+        assertEquals(2, store.size());
+        assertTrue(store.get("b").isEmpty());
+        assertFalse(store.get("a").isEmpty());
+    }
+
+    @Test
+    void get_shouldReturnCopy() {
+        // Arrange
+        store.update("a", lines -> lines.put(1L, 1));
+
+        // Act
+        store.get("a").put(2L, 1);
+
+        // Assert
+        assertEquals(Map.of(1L, 1), store.get("a"));
+    }
+}
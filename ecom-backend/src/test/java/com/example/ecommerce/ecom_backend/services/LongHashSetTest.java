@@ -0,0 +1,49 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.collections.LongHashSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void addAndRemove_shouldBehaveLikeHashSet_acrossGrowthAndProbeRuns() {
+        // Arrange
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        // Act: small value range, so adds and removes collide and hit the backward shift a lot
+        for (int i = 0; i < 20_000; i++) {
+            long value = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), set.size());
+        for (long value = 1; value <= 2_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "value " + value);
+        }
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), values);
+    }
+
+    @Test
+    void add_shouldRejectNonPositiveValues() {
+        // Act & Assert
+        LongHashSet set = new LongHashSet();
+        assertThrows(IllegalArgumentException.class, () -> set.add(0));
+        assertThrows(IllegalArgumentException.class, () -> set.add(-5));
+    }
+}
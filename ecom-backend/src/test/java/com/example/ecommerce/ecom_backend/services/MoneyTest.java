@@ -0,0 +1,67 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_shouldConvertDecimalToMinorUnits() {
+        assertEquals(1999, Money.of(new BigDecimal("19.99")).getMinorUnits());
+        assertEquals(550, Money.of(new BigDecimal("5.5")).getMinorUnits());
+        assertEquals(1000, Money.of(new BigDecimal("10.0000")).getMinorUnits()); // Trailing zeros are exact
+    }
+
+    @Test
+    void of_shouldRejectAmountsFinerThanTheMinorUnit_insteadOfRounding() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("9.999")));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("0.001"));
+    }
+
+    @Test
+    void arithmetic_shouldMatchBigDecimalResults() {
+        Money price = Money.parse("19.99");
+
+        Money total = price.times(3).plus(Money.parse("0.03"));
+
+        assertEquals(new BigDecimal("60.00"), total.toBigDecimal());
+        assertEquals(Money.parse("59.97"), total.minus(Money.parse("0.03")));
+    }
+
+    @Test
+    void toString_shouldRenderPlainDecimal() {
+        assertEquals("19.99", Money.ofMinor(1999).toString());
+        assertEquals("0.05", Money.ofMinor(5).toString());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+    }
+
+    @Test
+    void plus_shouldRejectDifferentCurrencies() {
+        Money usd = Money.ofMinor(100, Currency.getInstance("USD"));
+
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).plus(usd));
+    }
+
+    @Test
+    void times_shouldFailOnOverflowInsteadOfWrapping() {
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE / 2).times(3));
+    }
+
+    @Test
+    void json_shouldRoundTripAsPlainNumber() throws Exception {
+        String json = objectMapper.writeValueAsString(Money.parse("129.99"));
+
+        assertEquals("129.99", json); // Number, not a quoted string or an object
+        assertEquals(Money.parse("129.99"), objectMapper.readValue(json, Money.class));
+        assertEquals(Money.parse("5.50"), objectMapper.readValue("\"5.5\"", Money.class));
+    }
+}
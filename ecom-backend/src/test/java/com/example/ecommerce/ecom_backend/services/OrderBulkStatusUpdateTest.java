@@ -0,0 +1,114 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateRequestDTO;
+import com.example.ecommerce.ecom_backend.order.dto.BulkOrderStatusUpdateResultDTO;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventPublisher;
+import com.example.ecommerce.ecom_backend.order.model.Order;
+import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;
+import com.example.ecommerce.ecom_backend.order.service.OrderServiceImpl;
+import com.example.ecommerce.ecom_backend.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderBulkStatusUpdateTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderEventPublisher orderEventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static OrderRepository.StatusRow row(long id, String status) {
+        return new OrderRepository.StatusRow() {
+            public Long getId() { return id; }
+            public Long getUserId() { return 7L; }
+            public String getStatus() { return status; }
+        };
+    }
+
+    @Test
+    void updateOrderStatuses_shouldReportFailedChunk_andCarryOnWithTheRest() {
+        // Arrange: 501 ids make two chunks; the first one times out on its row locks
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+        when(orderRepository.lockStatusesByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> chunk = inv.getArgument(0);
+            if (chunk.contains(1L)) {
+                throw new CannotAcquireLockException("Lock wait timeout exceeded");
+            }
+            return chunk.stream().map(id -> row(id, "PAID")).toList();
+        });
+
+        // Act
+        BulkOrderStatusUpdateResultDTO result = orderService.updateOrderStatuses(
+                new BulkOrderStatusUpdateRequestDTO(ids, "SHIPPED"));
+
+        // Assert
+        assertEquals(ids.subList(0, 500), result.getFailed());
+        assertEquals(List.of(501L), result.getUpdated());
+        verify(orderRepository).updateStatuses(eq(List.of(501L)), eq("SHIPPED"), any());
+        verify(orderEventPublisher).orderStatusesChanged(argThat(events -> events.size() == 1));
+    }
+
+    @Test
+    void updateOrderStatuses_shouldNotEmitEvents_forOrdersAlreadyInTheTargetStatus() {
+        // Arrange
+        when(orderRepository.lockStatusesByIds(anyCollection())).thenReturn(List.of(row(1L, "SHIPPED")));
+
+        // Act
+        BulkOrderStatusUpdateResultDTO result = orderService.updateOrderStatuses(
+                new BulkOrderStatusUpdateRequestDTO(List.of(1L), "SHIPPED"));
+
+        // Assert
+        assertEquals(List.of(1L), result.getUnchanged());
+        verify(orderRepository, never()).updateStatuses(any(), any(), any());
+        verifyNoInteractions(orderEventPublisher);
+    }
+
+    @Test
+    void updateOrderStatus_shouldNotSaveOrEmit_whenStatusIsUnchanged() {
+        // Arrange
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("buyer@example.com");
+        Order order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStatus("PAID");
+        order.setOrderItems(List.of());
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        // Act
+        orderService.updateOrderStatus(1L, "PAID"); // e.g. a redelivered payment webhook
+
+        // Assert
+        verify(orderRepository, never()).save(any());
+        verifyNoInteractions(orderEventPublisher);
+    }
+}
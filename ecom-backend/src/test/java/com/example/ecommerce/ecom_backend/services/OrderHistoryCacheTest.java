@@ -0,0 +1,68 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.order.dto.OrderSummaryDTO;
+import com.example.ecommerce.ecom_backend.order.readmodel.OrderHistoryCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderHistoryCacheTest {
+
+    private static List<OrderSummaryDTO> page(long orderId) {
+        return List.of(new OrderSummaryDTO(orderId, LocalDateTime.now(), "PAID", Money.parse("10.00"), 1, 1, "Phone"));
+    }
+
+    @Test
+    void put_shouldCache_whenNothingWasInvalidatedSinceTheLoad() {
+        OrderHistoryCache cache = new OrderHistoryCache(10);
+
+        cache.put(1L, page(5L), cache.currentGeneration());
+
+        assertEquals(5L, cache.get(1L).get(0).getOrderId());
+    }
+
+    @Test
+    void put_shouldDropThePage_whenAnInvalidationHappenedDuringTheLoad() {
+        // Arrange
+        OrderHistoryCache cache = new OrderHistoryCache(10);
+        long generation = cache.currentGeneration();
+
+        // Act: an order event commits while the reader is still loading the old rows
+        cache.invalidate(1L);
+        cache.put(1L, page(5L), generation);
+
+        // Assert
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_shouldEvictTheLeastRecentlyUsedUser_whenFull() {
+        // Arrange
+        OrderHistoryCache cache = new OrderHistoryCache(2);
+        cache.put(1L, page(1L), cache.currentGeneration());
+        cache.put(2L, page(2L), cache.currentGeneration());
+        cache.get(1L); // 2 is now the least recently used
+
+        // Act
+        cache.put(3L, page(3L), cache.currentGeneration());
+
+        // Assert
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+    }
+
+    @Test
+    void put_shouldDoNothing_whenDisabled() {
+        OrderHistoryCache cache = new OrderHistoryCache(0);
+
+        cache.put(1L, page(1L), cache.currentGeneration());
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(1L));
+    }
+}
@@ -1,36 +1,36 @@
 package com.example.ecommerce.ecom_backend.service;
 
+import com.example.ecommerce.ecom_backend.auth.security.CurrentUserResolver;
 import com.example.ecommerce.ecom_backend.cart.model.Cart;
 import com.example.ecommerce.ecom_backend.cart.model.CartItem;
 import com.example.ecommerce.ecom_backend.cart.repository.CartRepository;
-import com.example.ecommerce.ecom_backend.cart.service.CartService;
 import com.example.ecommerce.ecom_backend.common.exception.InsufficientStockException;
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
 import com.example.ecommerce.ecom_backend.order.dto.OrderRequestDTO;
 import com.example.ecommerce.ecom_backend.order.dto.OrderResponseDTO;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventPublisher;
 import com.example.ecommerce.ecom_backend.order.model.Order;
 import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;
 import com.example.ecommerce.ecom_backend.order.service.OrderServiceImpl;
 import com.example.ecommerce.ecom_backend.product.model.Product;
 import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
+import com.example.ecommerce.ecom_backend.product.snapshot.ProductSnapshotCache;
 import com.example.ecommerce.ecom_backend.user.model.User;
 import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 
-import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,7 +45,11 @@ public class OrderServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private CartService cartService;
+    private CurrentUserResolver currentUserResolver;
+    @Mock
+    private ProductSnapshotCache productSnapshotCache;
+    @Mock
+    private OrderEventPublisher orderEventPublisher;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -56,14 +60,6 @@ public class OrderServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        // Mocking the security context
-        Authentication authentication = mock(Authentication.class);
-        SecurityContext securityContext = mock(SecurityContext.class);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn("testuser@example.com");
-        SecurityContextHolder.setContext(securityContext);
-
         testUser = new User();
         testUser.setId(1L);
         testUser.setEmail("testuser@example.com");
@@ -71,14 +67,14 @@ public class OrderServiceImplTest {
         testProduct = new Product();
         testProduct.setId(1L);
         testProduct.setName("Test Product");
-        testProduct.setPrice(BigDecimal.valueOf(100));
+        testProduct.setPrice(Money.ofMinor(100_00));
         testProduct.setStockQuantity(10);
 
         testCart = new Cart();
         testCart.setId(1L);
         testCart.setUser(testUser);
 
-        when(userRepository.findByEmail("testuser@example.com")).thenReturn(Optional.of(testUser));
+        when(currentUserResolver.getCurrentUserId()).thenReturn(testUser.getId());
     }
 
     @Test
@@ -87,8 +83,11 @@ public class OrderServiceImplTest {
         CartItem cartItem = new CartItem(testCart, testProduct, 2);
         testCart.addCartItem(cartItem);
 
-        when(cartRepository.findByUserId(testUser.getId())).thenReturn(Optional.of(testCart));
+        when(cartRepository.findWithItemsByUserId(testUser.getId())).thenReturn(Optional.of(testCart));
+        when(productRepository.decrementStock(testProduct.getId(), 2)).thenReturn(1); // Enough stock: one row updated
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
+        when(currentUserResolver.getCurrentUserEmail()).thenReturn(testUser.getEmail());
 
         OrderRequestDTO request = new OrderRequestDTO();
 
@@ -100,16 +99,20 @@ public class OrderServiceImplTest {
         assertEquals(1, result.getItems().size());
         assertEquals(testUser.getId(), result.getUserId());
         assertEquals("PENDING", result.getStatus());
-        assertEquals(8, testProduct.getStockQuantity()); // 10 - 2 = 8
-        verify(productRepository, times(1)).save(testProduct);
-        verify(cartService, times(1)).clearMyCart();
+        InOrder inOrder = inOrder(cartRepository, productRepository);
+        inOrder.verify(cartRepository).lockByUserId(testUser.getId()); // Before the cart is read
+        inOrder.verify(cartRepository).findWithItemsByUserId(testUser.getId());
+        inOrder.verify(productRepository).decrementStock(testProduct.getId(), 2); // Checked and taken in one UPDATE
+        verify(productRepository, never()).save(any());
+        verify(orderEventPublisher).orderPlaced(any());
+        assertTrue(testCart.getCartItems().isEmpty());
     }
 
     @Test
     void placeOrder_shouldThrowException_whenCartIsEmpty() {
         // Arrange
         testCart.setCartItems(Collections.emptyList());
-        when(cartRepository.findByUserId(testUser.getId())).thenReturn(Optional.of(testCart));
+        when(cartRepository.findWithItemsByUserId(testUser.getId())).thenReturn(Optional.of(testCart));
         OrderRequestDTO request = new OrderRequestDTO();
 
         // Act & Assert
@@ -121,11 +124,13 @@ public class OrderServiceImplTest {
         // Arrange
         CartItem cartItem = new CartItem(testCart, testProduct, 15); // Request more than in stock
         testCart.addCartItem(cartItem);
-        when(cartRepository.findByUserId(testUser.getId())).thenReturn(Optional.of(testCart));
+        when(cartRepository.findWithItemsByUserId(testUser.getId())).thenReturn(Optional.of(testCart));
+        when(productRepository.decrementStock(testProduct.getId(), 15)).thenReturn(0); // The stock condition failed
         OrderRequestDTO request = new OrderRequestDTO();
 
         // Act & Assert
         assertThrows(InsufficientStockException.class, () -> orderService.placeOrder(request));
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
@@ -135,6 +140,7 @@ public class OrderServiceImplTest {
         order.setId(1L);
         order.setUser(testUser);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(currentUserResolver.getCurrentUserEmail()).thenReturn(testUser.getEmail());
 
         // Act
         OrderResponseDTO result = orderService.getOrderDetails(1L);
@@ -0,0 +1,106 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.order.event.OrderStatusChangedEvent;
+import com.example.ecommerce.ecom_backend.order.sse.OrderStatusBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatusBroadcasterTest {
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    // Buffer of 4 events, at most 2 streams per user, 1 dispatcher thread
+    private final OrderStatusBroadcaster broadcaster = new OrderStatusBroadcaster(4, 2, 60_000, 1) {
+        @Override
+        protected SseEmitter createEmitter(long timeoutMs) {
+            RecordingEmitter emitter = new RecordingEmitter(timeoutMs);
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    private static OrderStatusChangedEvent event(Long orderId, Long userId, String status) {
+        return new OrderStatusChangedEvent(orderId, userId, "PENDING", status, LocalDateTime.now());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), "condition not met within 2s");
+    }
+
+    @Test
+    void publish_shouldReachOnlyTheOrderOwnersStreams() throws Exception {
+        // Arrange
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+
+        // Act
+        broadcaster.publish(event(10L, 1L, "PAID"));
+        broadcaster.publish(event(11L, null, "PAID")); // No owner: dropped
+
+        // Assert
+        await(() -> emitters.get(0).sent.size() == 1);
+        assertTrue(emitters.get(0).sent.get(0).contains("id:10:PAID"));
+        Thread.sleep(50);
+        assertTrue(emitters.get(1).sent.isEmpty());
+    }
+
+    @Test
+    void subscribe_shouldCloseAnExistingStream_whenUserIsAtTheLimit() {
+        // Act
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(1L);
+
+        // Assert
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void publish_shouldDropSubscriber_whenTheClientIsGone() throws Exception {
+        // Arrange
+        broadcaster.subscribe(1L);
+        emitters.get(0).failing = true;
+
+        // Act
+        broadcaster.publish(event(10L, 1L, "PAID"));
+
+        // Assert
+        await(() -> broadcaster.getSubscriberCount() == 0);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+
+        RecordingEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+    }
+}
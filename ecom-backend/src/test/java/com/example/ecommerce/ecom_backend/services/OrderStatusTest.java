@@ -0,0 +1,31 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.order.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import static com.example.ecommerce.ecom_backend.order.model.OrderStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatusTest {
+
+    @Test
+    void parse_shouldAcceptStoredNames_andRejectAnythingElse() {
+        assertEquals(PAID, OrderStatus.parse("PAID"));
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.parse("paid"));
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.parse("REFUNDED"));
+        assertThrows(IllegalArgumentException.class, () -> OrderStatus.parse(null));
+    }
+
+    @Test
+    void canTransitionTo_shouldFollowTheLifecycle() {
+        assertTrue(PENDING.canTransitionTo(PAID));
+        assertTrue(PAID.canTransitionTo(SHIPPED));
+        assertTrue(SHIPPED.canTransitionTo(DELIVERED));
+        assertTrue(PAID.canTransitionTo(PAID)); // Redelivered webhook
+
+        assertFalse(PENDING.canTransitionTo(SHIPPED));
+        assertFalse(SHIPPED.canTransitionTo(CANCELLED));
+        assertFalse(DELIVERED.canTransitionTo(PENDING));
+        assertFalse(CANCELLED.canTransitionTo(PAID));
+    }
+}
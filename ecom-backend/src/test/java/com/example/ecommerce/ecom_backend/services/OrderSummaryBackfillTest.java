@@ -0,0 +1,66 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.order.readmodel.OrderSummaryBackfill;
+import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;
+import com.example.ecommerce.ecom_backend.order.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderSummaryBackfillTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OrderSummaryBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new OrderSummaryBackfill(orderRepository, orderSummaryRepository, transactionTemplate);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void backfill_shouldInsertMissingSummaries_oneIdRangePerTransaction() {
+        // Arrange: 12,000 order ids and the default 5,000 per range
+        when(orderRepository.count()).thenReturn(12_000L);
+        when(orderSummaryRepository.count()).thenReturn(11_000L);
+        when(orderRepository.findMaxId()).thenReturn(12_000L);
+        when(orderSummaryRepository.backfillRange(anyLong(), anyLong())).thenReturn(400, 600, 0);
+
+        // Act
+        int inserted = backfill.backfill();
+
+        // Assert
+        assertEquals(1_000, inserted);
+        verify(orderSummaryRepository).backfillRange(0L, 5_000L);
+        verify(orderSummaryRepository).backfillRange(5_000L, 10_000L);
+        verify(orderSummaryRepository).backfillRange(10_000L, 15_000L);
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void backfill_shouldDoNothing_whenEveryOrderHasASummary() {
+        // Arrange
+        when(orderRepository.count()).thenReturn(3L);
+        when(orderSummaryRepository.count()).thenReturn(3L);
+
+        // Act & Assert
+        assertEquals(0, backfill.backfill());
+        verify(orderSummaryRepository, never()).backfillRange(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderPlacedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderStatusChangedEvent;
+import com.example.ecommerce.ecom_backend.order.model.OrderSummary;
+import com.example.ecommerce.ecom_backend.order.readmodel.OrderHistoryCache;
+import com.example.ecommerce.ecom_backend.order.readmodel.OrderSummaryProjector;
+import com.example.ecommerce.ecom_backend.order.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderSummaryProjectorTest {
+
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+    @Mock
+    private OrderHistoryCache orderHistoryCache;
+
+    private OrderSummaryProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        projector = new OrderSummaryProjector(orderSummaryRepository, orderHistoryCache);
+        TransactionSynchronizationManager.initSynchronization(); // As inside the @Transactional handler
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    @Test
+    void onOrderPlaced_shouldWriteTheSummary_andDropTheCachedPageOnlyAfterCommit() {
+        // Arrange
+        LocalDateTime placedAt = LocalDateTime.of(2025, 3, 14, 12, 30);
+
+        // Act
+        projector.onOrderPlaced(new OrderPlacedEvent(10L, 7L, placedAt, "PENDING", Money.parse("70.00"), List.of(
+                new OrderPlacedEvent.Item(100L, "Phone", 3, Money.parse("20.00"), Money.parse("60.00")),
+                new OrderPlacedEvent.Item(200L, "Case", 1, Money.parse("10.00"), Money.parse("10.00")))));
+
+        // Assert
+        ArgumentCaptor<OrderSummary> saved = ArgumentCaptor.forClass(OrderSummary.class);
+        verify(orderSummaryRepository).save(saved.capture());
+        assertEquals(4, saved.getValue().getItemCount());
+        assertEquals(2, saved.getValue().getLineCount());
+        assertEquals("Phone", saved.getValue().getPreviewProductName());
+        verify(orderHistoryCache, never()).invalidate(any()); // A read now would still see the old rows
+        commit();
+        verify(orderHistoryCache).invalidate(7L);
+    }
+
+    @Test
+    void onOrderStatusChanged_shouldNotInvalidate_whenTheTransactionRollsBack() {
+        // Act
+        projector.onOrderStatusChanged(new OrderStatusChangedEvent(10L, 7L, "PENDING", "PAID", LocalDateTime.now()));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Assert
+        verify(orderSummaryRepository).updateStatus(eq(10L), eq("PAID"), any());
+        verifyNoInteractions(orderHistoryCache);
+    }
+
+    @Test
+    void onOrderDeleted_shouldRemoveTheSummary_thenInvalidate() {
+        // Act
+        projector.onOrderDeleted(new OrderDeletedEvent(10L, 7L, List.of()));
+        commit();
+
+        // Assert
+        verify(orderSummaryRepository).deleteById(10L);
+        verify(orderHistoryCache).invalidate(7L);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEvent;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventDispatcher;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxEventRepository;
+import com.example.ecommerce.ecom_backend.common.outbox.OutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxEventDispatcher dispatcher;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, List.of(dispatcher));
+        when(dispatcher.supports("Order")).thenReturn(true);
+    }
+
+    private OutboxEvent event(long id) {
+        OutboxEvent event = new OutboxEvent("Order", id, "OrderPlaced", "{}");
+        event.setId(id);
+        return event;
+    }
+
+    @Test
+    void relayPendingEvents_shouldMarkAllPublished_whenEveryDispatchSucceeds() throws Exception {
+        // Arrange
+        OutboxEvent first = event(1L);
+        OutboxEvent second = event(2L);
+        when(outboxEventRepository.findPending(anyInt(), any(Pageable.class))).thenReturn(List.of(first, second));
+
+        // Act
+        int published = outboxRelay.relayPendingEvents();
+
+        // Assert
+        assertEquals(2, published);
+        verify(dispatcher).dispatch(first);
+        verify(dispatcher).dispatch(second);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(outboxEventRepository, never()).recordFailure(anyLong(), anyString());
+    }
+
+    @Test
+    void relayPendingEvents_shouldStopAtFirstFailure_andKeepItForRetry() throws Exception {
+        // Arrange
+        OutboxEvent first = event(1L);
+        OutboxEvent failing = event(2L);
+        OutboxEvent third = event(3L);
+        when(outboxEventRepository.findPending(anyInt(), any(Pageable.class))).thenReturn(List.of(first, failing, third));
+        lenient().doThrow(new IllegalStateException("listener down")).when(dispatcher).dispatch(failing);
+
+        // Act
+        int published = outboxRelay.relayPendingEvents();
+
+        // Assert
+        assertEquals(1, published);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).recordFailure(eq(2L), anyString());
+        verify(dispatcher, never()).dispatch(third); // Later events wait so ordering is preserved
+    }
+}
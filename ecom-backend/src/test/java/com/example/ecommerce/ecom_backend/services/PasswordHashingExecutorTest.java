@@ -0,0 +1,131 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.auth.password.OffloadingPasswordEncoder;
+import com.example.ecommerce.ecom_backend.auth.password.PasswordHashingExecutor;
+import com.example.ecommerce.ecom_backend.auth.password.PasswordHashingExecutor.Priority;
+import com.example.ecommerce.ecom_backend.common.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    // Occupies the single worker until the returned latch is released
+    private CountDownLatch blockWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.call(Priority.UPDATE, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    void call_shouldRejectFast_whenPoolAndQueueAreFull() throws Exception {
+        // Arrange: one worker, room for one queued task
+        executor = new PasswordHashingExecutor(1, 1, 5000);
+        CountDownLatch release = blockWorker();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.call(Priority.LOGIN, () -> "ok"));
+        Thread.sleep(100);
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> executor.call(Priority.LOGIN, () -> "rejected"));
+        assertEquals(1, executor.getRejectedCount());
+        release.countDown();
+        assertEquals("ok", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("again", executor.call(Priority.LOGIN, () -> "again")); // Permits were given back
+    }
+
+    @Test
+    void call_shouldRunQueuedLoginsBeforeUpdates() throws Exception {
+        // Arrange
+        executor = new PasswordHashingExecutor(1, 10, 5000);
+        CountDownLatch release = blockWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<?> update = CompletableFuture.runAsync(() -> executor.call(Priority.UPDATE, () -> order.add("update")));
+        Thread.sleep(100);
+        CompletableFuture<?> login = CompletableFuture.runAsync(() -> executor.call(Priority.LOGIN, () -> order.add("login")));
+        Thread.sleep(100);
+
+        // Act
+        release.countDown();
+        CompletableFuture.allOf(update, login).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of("login", "update"), order);
+    }
+
+    @Test
+    void call_shouldGiveUp_afterMaxWait() throws Exception {
+        // Arrange
+        executor = new PasswordHashingExecutor(1, 10, 50);
+        CountDownLatch release = blockWorker();
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class, () -> executor.call(Priority.LOGIN, () -> "late"));
+        release.countDown();
+    }
+
+    @Test
+    void offloadingEncoder_shouldMatch_andAskForRehash_whenCostDiffers() {
+        // Arrange
+        executor = new PasswordHashingExecutor(1, 10, 5000);
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(4, executor);
+
+        // Act
+        String hash = encoder.encode("secret1");
+
+        // Assert
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret1", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertTrue(encoder.upgradeEncoding(hash.replace("$2a$04$", "$2a$10$")));
+        List<String> hashes = encoder.encodeAll(List.of("one111", "two222"));
+        assertTrue(encoder.matches("two222", hashes.get(1)));
+    }
+
+    @Test
+    void callAll_shouldReturnResultsInOrder_andLetLoginsOvertakeBulkWork() throws Exception {
+        // Arrange
+        executor = new PasswordHashingExecutor(1, 10, 5000);
+        CountDownLatch release = blockWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<Callable<String>> tasks = List.of("a", "b", "c", "d").stream()
+                .<Callable<String>>map(name -> () -> {
+                    order.add(name);
+                    return name.toUpperCase();
+                })
+                .toList();
+        CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> executor.callAll(tasks));
+        Thread.sleep(100);
+        CompletableFuture<?> login = CompletableFuture.runAsync(() -> executor.call(Priority.LOGIN, () -> order.add("login")));
+        Thread.sleep(100);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals(List.of("A", "B", "C", "D"), bulk.get(5, TimeUnit.SECONDS));
+        login.get(5, TimeUnit.SECONDS);
+        assertEquals("login", order.get(0)); // Only two bulk tasks were queued ahead of it, and it jumped them
+        assertEquals(List.of("a", "b", "c", "d"), order.subList(1, 5));
+    }
+}
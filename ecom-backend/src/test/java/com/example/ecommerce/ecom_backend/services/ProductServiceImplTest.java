@@ -1,11 +1,18 @@
 package com.example.ecommerce.ecom_backend.services;
 
+import com.example.ecommerce.ecom_backend.category.postings.CategoryPostings;
+import com.example.ecommerce.ecom_backend.category.repository.CategoryRepository;
+import com.example.ecommerce.ecom_backend.category.tree.CategoryTreeCache;
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.common.money.Money;
 import com.example.ecommerce.ecom_backend.product.dto.ProductRequestDTO;
 import com.example.ecommerce.ecom_backend.product.dto.ProductResponseDTO;
+import com.example.ecommerce.ecom_backend.product.event.ProductChangedEvent;
+import com.example.ecommerce.ecom_backend.product.event.ProductEventPublisher;
 import com.example.ecommerce.ecom_backend.product.model.Product;
 import com.example.ecommerce.ecom_backend.product.repository.ProductRepository;
 import com.example.ecommerce.ecom_backend.product.service.ProductServiceImpl;
+import com.example.ecommerce.ecom_backend.product.snapshot.ProductSnapshotCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +35,21 @@ public class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSnapshotCache productSnapshotCache;
+
+    @Mock
+    private ProductEventPublisher productEventPublisher;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryTreeCache categoryTreeCache;
+
+    @Mock
+    private CategoryPostings categoryPostings;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -40,7 +62,7 @@ public class ProductServiceImplTest {
         testProduct.setId(1L);
         testProduct.setName("Test Product");
         testProduct.setDescription("A product for testing");
-        testProduct.setPrice(new BigDecimal("99.99"));
+        testProduct.setPrice(Money.parse("99.99"));
         testProduct.setStockQuantity(50);
 
         productRequestDTO = new ProductRequestDTO();
@@ -112,8 +134,9 @@ public class ProductServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(productRequestDTO.getName(), testProduct.getName());
-        assertEquals(productRequestDTO.getPrice(), testProduct.getPrice());
+        assertEquals(Money.of(productRequestDTO.getPrice()), testProduct.getPrice());
         verify(productRepository, times(1)).save(testProduct);
+        verify(productEventPublisher).productChanged(new ProductChangedEvent(1L, true, true)); // 99.99 -> 129.99, 50 -> 100
     }
 
     @Test
@@ -0,0 +1,52 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.order.quote.QuoteToken;
+import com.example.ecommerce.ecom_backend.order.quote.QuoteTokenCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuoteTokenCodecTest {
+
+    private final QuoteTokenCodec codec = new QuoteTokenCodec("0123456789abcdef0123456789abcdef", 300);
+
+    private static QuoteToken quote() {
+        Map<Long, QuoteToken.Line> lines = new LinkedHashMap<>();
+        lines.put(1L, new QuoteToken.Line(2, 1999));
+        lines.put(7L, new QuoteToken.Line(1, 550));
+        return new QuoteToken(42L, 1_700_000_000_000L, lines);
+    }
+
+    @Test
+    void decode_shouldReturnEncodedQuote() {
+        // Act
+        QuoteToken decoded = codec.decode(codec.encode(quote()));
+
+        // Assert
+        assertEquals(quote(), decoded);
+    }
+
+    @Test
+    void decode_shouldRejectTamperedOrForeignTokens() {
+        // Arrange
+        String token = codec.encode(quote());
+        String payload = token.substring(0, token.indexOf('.'));
+        QuoteTokenCodec otherKey = new QuoteTokenCodec("fedcba9876543210fedcba9876543210", 300);
+
+        // Act & Assert
+        assertNull(codec.decode(payload + "x" + token.substring(token.indexOf('.'))));
+        assertNull(codec.decode(payload));
+        assertNull(codec.decode(null));
+        assertNull(otherKey.decode(token));
+    }
+
+    @Test
+    void isExpired_shouldCompareAgainstExpiry() {
+        // Assert
+        assertFalse(quote().isExpired(1_699_999_999_999L));
+        assertTrue(quote().isExpired(1_700_000_000_000L));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.ratelimit.RateLimitFilter;
+import com.example.ecommerce.ecom_backend.common.ratelimit.RateLimiter;
+import com.example.ecommerce.ecom_backend.common.ratelimit.TokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tokenBucket_shouldAllowBurst_thenRefillOneTokenPerInterval() {
+        // Arrange: 3 tokens, one back every second
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(now);
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now, SECOND, 3 * SECOND));
+        }
+        assertEquals(SECOND, bucket.tryAcquire(now, SECOND, 3 * SECOND)); // Empty: next token in a second
+        assertEquals(SECOND / 2, bucket.tryAcquire(now + SECOND / 2, SECOND, 3 * SECOND));
+        assertEquals(0, bucket.tryAcquire(now + SECOND, SECOND, 3 * SECOND));
+        assertFalse(bucket.isFull(now + 3 * SECOND)); // Four tokens taken since now
+        assertTrue(bucket.isFull(now + 4 * SECOND));
+    }
+
+    @Test
+    void tokenBucket_shouldNotBankTokensBeyondCapacity() {
+        // Arrange
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(now);
+
+        // Act: idle for an hour, then burst
+        long later = now + 3_600 * SECOND;
+        int allowed = 0;
+        while (bucket.tryAcquire(later, SECOND, 2 * SECOND) == 0) {
+            allowed++;
+        }
+
+        // Assert
+        assertEquals(2, allowed);
+    }
+
+    @Test
+    void tryAcquire_shouldUseFirstMatchingRule_perClient() {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(true, "POST /api/auth/login=2/60, /api/**=100/60", 1000);
+
+        // Act & Assert
+        assertEquals(0, rateLimiter.tryAcquire("POST", "/api/auth/login", "10.0.0.1"));
+        assertEquals(0, rateLimiter.tryAcquire("POST", "/api/auth/login", "10.0.0.1"));
+        assertTrue(rateLimiter.tryAcquire("POST", "/api/auth/login", "10.0.0.1") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("POST", "/api/auth/login", "10.0.0.2")); // Own bucket
+        assertEquals(0, rateLimiter.tryAcquire("GET", "/api/auth/login", "10.0.0.1")); // Falls through to /api/**
+        assertEquals(0, rateLimiter.tryAcquire("GET", "/actuator/health", "10.0.0.1")); // No rule
+    }
+
+    @Test
+    void tryAcquire_shouldRejectNewClients_whenRuleIsFull() {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(true, "/api/**=5/60", 2);
+        rateLimiter.tryAcquire("GET", "/api/products", "a");
+        rateLimiter.tryAcquire("GET", "/api/products", "b");
+
+        // Act & Assert
+        assertTrue(rateLimiter.tryAcquire("GET", "/api/products", "c") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("GET", "/api/products", "a")); // Known clients are unaffected
+    }
+
+    @Test
+    void tryAcquire_shouldAllowEverything_whenDisabled() {
+        // Arrange
+        RateLimiter rateLimiter = new RateLimiter(false, "/api/**=1/60", 10);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("GET", "/api/products", "a"));
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(true, "/api/**=10", 10));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(true, "/api/**=0/60", 10));
+    }
+
+    @Test
+    void filter_shouldMatchRulesOnTheDecodedPath() throws Exception {
+        // Arrange
+        RateLimitFilter filter = new RateLimitFilter(
+                new RateLimiter(true, "POST /api/auth/login=1/60, /api/**=100/60", 1000), new ObjectMapper());
+
+        // Act
+        MockHttpServletResponse first = login(filter, "/api/auth/login");
+        MockHttpServletResponse encoded = login(filter, "/api/auth/%6cogin"); // Same handler once decoded
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(429, encoded.getStatus());
+    }
+
+    private static MockHttpServletResponse login(RateLimitFilter filter, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.auth.dto.JwtAuthResponse;
+import com.example.ecommerce.ecom_backend.auth.refresh.RefreshToken;
+import com.example.ecommerce.ecom_backend.auth.refresh.RefreshTokenRepository;
+import com.example.ecommerce.ecom_backend.auth.refresh.RefreshTokenService;
+import com.example.ecommerce.ecom_backend.auth.refresh.RefreshTokenStore;
+import com.example.ecommerce.ecom_backend.auth.security.CustomUserDetailsService;
+import com.example.ecommerce.ecom_backend.auth.security.JwtTokenProvider;
+import com.example.ecommerce.ecom_backend.auth.security.UserPrincipal;
+import com.example.ecommerce.ecom_backend.common.exception.InvalidRefreshTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    private RefreshTokenStore refreshTokenStore;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenStore = new RefreshTokenStore(refreshTokenRepository, 100, 4);
+        refreshTokenService = new RefreshTokenService(refreshTokenStore, userDetailsService, jwtTokenProvider, 14);
+    }
+
+    @Test
+    void refresh_shouldRotateToken_withoutReadingTheTable() {
+        // Arrange
+        String issued = refreshTokenService.issue(1L);
+        when(refreshTokenRepository.markRotated(any(byte[].class), any(LocalDateTime.class))).thenReturn(1);
+        when(userDetailsService.loadUserById(1L)).thenReturn(new UserPrincipal(1L, "u1@x.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(jwtTokenProvider.generateToken(any(Authentication.class))).thenReturn("access");
+        when(jwtTokenProvider.getExpirationSeconds()).thenReturn(900L);
+
+        // Act
+        JwtAuthResponse response = refreshTokenService.refresh(issued);
+
+        // Assert
+        assertEquals("access", response.getAccessToken());
+        assertEquals(900, response.getExpiresIn());
+        assertNotEquals(issued, response.getRefreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        assertEquals(saved.getAllValues().get(0).getFamilyId(), saved.getAllValues().get(1).getFamilyId()); // Same login
+        verify(refreshTokenRepository, never()).findByTokenHash(any()); // Served from the cache
+    }
+
+    @Test
+    void refresh_shouldRevokeFamily_whenTokenIsReused() {
+        // Arrange
+        String issued = refreshTokenService.issue(1L);
+        when(refreshTokenRepository.markRotated(any(byte[].class), any(LocalDateTime.class))).thenReturn(1);
+        when(userDetailsService.loadUserById(1L)).thenReturn(new UserPrincipal(1L, "u1@x.com", "hash", List.of()));
+        refreshTokenService.refresh(issued);
+        Long familyId = savedFamilyId();
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(issued));
+        verify(refreshTokenRepository).deleteByFamilyId(familyId);
+    }
+
+    @Test
+    void refresh_shouldRevokeFamily_whenAnotherInstanceRotatedFirst() {
+        // Arrange
+        String issued = refreshTokenService.issue(1L);
+        Long familyId = savedFamilyId();
+        when(refreshTokenRepository.markRotated(any(byte[].class), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(issued));
+        verify(refreshTokenRepository).deleteByFamilyId(familyId);
+        verify(userDetailsService, never()).loadUserById(any());
+    }
+
+    @Test
+    void refresh_shouldAcceptTheTokenAgain_whenTheFirstRefreshRolledBack() {
+        // Arrange
+        String issued = refreshTokenService.issue(1L);
+        when(refreshTokenRepository.markRotated(any(byte[].class), any(LocalDateTime.class))).thenReturn(1);
+        when(userDetailsService.loadUserById(1L)).thenReturn(new UserPrincipal(1L, "u1@x.com", "hash", List.of()));
+        when(jwtTokenProvider.generateToken(any(Authentication.class)))
+                .thenThrow(new IllegalStateException("Signing failed"))
+                .thenReturn("access");
+
+        // Act: the first refresh fails inside its transaction, which rolls back without ever committing
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(IllegalStateException.class, () -> refreshTokenService.refresh(issued));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        JwtAuthResponse response = refreshTokenService.refresh(issued); // The client retries
+
+        // Assert
+        assertEquals("access", response.getAccessToken());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
+    }
+
+    @Test
+    void refresh_shouldLoadFromTable_afterRestart_andRejectExpiredTokens() {
+        // Arrange: a token this instance never saw, already expired
+        RefreshToken stored = new RefreshToken(new byte[32], 1L, 9L, LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("from-before-restart"));
+        verify(refreshTokenRepository, never()).markRotated(any(), any());
+    }
+
+    @Test
+    void refresh_shouldReject_unknownToken() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("made-up"));
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
+    }
+
+    private Long savedFamilyId() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, atLeastOnce()).save(saved.capture());
+        return saved.getAllValues().get(0).getFamilyId();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRole;
+import com.example.ecommerce.ecom_backend.auth.security.RequiresRoleAuthorizationManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequiresRoleAuthorizationManagerTest {
+
+    @RequiresRole("ADMIN")
+    static class AdminEndpoints {
+        public void listAll() {
+        }
+
+        @RequiresRole({"USER", "ADMIN"})
+        public void viewOwn() {
+        }
+    }
+
+    private final RequiresRoleAuthorizationManager manager = new RequiresRoleAuthorizationManager();
+
+    private boolean granted(String method, String... authorities) throws Exception {
+        AdminEndpoints target = new AdminEndpoints();
+        SimpleMethodInvocation invocation = new SimpleMethodInvocation(target, AdminEndpoints.class.getMethod(method));
+        TestingAuthenticationToken user = new TestingAuthenticationToken("u1@x.com", null, authorities);
+        return manager.authorize(() -> user, invocation).isGranted();
+    }
+
+    @Test
+    void authorize_shouldUseTheMethodAnnotation_overTheClassAnnotation() throws Exception {
+        assertTrue(granted("viewOwn", "ROLE_USER"));
+        assertFalse(granted("listAll", "ROLE_USER"));
+        assertTrue(granted("listAll", "ROLE_ADMIN"));
+    }
+
+    @Test
+    void authorize_shouldDeny_whenNotAuthenticated() throws Exception {
+        SimpleMethodInvocation invocation = new SimpleMethodInvocation(new AdminEndpoints(), AdminEndpoints.class.getMethod("viewOwn"));
+
+        assertFalse(manager.authorize(() -> null, invocation).isGranted());
+    }
+}
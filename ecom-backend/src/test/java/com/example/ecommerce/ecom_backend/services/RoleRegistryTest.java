@@ -0,0 +1,67 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.user.model.Role;
+import com.example.ecommerce.ecom_backend.user.registry.RoleRegistry;
+import com.example.ecommerce.ecom_backend.user.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    private RoleRegistry roleRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleRegistry = new RoleRegistry(roleRepository);
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_USER"), new Role(2L, "ROLE_ADMIN")));
+        roleRegistry.refresh();
+    }
+
+    @Test
+    void find_shouldResolveFromSnapshot_withoutQuerying() {
+        Optional<Role> admin = roleRegistry.find("ROLE_ADMIN");
+
+        assertEquals(new Role(2L, "ROLE_ADMIN"), admin.orElseThrow());
+        assertNotSame(admin.get(), roleRegistry.find("ROLE_ADMIN").orElseThrow()); // Callers may not share instances
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), roleRegistry.getAll().stream().map(Role::getName).toList());
+        verify(roleRepository, times(1)).findAll(); // Only the initial load
+    }
+
+    @Test
+    void find_shouldNotReload_forMissingNames_withinTheReloadInterval() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(roleRegistry.find("ROLE_NOBODY_" + i).isEmpty()); // E.g. users-by-role with made-up roles
+        }
+        verify(roleRepository, times(1)).findAll(); // Only the initial load
+    }
+
+    @Test
+    void find_shouldReload_whenNameIsMissing_andTheSnapshotIsOlderThanTheInterval() throws Exception {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_USER"), new Role(2L, "ROLE_ADMIN"),
+                new Role(3L, "ROLE_SUPPORT")));
+        Thread.sleep(1000);
+
+        assertEquals(Optional.of(3L), roleRegistry.findId("ROLE_SUPPORT")); // Added elsewhere
+        assertTrue(roleRegistry.find("ROLE_NOBODY").isEmpty()); // Right after a reload
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void normalize_shouldAddPrefix() {
+        assertEquals("ROLE_ADMIN", RoleRegistry.normalize(" admin "));
+        assertEquals("ROLE_ADMIN", RoleRegistry.normalize("ROLE_ADMIN"));
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.analytics.dto.SalesRollupRebuildJobDTO;
+import com.example.ecommerce.ecom_backend.analytics.model.SalesRollupOrder;
+import com.example.ecommerce.ecom_backend.analytics.repository.DailySalesRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.ProductDailySalesRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.SalesRollupOrderRepository;
+import com.example.ecommerce.ecom_backend.analytics.repository.StatusDailySalesRepository;
+import com.example.ecommerce.ecom_backend.analytics.service.SalesRollupUpdater;
+import com.example.ecommerce.ecom_backend.common.money.Money;
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderPlacedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderStatusChangedEvent;
+import com.example.ecommerce.ecom_backend.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SalesRollupUpdaterTest {
+
+    @Mock
+    private SalesRollupOrderRepository salesRollupOrderRepository;
+    @Mock
+    private DailySalesRepository dailySalesRepository;
+    @Mock
+    private ProductDailySalesRepository productDailySalesRepository;
+    @Mock
+    private StatusDailySalesRepository statusDailySalesRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesRollupUpdater salesRollupUpdater;
+
+    private final LocalDate day = LocalDate.of(2025, 3, 14);
+
+    @BeforeEach
+    void setUp() {
+        salesRollupUpdater = new SalesRollupUpdater(salesRollupOrderRepository, dailySalesRepository,
+                productDailySalesRepository, statusDailySalesRepository, orderRepository, jdbcTemplate, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        salesRollupUpdater.shutdown();
+    }
+
+    private SalesRollupRebuildJobDTO awaitRebuild(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        SalesRollupRebuildJobDTO job = salesRollupUpdater.getRebuildJob(jobId);
+        while (job.getState() != SalesRollupRebuildJobDTO.State.COMPLETED
+                && job.getState() != SalesRollupRebuildJobDTO.State.FAILED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = salesRollupUpdater.getRebuildJob(jobId);
+        }
+        return job;
+    }
+
+    private OrderPlacedEvent placedEvent() {
+        return new OrderPlacedEvent(10L, 1L, day.atTime(12, 30), "PENDING", Money.parse("70.00"), List.of(
+                new OrderPlacedEvent.Item(100L, "Phone", 2, Money.parse("20.00"), Money.parse("40.00")),
+                new OrderPlacedEvent.Item(100L, "Phone", 1, Money.parse("20.00"), Money.parse("20.00")),
+                new OrderPlacedEvent.Item(200L, "Case", 1, Money.parse("10.00"), Money.parse("10.00"))));
+    }
+
+    @Test
+    void onOrderPlaced_shouldIncrementAllRollups_whenOrderIsNew() {
+        // Arrange
+        when(salesRollupOrderRepository.insertIfAbsent(10L, day, "PENDING", new BigDecimal("70.00"))).thenReturn(1);
+
+        // Act
+        salesRollupUpdater.onOrderPlaced(placedEvent());
+
+        // Assert
+        verify(dailySalesRepository).increment(day, 1, 4, new BigDecimal("70.00"));
+        verify(productDailySalesRepository).increment(day, 100L, 1, 3, new BigDecimal("60.00")); // Lines merged per product
+        verify(productDailySalesRepository).increment(day, 200L, 1, 1, new BigDecimal("10.00"));
+        verify(statusDailySalesRepository).increment(day, "PENDING", 1, new BigDecimal("70.00"));
+    }
+
+    @Test
+    void onOrderPlaced_shouldDoNothing_whenEventIsRedelivered() {
+        // Arrange
+        when(salesRollupOrderRepository.insertIfAbsent(anyLong(), any(), anyString(), any())).thenReturn(0);
+
+        // Act
+        salesRollupUpdater.onOrderPlaced(placedEvent());
+
+        // Assert
+        verifyNoInteractions(dailySalesRepository, productDailySalesRepository, statusDailySalesRepository);
+    }
+
+    @Test
+    void onOrderStatusChanged_shouldMoveOrderBetweenStatusBuckets() {
+        // Arrange
+        when(salesRollupOrderRepository.moveStatus(10L, "PENDING", "PAID")).thenReturn(1);
+        when(salesRollupOrderRepository.findById(10L))
+                .thenReturn(Optional.of(new SalesRollupOrder(10L, day, "PAID", new BigDecimal("70.00"))));
+
+        // Act
+        salesRollupUpdater.onOrderStatusChanged(new OrderStatusChangedEvent(10L, 1L, "PENDING", "PAID", LocalDateTime.now()));
+
+        // Assert
+        verify(statusDailySalesRepository).increment(day, "PENDING", -1, new BigDecimal("-70.00"));
+        verify(statusDailySalesRepository).increment(day, "PAID", 1, new BigDecimal("70.00"));
+        verifyNoInteractions(dailySalesRepository);
+    }
+
+    @Test
+    void onOrderDeleted_shouldSubtractWhatWasCounted_andDropTheLedgerRow() {
+        // Arrange: counted on its order date, since moved to PAID
+        when(salesRollupOrderRepository.findById(10L))
+                .thenReturn(Optional.of(new SalesRollupOrder(10L, day, "PAID", new BigDecimal("70.00"))));
+        when(salesRollupOrderRepository.deleteOrder(10L)).thenReturn(1);
+
+        // Act
+        salesRollupUpdater.onOrderDeleted(new OrderDeletedEvent(10L, 1L, List.of(
+                new OrderDeletedEvent.Item(100L, 2, Money.parse("40.00")),
+                new OrderDeletedEvent.Item(100L, 1, Money.parse("20.00")),
+                new OrderDeletedEvent.Item(200L, 1, Money.parse("10.00")))));
+
+        // Assert
+        verify(dailySalesRepository).increment(day, -1, -4, new BigDecimal("-70.00"));
+        verify(productDailySalesRepository).increment(day, 100L, -1, -3, new BigDecimal("-60.00"));
+        verify(productDailySalesRepository).increment(day, 200L, -1, -1, new BigDecimal("-10.00"));
+        verify(statusDailySalesRepository).increment(day, "PAID", -1, new BigDecimal("-70.00"));
+    }
+
+    @Test
+    void onOrderDeleted_shouldDoNothing_whenOrderIsNotCounted() {
+        // Arrange: a redelivery, or an order deleted before the rollups ever saw it
+        when(salesRollupOrderRepository.findById(10L)).thenReturn(Optional.empty());
+
+        // Act
+        salesRollupUpdater.onOrderDeleted(new OrderDeletedEvent(10L, 1L, List.of()));
+
+        // Assert
+        verify(salesRollupOrderRepository, never()).deleteOrder(any());
+        verifyNoInteractions(dailySalesRepository, productDailySalesRepository, statusDailySalesRepository);
+    }
+
+    @Test
+    void onOrderStatusChanged_shouldDoNothing_whenChangeWasAlreadyApplied() {
+        // Arrange
+        when(salesRollupOrderRepository.moveStatus(10L, "PENDING", "PAID")).thenReturn(0);
+
+        // Act
+        salesRollupUpdater.onOrderStatusChanged(new OrderStatusChangedEvent(10L, 1L, "PENDING", "PAID", LocalDateTime.now()));
+
+        // Assert
+        verifyNoInteractions(statusDailySalesRepository);
+    }
+
+    @Test
+    void submitRebuild_shouldSwapLedgerAndRollupsTogether_whenAllChunksSucceed() throws Exception {
+        // Arrange
+        when(orderRepository.findMaxId()).thenReturn(1L);
+
+        // Act
+        SalesRollupRebuildJobDTO job = awaitRebuild(salesRollupUpdater.submitRebuild().getJobId());
+
+        // Assert
+        assertEquals(SalesRollupRebuildJobDTO.State.COMPLETED, job.getState());
+        assertEquals(1, job.getChunks());
+        InOrder inOrder = inOrder(salesRollupOrderRepository, dailySalesRepository, transactionManager);
+        inOrder.verify(salesRollupOrderRepository).deleteRebuildRows();
+        inOrder.verify(salesRollupOrderRepository).deleteAllRows();
+        inOrder.verify(salesRollupOrderRepository).copyRebuildRows();
+        inOrder.verify(dailySalesRepository).deleteAllRows(); // Same transaction as the ledger swap
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void submitRebuild_shouldKeepApplyingEvents_andReplayThemOntoTheRebuiltTables() throws Exception {
+        // Arrange: the rebuild is stuck reading its chunk when an order event arrives
+        when(orderRepository.findMaxId()).thenReturn(1L);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch releaseRead = new CountDownLatch(1);
+        doAnswer(inv -> {
+            reading.countDown();
+            releaseRead.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id,"), any(RowCallbackHandler.class), anyLong(), anyLong());
+        when(salesRollupOrderRepository.insertIfAbsent(10L, day, "PENDING", new BigDecimal("70.00"))).thenReturn(1);
+
+        // Act
+        String jobId = salesRollupUpdater.submitRebuild().getJobId();
+        assertTrue(reading.await(2, TimeUnit.SECONDS));
+        salesRollupUpdater.onOrderPlaced(placedEvent()); // Returns without waiting for the rebuild
+        releaseRead.countDown();
+        SalesRollupRebuildJobDTO job = awaitRebuild(jobId);
+
+        // Assert: applied live, then again after the swap (the rebuild never read this order)
+        assertEquals(SalesRollupRebuildJobDTO.State.COMPLETED, job.getState());
+        InOrder inOrder = inOrder(salesRollupOrderRepository, dailySalesRepository);
+        inOrder.verify(salesRollupOrderRepository).insertIfAbsent(10L, day, "PENDING", new BigDecimal("70.00"));
+        inOrder.verify(salesRollupOrderRepository).copyRebuildRows();
+        inOrder.verify(dailySalesRepository).deleteAllRows();
+        inOrder.verify(salesRollupOrderRepository).insertIfAbsent(10L, day, "PENDING", new BigDecimal("70.00"));
+        inOrder.verify(dailySalesRepository).increment(day, 1, 4, new BigDecimal("70.00"));
+    }
+
+    @Test
+    void submitRebuild_shouldLeaveLedgerAndRollupsUntouched_whenAChunkFails() throws Exception {
+        // Arrange
+        when(orderRepository.findMaxId()).thenReturn(1L);
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyLong(), anyLong());
+
+        // Act
+        SalesRollupRebuildJobDTO job = awaitRebuild(salesRollupUpdater.submitRebuild().getJobId());
+
+        // Assert
+        assertEquals(SalesRollupRebuildJobDTO.State.FAILED, job.getState());
+        assertTrue(job.getError().contains("connection lost"));
+        verify(salesRollupOrderRepository, never()).deleteAllRows();
+        verify(salesRollupOrderRepository, never()).copyRebuildRows();
+        verifyNoInteractions(dailySalesRepository, productDailySalesRepository, statusDailySalesRepository);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.auth.refresh.RefreshTokenService;
+import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.order.event.OrderDeletedEvent;
+import com.example.ecommerce.ecom_backend.order.event.OrderEventPublisher;
+import com.example.ecommerce.ecom_backend.order.readmodel.OrderHistoryCache;
+import com.example.ecommerce.ecom_backend.user.deletion.UserDeletionRepository;
+import com.example.ecommerce.ecom_backend.user.deletion.UserDeletionService;
+import com.example.ecommerce.ecom_backend.user.dto.UserDeletionJobDTO;
+import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserDeletionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDeletionRepository userDeletionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private OrderHistoryCache orderHistoryCache;
+
+    @Mock
+    private OrderEventPublisher orderEventPublisher;
+
+    private UserDeletionService userDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        userDeletionService = new UserDeletionService(userRepository, userDeletionRepository, transactionTemplate,
+                refreshTokenService, orderHistoryCache, orderEventPublisher, 2, 0, 10);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(userRepository.existsById(7L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userDeletionService.shutdown();
+    }
+
+    private UserDeletionJobDTO awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            UserDeletionJobDTO job = userDeletionService.getJob(jobId);
+            if (job.getState() == UserDeletionJobDTO.State.COMPLETED || job.getState() == UserDeletionJobDTO.State.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Deletion job did not finish");
+    }
+
+    @Test
+    void submit_shouldDeleteInKeysetChunks_childrenBeforeTheUser() throws Exception {
+        // Arrange: three cart lines and three orders, in chunks of two
+        when(userDeletionRepository.findCartItemIds(7L, 0L, 2)).thenReturn(List.of(1L, 2L));
+        when(userDeletionRepository.findCartItemIds(7L, 2L, 2)).thenReturn(List.of(3L));
+        when(userDeletionRepository.deleteCartItems(any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        when(userDeletionRepository.findOrderIds(7L, 0L, 2)).thenReturn(List.of(10L, 11L));
+        when(userDeletionRepository.findOrderIds(7L, 11L, 2)).thenReturn(List.of(12L));
+        when(userDeletionRepository.deleteOrders(any())).thenAnswer(invocation ->
+                new int[]{invocation.<List<?>>getArgument(0).size(), 5});
+        when(userDeletionRepository.describeOrders(any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .stream().map(id -> new OrderDeletedEvent(id, 7L, List.of())).toList());
+        when(userDeletionRepository.deleteUser(7L)).thenReturn(true);
+
+        // Act
+        UserDeletionJobDTO submitted = userDeletionService.submit(7L);
+        UserDeletionJobDTO job = awaitFinished(submitted.getJobId());
+
+        // Assert
+        assertEquals(UserDeletionJobDTO.State.COMPLETED, job.getState());
+        assertEquals(3, job.getCartItemsDeleted());
+        assertEquals(3, job.getOrdersDeleted());
+        assertEquals(10, job.getOrderItemsDeleted());
+        assertEquals(4, job.getChunks());
+        assertNotNull(job.getFinishedAt());
+        InOrder inOrder = inOrder(refreshTokenService, userDeletionRepository, orderHistoryCache);
+        inOrder.verify(refreshTokenService).revokeAll(7L);
+        inOrder.verify(userDeletionRepository, times(2)).deleteCartItems(any());
+        inOrder.verify(userDeletionRepository).deleteCarts(7L);
+        inOrder.verify(userDeletionRepository, times(2)).deleteOrders(any());
+        inOrder.verify(userDeletionRepository).deleteUser(7L);
+        // Each chunk's events are written with its deletes, one per order
+        verify(orderEventPublisher).ordersDeleted(argThat(events -> events.size() == 2));
+        verify(orderEventPublisher).ordersDeleted(argThat(events -> events.size() == 1
+                && events.get(0).getOrderId().equals(12L)));
+        inOrder.verify(orderHistoryCache).invalidate(7L);
+    }
+
+    @Test
+    void submit_shouldPurgeAgain_whenAnOrderSlippedInMeanwhile() throws Exception {
+        // Arrange: an order shows up after the first pass, so the user row is still referenced once
+        when(userDeletionRepository.findCartItemIds(anyLong(), anyLong(), anyInt())).thenReturn(List.of());
+        when(userDeletionRepository.findOrderIds(7L, 0L, 2)).thenReturn(List.of(), List.of(20L));
+        when(userDeletionRepository.deleteOrders(List.of(20L))).thenReturn(new int[]{1, 1});
+        when(userDeletionRepository.deleteUser(7L)).thenThrow(new DataIntegrityViolationException("fk")).thenReturn(true);
+
+        // Act
+        UserDeletionJobDTO job = awaitFinished(userDeletionService.submit(7L).getJobId());
+
+        // Assert
+        assertEquals(UserDeletionJobDTO.State.COMPLETED, job.getState());
+        assertEquals(1, job.getOrdersDeleted());
+        verify(userDeletionRepository, times(2)).deleteUser(7L);
+    }
+
+    @Test
+    void submit_shouldReject_unknownUsers() {
+        assertThrows(ResourceNotFoundException.class, () -> userDeletionService.submit(8L));
+        assertThrows(ResourceNotFoundException.class, () -> userDeletionService.getJob("nope"));
+        verify(userDeletionRepository, never()).deleteUser(eq(8L));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ecommerce.ecom_backend.services;
+
+import com.example.ecommerce.ecom_backend.common.exception.PayloadTooLargeException;
+import com.example.ecommerce.ecom_backend.user.dto.UserImportJobDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserImportResultDTO;
+import com.example.ecommerce.ecom_backend.user.importer.UserImportFormat;
+import com.example.ecommerce.ecom_backend.user.importer.UserImportRepository;
+import com.example.ecommerce.ecom_backend.user.importer.UserImportService;
+import com.example.ecommerce.ecom_backend.user.registry.RoleRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    @Mock
+    private UserImportRepository userImportRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userImportRepository, passwordEncoder, roleRegistry,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate, new ObjectMapper(), 2, 100, 1024, 10);
+        lenient().when(roleRegistry.findId("ROLE_USER")).thenReturn(Optional.of(1L));
+        lenient().when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    private UserImportResultDTO importCsv(String csv) {
+        return userImportService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportFormat.CSV);
+    }
+
+    @Test
+    void importUsers_shouldInsertInChunks_andSkipInvalidAndDuplicateRows() {
+        // Arrange: taken@x.com is already registered
+        when(userImportRepository.findExistingEmails(anyCollection())).thenReturn(Set.of(), Set.of("taken@x.com"));
+        when(userImportRepository.findIdsByEmail(anyCollection())).thenReturn(Map.of("a@x.com", 10L, "b@x.com", 11L), Map.of("c@x.com", 12L));
+
+        // Act
+        UserImportResultDTO result = importCsv("""
+                first_name,last_name,email,password
+                Ann,A,a@x.com,secret1
+                Bob,B,b@x.com,secret2
+                Bob,B,B@x.com,secret2
+                Bad,Row,not-an-email,secret3
+                "Cat, Jr.",C,c@x.com,secret4
+                Tom,T,taken@x.com,secret5
+                """);
+
+        // Assert
+        assertEquals(6, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getDuplicates()); // Repeated in the file + already registered
+        assertEquals(1, result.getInvalid());
+        assertEquals(List.of("line 5: Email should be valid"), result.getErrors());
+
+        ArgumentCaptor<List<UserImportRepository.NewUser>> users = ArgumentCaptor.captor();
+        verify(userImportRepository, times(2)).insertUsers(users.capture(), any());
+        assertEquals(new UserImportRepository.NewUser("c@x.com", "c@x.com", "hash:secret4", "Cat, Jr.", "C"),
+                users.getAllValues().get(1).get(0));
+        verify(userImportRepository).insertUserRoles(argThat(ids -> ids.size() == 1 && ids.contains(12L)), eq(1L));
+        verify(userImportRepository, times(2)).insertUserRoles(anyCollection(), eq(1L));
+    }
+
+    @Test
+    void importUsers_shouldReadNdjson_andReportUnparseableLines() {
+        // Arrange
+        when(userImportRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userImportRepository.findIdsByEmail(anyCollection())).thenReturn(Map.of("a@x.com", 10L));
+
+        // Act
+        UserImportResultDTO result = userImportService.importUsers(new ByteArrayInputStream("""
+                {"email":"a@x.com","password":"secret1","firstName":"Ann","lastName":"A","extra":true}
+                {"email":
+                """.getBytes(StandardCharsets.UTF_8)), UserImportFormat.NDJSON);
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getInvalid());
+        assertTrue(result.getErrors().get(0).startsWith("line 2: not a JSON object"));
+    }
+
+    @Test
+    void submit_shouldAnswerBeforeImporting_andReportTheResultOnTheJob() throws Exception {
+        // Arrange
+        when(userImportRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userImportRepository.findIdsByEmail(anyCollection())).thenReturn(Map.of("a@x.com", 10L));
+
+        // Act
+        UserImportJobDTO submitted = userImportService.submit(new ByteArrayInputStream("""
+                first_name,last_name,email,password
+                Ann,A,a@x.com,secret1
+                """.getBytes(StandardCharsets.UTF_8)), UserImportFormat.CSV);
+
+        // Assert
+        assertNotEquals(UserImportJobDTO.State.FAILED, submitted.getState());
+        UserImportJobDTO job = submitted;
+        for (int i = 0; i < 500 && job.getState() != UserImportJobDTO.State.COMPLETED
+                && job.getState() != UserImportJobDTO.State.FAILED; i++) {
+            Thread.sleep(10);
+            job = userImportService.getJob(submitted.getJobId());
+        }
+        assertEquals(UserImportJobDTO.State.COMPLETED, job.getState());
+        assertEquals(1, job.getResult().getImported());
+    }
+
+    @Test
+    void submit_shouldRejectUploadsOverTheSizeLimit() {
+        byte[] body = new byte[2048]; // Limit is 1024 here
+
+        assertThrows(PayloadTooLargeException.class,
+                () -> userImportService.submit(new ByteArrayInputStream(body), UserImportFormat.CSV));
+        verifyNoInteractions(userImportRepository);
+    }
+}
@@ -3,11 +3,16 @@ package com.example.ecommerce.ecom_backend.services;
 import com.example.ecommerce.ecom_backend.auth.dto.UserRegistrationRequest;
 import com.example.ecommerce.ecom_backend.common.exception.DuplicateEmailException;
 import com.example.ecommerce.ecom_backend.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.ecom_backend.common.pagination.TextKeysetCursor;
+import com.example.ecommerce.ecom_backend.user.dto.AdminUserPageDTO;
 import com.example.ecommerce.ecom_backend.user.dto.UserResponseDTO;
+import com.example.ecommerce.ecom_backend.user.dto.UserSearchCriteria;
 import com.example.ecommerce.ecom_backend.user.dto.UserUpdateDTO;
 import com.example.ecommerce.ecom_backend.user.model.Role;
 import com.example.ecommerce.ecom_backend.user.model.User;
+import com.example.ecommerce.ecom_backend.user.registry.RoleRegistry;
 import com.example.ecommerce.ecom_backend.user.repository.RoleRepository;
+import com.example.ecommerce.ecom_backend.user.repository.UserListingRepository;
 import com.example.ecommerce.ecom_backend.user.repository.UserRepository;
 import com.example.ecommerce.ecom_backend.user.service.UserService;
 import com.example.ecommerce.ecom_backend.user.service.UserServiceImpl;
@@ -19,10 +24,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +47,12 @@ public class UserServiceTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private UserListingRepository userListingRepository;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -48,7 +64,7 @@ public class UserServiceTest {
                 .firstName("John")
                 .lastName("Doe")
                 .build();
-        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(new Role()));
+        when(roleRegistry.find("ROLE_USER")).thenReturn(Optional.of(new Role(1L, "ROLE_USER")));
         when(passwordEncoder.encode(registrationRequest.getPassword())).thenReturn("encodedPassword");
 
         //ACTION
@@ -164,4 +180,46 @@ public class UserServiceTest {
 
         verifyNoMoreInteractions(userRepository);
     }
+
+    @Test
+    void searchUsers_shouldReturnOnePage_withCursorFromLastRow_andRolesInOneQuery() {
+        UserResponseDTO alice = new UserResponseDTO(1L, "alice", "alice@example.com", "Alice", "A", null, null, null);
+        UserResponseDTO alina = new UserResponseDTO(5L, "alina", "alina@example.com", "Alina", "B", null, null, null);
+        UserResponseDTO alma = new UserResponseDTO(9L, "alma", "alma@example.com", "Alma", "C", null, null, null);
+        UserSearchCriteria expected = new UserSearchCriteria("ali", UserSearchCriteria.Field.EMAIL, "ROLE_USER");
+        when(roleRegistry.findId("ROLE_USER")).thenReturn(Optional.of(1L));
+        when(userListingRepository.findPage(eq(expected), eq(1L), any(), eq(3))).thenReturn(List.of(alice, alina, alma));
+        when(userListingRepository.findRoleNames(List.of(1L, 5L))).thenReturn(Map.of(1L, Set.of("ROLE_USER")));
+
+        AdminUserPageDTO page = userService.searchUsers(new UserSearchCriteria(" ali ", UserSearchCriteria.Field.EMAIL, "user"), null, 2);
+
+        assertEquals(List.of(alice, alina), page.getUsers());
+        assertEquals(Set.of("ROLE_USER"), alice.getRoles());
+        assertEquals(Set.of(), alina.getRoles());
+        TextKeysetCursor next = TextKeysetCursor.decode(page.getNextCursor());
+        assertEquals("alina@example.com", next.getKey());
+        assertEquals(5L, next.getId());
+    }
+
+    @Test
+    void searchUsers_shouldOmitCursor_onLastPage() {
+        UserResponseDTO alice = new UserResponseDTO(1L, "alice", "alice@example.com", "Alice", "A", null, null, null);
+        when(userListingRepository.findPage(any(), isNull(), any(), eq(51))).thenReturn(List.of(alice));
+        when(userListingRepository.findRoleNames(List.of(1L))).thenReturn(Map.of());
+
+        AdminUserPageDTO page = userService.searchUsers(new UserSearchCriteria(), null, 50);
+
+        assertEquals(1, page.getUsers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void searchUsers_shouldReturnEmptyPage_forUnknownRole_withoutQuerying() {
+        when(roleRegistry.findId("ROLE_NOBODY")).thenReturn(Optional.empty());
+
+        AdminUserPageDTO page = userService.searchUsers(new UserSearchCriteria(null, UserSearchCriteria.Field.EMAIL, "nobody"), null, 50);
+
+        assertTrue(page.getUsers().isEmpty());
+        verifyNoInteractions(userListingRepository);
+    }
 }